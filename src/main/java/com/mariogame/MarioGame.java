@@ -12,6 +12,7 @@ import com.mariogame.managers.InputManager;
 import com.mariogame.managers.SaveManager;
 import com.mariogame.managers.ScreenManager;
 import com.mariogame.screens.ScreenType;
+import com.mariogame.utils.StartupTimer;
 
 /**
  * Classe principale du jeu Mario.
@@ -32,13 +33,20 @@ public class MarioGame extends Game {
     // Configuration
     private GameConfig config;
     
+    // Mesure du démarrage jusqu'au menu
+    private StartupTimer startupTimer;
+    
     @Override
     public void create() {
+        startupTimer = new StartupTimer();
+        
         // Initialisation des gestionnaires
         initManagers();
+        startupTimer.mark("managers");
         
         // Chargement des ressources
         loadAssets();
+        startupTimer.mark("essential assets");
         
         // Configuration initiale
         setupGame();
@@ -94,6 +102,10 @@ public class MarioGame extends Game {
         if (screenManager != null) {
             screenManager.render(Gdx.graphics.getDeltaTime());
         }
+        
+        if (!startupTimer.isMarked(StartupTimer.FIRST_FRAME)) {
+            startupTimer.mark(StartupTimer.FIRST_FRAME);
+        }
     }
     
     @Override
@@ -153,4 +165,8 @@ public class MarioGame extends Game {
     public GameConfig getConfig() {
         return config;
     }
+    
+    public StartupTimer getStartupTimer() {
+        return startupTimer;
+    }
 }
@@ -20,6 +20,7 @@ public class GameConfig {
     // Paramètres de jeu
     private boolean debugMode;
     private String language;
+    private int physicsRate;
     
     // Référence aux préférences
     private final Preferences prefs;
@@ -49,6 +50,8 @@ public class GameConfig {
         // Paramètres de jeu
         debugMode = prefs.getBoolean(Constants.Preferences.DEBUG_MODE, false);
         language = prefs.getString(Constants.Preferences.LANGUAGE, "en");
+        setPhysicsRate(prefs.getInteger(Constants.Preferences.PHYSICS_RATE,
+            Constants.Preferences.Defaults.PHYSICS_RATE));
     }
     
     /**
@@ -68,6 +71,7 @@ public class GameConfig {
         // Paramètres de jeu
         prefs.putBoolean(Constants.Preferences.DEBUG_MODE, debugMode);
         prefs.putString(Constants.Preferences.LANGUAGE, language);
+        prefs.putInteger(Constants.Preferences.PHYSICS_RATE, physicsRate);
         
         // Sauvegarder les modifications
         prefs.flush();
@@ -149,6 +153,25 @@ public class GameConfig {
         this.language = language;
     }
     
+    /**
+     * Fréquence des pas physiques, en Hz. 30 Hz allège le processeur des machines
+     * modestes ; l'interpolation garde un rendu fluide.
+     */
+    public int getPhysicsRate() {
+        return physicsRate;
+    }
+    
+    public void setPhysicsRate(int physicsRate) {
+        this.physicsRate = Math.max(30, Math.min(120, physicsRate));
+    }
+    
+    /**
+     * Durée d'un pas physique fixe, en secondes.
+     */
+    public float getPhysicsTimeStep() {
+        return 1f / physicsRate;
+    }
+    
     /**
      * Réinitialise la configuration aux valeurs par défaut
      */
@@ -162,6 +185,7 @@ public class GameConfig {
         soundVolume = 0.8f;
         debugMode = false;
         language = "en";
+        physicsRate = Constants.Preferences.Defaults.PHYSICS_RATE;
         
         // Sauvegarder les modifications
         save();
@@ -0,0 +1,367 @@
+package com.mariogame.core;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Cache de ressources organisé en groupes (un par niveau, un par écran...).
+ * Un groupe acquis est chargé et compté ; relâché, il reste en mémoire tant que
+ * le budget de sa catégorie le permet, puis est évincé du moins récemment utilisé
+ * au plus récent. Les groupes épinglés (ressources essentielles) ne sont jamais évincés.
+ * Une ressource partagée par plusieurs groupes n'est chargée qu'une fois et n'est
+ * déchargée qu'avec le dernier groupe résident qui la contient.
+ * La mémoire chargée hors du cache (la carte du niveau, lue par le GameWorld) peut
+ * lui être imputée : elle compte dans le budget de sa catégorie sans être évinçable.
+ */
+public class AssetCache {
+    /**
+     * Catégories de ressources, chacune avec son propre budget mémoire.
+     */
+    public enum Category {
+        TEXTURE, AUDIO, MAP
+    }
+    
+    /**
+     * Charge, décharge et mesure les ressources (AssetManager en jeu).
+     */
+    public interface Backend {
+        void load(String path, Class<?> type);
+        
+        void unload(String path);
+        
+        boolean isLoaded(String path);
+        
+        /**
+         * Taille estimée en mémoire d'une ressource chargée, en octets.
+         */
+        long sizeOf(String path, Class<?> type);
+        
+        Category categoryOf(Class<?> type);
+    }
+    
+    private static final long UNKNOWN = -1;
+    
+    private final Backend backend;
+    private final ObjectMap<String, Group> groups = new ObjectMap<>();
+    private final ObjectMap<String, Asset> assets = new ObjectMap<>();
+    private final ObjectMap<String, Asset> charges = new ObjectMap<>();
+    
+    // Groupes résidents sans référence, du moins récemment relâché au plus récent
+    private final Array<Group> idle = new Array<>();
+    
+    private final long[] budgets = new long[Category.values().length];
+    private final long[] residentBytes = new long[Category.values().length];
+    
+    // Statistiques
+    private int hits = 0;
+    private int misses = 0;
+    private int evictions = 0;
+    
+    public AssetCache(Backend backend) {
+        this.backend = backend;
+        for (int i = 0; i < budgets.length; i++) {
+            budgets[i] = Long.MAX_VALUE;
+        }
+    }
+    
+    /**
+     * Déclare (ou complète) un groupe de ressources.
+     */
+    public void declare(String groupName, String path, Class<?> type) {
+        Group group = groups.get(groupName);
+        if (group == null) {
+            group = new Group();
+            groups.put(groupName, group);
+        }
+        if (group.resident) {
+            throw new IllegalStateException("Cannot change resident group: " + groupName);
+        }
+        group.paths.add(path);
+        group.types.add(type);
+    }
+    
+    /**
+     * Acquiert un groupe : ses ressources sont chargées si elles ne sont pas déjà résidentes.
+     */
+    public void acquire(String groupName) {
+        Group group = getGroup(groupName);
+        
+        if (group.resident) {
+            if (group.references == 0) {
+                idle.removeValue(group, true);
+                hits++;
+            }
+        } else {
+            misses++;
+            group.resident = true;
+            for (int i = 0; i < group.paths.size; i++) {
+                retain(group.paths.get(i), group.types.get(i));
+            }
+        }
+        group.references++;
+    }
+    
+    /**
+     * Relâche un groupe. Il reste résident jusqu'à ce que le budget impose son éviction.
+     */
+    public void release(String groupName) {
+        Group group = getGroup(groupName);
+        if (group.references == 0) {
+            throw new IllegalStateException("Group not acquired: " + groupName);
+        }
+        
+        if (--group.references == 0) {
+            idle.add(group);
+            enforceBudgets();
+        }
+    }
+    
+    /**
+     * Épingle un groupe : il n'est jamais évincé, même relâché.
+     */
+    public void pin(String groupName, boolean pinned) {
+        getGroup(groupName).pinned = pinned;
+        if (!pinned) enforceBudgets();
+    }
+    
+    /**
+     * Mesure les ressources dont le chargement s'est terminé, puis évince les
+     * groupes relâchés tant qu'une catégorie dépasse son budget.
+     * À appeler après chaque mise à jour du chargeur.
+     */
+    public void update() {
+        for (Asset asset : assets.values()) {
+            if (asset.bytes == UNKNOWN && backend.isLoaded(asset.path)) {
+                asset.bytes = backend.sizeOf(asset.path, asset.type);
+                residentBytes[asset.category.ordinal()] += asset.bytes;
+            }
+        }
+        enforceBudgets();
+    }
+    
+    private void enforceBudgets() {
+        for (Category category : Category.values()) {
+            int index = 0;
+            while (residentBytes[category.ordinal()] > budgets[category.ordinal()] && index < idle.size) {
+                Group group = idle.get(index);
+                if (!group.pinned && group.getExclusiveBytes(category) > 0) {
+                    // Le plus ancien groupe relâché dont l'éviction libère de la place dans la catégorie
+                    idle.removeIndex(index);
+                    evict(group);
+                } else {
+                    index++;
+                }
+            }
+        }
+    }
+    
+    private void evict(Group group) {
+        group.resident = false;
+        for (int i = 0; i < group.paths.size; i++) {
+            releaseAsset(group.paths.get(i));
+        }
+        evictions++;
+    }
+    
+    private void retain(String path, Class<?> type) {
+        Asset asset = assets.get(path);
+        if (asset == null) {
+            asset = new Asset(path, type, backend.categoryOf(type));
+            assets.put(path, asset);
+            backend.load(path, type);
+        }
+        asset.groups++;
+    }
+    
+    private void releaseAsset(String path) {
+        Asset asset = assets.get(path);
+        if (--asset.groups > 0) return;
+        
+        assets.remove(path);
+        if (asset.bytes != UNKNOWN) {
+            residentBytes[asset.category.ordinal()] -= asset.bytes;
+        }
+        backend.unload(path);
+    }
+    
+    /**
+     * Impute au budget d'une catégorie une ressource chargée hors du cache.
+     * Une nouvelle imputation sous la même clé remplace la précédente.
+     * @param key Identifiant de la ressource (par exemple la carte du niveau courant)
+     * @param bytes Taille estimée en mémoire, en octets
+     */
+    public void charge(String key, Category category, long bytes) {
+        discharge(key);
+        Asset charge = new Asset(key, null, category);
+        charge.bytes = bytes;
+        charges.put(key, charge);
+        residentBytes[category.ordinal()] += bytes;
+        enforceBudgets();
+    }
+    
+    /**
+     * Retire une imputation faite par {@link #charge}.
+     */
+    public void discharge(String key) {
+        Asset charge = charges.remove(key);
+        if (charge != null) {
+            residentBytes[charge.category.ordinal()] -= charge.bytes;
+        }
+    }
+    
+    /**
+     * Évince tous les groupes et oublie les ressources, sans décharger
+     * (le chargeur a déjà tout vidé). Les imputations externes sont conservées.
+     */
+    public void reset() {
+        for (Group group : groups.values()) {
+            group.resident = false;
+            group.references = 0;
+        }
+        idle.clear();
+        assets.clear();
+        for (int i = 0; i < residentBytes.length; i++) {
+            residentBytes[i] = 0;
+        }
+        for (Asset charge : charges.values()) {
+            residentBytes[charge.category.ordinal()] += charge.bytes;
+        }
+    }
+    
+    private Group getGroup(String groupName) {
+        Group group = groups.get(groupName);
+        if (group == null) {
+            throw new IllegalArgumentException("Unknown asset group: " + groupName);
+        }
+        return group;
+    }
+    
+    // Budgets et statistiques
+    
+    /**
+     * @param bytes Mémoire maximale des ressources résidentes de la catégorie
+     */
+    public void setBudget(Category category, long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Budget cannot be negative");
+        }
+        budgets[category.ordinal()] = bytes;
+        enforceBudgets();
+    }
+    
+    public long getBudget(Category category) {
+        return budgets[category.ordinal()];
+    }
+    
+    /**
+     * Mémoire des ressources résidentes d'une catégorie (chaque ressource comptée une fois).
+     */
+    public long getResidentBytes(Category category) {
+        return residentBytes[category.ordinal()];
+    }
+    
+    /**
+     * Mémoire des ressources résidentes d'un groupe (les ressources partagées
+     * sont comptées dans chacun de leurs groupes), 0 s'il n'est pas résident.
+     */
+    public long getResidentBytes(String groupName) {
+        Group group = getGroup(groupName);
+        long bytes = 0;
+        for (Category category : Category.values()) {
+            bytes += group.getResidentBytes(category);
+        }
+        return bytes;
+    }
+    
+    /**
+     * Une catégorie dépasse-t-elle son budget faute de groupe évinçable ?
+     */
+    public boolean isOverBudget(Category category) {
+        return residentBytes[category.ordinal()] > budgets[category.ordinal()];
+    }
+    
+    public boolean hasGroup(String groupName) {
+        return groups.containsKey(groupName);
+    }
+    
+    public boolean isResident(String groupName) {
+        return getGroup(groupName).resident;
+    }
+    
+    public int getReferences(String groupName) {
+        return getGroup(groupName).references;
+    }
+    
+    public Array<String> getGroupNames() {
+        return groups.keys().toArray();
+    }
+    
+    /**
+     * Acquisitions servies par un groupe encore résident.
+     */
+    public int getHitCount() {
+        return hits;
+    }
+    
+    /**
+     * Acquisitions qui ont dû charger le groupe.
+     */
+    public int getMissCount() {
+        return misses;
+    }
+    
+    public int getEvictionCount() {
+        return evictions;
+    }
+    
+    private class Group {
+        final Array<String> paths = new Array<>();
+        final Array<Class<?>> types = new Array<>();
+        int references = 0;
+        boolean resident = false;
+        boolean pinned = false;
+        
+        long getResidentBytes(Category category) {
+            if (!resident) return 0;
+            
+            long bytes = 0;
+            for (String path : paths) {
+                Asset asset = assets.get(path);
+                if (asset != null && asset.category == category && asset.bytes != UNKNOWN) {
+                    bytes += asset.bytes;
+                }
+            }
+            return bytes;
+        }
+        
+        /**
+         * Mémoire libérée par l'éviction du groupe : ressources qu'aucun autre groupe résident ne partage.
+         */
+        long getExclusiveBytes(Category category) {
+            if (!resident) return 0;
+            
+            long bytes = 0;
+            for (String path : paths) {
+                Asset asset = assets.get(path);
+                if (asset != null && asset.groups == 1 && asset.category == category && asset.bytes != UNKNOWN) {
+                    bytes += asset.bytes;
+                }
+            }
+            return bytes;
+        }
+    }
+    
+    private static class Asset {
+        final String path;
+        final Class<?> type;
+        final Category category;
+        long bytes = UNKNOWN;
+        int groups = 0;
+        
+        Asset(String path, Class<?> type, Category category) {
+            this.path = path;
+            this.type = type;
+            this.category = category;
+        }
+    }
+}
@@ -10,19 +10,26 @@ import com.badlogic.gdx.assets.loaders.SoundLoader;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 // FreeType support (nécessite gdx-freetype extension)
 // import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 // import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
 // import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
+import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.Logger;
+import com.badlogic.gdx.utils.ObjectSet;
 
 /**
  * Gestionnaire de chargement des ressources du jeu.
@@ -83,6 +90,22 @@ public class AssetLoader extends AssetManager implements Disposable {
     public static final String LEVEL_1_1 = MAPS_DIR + "1-1" + TMX_EXTENSION;
     public static final String LEVEL_1_2 = MAPS_DIR + "1-2" + TMX_EXTENSION;
     
+    // Groupes de ressources
+    public static final String GROUP_ESSENTIALS = "essentials";
+    public static final String GROUP_SCREEN_MENU = "screen:menu";
+    private static final String LEVEL_GROUP_PREFIX = "level:";
+    
+    // Budgets mémoire par défaut des ressources résidentes
+    public static final long DEFAULT_TEXTURE_BUDGET = 256L * 1024 * 1024;
+    public static final long DEFAULT_AUDIO_BUDGET = 64L * 1024 * 1024;
+    public static final long DEFAULT_MAP_BUDGET = 32L * 1024 * 1024;
+    
+    // Estimation de la mémoire occupée
+    private static final int COMPRESSED_AUDIO_RATIO = 10; // Un son compressé est décodé en entier
+    private static final long MUSIC_STREAM_BYTES = 64 * 1024; // Une musique est lue en flux
+    private static final int CELL_BYTES = 16;
+    private static final String LEVEL_MAP_CHARGE = "level:map";
+    
     // Polices chargées
     private BitmapFont defaultFont;
     private BitmapFont smallFont;
@@ -91,10 +114,18 @@ public class AssetLoader extends AssetManager implements Disposable {
     
     private static AssetLoader instance;
     
+    private final AssetCache cache = new AssetCache(new ManagerBackend());
+    private final DecodePipeline pipeline = new DecodePipeline(this);
+    
     private AssetLoader() {
         super();
         setupLoaders();
         setErrorListener(new AssetErrorReporter());
+        declareGroups();
+        
+        cache.setBudget(AssetCache.Category.TEXTURE, DEFAULT_TEXTURE_BUDGET);
+        cache.setBudget(AssetCache.Category.AUDIO, DEFAULT_AUDIO_BUDGET);
+        cache.setBudget(AssetCache.Category.MAP, DEFAULT_MAP_BUDGET);
     }
     
     public static synchronized AssetLoader getInstance() {
@@ -113,6 +144,35 @@ public class AssetLoader extends AssetManager implements Disposable {
         
         // Configuration du chargeur de cartes Tiled
         setLoader(TiledMap.class, new TmxMapLoader(resolver));
+        
+        // Textures et sons décodés en parallèle par la file de décodage
+        setLoader(Texture.class, new DecodedTextureLoader(resolver, pipeline));
+        setLoader(Sound.class, new DecodedSoundLoader(resolver, pipeline));
+    }
+    
+    /**
+     * Met une ressource en file et lance aussitôt le décodage de ses données
+     * indépendantes (images, sons) en parallèle, sans attendre son tour dans
+     * l'AssetManager qui charge une ressource à la fois.
+     */
+    @Override
+    public synchronized <T> void load(String fileName, Class<T> type, AssetLoaderParameters<T> parameter) {
+        if (!contains(fileName)) {
+            FileHandle file = getFileHandleResolver().resolve(fileName);
+            if (type == Texture.class) {
+                pipeline.decodePixmap(file);
+            } else if (type == TextureAtlas.class) {
+                pipeline.decodeAtlasPages(file);
+            } else if (type == Sound.class) {
+                pipeline.decodeSound(file);
+            } else if (type == Skin.class && parameter instanceof SkinLoader.SkinParameter) {
+                String atlas = ((SkinLoader.SkinParameter) parameter).textureAtlasPath;
+                if (atlas != null && !contains(atlas)) {
+                    pipeline.decodeAtlasPages(getFileHandleResolver().resolve(atlas));
+                }
+            }
+        }
+        super.load(fileName, type, parameter);
     }
     
     /**
@@ -130,40 +190,116 @@ public class AssetLoader extends AssetManager implements Disposable {
         }
     }
     
+    /**
+     * Déclare les groupes de ressources : les essentiels, utilisés partout, puis
+     * un groupe par écran et par niveau. Une ressource partagée entre groupes
+     * n'est chargée qu'une fois.
+     */
+    private void declareGroups() {
+        cache.declare(GROUP_ESSENTIALS, ATLAS_PLAYER, TextureAtlas.class);
+        cache.declare(GROUP_ESSENTIALS, ATLAS_ITEMS, TextureAtlas.class);
+        cache.declare(GROUP_ESSENTIALS, ATLAS_EFFECTS, TextureAtlas.class);
+        cache.declare(GROUP_ESSENTIALS, SOUND_JUMP, Sound.class);
+        cache.declare(GROUP_ESSENTIALS, SOUND_COIN, Sound.class);
+        cache.declare(GROUP_ESSENTIALS, SOUND_POWERUP, Sound.class);
+        cache.declare(GROUP_ESSENTIALS, SOUND_HURT, Sound.class);
+        cache.declare(GROUP_ESSENTIALS, SOUND_BREAK, Sound.class);
+        cache.declare(GROUP_ESSENTIALS, SOUND_STOMP, Sound.class);
+        cache.declare(GROUP_ESSENTIALS, UI_SKIN, Skin.class);
+        
+        cache.declare(GROUP_SCREEN_MENU, MUSIC_MAIN_THEME, Music.class);
+        
+        declareLevel("1-1", MUSIC_MAIN_THEME);
+        declareLevel("1-2", MUSIC_UNDERGROUND);
+    }
+    
+    /**
+     * Déclare le groupe d'un niveau : sa musique et les atlas du décor et des ennemis.
+     * La carte n'en fait pas partie : GameWorld la charge lui-même, depuis sa
+     * version compilée ou le niveau préchargé par LevelPrefetcher.
+     */
+    public void declareLevel(String levelName, String music) {
+        String group = getLevelGroup(levelName);
+        cache.declare(group, ATLAS_TILES, TextureAtlas.class);
+        cache.declare(group, ATLAS_ENEMIES, TextureAtlas.class);
+        cache.declare(group, music, Music.class);
+    }
+    
+    public static String getLevelGroup(String levelName) {
+        return LEVEL_GROUP_PREFIX + levelName;
+    }
+    
+    /**
+     * Met en file les ressources du démarrage : les essentiels, épinglés pour ne
+     * jamais être évincés, et celles du menu. Les niveaux sont chargés par groupe,
+     * à la demande, via {@link #acquireGroup(String)}.
+     */
     public void loadAll() {
         log.info("Début du chargement des ressources...");
         
         // Chargement des polices
         loadFonts();
         
-        // Chargement des atlas de textures
-        loadAtlas(ATLAS_PLAYER);
-        loadAtlas(ATLAS_ENEMIES);
-        loadAtlas(ATLAS_ITEMS);
-        loadAtlas(ATLAS_TILES);
-        loadAtlas(ATLAS_EFFECTS);
-        
-        // Chargement des sons
-        loadSound(SOUND_JUMP);
-        loadSound(SOUND_COIN);
-        loadSound(SOUND_POWERUP);
-        loadSound(SOUND_HURT);
-        loadSound(SOUND_BREAK);
-        loadSound(SOUND_STOMP);
-        
-        // Chargement des musiques
-        loadMusic(MUSIC_MAIN_THEME);
-        loadMusic(MUSIC_UNDERGROUND);
-        loadMusic(MUSIC_CASTLE);
-        
-        // Chargement des niveaux
-        loadMap(LEVEL_1_1);
-        loadMap(LEVEL_1_2);
+        acquireGroup(GROUP_ESSENTIALS);
+        cache.pin(GROUP_ESSENTIALS, true);
+        acquireGroup(GROUP_SCREEN_MENU);
         
-        // Chargement du skin UI
-        loadSkin(UI_SKIN);
-        
-        log.info("Toutes les ressources ont été mises en file d'attente de chargement.");
+        log.info("Ressources essentielles mises en file d'attente de chargement.");
+    }
+    
+    /**
+     * Acquiert un groupe : ses ressources absentes sont mises en file de chargement.
+     * Chaque acquisition doit être suivie d'un {@link #releaseGroup(String)}.
+     */
+    public void acquireGroup(String group) {
+        cache.acquire(group);
+    }
+    
+    public boolean hasGroup(String group) {
+        return cache.hasGroup(group);
+    }
+    
+    /**
+     * Relâche un groupe : ses ressources restent en mémoire tant que le budget
+     * le permet, puis sont évincées en commençant par les moins récemment utilisées.
+     */
+    public void releaseGroup(String group) {
+        cache.release(group);
+    }
+    
+    /**
+     * Épingle un groupe pour qu'il ne soit jamais évincé.
+     */
+    public void pinGroup(String group, boolean pinned) {
+        cache.pin(group, pinned);
+    }
+    
+    public void setBudget(AssetCache.Category category, long bytes) {
+        cache.setBudget(category, bytes);
+    }
+    
+    /**
+     * Cache des groupes de ressources, pour ses statistiques.
+     */
+    public AssetCache getCache() {
+        return cache;
+    }
+    
+    /**
+     * Journalise la mémoire résidente par catégorie et par groupe.
+     */
+    public void logCacheStats() {
+        for (AssetCache.Category category : AssetCache.Category.values()) {
+            log.info(String.format("%s: %.1f / %.1f MB", category,
+                cache.getResidentBytes(category) / (1024f * 1024f), cache.getBudget(category) / (1024f * 1024f)));
+        }
+        for (String group : cache.getGroupNames()) {
+            if (!cache.isResident(group)) continue;
+            log.info(String.format("  %s: %.1f MB, %d refs", group,
+                cache.getResidentBytes(group) / (1024f * 1024f), cache.getReferences(group)));
+        }
+        log.info("Hits: " + cache.getHitCount() + ", misses: " + cache.getMissCount()
+            + ", evictions: " + cache.getEvictionCount());
     }
     
     private void loadFonts() {
@@ -234,6 +370,20 @@ public class AssetLoader extends AssetManager implements Disposable {
     
     // Méthodes utilitaires
     
+    /**
+     * Poursuit le chargement puis mesure les ressources terminées et applique les budgets.
+     */
+    @Override
+    public synchronized boolean update() {
+        boolean finished = super.update();
+        cache.update();
+        if (finished) {
+            // Plus rien à charger : aucun chargeur ne récupérera les décodages restants
+            pipeline.discardUnclaimed();
+        }
+        return finished;
+    }
+    
     /**
      * Retourne le pourcentage de progression du chargement (0-100).
      */
@@ -250,15 +400,191 @@ public class AssetLoader extends AssetManager implements Disposable {
     
     public void unloadAll() {
         clear();
+        cache.reset();
+        pipeline.discardUnclaimed();
     }
     
     @Override
     public void dispose() {
         log.info("Libération des ressources...");
+        pipeline.dispose();
         super.dispose();
         instance = null;
     }
     
+    /**
+     * Journalise le temps de chargement total puis, ressource par ressource et
+     * de la plus lente à la plus rapide, les temps de décodage (threads de la
+     * file), d'attente du chargeur et d'envoi au GPU (thread de rendu).
+     * Les temps sont ensuite remis à zéro.
+     */
+    public void logLoadTimings(String phase, long elapsedNanos) {
+        Array<DecodePipeline.Job> timings = pipeline.getTimings();
+        timings.sort((a, b) -> Long.compare(
+            b.getDecodeNanos() + b.getUploadNanos(), a.getDecodeNanos() + a.getUploadNanos()));
+        
+        long decodeNanos = 0;
+        for (DecodePipeline.Job job : timings) {
+            decodeNanos += job.getDecodeNanos();
+        }
+        log.info(String.format("%s: %.1f ms (%d ressources décodées, %.1f ms de décodage sur %d threads)",
+            phase, elapsedNanos / 1e6f, timings.size, decodeNanos / 1e6f, pipeline.getWorkerCount()));
+        for (DecodePipeline.Job job : timings) {
+            log.info(String.format("  %-40s %-6s décodage %6.1f ms, attente %6.1f ms, GPU %5.1f ms",
+                job.getPath(), job.getKind(), job.getDecodeNanos() / 1e6f,
+                job.getWaitNanos() / 1e6f, job.getUploadNanos() / 1e6f));
+        }
+        pipeline.clearTimings();
+    }
+    
+    /**
+     * Estime la mémoire occupée par une ressource chargée.
+     */
+    private long estimateBytes(String path, Class<?> type) {
+        if (type == TextureAtlas.class) {
+            long bytes = 0;
+            for (Texture texture : get(path, TextureAtlas.class).getTextures()) {
+                bytes += textureBytes(texture);
+            }
+            return bytes;
+        }
+        if (type == Skin.class) {
+            long bytes = 0;
+            TextureAtlas atlas = get(path, Skin.class).getAtlas();
+            if (atlas != null) {
+                for (Texture texture : atlas.getTextures()) {
+                    bytes += textureBytes(texture);
+                }
+            }
+            return bytes;
+        }
+        if (type == Texture.class) {
+            return textureBytes(get(path, Texture.class));
+        }
+        if (type == Sound.class) {
+            long length = getFileHandleResolver().resolve(path).length();
+            return path.endsWith(WAV_EXTENSION) ? length : length * COMPRESSED_AUDIO_RATIO;
+        }
+        if (type == Music.class) {
+            return MUSIC_STREAM_BYTES;
+        }
+        if (type == TiledMap.class) {
+            // Cellules des calques et textures des tilesets (dépendances de la carte)
+            long bytes = cellBytes(get(path, TiledMap.class));
+            Array<String> dependencies = getDependencies(path);
+            if (dependencies != null) {
+                for (String dependency : dependencies) {
+                    if (getAssetType(dependency) == Texture.class) {
+                        bytes += textureBytes(get(dependency, Texture.class));
+                    }
+                }
+            }
+            return bytes;
+        }
+        return 0;
+    }
+    
+    private static long cellBytes(TiledMap map) {
+        long bytes = 0;
+        for (MapLayer layer : map.getLayers()) {
+            if (layer instanceof TiledMapTileLayer) {
+                TiledMapTileLayer tiles = (TiledMapTileLayer) layer;
+                bytes += (long) tiles.getWidth() * tiles.getHeight() * CELL_BYTES;
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * Taille estimée d'une carte chargée hors de l'AssetManager : cellules des calques
+     * et textures distinctes de ses tilesets.
+     */
+    public static long estimateMapBytes(TiledMap map) {
+        long bytes = cellBytes(map);
+        ObjectSet<Texture> textures = new ObjectSet<>();
+        for (TiledMapTileSet tileSet : map.getTileSets()) {
+            for (TiledMapTile tile : tileSet) {
+                TextureRegion region = tile.getTextureRegion();
+                Texture texture = region != null ? region.getTexture() : null;
+                if (texture != null && textures.add(texture)) {
+                    bytes += textureBytes(texture);
+                }
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * Impute la carte du niveau courant au budget MAP (elle est chargée par le GameWorld,
+     * pas par ce chargeur). Une carte nulle retire l'imputation.
+     */
+    public void chargeLevelMap(TiledMap map) {
+        if (map == null) {
+            cache.discharge(LEVEL_MAP_CHARGE);
+        } else {
+            cache.charge(LEVEL_MAP_CHARGE, AssetCache.Category.MAP, estimateMapBytes(map));
+        }
+    }
+    
+    private static long textureBytes(Texture texture) {
+        int bytesPerPixel;
+        switch (texture.getTextureData().getFormat()) {
+            case Alpha:
+            case Intensity:
+                bytesPerPixel = 1;
+                break;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                bytesPerPixel = 2;
+                break;
+            case RGB888:
+                bytesPerPixel = 3;
+                break;
+            default:
+                bytesPerPixel = 4;
+                break;
+        }
+        return (long) texture.getWidth() * texture.getHeight() * bytesPerPixel;
+    }
+    
+    /**
+     * Relie le cache des groupes à l'AssetManager, qui compte lui-même les
+     * références des ressources et de leurs dépendances.
+     */
+    private class ManagerBackend implements AssetCache.Backend {
+        @Override
+        public void load(String path, Class<?> type) {
+            if (type == Skin.class) {
+                loadSkin(path);
+            } else {
+                AssetLoader.this.load(path, type);
+            }
+        }
+        
+        @Override
+        public void unload(String path) {
+            AssetLoader.this.unload(path);
+        }
+        
+        @Override
+        public boolean isLoaded(String path) {
+            return AssetLoader.this.isLoaded(path);
+        }
+        
+        @Override
+        public long sizeOf(String path, Class<?> type) {
+            return estimateBytes(path, type);
+        }
+        
+        @Override
+        public AssetCache.Category categoryOf(Class<?> type) {
+            if (type == Sound.class || type == Music.class) return AssetCache.Category.AUDIO;
+            if (type == TiledMap.class) return AssetCache.Category.MAP;
+            return AssetCache.Category.TEXTURE;
+        }
+    }
+    
     // Classe interne pour la gestion des erreurs de chargement
     private static class AssetErrorReporter implements AssetErrorListener {
         @Override
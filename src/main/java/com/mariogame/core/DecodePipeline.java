@@ -0,0 +1,270 @@
+package com.mariogame.core;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Décode les ressources indépendantes en parallèle, dès leur mise en file :
+ * images des textures (dont les pages d'atlas) et sons. Les tilesets des
+ * niveaux sont décodés par LevelPrefetcher, qui analyse déjà la carte.
+ * L'AssetManager traite ses ressources une à une sur un seul thread ; ses
+ * chargeurs ({@link DecodedTextureLoader}, {@link DecodedSoundLoader}) n'ont
+ * plus qu'à récupérer un résultat souvent déjà prêt. Seul l'envoi des textures
+ * au GPU reste sur le thread de rendu.
+ */
+public class DecodePipeline implements Disposable {
+    public static final int MAX_WORKERS = 4;
+    
+    private final AssetManager manager;
+    private final ExecutorService executor;
+    private final int workers;
+    
+    // Décodages lancés et pas encore récupérés par un chargeur, par chemin
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+    
+    // Décodages récupérés, pour le rapport des temps de chargement
+    private final Array<Job> claimed = new Array<>();
+    
+    public DecodePipeline(AssetManager manager) {
+        this(manager, Math.max(1, Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+    
+    public DecodePipeline(AssetManager manager, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        this.manager = manager;
+        this.workers = workers;
+        
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "asset-decode-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Lance le décodage d'une image (PNG, JPEG, BMP). Les formats compressés
+     * pour le GPU (KTX, ETC1) restent chargés par le chargeur de textures.
+     */
+    public void decodePixmap(FileHandle file) {
+        String extension = file.extension().toLowerCase();
+        if (!extension.equals("png") && !extension.equals("jpg") && !extension.equals("jpeg")
+            && !extension.equals("bmp")) return;
+        
+        submit(key(file), "pixmap", () -> new Pixmap(file));
+    }
+    
+    /**
+     * Lance le décodage complet d'un son en mémoire.
+     */
+    public void decodeSound(FileHandle file) {
+        submit(key(file), "sound", () -> Gdx.audio.newSound(file));
+    }
+    
+    /**
+     * Lit un atlas sur un thread de décodage, puis lance le décodage de ses
+     * pages qui ne sont pas déjà connues du gestionnaire.
+     */
+    public void decodeAtlasPages(FileHandle atlasFile) {
+        executor.execute(() -> {
+            try {
+                TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(atlasFile, atlasFile.parent(), false);
+                for (TextureAtlas.TextureAtlasData.Page page : data.getPages()) {
+                    decodeDependency(page.textureFile);
+                }
+            } catch (RuntimeException e) {
+                // Le chargeur de l'atlas signalera l'erreur
+                Gdx.app.error("DecodePipeline", "Could not read atlas: " + atlasFile.path(), e);
+            }
+        });
+    }
+    
+    private void decodeDependency(FileHandle file) {
+        // Une texture partagée déjà chargée (ou en cours) n'est pas décodée à nouveau
+        if (!manager.contains(key(file))) {
+            decodePixmap(file);
+        }
+    }
+    
+    /**
+     * Lance un décodage, sauf s'il est déjà en cours pour ce chemin.
+     */
+    void submit(String path, String kind, Callable<Object> decoder) {
+        Job job = new Job(path, kind);
+        job.future = new FutureTask<>(() -> {
+            long start = TimeUtils.nanoTime();
+            Object result = decoder.call();
+            job.decodeNanos = TimeUtils.timeSinceNanos(start);
+            return result;
+        });
+        
+        if (jobs.putIfAbsent(path, job) == null) {
+            executor.execute(job.future);
+        }
+    }
+    
+    /**
+     * Récupère le décodage lancé pour un fichier. Il n'est remis qu'une fois.
+     * @return Le décodage, ou null s'il n'a pas été lancé
+     */
+    public Job claim(FileHandle file) {
+        return claim(key(file));
+    }
+    
+    Job claim(String path) {
+        Job job = jobs.remove(path);
+        if (job != null) {
+            synchronized (claimed) {
+                claimed.add(job);
+            }
+        }
+        return job;
+    }
+    
+    /**
+     * Abandonne les décodages que plus aucun chargeur ne récupérera (ressource
+     * déchargée avant son chargement, texture partagée déjà chargée...) et
+     * libère leurs résultats. À appeler quand le gestionnaire n'a plus rien à charger.
+     */
+    public void discardUnclaimed() {
+        if (jobs.isEmpty()) return;
+        
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            Job job = iterator.next();
+            iterator.remove();
+            // Annulé s'il n'a pas commencé ; sinon libéré à la fin du décodage
+            job.future.cancel(false);
+            disposeLater(job.future);
+        }
+    }
+    
+    private void disposeLater(Future<Object> future) {
+        executor.execute(() -> {
+            try {
+                Object result = future.get();
+                if (result instanceof Disposable) ((Disposable) result).dispose();
+            } catch (CancellationException | ExecutionException e) {
+                // Rien n'a été décodé
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+    
+    /**
+     * Nombre de décodages lancés et pas encore récupérés.
+     */
+    public int getPendingCount() {
+        return jobs.size();
+    }
+    
+    public int getWorkerCount() {
+        return workers;
+    }
+    
+    /**
+     * Décodages récupérés depuis le dernier {@link #clearTimings()}, avec leurs temps.
+     */
+    public Array<Job> getTimings() {
+        synchronized (claimed) {
+            return new Array<>(claimed);
+        }
+    }
+    
+    public void clearTimings() {
+        synchronized (claimed) {
+            claimed.clear();
+        }
+    }
+    
+    private static String key(FileHandle file) {
+        // Même forme que les chemins des dépendances de l'AssetManager
+        return file.path().replace('\\', '/');
+    }
+    
+    @Override
+    public void dispose() {
+        discardUnclaimed();
+        executor.shutdown();
+    }
+    
+    /**
+     * Décodage d'une ressource et ses temps : décodage sur un thread de la file,
+     * attente du chargeur (si le décodage n'était pas terminé) et envoi au GPU.
+     */
+    public static class Job {
+        private final String path;
+        private final String kind;
+        private FutureTask<Object> future;
+        private volatile long decodeNanos;
+        private volatile long waitNanos;
+        private volatile long uploadNanos;
+        
+        Job(String path, String kind) {
+            this.path = path;
+            this.kind = kind;
+        }
+        
+        /**
+         * Attend la fin du décodage et en retourne le résultat.
+         */
+        public Object get() {
+            long start = TimeUtils.nanoTime();
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GdxRuntimeException("Interrupted while decoding: " + path, e);
+            } catch (ExecutionException e) {
+                throw new GdxRuntimeException("Could not decode: " + path, e.getCause());
+            } finally {
+                waitNanos = TimeUtils.timeSinceNanos(start);
+            }
+        }
+        
+        public String getPath() {
+            return path;
+        }
+        
+        public String getKind() {
+            return kind;
+        }
+        
+        public long getDecodeNanos() {
+            return decodeNanos;
+        }
+        
+        public long getWaitNanos() {
+            return waitNanos;
+        }
+        
+        public long getUploadNanos() {
+            return uploadNanos;
+        }
+        
+        void setUploadNanos(long uploadNanos) {
+            this.uploadNanos = uploadNanos;
+        }
+    }
+}
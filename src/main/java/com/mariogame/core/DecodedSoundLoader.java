@@ -0,0 +1,45 @@
+package com.mariogame.core;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SoundLoader;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Chargeur de sons qui reprend le son décodé à l'avance par la
+ * {@link DecodePipeline} ; sans décodage lancé, le son est décodé ici.
+ */
+class DecodedSoundLoader extends AsynchronousAssetLoader<Sound, SoundLoader.SoundParameter> {
+    private final DecodePipeline pipeline;
+    
+    // État entre loadAsync et loadSync : l'AssetManager charge une ressource à la fois
+    private Sound sound;
+    
+    DecodedSoundLoader(FileHandleResolver resolver, DecodePipeline pipeline) {
+        super(resolver);
+        this.pipeline = pipeline;
+    }
+    
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, SoundLoader.SoundParameter parameter) {
+        DecodePipeline.Job job = pipeline.claim(file);
+        sound = job != null ? (Sound) job.get() : Gdx.audio.newSound(file);
+    }
+    
+    @Override
+    public Sound loadSync(AssetManager manager, String fileName, FileHandle file, SoundLoader.SoundParameter parameter) {
+        Sound sound = this.sound;
+        this.sound = null;
+        return sound;
+    }
+    
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, SoundLoader.SoundParameter parameter) {
+        return null;
+    }
+}
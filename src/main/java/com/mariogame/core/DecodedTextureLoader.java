@@ -0,0 +1,80 @@
+package com.mariogame.core;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.glutils.FileTextureData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Chargeur de textures qui reprend l'image décodée à l'avance par la
+ * {@link DecodePipeline} au lieu de la décoder sur le thread de l'AssetManager.
+ * Même comportement que le TextureLoader de libGDX (texture gérée, rechargée
+ * après une perte de contexte) ; sans décodage lancé, l'image est décodée ici.
+ */
+class DecodedTextureLoader extends AsynchronousAssetLoader<Texture, TextureLoader.TextureParameter> {
+    private final DecodePipeline pipeline;
+    
+    // État entre loadAsync et loadSync : l'AssetManager charge une ressource à la fois
+    private TextureData data;
+    private DecodePipeline.Job job;
+    
+    DecodedTextureLoader(FileHandleResolver resolver, DecodePipeline pipeline) {
+        super(resolver);
+        this.pipeline = pipeline;
+    }
+    
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, TextureLoader.TextureParameter parameter) {
+        Pixmap.Format format = null;
+        boolean genMipMaps = false;
+        if (parameter != null) {
+            format = parameter.format;
+            genMipMaps = parameter.genMipMaps;
+        }
+        
+        job = pipeline.claim(file);
+        if (parameter != null && parameter.textureData != null) {
+            data = parameter.textureData;
+        } else if (job != null) {
+            data = new FileTextureData(file, (Pixmap) job.get(), format, genMipMaps);
+        } else {
+            data = TextureData.Factory.loadFromFile(file, format, genMipMaps);
+        }
+        
+        if (!data.isPrepared()) data.prepare();
+    }
+    
+    @Override
+    public Texture loadSync(AssetManager manager, String fileName, FileHandle file, TextureLoader.TextureParameter parameter) {
+        // Envoi au GPU : seule étape sur le thread de rendu
+        long start = TimeUtils.nanoTime();
+        Texture texture = parameter != null ? parameter.texture : null;
+        if (texture != null) {
+            texture.load(data);
+        } else {
+            texture = new Texture(data);
+        }
+        if (parameter != null) {
+            texture.setFilter(parameter.minFilter, parameter.magFilter);
+            texture.setWrap(parameter.wrapU, parameter.wrapV);
+        }
+        
+        if (job != null) job.setUploadNanos(TimeUtils.timeSinceNanos(start));
+        data = null;
+        job = null;
+        return texture;
+    }
+    
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, TextureLoader.TextureParameter parameter) {
+        return null;
+    }
+}
@@ -1,28 +1,44 @@
 package com.mariogame.entities;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Disposable;
 import com.mariogame.world.GameWorld;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Classe de base professionnelle pour toutes les entités du jeu.
  * Fournit des fonctionnalités communes comme la position, la vitesse, etc.
  * Architecture inspirée des meilleures pratiques de l'industrie du jeu vidéo.
  */
 public abstract class Entity implements Disposable {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    
+    private final int id = NEXT_ID.incrementAndGet();
     protected final World world;
     protected Body body;
     protected final Vector2 position;
     protected final Vector2 velocity;
+    
+    // Interpolation du rendu entre les deux derniers pas physiques
+    protected final Vector2 renderPosition;
+    protected float renderAngle = 0f;
+    private final Vector2 previousPosition;
+    private float previousAngle = 0f;
     protected float width;
     protected float height;
     protected boolean isRemoved = false;
     protected float stateTime = 0f;
     protected GameWorld gameWorld;
     
+    // Mise en sommeil hors de la zone d'activation de la caméra
+    private boolean dormant = false;
+    private boolean bodyActiveBeforeDormancy = false;
+    
     public Entity(World world, float x, float y, float width, float height) {
         if (world == null) {
             throw new IllegalArgumentException("World cannot be null");
@@ -30,6 +46,8 @@ public abstract class Entity implements Disposable {
         this.world = world;
         this.position = new Vector2(x, y);
         this.velocity = new Vector2();
+        this.renderPosition = new Vector2(x, y);
+        this.previousPosition = new Vector2(x, y);
         this.width = width;
         this.height = height;
         createBody();
@@ -60,12 +78,80 @@ public abstract class Entity implements Disposable {
         stateTime += deltaTime;
     }
     
+    /**
+     * Mémorise l'état du corps avant un pas physique fixe.
+     * Appelé par le PhysicsManager juste avant chaque pas.
+     */
+    public void captureTransform() {
+        if (body == null) return;
+        previousPosition.set(body.getPosition());
+        previousAngle = body.getAngle();
+    }
+    
+    /**
+     * Calcule la position de rendu entre l'état précédent et l'état actuel du corps.
+     * Appelé par le PhysicsManager après les pas de la frame.
+     * @param alpha Fraction de pas écoulée depuis le dernier pas (0 à 1)
+     */
+    public void setInterpolationAlpha(float alpha) {
+        if (body == null) return;
+        
+        Vector2 current = body.getPosition();
+        renderPosition.set(
+            previousPosition.x + (current.x - previousPosition.x) * alpha,
+            previousPosition.y + (current.y - previousPosition.y) * alpha);
+        renderAngle = previousAngle + (body.getAngle() - previousAngle) * alpha;
+    }
+    
+    /**
+     * Supprime l'interpolation en cours, par exemple après une téléportation,
+     * pour que l'entité ne glisse pas depuis son ancienne position.
+     */
+    public void snapInterpolation() {
+        if (body == null) return;
+        previousPosition.set(body.getPosition());
+        previousAngle = body.getAngle();
+        renderPosition.set(previousPosition);
+        renderAngle = previousAngle;
+    }
+    
     /**
      * Dessine l'entité.
      * @param batch Le SpriteBatch à utiliser pour le rendu
      */
     public abstract void render(SpriteBatch batch);
     
+    /**
+     * Image à dessiner pour l'état actuel, utilisée par les instantanés de rendu.
+     * Par défaut null : l'entité n'apparaît pas dans les instantanés.
+     */
+    public TextureRegion getRenderFrame() {
+        return null;
+    }
+    
+    /**
+     * Indique si l'image de {@link #getRenderFrame()} doit être retournée horizontalement.
+     */
+    public boolean isRenderFlipX() {
+        return false;
+    }
+    
+    /**
+     * Appelé après le pas physique lorsqu'un contact commence avec une autre entité.
+     * Ne fait rien par défaut.
+     * @param other L'autre entité
+     * @param isHead true si le contact touche la tête du joueur
+     */
+    public void onCollision(Entity other, boolean isHead) {
+    }
+    
+    /**
+     * Appelé juste avant la destruction différée du corps de l'entité.
+     * Ne fait rien par défaut.
+     */
+    public void onRemove() {
+    }
+    
     /**
      * Marque l'entité pour suppression.
      */
@@ -107,6 +193,13 @@ public abstract class Entity implements Disposable {
     
     // Getters et setters
     
+    /**
+     * Identifiant unique de l'entité, stable pendant toute sa vie.
+     */
+    public int getId() {
+        return id;
+    }
+    
     public Vector2 getPosition() {
         return position;
     }
@@ -119,6 +212,20 @@ public abstract class Entity implements Disposable {
         return position.y;
     }
     
+    /**
+     * Position interpolée utilisée pour le rendu.
+     */
+    public Vector2 getRenderPosition() {
+        return renderPosition;
+    }
+    
+    /**
+     * Angle interpolé utilisé pour le rendu, en radians.
+     */
+    public float getRenderAngle() {
+        return renderAngle;
+    }
+    
     public Vector2 getVelocity() {
         return velocity;
     }
@@ -139,6 +246,43 @@ public abstract class Entity implements Disposable {
         return stateTime;
     }
     
+    /**
+     * Indique si l'entité peut être mise en sommeil lorsqu'elle sort de l'écran.
+     * Les sous-classes qui doivent toujours être simulées (le joueur) renvoient false.
+     */
+    public boolean canBeDormant() {
+        return true;
+    }
+    
+    /**
+     * Met l'entité en sommeil ou la réveille.
+     * Une entité en sommeil n'est ni simulée ni mise à jour ni dessinée ; son corps
+     * retrouve au réveil l'état d'activation qu'il avait avant la mise en sommeil.
+     * Ne doit pas être appelé pendant {@code World.step}.
+     */
+    public void setDormant(boolean dormant) {
+        if (this.dormant == dormant) return;
+        this.dormant = dormant;
+        
+        if (body == null) return;
+        
+        if (dormant) {
+            bodyActiveBeforeDormancy = body.isActive();
+            if (bodyActiveBeforeDormancy) {
+                body.setActive(false);
+            }
+        } else if (bodyActiveBeforeDormancy) {
+            body.setActive(true);
+        }
+    }
+    
+    /**
+     * Vérifie si l'entité est en sommeil.
+     */
+    public boolean isDormant() {
+        return dormant;
+    }
+    
     /**
      * Vérifie si l'entité est active (non supprimée et avec un corps valide).
      */
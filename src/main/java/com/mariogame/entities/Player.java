@@ -78,14 +78,19 @@ public class Player extends Entity {
     private Animation<TextureRegion> dashAnimation;
     private Animation<TextureRegion> currentAnimation;
     
-    // Capteurs de collision
-    private Fixture groundSensor;
-    private Fixture leftWallSensor;
-    private Fixture rightWallSensor;
+    // Données utilisateur des capteurs : le répartiteur de contacts les copie, pas les fixtures
+    public static final String GROUND_SENSOR = "player_foot_sensor";
+    public static final String LEFT_WALL_SENSOR = "left_wall_sensor";
+    public static final String RIGHT_WALL_SENSOR = "right_wall_sensor";
+    
+    // Contacts en cours par capteur, tenus à jour par le répartiteur de contacts
+    private int groundContacts = 0;
+    private int leftWallContacts = 0;
+    private int rightWallContacts = 0;
     
     public Player(World world, float x, float y) {
+        // Le corps est créé par le constructeur d'Entity
         super(world, x, y, Constants.PlayerConfig.WIDTH, Constants.PlayerConfig.HEIGHT);
-        createBody();
     }
     
     /**
@@ -147,20 +152,20 @@ public class Player extends Entity {
         sensorDef.filter.categoryBits = Constants.CollisionBits.PLAYER_FOOT;
         sensorDef.filter.maskBits = Constants.CollisionBits.Masks.PLAYER_FOOT;
         
-        groundSensor = body.createFixture(sensorDef);
-        groundSensor.setUserData("player_foot_sensor");
+        Fixture groundSensor = body.createFixture(sensorDef);
+        groundSensor.setUserData(GROUND_SENSOR);
         
         sensorShape.dispose();
     }
     
     private void createWallSensors() {
-        // Capteur pour le mur à droite
-        leftWallSensor = createWallSensor(-width / 2 - 0.05f, 0, "left_wall_sensor");
         // Capteur pour le mur à gauche
-        rightWallSensor = createWallSensor(width / 2 + 0.05f, 0, "right_wall_sensor");
+        createWallSensor(-width / 2 - 0.05f, 0, LEFT_WALL_SENSOR);
+        // Capteur pour le mur à droite
+        createWallSensor(width / 2 + 0.05f, 0, RIGHT_WALL_SENSOR);
     }
     
-    private Fixture createWallSensor(float x, float y, String userData) {
+    private void createWallSensor(float x, float y, String userData) {
         PolygonShape wallShape = new PolygonShape();
         wallShape.setAsBox(0.1f, height / 2 - 0.1f, new Vector2(x, y), 0);
         
@@ -174,7 +179,6 @@ public class Player extends Entity {
         wallSensor.setUserData(userData);
         
         wallShape.dispose();
-        return wallSensor;
     }
     
     /**
@@ -256,23 +260,28 @@ public class Player extends Entity {
     }
     
     /**
-     * Met à jour la détection du sol via les contacts Box2D.
+     * Met à jour la détection du sol à partir du compteur du capteur de pieds.
      */
     private void updateGroundDetection() {
-        isOnGround = false;
-        
-        if (groundSensor != null) {
-            for (Contact contact : world.getContactList()) {
-                if (!contact.isTouching()) continue;
-                
-                Fixture fixtureA = contact.getFixtureA();
-                Fixture fixtureB = contact.getFixtureB();
-                
-                if ((fixtureA == groundSensor || fixtureB == groundSensor)) {
-                    isOnGround = true;
-                    break;
-                }
-            }
+        isOnGround = groundContacts > 0;
+    }
+    
+    /**
+     * Appelé par le répartiteur de contacts lorsqu'une fixture du joueur commence
+     * ou cesse de toucher une autre fixture. Seuls les capteurs sont comptés,
+     * les autres fixtures sont ignorées.
+     * @param fixtureData Données utilisateur de la fixture du joueur concernée
+     * @param begin true au début du contact, false à la fin
+     */
+    public void onSensorContact(Object fixtureData, boolean begin) {
+        int delta = begin ? 1 : -1;
+        
+        if (GROUND_SENSOR.equals(fixtureData)) {
+            groundContacts = Math.max(0, groundContacts + delta);
+        } else if (LEFT_WALL_SENSOR.equals(fixtureData)) {
+            leftWallContacts = Math.max(0, leftWallContacts + delta);
+        } else if (RIGHT_WALL_SENSOR.equals(fixtureData)) {
+            rightWallContacts = Math.max(0, rightWallContacts + delta);
         }
     }
     
@@ -524,8 +533,8 @@ public class Player extends Entity {
         if (currentFrame == null) return;
         
         // Dessiner le joueur
-        float drawX = (position.x - width / 2) * Constants.WorldConfig.PPM;
-        float drawY = (position.y - height / 2) * Constants.WorldConfig.PPM;
+        float drawX = (renderPosition.x - width / 2) * Constants.WorldConfig.PPM;
+        float drawY = (renderPosition.y - height / 2) * Constants.WorldConfig.PPM;
         float drawWidth = width * Constants.WorldConfig.PPM;
         float drawHeight = height * Constants.WorldConfig.PPM;
         
@@ -539,36 +548,25 @@ public class Player extends Entity {
         batch.draw(currentFrame, drawX, drawY, drawWidth, drawHeight);
     }
     
+    @Override
+    public TextureRegion getRenderFrame() {
+        if (isDead || currentAnimation == null) return null;
+        return currentAnimation.getKeyFrame(stateTime, true);
+    }
+    
+    @Override
+    public boolean isRenderFlipX() {
+        return !facingRight;
+    }
+    
     // Méthodes utilitaires pour la détection des murs
     
     public boolean isTouchingLeftWall() {
-        if (leftWallSensor == null) return false;
-        
-        for (Contact contact : world.getContactList()) {
-            if (contact.isTouching()) {
-                Fixture fixtureA = contact.getFixtureA();
-                Fixture fixtureB = contact.getFixtureB();
-                if ((fixtureA == leftWallSensor || fixtureB == leftWallSensor)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return leftWallContacts > 0;
     }
     
     public boolean isTouchingRightWall() {
-        if (rightWallSensor == null) return false;
-        
-        for (Contact contact : world.getContactList()) {
-            if (contact.isTouching()) {
-                Fixture fixtureA = contact.getFixtureA();
-                Fixture fixtureB = contact.getFixtureB();
-                if ((fixtureA == rightWallSensor || fixtureB == rightWallSensor)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return rightWallContacts > 0;
     }
     
     public void takeDamage() {
@@ -680,6 +678,10 @@ public class Player extends Entity {
         return isDead;
     }
     
+    public boolean isOnGround() {
+        return isOnGround;
+    }
+    
     public void setOnGround(boolean onGround) {
         this.isOnGround = onGround;
     }
@@ -689,6 +691,12 @@ public class Player extends Entity {
         setWorld(gameWorld);
     }
     
+    @Override
+    public boolean canBeDormant() {
+        // Le joueur est toujours simulé
+        return false;
+    }
+    
     @Override
     public void dispose() {
         // Les textures sont gérées par l'AssetManager
@@ -10,6 +10,8 @@ import com.mariogame.entities.Player;
 import com.mariogame.managers.GameManager;
 import com.mariogame.managers.SoundManager;
 import com.mariogame.utils.Constants.CollisionBits;
+import com.mariogame.world.GameWorld;
+import com.mariogame.world.TileOccupancy;
 
 /**
  * Bloc de brique qui peut être détruit par le joueur s'il est suffisamment puissant.
@@ -126,6 +128,17 @@ public class BrickBlock extends Entity {
         sensorShape.dispose();
     }
     
+    @Override
+    public void setWorld(GameWorld gameWorld) {
+        super.setWorld(gameWorld);
+        
+        // La brique arrête la lumière tant qu'elle n'est pas cassée
+        TileOccupancy occupancy = gameWorld != null ? gameWorld.getTileOccupancy() : null;
+        if (occupancy != null && currentState != State.DESTROYED) {
+            occupancy.setSolidAt(position.x, originalY, true);
+        }
+    }
+    
     @Override
     public void update(float deltaTime) {
         if (currentState == State.DESTROYED) return;
@@ -177,12 +190,17 @@ public class BrickBlock extends Entity {
         if (currentFrame == null || currentState == State.DESTROYED) return;
         
         // Dessiner le bloc
-        float x = position.x - width / 2;
-        float y = position.y - height / 2;
+        float x = renderPosition.x - width / 2;
+        float y = renderPosition.y - height / 2;
         
         batch.draw(currentFrame, x, y, width, height);
     }
     
+    @Override
+    public TextureRegion getRenderFrame() {
+        return currentState == State.DESTROYED ? null : currentFrame;
+    }
+    
     /**
      * Appelé lorsque le joueur frappe le bloc par le dessous.
      * @param player Le joueur qui a frappé le bloc
@@ -237,6 +255,12 @@ public class BrickBlock extends Entity {
         // Créer des particules de débris
         // particleManager.createEffect("brick_break", position.x, position.y);
         
+        // Libérer la tuile : les lumières voisines recalculent leurs ombres
+        TileOccupancy occupancy = gameWorld != null ? gameWorld.getTileOccupancy() : null;
+        if (occupancy != null) {
+            occupancy.setSolidAt(position.x, originalY, false);
+        }
+        
         // Marquer pour suppression
         remove();
     }
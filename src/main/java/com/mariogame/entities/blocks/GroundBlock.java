@@ -94,12 +94,17 @@ public class GroundBlock extends Entity {
         if (texture == null) return;
         
         // Dessiner le bloc
-        float x = position.x - width / 2;
-        float y = position.y - height / 2;
+        float x = renderPosition.x - width / 2;
+        float y = renderPosition.y - height / 2;
         
         batch.draw(texture, x, y, width, height);
     }
     
+    @Override
+    public TextureRegion getRenderFrame() {
+        return texture;
+    }
+    
     @Override
     public void dispose() {
         super.dispose();
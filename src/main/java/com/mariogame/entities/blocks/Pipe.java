@@ -171,12 +171,17 @@ public class Pipe extends Entity {
         if (texture == null) return;
         
         // Dessiner le tuyau
-        float x = position.x - width / 2;
-        float y = position.y - height / 2;
+        float x = renderPosition.x - width / 2;
+        float y = renderPosition.y - height / 2;
         
         batch.draw(texture, x, y, width, height);
     }
     
+    @Override
+    public TextureRegion getRenderFrame() {
+        return texture;
+    }
+    
     /**
      * Active la téléportation du joueur à travers le tuyau.
      * @param player Le joueur qui entre dans le tuyau
@@ -180,12 +180,17 @@ public class QuestionBlock extends Entity {
         if (currentFrame == null) return;
         
         // Dessiner le bloc
-        float x = position.x - width / 2;
-        float y = position.y - height / 2;
+        float x = renderPosition.x - width / 2;
+        float y = renderPosition.y - height / 2;
         
         batch.draw(currentFrame, x, y, width, height);
     }
     
+    @Override
+    public TextureRegion getRenderFrame() {
+        return currentFrame;
+    }
+    
     /**
      * Appelé lorsque le joueur frappe le bloc par le dessous.
      * @param player Le joueur qui a frappé le bloc
@@ -165,8 +165,8 @@ public class Goomba extends Entity {
         if (currentFrame == null) return;
         
         // Dessiner le Goomba
-        float x = position.x - width / 2;
-        float y = position.y - height / 2;
+        float x = renderPosition.x - width / 2;
+        float y = renderPosition.y - height / 2;
         
         // Inverser le sprite si nécessaire
         if ((facingRight && currentFrame.isFlipX()) || 
@@ -191,6 +191,16 @@ public class Goomba extends Entity {
         }
     }
     
+    @Override
+    public TextureRegion getRenderFrame() {
+        return currentFrame;
+    }
+    
+    @Override
+    public boolean isRenderFlipX() {
+        return !facingRight;
+    }
+    
     /**
      * Appelé lorsque le Goomba est touché par le joueur.
      * @param fromAbove Indique si le joueur a touché le Goomba par le haut
@@ -222,8 +222,8 @@ public class KoopaTroopa extends Entity {
         if (currentFrame == null || isDead) return;
         
         // Dessiner le Koopa
-        float x = position.x - width / 2;
-        float y = position.y - height / 2;
+        float x = renderPosition.x - width / 2;
+        float y = renderPosition.y - height / 2;
         
         // Ajuster la position et la taille en mode coquille
         float renderY = y;
@@ -243,6 +243,16 @@ public class KoopaTroopa extends Entity {
         batch.draw(currentFrame, x, renderY, width, renderHeight);
     }
     
+    @Override
+    public TextureRegion getRenderFrame() {
+        return isDead ? null : currentFrame;
+    }
+    
+    @Override
+    public boolean isRenderFlipX() {
+        return !facingRight;
+    }
+    
     /**
      * Appelé lorsque le Koopa est touché par le joueur.
      * @param fromAbove Indique si le joueur a touché le Koopa par le haut
@@ -3,6 +3,7 @@ package com.mariogame.entities.items;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.mariogame.entities.Entity;
@@ -94,8 +95,8 @@ public class Coin extends Entity {
         float bounceOffset = (float) Math.sin((bounceTimer / BOUNCE_DURATION) * Math.PI * 2) * BOUNCE_HEIGHT;
         
         // Dessiner la pièce avec rotation et rebond
-        float x = position.x;
-        float y = position.y + bounceOffset;
+        float x = renderPosition.x;
+        float y = renderPosition.y + bounceOffset;
         
         batch.draw(
             currentFrame,
@@ -103,10 +104,15 @@ public class Coin extends Entity {
             width / 2, height / 2,
             width, height,
             1, 1,
-            rotation
+            rotation + renderAngle * MathUtils.radiansToDegrees
         );
     }
     
+    @Override
+    public TextureRegion getRenderFrame() {
+        return isCollected || animation == null ? null : animation.getKeyFrame(stateTime, true);
+    }
+    
     /**
      * Appelé lorsque le joueur entre en collision avec la pièce.
      * @param player Le joueur qui a collecté la pièce
@@ -122,12 +122,17 @@ public class Flower extends Entity {
         TextureRegion currentFrame = animation.getKeyFrame(stateTime, true);
         
         // Dessiner la fleur
-        float x = position.x - width / 2;
-        float y = position.y - height / 2;
+        float x = renderPosition.x - width / 2;
+        float y = renderPosition.y - height / 2;
         
         batch.draw(currentFrame, x, y, width, height);
     }
     
+    @Override
+    public TextureRegion getRenderFrame() {
+        return isConsumed || animation == null ? null : animation.getKeyFrame(stateTime, true);
+    }
+    
     /**
      * Appelé lorsque le joueur entre en collision avec la fleur.
      * @param player Le joueur qui a collecté la fleur
@@ -183,8 +183,8 @@ public class Mushroom extends Entity {
         if (isConsumed || texture == null) return;
         
         // Dessiner le champignon
-        float x = position.x - width / 2;
-        float y = position.y - height / 2;
+        float x = renderPosition.x - width / 2;
+        float y = renderPosition.y - height / 2;
         
         // Animation de flottement
         float offsetY = (float) Math.sin(stateTime * 3) * 0.05f;
@@ -192,6 +192,11 @@ public class Mushroom extends Entity {
         batch.draw(texture, x, y + offsetY, width, height);
     }
     
+    @Override
+    public TextureRegion getRenderFrame() {
+        return isConsumed ? null : texture;
+    }
+    
     /**
      * Appelé lorsque le joueur entre en collision avec le champignon.
      * @param player Le joueur qui a collecté le champignon
@@ -3,6 +3,7 @@ package com.mariogame.entities.items;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.mariogame.entities.Entity;
@@ -204,8 +205,8 @@ public class Star extends Entity {
         TextureRegion currentFrame = animation.getKeyFrame(stateTime, true);
         
         // Dessiner l'étoile avec rotation
-        float x = position.x;
-        float y = position.y;
+        float x = renderPosition.x;
+        float y = renderPosition.y;
         
         batch.draw(
             currentFrame,
@@ -213,10 +214,15 @@ public class Star extends Entity {
             width / 2, height / 2,
             width, height,
             1, 1,
-            rotation
+            rotation + renderAngle * MathUtils.radiansToDegrees
         );
     }
     
+    @Override
+    public TextureRegion getRenderFrame() {
+        return isConsumed || animation == null ? null : animation.getKeyFrame(stateTime, true);
+    }
+    
     /**
      * Appelé lorsque le joueur entre en collision avec l'étoile.
      * @param player Le joueur qui a collecté l'étoile
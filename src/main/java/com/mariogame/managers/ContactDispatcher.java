@@ -0,0 +1,274 @@
+package com.mariogame.managers;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import com.mariogame.entities.Entity;
+
+/**
+ * Répartiteur de contacts piloté par table.
+ * Les gestionnaires sont enregistrés une fois par paire de catégories
+ * ({@link com.mariogame.utils.Constants.CollisionBits}) dans une table plate 16x16
+ * indexée par bit de catégorie. Une fixture qui porte plusieurs bits est routée sur
+ * chacun d'eux, chaque gestionnaire ne recevant le contact qu'une fois.
+ * Pendant {@code World.step}, les contacts sont seulement copiés dans des événements
+ * poolés ; ils sont distribués après le pas, quand les corps peuvent être modifiés.
+ */
+public class ContactDispatcher {
+    private static final int CATEGORY_COUNT = 16;
+    
+    /**
+     * Gestionnaire d'une paire de catégories.
+     * L'événement reçu est ordonné selon l'enregistrement : la fixture A appartient
+     * toujours à la première catégorie passée à {@link #register}.
+     */
+    public interface ContactHandler {
+        void handle(ContactEvent event);
+    }
+    
+    /**
+     * Copie d'un contact prise pendant le pas physique.
+     * Les données utilisateur et les catégories sont lues au moment du contact, et
+     * aucune fixture n'est gardée : Box2D recycle les fixtures d'un corps détruit,
+     * alors qu'un contact de fin enregistré par {@code destroyBody} n'est distribué
+     * qu'après le pas suivant.
+     */
+    public static final class ContactEvent implements Pool.Poolable {
+        Object bodyDataA, bodyDataB;
+        Object fixtureDataA, fixtureDataB;
+        short categoryA, categoryB;
+        int route; // entrée de la table qui a accepté le contact
+        boolean begin;
+        
+        public Object getBodyDataA() {
+            return bodyDataA;
+        }
+        
+        public Object getBodyDataB() {
+            return bodyDataB;
+        }
+        
+        public Object getFixtureDataA() {
+            return fixtureDataA;
+        }
+        
+        public Object getFixtureDataB() {
+            return fixtureDataB;
+        }
+        
+        public Entity getEntityA() {
+            return bodyDataA instanceof Entity ? (Entity) bodyDataA : null;
+        }
+        
+        public Entity getEntityB() {
+            return bodyDataB instanceof Entity ? (Entity) bodyDataB : null;
+        }
+        
+        public short getCategoryA() {
+            return categoryA;
+        }
+        
+        public short getCategoryB() {
+            return categoryB;
+        }
+        
+        /**
+         * @return true pour un début de contact, false pour une fin de contact
+         */
+        public boolean isBegin() {
+            return begin;
+        }
+        
+        @Override
+        public void reset() {
+            bodyDataA = bodyDataB = null;
+            route = 0;
+            fixtureDataA = fixtureDataB = null;
+            categoryA = categoryB = 0;
+            begin = false;
+        }
+    }
+    
+    // Table de routage : handlers[a * 16 + b], swapped indique que A et B doivent être inversés
+    private final ContactHandler[] handlers = new ContactHandler[CATEGORY_COUNT * CATEGORY_COUNT];
+    private final boolean[] swapped = new boolean[CATEGORY_COUNT * CATEGORY_COUNT];
+    
+    private final Pool<ContactEvent> eventPool = new Pool<ContactEvent>(32) {
+        @Override
+        protected ContactEvent newObject() {
+            return new ContactEvent();
+        }
+    };
+    private final Array<ContactEvent> pending = new Array<>(false, 32);
+    
+    // Statistiques
+    private int recordedLastDispatch = 0;
+    private int ignoredLastDispatch = 0;
+    private int ignored = 0;
+    
+    /**
+     * Enregistre un gestionnaire pour une paire de catégories.
+     * Chaque argument peut combiner plusieurs bits : le gestionnaire est alors
+     * enregistré pour toutes les combinaisons. Un enregistrement remplace le précédent.
+     */
+    public void register(short categoriesA, short categoriesB, ContactHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        
+        for (int a = 0; a < CATEGORY_COUNT; a++) {
+            if ((categoriesA & (1 << a)) == 0) continue;
+            for (int b = 0; b < CATEGORY_COUNT; b++) {
+                if ((categoriesB & (1 << b)) == 0) continue;
+                
+                handlers[a * CATEGORY_COUNT + b] = handler;
+                swapped[a * CATEGORY_COUNT + b] = false;
+                
+                if (a != b) {
+                    handlers[b * CATEGORY_COUNT + a] = handler;
+                    swapped[b * CATEGORY_COUNT + a] = true;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Retire les gestionnaires d'une paire de catégories (dans les deux sens).
+     */
+    public void unregister(short categoriesA, short categoriesB) {
+        for (int a = 0; a < CATEGORY_COUNT; a++) {
+            if ((categoriesA & (1 << a)) == 0) continue;
+            for (int b = 0; b < CATEGORY_COUNT; b++) {
+                if ((categoriesB & (1 << b)) == 0) continue;
+                handlers[a * CATEGORY_COUNT + b] = null;
+                handlers[b * CATEGORY_COUNT + a] = null;
+            }
+        }
+    }
+    
+    /**
+     * Vérifie si une paire de catégories possède un gestionnaire.
+     */
+    public boolean hasHandler(short categoryA, short categoryB) {
+        for (int bitsA = categoryA & 0xFFFF; bitsA != 0; bitsA &= bitsA - 1) {
+            int a = Integer.numberOfTrailingZeros(bitsA);
+            for (int bitsB = categoryB & 0xFFFF; bitsB != 0; bitsB &= bitsB - 1) {
+                if (handlers[a * CATEGORY_COUNT + Integer.numberOfTrailingZeros(bitsB)] != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Copie un contact dans le tampon d'événements. Appelé depuis les callbacks
+     * Box2D ; les contacts sans gestionnaire sont ignorés sans allocation.
+     */
+    public void record(Contact contact, boolean begin) {
+        Fixture fixtureA = contact.getFixtureA();
+        Fixture fixtureB = contact.getFixtureB();
+        short categoryA = fixtureA.getFilterData().categoryBits;
+        short categoryB = fixtureB.getFilterData().categoryBits;
+        
+        int recorded = 0;
+        for (int bitsA = categoryA & 0xFFFF; bitsA != 0; bitsA &= bitsA - 1) {
+            int a = Integer.numberOfTrailingZeros(bitsA);
+            for (int bitsB = categoryB & 0xFFFF; bitsB != 0; bitsB &= bitsB - 1) {
+                int index = a * CATEGORY_COUNT + Integer.numberOfTrailingZeros(bitsB);
+                ContactHandler handler = handlers[index];
+                if (handler == null || isPending(handler, recorded)) continue;
+                
+                // Ordonner l'événement comme lors de l'enregistrement
+                if (swapped[index]) {
+                    add(index, fixtureB, fixtureA, categoryB, categoryA, begin);
+                } else {
+                    add(index, fixtureA, fixtureB, categoryA, categoryB, begin);
+                }
+                recorded++;
+            }
+        }
+        
+        if (recorded == 0) {
+            ignored++;
+        }
+    }
+    
+    // Un gestionnaire atteint par plusieurs paires de bits ne reçoit le contact qu'une fois
+    private boolean isPending(ContactHandler handler, int recorded) {
+        for (int i = pending.size - recorded; i < pending.size; i++) {
+            if (handlers[pending.get(i).route] == handler) return true;
+        }
+        return false;
+    }
+    
+    private void add(int route, Fixture fixtureA, Fixture fixtureB,
+                     short categoryA, short categoryB, boolean begin) {
+        ContactEvent event = eventPool.obtain();
+        event.route = route;
+        event.bodyDataA = fixtureA.getBody().getUserData();
+        event.bodyDataB = fixtureB.getBody().getUserData();
+        event.fixtureDataA = fixtureA.getUserData();
+        event.fixtureDataB = fixtureB.getUserData();
+        event.categoryA = categoryA;
+        event.categoryB = categoryB;
+        event.begin = begin;
+        pending.add(event);
+    }
+    
+    /**
+     * Distribue les événements enregistrés dans leur ordre d'arrivée.
+     * Doit être appelé hors de {@code World.step}.
+     */
+    public void dispatch() {
+        recordedLastDispatch = pending.size;
+        ignoredLastDispatch = ignored;
+        ignored = 0;
+        
+        for (int i = 0; i < pending.size; i++) {
+            ContactEvent event = pending.get(i);
+            
+            // Le gestionnaire a pu être retiré depuis l'enregistrement
+            ContactHandler handler = handlers[event.route];
+            if (handler != null) {
+                handler.handle(event);
+            }
+        }
+        
+        eventPool.freeAll(pending);
+        pending.clear();
+    }
+    
+    /**
+     * Abandonne les événements en attente sans les distribuer.
+     */
+    public void clear() {
+        eventPool.freeAll(pending);
+        pending.clear();
+        ignored = 0;
+    }
+    
+    // Getters
+    
+    /**
+     * Nombre d'événements en attente de distribution.
+     */
+    public int getPendingCount() {
+        return pending.size;
+    }
+    
+    /**
+     * Nombre d'événements distribués lors du dernier appel à {@link #dispatch()}.
+     */
+    public int getRecordedLastDispatch() {
+        return recordedLastDispatch;
+    }
+    
+    /**
+     * Nombre de contacts ignorés (sans gestionnaire) avant le dernier appel à {@link #dispatch()}.
+     */
+    public int getIgnoredLastDispatch() {
+        return ignoredLastDispatch;
+    }
+}
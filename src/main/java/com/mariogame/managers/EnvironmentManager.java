@@ -3,16 +3,21 @@ package com.mariogame.managers;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
 import com.mariogame.entities.Player;
+import com.mariogame.systems.WeatherField;
 import com.mariogame.utils.Constants;
 
 /**
  * Gère l'environnement dynamique du jeu (jour/nuit, météo, effets atmosphériques).
+ * La pluie, la neige et le brouillard sont des {@link WeatherField} procéduraux :
+ * aucune goutte n'est stockée ni mise à jour individuellement.
  */
 public class EnvironmentManager {
     // Constantes pour le cycle jour/nuit
@@ -21,6 +26,7 @@ public class EnvironmentManager {
     private static final float DAY_START = 0.3f;  // 30% du cycle
     private static final float DUSK_START = 0.7f; // 70% du cycle
     private static final float NIGHT_START = 0.8f; // 80% du cycle
+    private static final float WEATHER_FADE_TIME = 3f; // Durée des transitions météo en secondes
     
     // Couleurs pour les différentes phases de la journée
     private final Color DAY_COLOR = new Color(0.7f, 0.8f, 1f, 0.3f);
@@ -31,10 +37,16 @@ public class EnvironmentManager {
     // Variables d'état
     private float timeOfDay = 0.3f; // Commence à 30% du cycle (jour)
     private boolean isRaining = false;
-    private float rainIntensity = 0f;
-    private final Array<RainDrop> raindrops = new Array<>();
+    private final Color lightColor = new Color(DAY_COLOR);
     private final ShapeRenderer shapeRenderer = new ShapeRenderer();
     
+    // Couches de météo et texture blanche d'un pixel pour les dessiner
+    private final WeatherField rain = WeatherField.rain();
+    private final WeatherField snow = WeatherField.snow();
+    private final WeatherField fog = WeatherField.fog();
+    private final Texture pixelTexture;
+    private final TextureRegion pixel;
+    
     // Références
     private final Player player;
     private final OrthographicCamera camera;
@@ -43,10 +55,12 @@ public class EnvironmentManager {
         this.player = player;
         this.camera = camera;
         
-        // Initialiser les particules de pluie
-        for (int i = 0; i < 500; i++) {
-            raindrops.add(new RainDrop());
-        }
+        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pixmap.setColor(Color.WHITE);
+        pixmap.fill();
+        pixelTexture = new Texture(pixmap);
+        pixmap.dispose();
+        pixel = new TextureRegion(pixelTexture);
     }
     
     public void update(float deltaTime) {
@@ -56,10 +70,10 @@ public class EnvironmentManager {
         // Mettre à jour la météo
         updateWeather(deltaTime);
         
-        // Mettre à jour les particules de pluie
-        if (isRaining) {
-            updateRain(deltaTime);
-        }
+        // Avancer le temps des couches : coût indépendant du nombre de gouttes
+        rain.update(deltaTime);
+        snow.update(deltaTime);
+        fog.update(deltaTime);
     }
     
     private void updateTimeOfDay(float deltaTime) {
@@ -79,68 +93,35 @@ public class EnvironmentManager {
         // Changement aléatoire de météo
         if (MathUtils.random() < 0.0005f * deltaTime * 60) {
             isRaining = !isRaining;
-            rainIntensity = isRaining ? MathUtils.random(0.3f, 1f) : 0f;
+            rain.setTargetIntensity(isRaining ? MathUtils.random(0.3f, 1f) : 0f, WEATHER_FADE_TIME);
         }
     }
     
-    private void updateRain(float deltaTime) {
-        for (RainDrop drop : raindrops) {
-            // Mettre à jour la position de la goutte de pluie
-            drop.y -= drop.speed * deltaTime * 60 * rainIntensity;
-            
-            // Réinitialiser les gouttes qui sont tombées hors de l'écran
-            if (drop.y < camera.position.y - camera.viewportHeight / 2) {
-                resetRainDrop(drop);
-            }
-        }
-    }
-    
-    private void resetRainDrop(RainDrop drop) {
-        float viewportWidth = camera.viewportWidth * 1.5f;
-        float viewportHeight = camera.viewportHeight * 1.5f;
-        
-        drop.x = camera.position.x - viewportWidth / 2 + MathUtils.random(viewportWidth);
-        drop.y = camera.position.y + viewportHeight / 2 + MathUtils.random(100);
-        drop.speed = MathUtils.random(300f, 800f) * rainIntensity;
-        drop.length = MathUtils.random(10f, 30f) * rainIntensity;
-    }
-    
+    /**
+     * Rend la météo dans le batch en cours (qui doit utiliser la caméra du jeu),
+     * puis le voile jour/nuit.
+     */
     public void render(SpriteBatch batch) {
-        // Sauvegarder l'état du batch
-        batch.end();
-        
-        // Rendu des effets atmosphériques
-        renderAtmosphericEffects();
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        float minX = camera.position.x - halfWidth;
+        float minY = camera.position.y - halfHeight;
+        float maxX = camera.position.x + halfWidth;
+        float maxY = camera.position.y + halfHeight;
         
-        // Rendu de la pluie
-        if (isRaining) {
-            renderRain();
-        }
+        // Un envoi de sommets par couche, même texture : le batch les enchaîne
+        fog.render(batch, pixel, minX, minY, maxX, maxY);
+        rain.render(batch, pixel, minX, minY, maxX, maxY);
+        snow.render(batch, pixel, minX, minY, maxX, maxY);
         
         // Rendu de l'effet jour/nuit
+        batch.end();
         renderDayNightCycle();
         
         // Reprendre le rendu normal
         batch.begin();
     }
     
-    private void renderAtmosphericEffects() {
-        // Ici, vous pourriez ajouter des effets atmosphériques comme du brouillard
-    }
-    
-    private void renderRain() {
-        shapeRenderer.setProjectionMatrix(camera.combined);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        
-        for (RainDrop drop : raindrops) {
-            // Couleur bleu clair pour la pluie
-            shapeRenderer.setColor(0.6f, 0.7f, 1f, 0.6f * rainIntensity);
-            shapeRenderer.line(drop.x, drop.y, drop.x, drop.y - drop.length);
-        }
-        
-        shapeRenderer.end();
-    }
-    
     private void renderDayNightCycle() {
         Color color = getCurrentLightColor();
         
@@ -156,49 +137,55 @@ public class EnvironmentManager {
         shapeRenderer.end();
     }
     
+    /**
+     * Couleur du voile de la phase actuelle, calculée dans une instance réutilisée.
+     */
     private Color getCurrentLightColor() {
         if (timeOfDay < DAWN_START) {
             // Nuit à aube
             float t = timeOfDay / DAWN_START;
-            return NIGHT_COLOR.cpy().lerp(DAWN_COLOR, t);
+            return lightColor.set(NIGHT_COLOR).lerp(DAWN_COLOR, t);
         } else if (timeOfDay < DAY_START) {
             // Aube à jour
             float t = (timeOfDay - DAWN_START) / (DAY_START - DAWN_START);
-            return DAWN_COLOR.cpy().lerp(DAY_COLOR, t);
+            return lightColor.set(DAWN_COLOR).lerp(DAY_COLOR, t);
         } else if (timeOfDay < DUSK_START) {
             // Jour
-            return DAY_COLOR;
+            return lightColor.set(DAY_COLOR);
         } else if (timeOfDay < NIGHT_START) {
             // Crépuscule
             float t = (timeOfDay - DUSK_START) / (NIGHT_START - DUSK_START);
-            return DAY_COLOR.cpy().lerp(DUSK_COLOR, t);
+            return lightColor.set(DAY_COLOR).lerp(DUSK_COLOR, t);
         } else {
             // Nuit
             float t = (timeOfDay - NIGHT_START) / (1f - NIGHT_START);
-            return DUSK_COLOR.cpy().lerp(NIGHT_COLOR, t);
+            return lightColor.set(DUSK_COLOR).lerp(NIGHT_COLOR, t);
         }
     }
     
     public void resize(int width, int height) {
-        // Réinitialiser les gouttes de pluie lors d'un redimensionnement
-        for (RainDrop drop : raindrops) {
-            resetRainDrop(drop);
-        }
+        // Les positions de la météo ne dépendent que du temps et de la caméra : rien à réinitialiser
     }
     
     public void dispose() {
         shapeRenderer.dispose();
+        pixelTexture.dispose();
     }
     
-    // Classe interne pour les gouttes de pluie
-    private static class RainDrop {
-        float x, y;
-        float speed;
-        float length;
-        
-        public RainDrop() {
-            // Les valeurs seront initialisées par resetRainDrop()
-        }
+    /**
+     * Change l'intensité de la pluie avec une transition douce.
+     */
+    public void setRain(float intensity) {
+        isRaining = intensity > 0f;
+        rain.setTargetIntensity(intensity, WEATHER_FADE_TIME);
+    }
+    
+    public void setSnow(float intensity) {
+        snow.setTargetIntensity(intensity, WEATHER_FADE_TIME);
+    }
+    
+    public void setFog(float intensity) {
+        fog.setTargetIntensity(intensity, WEATHER_FADE_TIME);
     }
     
     // Getters et setters
@@ -219,6 +206,14 @@ public class EnvironmentManager {
     }
     
     public float getRainIntensity() {
-        return rainIntensity;
+        return rain.getIntensity();
+    }
+    
+    public float getSnowIntensity() {
+        return snow.getIntensity();
+    }
+    
+    public float getFogIntensity() {
+        return fog.getIntensity();
     }
 }
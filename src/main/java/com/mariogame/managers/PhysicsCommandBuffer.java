@@ -0,0 +1,211 @@
+package com.mariogame.managers;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.physics.box2d.Body;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tampon circulaire borné de commandes physiques différées.
+ * Plusieurs threads (IA, chargement) peuvent déposer des commandes sans verrou ;
+ * seul le thread physique les consomme, une fois par pas fixe. C'est donc une file
+ * plusieurs producteurs / un consommateur : Box2D n'est pas thread-safe, un second
+ * consommateur ne pourrait de toute façon pas exécuter les commandes.
+ * Chaque emplacement porte un numéro de séquence qui indique s'il est libre
+ * ou publié, et les données sont stockées dans des tableaux primitifs :
+ * aucune allocation n'a lieu ni au dépôt ni à la consommation.
+ */
+public class PhysicsCommandBuffer {
+    // Types de commandes
+    public static final int ACTIVATE = 0;
+    public static final int DESTROY = 1;
+    public static final int FORCE = 2;
+    public static final int IMPULSE = 3;
+    public static final int SET_VELOCITY = 4;
+    
+    public static final int DEFAULT_CAPACITY = 1024;
+    
+    /**
+     * Exécute une commande consommée.
+     */
+    public interface CommandHandler {
+        void execute(int command, Body body, float x, float y);
+    }
+    
+    private final int capacity;
+    private final int mask;
+    
+    // Séquence par emplacement : égale à la position quand l'emplacement est libre,
+    // à la position + 1 quand la commande est publiée
+    private final AtomicLongArray sequences;
+    private final int[] commands;
+    private final Body[] bodies;
+    private final float[] xs;
+    private final float[] ys;
+    
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    // Écrit par le seul consommateur, volatile pour que getDepth soit juste depuis tout thread
+    private volatile long dequeuePosition = 0;
+    
+    // Statistiques, lisibles depuis n'importe quel thread
+    private final AtomicInteger overflowCount = new AtomicInteger();
+    private volatile int maxDepth = 0;
+    private volatile int drainedLastCall = 0;
+    
+    public PhysicsCommandBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * @param capacity Nombre maximal de commandes en attente, arrondi à la puissance de deux supérieure
+     */
+    public PhysicsCommandBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        this.capacity = MathUtils.nextPowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.sequences = new AtomicLongArray(this.capacity);
+        this.commands = new int[this.capacity];
+        this.bodies = new Body[this.capacity];
+        this.xs = new float[this.capacity];
+        this.ys = new float[this.capacity];
+        
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * Dépose une commande. Peut être appelé depuis n'importe quel thread.
+     * @return false si le tampon est plein (la commande est perdue et comptée en débordement)
+     */
+    public boolean offer(int command, Body body, float x, float y) {
+        if (body == null) {
+            throw new IllegalArgumentException("Body cannot be null");
+        }
+        
+        long position = enqueuePosition.get();
+        int index;
+        
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            
+            if (difference == 0) {
+                // Emplacement libre : le réserver
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                // Le consommateur n'a pas encore libéré cet emplacement : tampon plein
+                overflowCount.incrementAndGet();
+                return false;
+            } else {
+                // Un autre producteur a pris cette position
+                position = enqueuePosition.get();
+            }
+        }
+        
+        commands[index] = command;
+        bodies[index] = body;
+        xs[index] = x;
+        ys[index] = y;
+        
+        // Publication : l'écriture volatile rend les données visibles au consommateur
+        sequences.set(index, position + 1);
+        return true;
+    }
+    
+    /**
+     * Consomme toutes les commandes publiées, dans l'ordre de dépôt.
+     * Ne doit être appelé que par le thread physique.
+     * @return Le nombre de commandes exécutées
+     */
+    public int drain(CommandHandler handler) {
+        long position = dequeuePosition;
+        int depth = (int) (enqueuePosition.get() - position);
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+        
+        int drained = 0;
+        
+        while (true) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                // Emplacement pas encore publié
+                break;
+            }
+            
+            int command = commands[index];
+            Body body = bodies[index];
+            float x = xs[index];
+            float y = ys[index];
+            bodies[index] = null;
+            
+            // Avancer avant de libérer l'emplacement : la profondeur lue ne dépasse jamais la capacité
+            dequeuePosition = position + 1;
+            // Rendre l'emplacement aux producteurs pour le tour suivant
+            sequences.set(index, position + capacity);
+            position++;
+            
+            handler.execute(command, body, x, y);
+            drained++;
+        }
+        
+        drainedLastCall = drained;
+        return drained;
+    }
+    
+    /**
+     * Abandonne les commandes publiées sans les exécuter.
+     * Ne doit être appelé que par le thread physique.
+     */
+    public void clear() {
+        long position = dequeuePosition;
+        while (true) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) break;
+            bodies[index] = null;
+            dequeuePosition = position + 1;
+            sequences.set(index, position + capacity);
+            position++;
+        }
+    }
+    
+    // Getters
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Nombre de commandes en attente, au plus la capacité. Peut être lu depuis n'importe quel thread ;
+     * la valeur inclut les commandes réservées mais pas encore publiées.
+     */
+    public int getDepth() {
+        return (int) Math.max(0, enqueuePosition.get() - dequeuePosition);
+    }
+    
+    /**
+     * Profondeur maximale observée au début d'une consommation.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+    
+    /**
+     * Nombre total de commandes refusées faute de place.
+     */
+    public int getOverflowCount() {
+        return overflowCount.get();
+    }
+    
+    public int getDrainedLastCall() {
+        return drainedLastCall;
+    }
+}
@@ -4,108 +4,189 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.mariogame.entities.Entity;
 import com.mariogame.entities.Player;
+import com.mariogame.managers.ContactDispatcher.ContactEvent;
+import com.mariogame.physics.StepScheduler;
+import com.mariogame.systems.PerformanceProfiler;
+import com.mariogame.systems.PhysicsOptimizer;
 import com.mariogame.utils.Constants;
 import com.mariogame.utils.Constants.CollisionBits;
 
 /**
  * Gère la physique du jeu en utilisant Box2D.
  * Gère les collisions, les forces et les interactions physiques.
+ * Le monde Box2D est injecté : il appartient à {@link com.mariogame.world.GameWorld}
+ * et c'est le même monde qui contient les entités et les tuiles du {@code MapLoader}.
  */
 public class PhysicsManager implements ContactListener {
     private final World world;
-    private final Array<Body> bodiesToRemove = new Array<>();
-    private final Array<Body> bodiesToAdd = new Array<>();
-    private final Array<Body> bodiesToApplyForce = new Array<>();
-    private final Array<ForceApplication> forcesToApply = new Array<>();
+    private final PhysicsCommandBuffer commandBuffer = new PhysicsCommandBuffer();
+    private final PhysicsCommandBuffer.CommandHandler commandHandler = this::executeCommand;
+    private final ObjectSet<Body> destroyedThisStep = new ObjectSet<>();
+    private final Array<Body> bodies = new Array<>();
+    private final ContactDispatcher contactDispatcher = new ContactDispatcher();
+    private final StepScheduler scheduler;
     private final float timeStep;
+    private final Vector2 gravity = new Vector2();
+    
+    // Itérations du solveur en pleine qualité, et celles du pas en cours
+    private final int baseVelocityIterations;
+    private final int basePositionIterations;
     private int velocityIterations;
     private int positionIterations;
-    private float accumulator = 0;
+    private PerformanceProfiler profiler;
+    private PhysicsOptimizer optimizer;
+    
+    // Statistiques
+    private long totalSteps = 0;
     
-    public PhysicsManager() {
-        // Créer le monde Box2D avec la gravité par défaut
-        this(Constants.WorldConfig.GRAVITY, 
+    public PhysicsManager(World world) {
+        this(world,
              Constants.WorldConfig.TIME_STEP,
              Constants.WorldConfig.VELOCITY_ITERATIONS,
              Constants.WorldConfig.POSITION_ITERATIONS);
     }
     
-    public PhysicsManager(Vector2 gravity, float timeStep, int velocityIterations, int positionIterations) {
-        this.world = new World(gravity, true);
+    public PhysicsManager(World world, float timeStep, int velocityIterations, int positionIterations) {
+        if (world == null) {
+            throw new IllegalArgumentException("World cannot be null");
+        }
+        this.world = world;
         this.timeStep = timeStep;
+        this.baseVelocityIterations = velocityIterations;
+        this.basePositionIterations = positionIterations;
         this.velocityIterations = velocityIterations;
         this.positionIterations = positionIterations;
+        this.scheduler = new StepScheduler(timeStep);
         
-        // Configurer le gestionnaire de collisions
+        // Seul listener de contacts du monde partagé
         world.setContactListener(this);
+        registerDefaultHandlers();
+    }
+    
+    /**
+     * Enregistre les gestionnaires de contacts par défaut du jeu.
+     */
+    private void registerDefaultHandlers() {
+        short playerParts = (short) (CollisionBits.PLAYER | CollisionBits.PLAYER_HEAD);
+        short others = (short) (CollisionBits.GROUND | CollisionBits.ENEMY | CollisionBits.ITEM
+            | CollisionBits.SENSOR | CollisionBits.ENEMY_HEAD | CollisionBits.PLATFORM | CollisionBits.WALL);
+        
+        contactDispatcher.register(playerParts, others, this::handlePlayerCollision);
+        contactDispatcher.register(CollisionBits.PLAYER_FOOT,
+            (short) (CollisionBits.GROUND | CollisionBits.PLATFORM), this::handlePlayerFoot);
     }
     
     public void update(float deltaTime) {
-        // Gestion du pas de temps fixe pour la stabilité physique
-        float frameTime = Math.min(deltaTime, 0.25f);
-        accumulator += frameTime;
+        // Pas de temps fixe, plafonné par frame pour qu'un ralentissement ne s'aggrave pas
+        int steps = scheduler.beginFrame(deltaTime);
+        applySolverQuality(scheduler.getQuality());
         
-        while (accumulator >= timeStep) {
-            // Mettre à jour les corps à ajouter/supprimer
-            processPendingBodies();
+        long start = TimeUtils.nanoTime();
+        
+        for (int i = 0; i < steps; i++) {
+            // Exécuter les commandes différées (activations, destructions, forces)
+            processCommands();
             
-            // Appliquer les forces en attente
-            applyPendingForces();
+            // Mémoriser l'état de départ du pas pour l'interpolation du rendu
+            captureTransforms();
             
             // Mettre à jour la physique
             world.step(timeStep, velocityIterations, positionIterations);
             
-            accumulator -= timeStep;
+            // Distribuer les contacts du pas, hors du callback Box2D
+            contactDispatcher.dispatch();
+        }
+        
+        long stepTime = steps > 0 ? TimeUtils.nanoTime() - start : 0;
+        
+        // Réindexer les corps déplacés pour les requêtes spatiales de la frame
+        if (steps > 0 && optimizer != null) {
+            optimizer.update();
         }
+        scheduler.endFrame(stepTime);
+        totalSteps += steps;
+        publishMetrics();
         
         // Interpolation pour un rendu fluide
-        float alpha = accumulator / timeStep;
-        interpolateBodies(alpha);
+        interpolateBodies(scheduler.getAlpha());
+    }
+    
+    /**
+     * Réduit le nombre d'itérations du solveur proportionnellement (au moins une de chaque).
+     */
+    private void applySolverQuality(float quality) {
+        velocityIterations = Math.max(1, Math.round(baseVelocityIterations * quality));
+        positionIterations = Math.max(1, Math.round(basePositionIterations * quality));
     }
     
-    private void processPendingBodies() {
-        // Ajouter les nouveaux corps
-        synchronized (bodiesToAdd) {
-            for (Body body : bodiesToAdd) {
+    private void publishMetrics() {
+        if (profiler == null) return;
+        
+        profiler.record("physics.step", scheduler.getStepTimeLastFrame());
+        profiler.record("physics.dropped", (long) (scheduler.getDroppedTimeLastFrame() * 1_000_000_000L));
+        profiler.recordCount("physics.substeps", scheduler.getStepsLastFrame());
+        profiler.recordCount("physics.qualityLevel", scheduler.getQualityLevel());
+    }
+    
+    private void processCommands() {
+        commandBuffer.drain(commandHandler);
+        destroyedThisStep.clear();
+    }
+    
+    private void executeCommand(int command, Body body, float x, float y) {
+        // Un corps détruit plus tôt dans le pas ne doit plus être touché
+        if (destroyedThisStep.contains(body)) return;
+        
+        switch (command) {
+            case PhysicsCommandBuffer.ACTIVATE:
                 // Les corps sont déjà créés, donc on ne fait que les activer
                 body.setActive(true);
-            }
-            bodiesToAdd.clear();
-        }
-        
-        // Supprimer les corps marqués pour suppression
-        synchronized (bodiesToRemove) {
-            for (Body body : bodiesToRemove) {
+                wakeIndexed(body);
+                break;
+            case PhysicsCommandBuffer.DESTROY:
                 if (body.getUserData() instanceof Entity) {
                     Entity entity = (Entity) body.getUserData();
                     entity.onRemove();
                 }
+                destroyedThisStep.add(body);
+                forgetBody(body);
                 world.destroyBody(body);
-            }
-            bodiesToRemove.clear();
+                break;
+            case PhysicsCommandBuffer.FORCE:
+                body.applyForceToCenter(x, y, true);
+                wakeIndexed(body);
+                break;
+            case PhysicsCommandBuffer.IMPULSE:
+                Vector2 center = body.getWorldCenter();
+                body.applyLinearImpulse(x, y, center.x, center.y, true);
+                wakeIndexed(body);
+                break;
+            case PhysicsCommandBuffer.SET_VELOCITY:
+                body.setLinearVelocity(x, y);
+                wakeIndexed(body);
+                break;
+            default:
+                Gdx.app.error("PhysicsManager", "Unknown physics command: " + command);
+                break;
         }
     }
     
-    private void applyPendingForces() {
-        synchronized (forcesToApply) {
-            for (int i = 0; i < forcesToApply.size; i++) {
-                ForceApplication fa = forcesToApply.get(i);
-                fa.body.applyForceToCenter(fa.force, true);
-                
-                // Pour les forces d'impulsion, on les applique une seule fois
-                if (fa.impulse) {
-                    forcesToApply.removeIndex(i);
-                    i--;
-                }
+    private void captureTransforms() {
+        world.getBodies(bodies);
+        
+        for (Body body : bodies) {
+            if (body.getUserData() instanceof Entity) {
+                ((Entity) body.getUserData()).captureTransform();
             }
         }
     }
     
     private void interpolateBodies(float alpha) {
-        // Interpolation pour un rendu fluide
-        Array<Body> bodies = new Array<>();
+        // Interpolation pour un rendu fluide (tableau réutilisé d'une frame à l'autre)
         world.getBodies(bodies);
         
         for (Body body : bodies) {
@@ -117,24 +198,58 @@ public class PhysicsManager implements ContactListener {
     }
     
     // Méthodes pour ajouter/supprimer des corps
+    // Elles peuvent être appelées depuis n'importe quel thread : les commandes sont
+    // exécutées au début du prochain pas fixe. Elles renvoient false si le tampon est plein.
+    
+    public boolean addBody(Body body) {
+        return commandBuffer.offer(PhysicsCommandBuffer.ACTIVATE, body, 0, 0);
+    }
+    
+    public boolean removeBody(Body body) {
+        return commandBuffer.offer(PhysicsCommandBuffer.DESTROY, body, 0, 0);
+    }
+    
+    /**
+     * Applique une force (pendant un pas) ou une impulsion au centre du corps.
+     */
+    public boolean applyForce(Body body, Vector2 force, boolean impulse) {
+        return impulse ? applyImpulse(body, force.x, force.y) : applyForce(body, force.x, force.y);
+    }
     
-    public void addBody(Body body) {
-        synchronized (bodiesToAdd) {
-            bodiesToAdd.add(body);
+    public boolean applyForce(Body body, float forceX, float forceY) {
+        return commandBuffer.offer(PhysicsCommandBuffer.FORCE, body, forceX, forceY);
+    }
+    
+    public boolean applyImpulse(Body body, float impulseX, float impulseY) {
+        return commandBuffer.offer(PhysicsCommandBuffer.IMPULSE, body, impulseX, impulseY);
+    }
+    
+    public boolean setVelocity(Body body, float velocityX, float velocityY) {
+        return commandBuffer.offer(PhysicsCommandBuffer.SET_VELOCITY, body, velocityX, velocityY);
+    }
+    
+    /**
+     * Ajoute à l'index spatial un corps créé directement dans le monde.
+     */
+    public void trackBody(Body body) {
+        if (optimizer != null && body != null) {
+            optimizer.add(body);
         }
     }
     
-    public void removeBody(Body body) {
-        synchronized (bodiesToRemove) {
-            if (!bodiesToRemove.contains(body, true)) {
-                bodiesToRemove.add(body);
-            }
+    /**
+     * Retire un corps de l'index spatial. À appeler avant toute destruction directe d'un
+     * corps : Box2D réutilise l'objet {@link Body} pour le prochain corps créé.
+     */
+    public void forgetBody(Body body) {
+        if (optimizer != null && body != null) {
+            optimizer.remove(body);
         }
     }
     
-    public void applyForce(Body body, Vector2 force, boolean impulse) {
-        synchronized (forcesToApply) {
-            forcesToApply.add(new ForceApplication(body, force, impulse));
+    private void wakeIndexed(Body body) {
+        if (optimizer != null) {
+            optimizer.wake(body);
         }
     }
     
@@ -142,53 +257,47 @@ public class PhysicsManager implements ContactListener {
     
     @Override
     public void beginContact(Contact contact) {
-        // Récupérer les deux fixtures en collision
-        Fixture fixtureA = contact.getFixtureA();
-        Fixture fixtureB = contact.getFixtureB();
-        
-        // Récupérer les corps associés
-        Body bodyA = fixtureA.getBody();
-        Body bodyB = fixtureB.getBody();
+        // Seulement enregistré : la distribution a lieu après le pas
+        contactDispatcher.record(contact, true);
+    }
+    
+    @Override
+    public void endContact(Contact contact) {
+        contactDispatcher.record(contact, false);
+    }
+    
+    private void handlePlayerCollision(ContactEvent event) {
+        // La fixture A est celle du joueur (ordre d'enregistrement)
+        Entity player = event.getEntityA();
+        if (!(player instanceof Player)) return;
         
-        // Récupérer les entités associées (si elles existent)
-        Object userDataA = bodyA.getUserData();
-        Object userDataB = bodyB.getUserData();
+        // Les capteurs de mur partagent la catégorie PLAYER : le joueur les reconnaît à leurs données
+        ((Player) player).onSensorContact(event.getFixtureDataA(), event.isBegin());
         
-        // Vérifier les collisions avec le joueur
-        if (userDataA instanceof Player) {
-            handlePlayerCollision((Player) userDataA, fixtureA, userDataB, fixtureB, contact);
-        } else if (userDataB instanceof Player) {
-            handlePlayerCollision((Player) userDataB, fixtureB, userDataA, fixtureA, contact);
-        }
+        Entity other = event.getEntityB();
+        if (!event.isBegin() || other == null) return;
         
-        // Autres types de collisions...
-    }
-    
-    private void handlePlayerCollision(Player player, Fixture playerFixture, 
-                                     Object otherData, Fixture otherFixture, Contact contact) {
         // Vérifier si la collision se produit avec la tête du joueur
-        boolean isHeadCollision = (playerFixture.getFilterData().categoryBits & CollisionBits.PLAYER_HEAD) != 0;
+        boolean isHeadCollision = (event.getCategoryA() & CollisionBits.PLAYER_HEAD) != 0;
         
-        // Gérer les collisions avec différents types d'objets
-        if (otherData instanceof Entity) {
-            Entity otherEntity = (Entity) otherData;
-            
-            // Appeler la méthode de gestion de collision de l'entité
-            otherEntity.onCollision(player, contact, isHeadCollision);
-            
-            // Appeler la méthode de gestion de collision du joueur
-            player.onCollision(otherEntity, contact, isHeadCollision);
-        }
+        other.onCollision(player, isHeadCollision);
+        player.onCollision(other, isHeadCollision);
     }
     
-    @Override
-    public void endContact(Contact contact) {
-        // Gérer la fin d'une collision si nécessaire
+    private void handlePlayerFoot(ContactEvent event) {
+        if (event.getEntityA() instanceof Player) {
+            ((Player) event.getEntityA()).onSensorContact(event.getFixtureDataA(), event.isBegin());
+        }
     }
     
     @Override
     public void preSolve(Contact contact, Manifold oldManifold) {
-        // Modifier la collision avant qu'elle ne soit résolue
+        // Un contact touchant avec un corps éveillé réveille l'autre corps pendant le pas :
+        // l'index spatial doit de nouveau le suivre
+        if (optimizer != null) {
+            optimizer.wake(contact.getFixtureA().getBody());
+            optimizer.wake(contact.getFixtureB().getBody());
+        }
     }
     
     @Override
@@ -196,34 +305,112 @@ public class PhysicsManager implements ContactListener {
         // Gérer les informations après la résolution de la collision
     }
     
-    // Classe utilitaire pour les applications de force différées
-    private static class ForceApplication {
-        final Body body;
-        final Vector2 force;
-        final boolean impulse;
-        
-        public ForceApplication(Body body, Vector2 force, boolean impulse) {
-            this.body = body;
-            this.force = new Vector2(force);
-            this.impulse = impulse;
-        }
-    }
-    
     // Getters et setters
     
     public World getWorld() {
         return world;
     }
     
+    /**
+     * Obtient le répartiteur de contacts pour enregistrer des gestionnaires.
+     */
+    public ContactDispatcher getContactDispatcher() {
+        return contactDispatcher;
+    }
+    
+    /**
+     * Obtient le tampon de commandes (profondeur et débordements).
+     */
+    public PhysicsCommandBuffer getCommandBuffer() {
+        return commandBuffer;
+    }
+    
+    /**
+     * Nombre de pas fixes exécutés lors de la dernière frame.
+     */
+    public int getStepsLastFrame() {
+        return scheduler.getStepsLastFrame();
+    }
+    
+    /**
+     * Nombre total de pas fixes exécutés depuis la création.
+     */
+    public long getTotalSteps() {
+        return totalSteps;
+    }
+    
+    /**
+     * Temps passé dans les pas physiques lors de la dernière frame (nanosecondes).
+     */
+    public long getStepTimeLastFrame() {
+        return scheduler.getStepTimeLastFrame();
+    }
+    
+    /**
+     * Temps simulé abandonné lors de la dernière frame à cause du plafond de sous-pas (secondes).
+     */
+    public float getDroppedTimeLastFrame() {
+        return scheduler.getDroppedTimeLastFrame();
+    }
+    
+    public StepScheduler getScheduler() {
+        return scheduler;
+    }
+    
+    /**
+     * Publie les métriques de pas (durée, sous-pas, temps abandonné) dans un profiler.
+     */
+    public void setProfiler(PerformanceProfiler profiler) {
+        this.profiler = profiler;
+    }
+    
+    /**
+     * Index spatial mis à jour après les pas physiques de chaque frame, ou null.
+     */
+    public void setOptimizer(PhysicsOptimizer optimizer) {
+        this.optimizer = optimizer;
+    }
+    
+    public PhysicsOptimizer getOptimizer() {
+        return optimizer;
+    }
+    
+    public float getTimeStep() {
+        return timeStep;
+    }
+    
+    public int getVelocityIterations() {
+        return velocityIterations;
+    }
+    
+    public int getPositionIterations() {
+        return positionIterations;
+    }
+    
     public void setGravity(Vector2 gravity) {
         world.setGravity(gravity);
     }
     
     public void setGravity(float x, float y) {
-        world.setGravity(x, y);
+        world.setGravity(gravity.set(x, y));
+    }
+    
+    /**
+     * Abandonne les commandes et les contacts en attente, par exemple après
+     * la destruction de tous les corps lors d'un changement de niveau.
+     */
+    public void clearPending() {
+        commandBuffer.clear();
+        destroyedThisStep.clear();
+        contactDispatcher.clear();
     }
     
+    /**
+     * Libère l'état interne. Le monde injecté est libéré par son propriétaire.
+     */
     public void dispose() {
-        world.dispose();
+        world.setContactListener(null);
+        clearPending();
+        bodies.clear();
     }
 }
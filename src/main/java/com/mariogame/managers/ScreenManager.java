@@ -1,24 +1,42 @@
 package com.mariogame.managers;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.mariogame.MarioGame;
 import com.mariogame.screens.*;
 import com.mariogame.screens.ScreenType;
-import com.mariogame.utils.Constants;
+import com.mariogame.utils.StartupTimer;
 
 /**
  * Gestionnaire d'écrans pour le jeu.
  * Permet de gérer la pile d'écrans et les transitions entre eux.
+ * Les écrans sont enregistrés sous forme de fabriques et construits à leur
+ * première utilisation ; un écran peut être préconstruit pendant le temps
+ * libre des images ({@link #warmUp(ScreenType)}), et les écrans inutilisés
+ * sont libérés quand la mémoire vient à manquer.
  */
 public class ScreenManager implements Disposable {
+    // Temps de rendu en dessous duquel une image laisse le temps de préconstruire un écran
+    public static final long WARM_UP_FRAME_BUDGET_NANOS = 8_000_000L;
+    
+    // Part du tas utilisée au-delà de laquelle les écrans inutilisés sont libérés
+    public static final float MEMORY_PRESSURE_RATIO = 0.85f;
+    
+    /**
+     * Construit un écran à la demande.
+     */
+    public interface ScreenFactory {
+        Screen create();
+    }
+    
     private final MarioGame game;
-    private final ObjectMap<ScreenType, Screen> screens;
-    private final Array<Screen> activeScreens;
+    private final ObjectMap<ScreenType, ScreenEntry> screens;
+    private final Array<ScreenType> warmUpQueue;
     private ScreenType currentScreenType;
     private ScreenType nextScreenType;
     private boolean transitionInProgress;
@@ -26,26 +44,46 @@ public class ScreenManager implements Disposable {
     public ScreenManager(MarioGame game) {
         this.game = game;
         this.screens = new ObjectMap<>();
-        this.activeScreens = new Array<>();
+        this.warmUpQueue = new Array<>();
         this.transitionInProgress = false;
         
-        // Initialisation des écrans
+        // Enregistrement des écrans
         initScreens();
     }
     
     private void initScreens() {
-        // Création des écrans disponibles (lazy initialization pour les autres)
-        screens.put(ScreenType.LOADING, new LoadingScreen(game));
-        screens.put(ScreenType.MENU, new MenuScreen(game));
-        screens.put(ScreenType.GAME, new GameScreen(game));
-        screens.put(ScreenType.PAUSE, new PauseScreen(game));
-        screens.put(ScreenType.LEVEL_TRANSITION, new LevelTransitionScreen(game));
+        // Aucun écran n'est construit ici : GameScreen, par exemple, crée le monde
+        // et charge un niveau, ce qui retarderait l'affichage de l'écran de chargement
+        register(ScreenType.LOADING, () -> new LoadingScreen(game));
+        register(ScreenType.MENU, () -> new MenuScreen(game));
+        register(ScreenType.GAME, () -> new GameScreen(game));
+        register(ScreenType.PAUSE, () -> new PauseScreen(game, (GameScreen) getScreen(ScreenType.GAME)), ScreenType.GAME);
+        
+        // Les transitions de niveau sont créées à chaque changement avec leurs paramètres
+        // (voir LevelTransitionScreen.createTransition)
         
-        // Les autres écrans seront créés à la demande si nécessaire
-        // screens.put(ScreenType.GAME_OVER, new GameOverScreen(game));
-        // screens.put(ScreenType.OPTIONS, new OptionsScreen(game));
-        // screens.put(ScreenType.LEVEL_SELECT, new LevelSelectScreen(game));
-        // screens.put(ScreenType.CREDITS, new CreditsScreen(game));
+        // Les autres écrans seront enregistrés quand ils existeront
+        // register(ScreenType.GAME_OVER, () -> new GameOverScreen(game));
+        // register(ScreenType.OPTIONS, () -> new OptionsScreen(game));
+        // register(ScreenType.LEVEL_SELECT, () -> new LevelSelectScreen(game));
+        // register(ScreenType.CREDITS, () -> new CreditsScreen(game));
+    }
+    
+    /**
+     * Enregistre la fabrique d'un écran, construit à sa première utilisation.
+     * @param dependsOn Écran utilisé par celui-ci : il n'est pas libéré tant que
+     *                  celui-ci est affiché, et le libérer libère aussi celui-ci
+     */
+    public void register(ScreenType screenType, ScreenFactory factory, ScreenType dependsOn) {
+        ScreenEntry previous = screens.get(screenType);
+        if (previous != null && previous.screen != null) {
+            throw new IllegalStateException("Screen already built: " + screenType);
+        }
+        screens.put(screenType, new ScreenEntry(factory, dependsOn));
+    }
+    
+    public void register(ScreenType screenType, ScreenFactory factory) {
+        register(screenType, factory, null);
     }
     
     /**
@@ -89,15 +127,15 @@ public class ScreenManager implements Disposable {
     private void completeTransition() {
         // Cacher l'écran précédent s'il existe
         if (currentScreenType != null) {
-            Screen previousScreen = screens.get(currentScreenType);
+            Screen previousScreen = getBuiltScreen(currentScreenType);
             if (previousScreen != null) {
                 previousScreen.hide();
             }
         }
         
-        // Mettre à jour l'écran courant
+        // Mettre à jour l'écran courant (construit maintenant s'il n'a pas été préconstruit)
         currentScreenType = nextScreenType;
-        Screen nextScreen = screens.get(currentScreenType);
+        Screen nextScreen = getScreen(currentScreenType);
         
         if (nextScreen != null) {
             // Initialiser l'écran s'il hérite d'AbstractScreen
@@ -117,6 +155,40 @@ public class ScreenManager implements Disposable {
         transitionInProgress = false;
         
         Gdx.app.log("ScreenManager", "Screen changed to: " + currentScreenType);
+        
+        StartupTimer startupTimer = game.getStartupTimer();
+        if (startupTimer != null && !startupTimer.isFinished()) {
+            startupTimer.mark("screen " + currentScreenType);
+            if (currentScreenType == ScreenType.MENU) {
+                startupTimer.finish();
+            }
+        }
+    }
+    
+    /**
+     * Ajoute un écran à la file de préconstruction. Il sera construit pendant
+     * le temps libre d'une image, à raison d'un écran par image au plus.
+     * Un écran est construit d'un bloc : GameScreen, qui crée le monde et charge
+     * un niveau, ne doit pas être préconstruit ainsi, et le menu ne l'est qu'une
+     * fois le chargement terminé car il utilise les ressources en cours de chargement.
+     * L'écran de chargement préconstruit ainsi le menu, et le jeu la pause.
+     */
+    public void warmUp(ScreenType screenType) {
+        if (screenType == null || isBuilt(screenType) || warmUpQueue.contains(screenType, true)) return;
+        
+        ScreenEntry entry = screens.get(screenType);
+        if (entry == null) return;
+        
+        // Ses dépendances d'abord
+        if (entry.dependsOn != null) warmUp(entry.dependsOn);
+        warmUpQueue.add(screenType);
+    }
+    
+    /**
+     * L'écran attend-il encore dans la file de préconstruction ?
+     */
+    public boolean isWarmingUp(ScreenType screenType) {
+        return warmUpQueue.contains(screenType, true);
     }
     
     /**
@@ -124,16 +196,38 @@ public class ScreenManager implements Disposable {
      * @return L'écran actuel ou null si aucun écran n'est affiché
      */
     public Screen getCurrentScreen() {
-        return currentScreenType != null ? screens.get(currentScreenType) : null;
+        return currentScreenType != null ? getBuiltScreen(currentScreenType) : null;
     }
     
     /**
-     * Obtient un écran par son type
+     * Obtient un écran par son type, en le construisant s'il ne l'est pas encore
      * @param screenType Le type d'écran
-     * @return L'écran correspondant
+     * @return L'écran correspondant, ou null si aucun écran n'est enregistré pour ce type
      */
     public Screen getScreen(ScreenType screenType) {
-        return screens.get(screenType);
+        ScreenEntry entry = screens.get(screenType);
+        if (entry == null) return null;
+        
+        if (entry.screen == null) {
+            long start = TimeUtils.nanoTime();
+            entry.screen = entry.factory.create();
+            warmUpQueue.removeValue(screenType, true);
+            Gdx.app.debug("ScreenManager", "Built " + screenType + " in "
+                + (TimeUtils.timeSinceNanos(start) / 1_000_000f) + " ms");
+        }
+        return entry.screen;
+    }
+    
+    /**
+     * Écran déjà construit, ou null (ne le construit jamais).
+     */
+    private Screen getBuiltScreen(ScreenType screenType) {
+        ScreenEntry entry = screens.get(screenType);
+        return entry != null ? entry.screen : null;
+    }
+    
+    public boolean isBuilt(ScreenType screenType) {
+        return getBuiltScreen(screenType) != null;
     }
     
     /**
@@ -141,23 +235,107 @@ public class ScreenManager implements Disposable {
      * @param delta Le temps écoulé depuis le dernier rendu
      */
     public void render(float delta) {
-        if (currentScreenType != null) {
-            Screen screen = screens.get(currentScreenType);
-            if (screen != null) {
-                screen.render(delta);
+        long start = TimeUtils.nanoTime();
+        Screen screen = getCurrentScreen();
+        if (screen != null) {
+            screen.render(delta);
+        }
+        long renderNanos = TimeUtils.timeSinceNanos(start);
+        
+        if (isMemoryLow()) {
+            // Ne rien préconstruire : l'écran serait libéré aussitôt
+            warmUpQueue.clear();
+            releaseUnusedScreens();
+        } else if (renderNanos < WARM_UP_FRAME_BUDGET_NANOS && !transitionInProgress) {
+            warmUpNext();
+        }
+    }
+    
+    /**
+     * Construit le prochain écran de la file de préconstruction.
+     */
+    private void warmUpNext() {
+        if (warmUpQueue.size == 0) return;
+        
+        ScreenType screenType = warmUpQueue.removeIndex(0);
+        if (isBuilt(screenType)) return;
+        
+        // Un écran qui n'est pas affiché ne doit pas capter les entrées
+        InputProcessor input = Gdx.input.getInputProcessor();
+        Screen screen = getScreen(screenType);
+        Gdx.input.setInputProcessor(input);
+        
+        screen.resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+    
+    /**
+     * La mémoire du tas vient-elle à manquer ?
+     */
+    boolean isMemoryLow() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return used > runtime.maxMemory() * MEMORY_PRESSURE_RATIO;
+    }
+    
+    /**
+     * Libère les écrans construits qui ne sont pas affichés (ni utilisés par
+     * l'écran affiché). Ils seront reconstruits à leur prochaine utilisation.
+     * @return Le nombre d'écrans libérés
+     */
+    public int releaseUnusedScreens() {
+        int released = 0;
+        for (ScreenType screenType : screens.keys().toArray()) {
+            if (isBuilt(screenType) && !isInUse(screenType)) {
+                released += release(screenType);
+            }
+        }
+        if (released > 0) {
+            Gdx.app.log("ScreenManager", "Released " + released + " unused screens");
+        }
+        return released;
+    }
+    
+    /**
+     * L'écran est-il affiché, ou utilisé par l'écran affiché ?
+     */
+    private boolean isInUse(ScreenType screenType) {
+        ScreenType type = currentScreenType;
+        while (type != null) {
+            if (type == screenType) return true;
+            ScreenEntry entry = screens.get(type);
+            type = entry != null ? entry.dependsOn : null;
+        }
+        return false;
+    }
+    
+    /**
+     * Libère un écran et les écrans construits qui l'utilisent.
+     */
+    private int release(ScreenType screenType) {
+        int released = 0;
+        for (ScreenType dependent : screens.keys().toArray()) {
+            ScreenEntry entry = screens.get(dependent);
+            if (entry.dependsOn == screenType && entry.screen != null) {
+                released += release(dependent);
             }
         }
+        
+        ScreenEntry entry = screens.get(screenType);
+        if (entry.screen == null) return released;
+        entry.screen.dispose();
+        entry.screen = null;
+        return released + 1;
     }
     
     /**
-     * Redimensionne tous les écrans
+     * Redimensionne tous les écrans construits
      * @param width La nouvelle largeur
      * @param height La nouvelle hauteur
      */
     public void resize(int width, int height) {
-        for (Screen screen : screens.values()) {
-            if (screen != null) {
-                screen.resize(width, height);
+        for (ScreenEntry entry : screens.values()) {
+            if (entry.screen != null) {
+                entry.screen.resize(width, height);
             }
         }
     }
@@ -166,11 +344,9 @@ public class ScreenManager implements Disposable {
      * Met en pause l'écran actuel
      */
     public void pause() {
-        if (currentScreenType != null) {
-            Screen screen = screens.get(currentScreenType);
-            if (screen != null) {
-                screen.pause();
-            }
+        Screen screen = getCurrentScreen();
+        if (screen != null) {
+            screen.pause();
         }
     }
     
@@ -178,11 +354,9 @@ public class ScreenManager implements Disposable {
      * Reprend l'écran actuel
      */
     public void resume() {
-        if (currentScreenType != null) {
-            Screen screen = screens.get(currentScreenType);
-            if (screen != null) {
-                screen.resume();
-            }
+        Screen screen = getCurrentScreen();
+        if (screen != null) {
+            screen.resume();
         }
     }
     
@@ -193,14 +367,15 @@ public class ScreenManager implements Disposable {
     public void dispose() {
         Gdx.app.log("ScreenManager", "Disposing all screens");
         
-        // Libérer tous les écrans
-        for (Screen screen : screens.values()) {
-            if (screen != null) {
-                screen.dispose();
+        // Libérer tous les écrans construits
+        for (ScreenEntry entry : screens.values()) {
+            if (entry.screen != null) {
+                entry.screen.dispose();
+                entry.screen = null;
             }
         }
         screens.clear();
-        activeScreens.clear();
+        warmUpQueue.clear();
     }
     
     /**
@@ -210,4 +385,18 @@ public class ScreenManager implements Disposable {
     public boolean isTransitionInProgress() {
         return transitionInProgress;
     }
+    
+    /**
+     * Fabrique d'un écran et l'écran lui-même une fois construit.
+     */
+    private static class ScreenEntry {
+        final ScreenFactory factory;
+        final ScreenType dependsOn;
+        Screen screen;
+        
+        ScreenEntry(ScreenFactory factory, ScreenType dependsOn) {
+            this.factory = factory;
+            this.dependsOn = dependsOn;
+        }
+    }
 }
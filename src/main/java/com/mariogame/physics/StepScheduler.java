@@ -0,0 +1,167 @@
+package com.mariogame.physics;
+
+/**
+ * Planificateur de pas fixes protégé contre la « spirale de la mort ».
+ * Le nombre de sous-pas par frame est plafonné : le temps en trop est abandonné
+ * (le jeu ralentit un instant) au lieu d'être rattrapé en rendant la frame suivante
+ * encore plus lente. Si un pas coûte plus que son budget, la qualité du solveur
+ * est réduite, puis rétablie une fois la charge retombée.
+ */
+public class StepScheduler {
+    public static final int DEFAULT_MAX_SUB_STEPS = 4;
+    private static final float MAX_FRAME_TIME = 0.25f;
+    private static final float[] QUALITY_LEVELS = {1f, 0.75f, 0.5f};
+    private static final int RECOVERY_FRAMES = 60;
+    
+    private final float timeStep;
+    private int maxSubSteps;
+    private long stepBudgetNanos;
+    private float accumulator = 0f;
+    
+    // Dégradation de la qualité
+    private int qualityLevel = 0;
+    private int calmFrames = 0;
+    
+    // Statistiques
+    private int stepsLastFrame = 0;
+    private long stepTimeLastFrame = 0;
+    private float droppedTimeLastFrame = 0f;
+    private double totalDroppedTime = 0;
+    
+    /**
+     * Crée un planificateur dont chaque pas dispose d'un quart de sa durée en temps de calcul.
+     */
+    public StepScheduler(float timeStep) {
+        this(timeStep, DEFAULT_MAX_SUB_STEPS, (long) (timeStep * 1_000_000_000L / 4));
+    }
+    
+    /**
+     * @param timeStep Durée d'un pas fixe en secondes
+     * @param maxSubSteps Nombre maximal de pas exécutés par frame
+     * @param stepBudgetNanos Coût maximal d'un pas avant de dégrader la qualité
+     */
+    public StepScheduler(float timeStep, int maxSubSteps, long stepBudgetNanos) {
+        if (timeStep <= 0) {
+            throw new IllegalArgumentException("Time step must be positive");
+        }
+        if (maxSubSteps < 1) {
+            throw new IllegalArgumentException("At least one sub-step is required");
+        }
+        this.timeStep = timeStep;
+        this.maxSubSteps = maxSubSteps;
+        this.stepBudgetNanos = stepBudgetNanos;
+    }
+    
+    /**
+     * Ajoute le temps de la frame et renvoie le nombre de pas à exécuter.
+     * Le temps qui dépasse le plafond de sous-pas est abandonné.
+     */
+    public int beginFrame(float deltaTime) {
+        float dropped = Math.max(0f, deltaTime - MAX_FRAME_TIME);
+        accumulator += Math.min(deltaTime, MAX_FRAME_TIME);
+        
+        // Consommer tous les pas dus : seule la fraction de pas restante est conservée
+        int steps = (int) (accumulator / timeStep);
+        accumulator = Math.max(0f, accumulator - steps * timeStep);
+        
+        if (steps > maxSubSteps) {
+            dropped += (steps - maxSubSteps) * timeStep;
+            steps = maxSubSteps;
+        }
+        
+        stepsLastFrame = steps;
+        droppedTimeLastFrame = dropped;
+        totalDroppedTime += dropped;
+        return steps;
+    }
+    
+    /**
+     * Enregistre le coût des pas de la frame et ajuste la qualité du solveur.
+     * @param stepTimeNanos Temps total passé dans les pas de la frame
+     */
+    public void endFrame(long stepTimeNanos) {
+        stepTimeLastFrame = stepTimeNanos;
+        if (stepsLastFrame == 0) return;
+        
+        long perStep = stepTimeNanos / stepsLastFrame;
+        
+        if (perStep > stepBudgetNanos) {
+            // Trop cher : dégrader tout de suite
+            calmFrames = 0;
+            if (qualityLevel < QUALITY_LEVELS.length - 1) {
+                qualityLevel++;
+            }
+        } else if (perStep < stepBudgetNanos / 2) {
+            // Rétablir progressivement après une période calme
+            if (qualityLevel > 0 && ++calmFrames >= RECOVERY_FRAMES) {
+                qualityLevel--;
+                calmFrames = 0;
+            }
+        } else {
+            calmFrames = 0;
+        }
+    }
+    
+    /**
+     * Facteur d'interpolation entre les deux derniers états simulés.
+     */
+    public float getAlpha() {
+        return accumulator / timeStep;
+    }
+    
+    /**
+     * Qualité actuelle du solveur (1 = pleine qualité).
+     */
+    public float getQuality() {
+        return QUALITY_LEVELS[qualityLevel];
+    }
+    
+    public int getQualityLevel() {
+        return qualityLevel;
+    }
+    
+    public float getTimeStep() {
+        return timeStep;
+    }
+    
+    public int getMaxSubSteps() {
+        return maxSubSteps;
+    }
+    
+    public void setMaxSubSteps(int maxSubSteps) {
+        if (maxSubSteps < 1) {
+            throw new IllegalArgumentException("At least one sub-step is required");
+        }
+        this.maxSubSteps = maxSubSteps;
+    }
+    
+    public long getStepBudgetNanos() {
+        return stepBudgetNanos;
+    }
+    
+    public void setStepBudgetNanos(long stepBudgetNanos) {
+        this.stepBudgetNanos = stepBudgetNanos;
+    }
+    
+    public int getStepsLastFrame() {
+        return stepsLastFrame;
+    }
+    
+    public long getStepTimeLastFrame() {
+        return stepTimeLastFrame;
+    }
+    
+    /**
+     * Temps simulé abandonné lors de la dernière frame (secondes).
+     */
+    public float getDroppedTimeLastFrame() {
+        return droppedTimeLastFrame;
+    }
+    
+    /**
+     * Temps simulé abandonné depuis la création (secondes).
+     */
+    public double getTotalDroppedTime() {
+        return totalDroppedTime;
+    }
+}
@@ -6,6 +6,7 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
 import com.badlogic.gdx.scenes.scene2d.Stage;
@@ -13,8 +14,14 @@ import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.mariogame.MarioGame;
 import com.mariogame.core.AssetLoader;
+import com.mariogame.entities.Player;
+import com.mariogame.simulation.SimulationThread;
+import com.mariogame.systems.PerformanceProfiler;
 import com.mariogame.utils.Constants;
 import com.mariogame.world.GameWorld;
+import com.mariogame.world.LevelPrefetcher;
+import com.mariogame.world.RenderSnapshot;
+import com.mariogame.world.SnapshotTripleBuffer;
 
 /**
  * Écran principal du jeu qui gère le rendu et la logique du gameplay.
@@ -30,6 +37,8 @@ public class GameScreen implements Screen {
     
     // Monde de jeu
     private GameWorld gameWorld;
+    private final LevelPrefetcher prefetcher = new LevelPrefetcher();
+    private String levelGroup; // Groupe de ressources acquis pour le niveau courant
     private Box2DDebugRenderer debugRenderer;
     
     // Rendu
@@ -37,6 +46,16 @@ public class GameScreen implements Screen {
     private Stage stage;
     private boolean debugMode = false;
     
+    // Métriques par frame (pas physiques, sous-pas, temps abandonné)
+    private final PerformanceProfiler profiler = new PerformanceProfiler();
+    private float statsTimer = 0f;
+    
+    // Simulation sur un thread séparé (optionnelle) : le rendu ne lit que les instantanés
+    private SimulationThread simulationThread;
+    private SnapshotTripleBuffer snapshots;
+    private final RenderSnapshot previousSnapshot = new RenderSnapshot();
+    private OrthographicCamera simulationCamera;
+    
     public GameScreen(MarioGame game) {
         this.game = game;
         this.assetLoader = AssetLoader.getInstance();
@@ -55,9 +74,10 @@ public class GameScreen implements Screen {
         // Initialisation du rendu
         batch = game.getSpriteBatch();
         
-        // Initialisation du monde de jeu
-        gameWorld = new GameWorld();
+        // Initialisation du monde de jeu, au rythme physique choisi dans la configuration
+        gameWorld = new GameWorld(game.getConfig().getPhysicsTimeStep());
         gameWorld.setGameCamera(gameCamera);
+        gameWorld.getPhysicsManager().setProfiler(profiler);
         
         // Initialiser le joueur avec les managers
         if (gameWorld.getPlayer() != null) {
@@ -75,7 +95,48 @@ public class GameScreen implements Screen {
     private void loadMap(String mapName) {
         // Charger le niveau
         gameWorld.loadLevel(mapName);
+        onLevelStarted();
+        
+        // Implémentation du chargement de la carte
+        // mapRenderer = new OrthogonalTiledMapRenderer(assetLoader.getMap(mapName), 1 / Constants.WorldConfig.PPM);
+    }
+    
+    /**
+     * Passe à un autre niveau, préparé à l'avance si le prefetcher l'a terminé,
+     * sinon chargé de façon synchrone.
+     * @param spawnPosition Position d'apparition du joueur (en mètres), ou null pour le départ de la carte
+     */
+    public void changeLevel(String levelName, Vector2 spawnPosition) {
+        // Le monde ne peut pas changer de niveau pendant qu'il est simulé sur un autre thread
+        boolean threaded = isThreadedSimulation();
+        setThreadedSimulation(false);
+        
+        LevelPrefetcher.PreparedLevel prepared = prefetcher.poll(levelName);
+        if (prepared != null) {
+            gameWorld.activateLevel(prepared);
+        } else {
+            gameWorld.loadLevel(levelName);
+        }
+        
+        Player player = gameWorld.getPlayer();
+        if (spawnPosition != null && player != null) {
+            player.getBody().setTransform(spawnPosition, 0);
+            player.snapInterpolation();
+        }
+        onLevelStarted();
         
+        setThreadedSimulation(threaded);
+    }
+    
+    /**
+     * Le niveau est-il encore en préparation sur le thread de chargement ?
+     * Une transition peut attendre sa fin plutôt que de le charger de façon synchrone.
+     */
+    public boolean isLevelPending(String levelName) {
+        return prefetcher.isPending(levelName);
+    }
+    
+    private void onLevelStarted() {
         // Initialiser le joueur après le chargement
         if (gameWorld.getPlayer() != null) {
             gameWorld.initializePlayer(
@@ -85,8 +146,24 @@ public class GameScreen implements Screen {
             );
         }
         
-        // Implémentation du chargement de la carte
-        // mapRenderer = new OrthogonalTiledMapRenderer(assetLoader.getMap(mapName), 1 / Constants.WorldConfig.PPM);
+        // Acquérir les ressources du nouveau niveau avant de relâcher celles de
+        // l'ancien : les ressources partagées restent en mémoire
+        String current = gameWorld.getCurrentLevel();
+        String group = current != null ? AssetLoader.getLevelGroup(current) : null;
+        if (group != null && !assetLoader.hasGroup(group)) group = null;
+        if (group != null && !group.equals(levelGroup)) {
+            assetLoader.acquireGroup(group);
+        }
+        if (levelGroup != null && !levelGroup.equals(group)) {
+            assetLoader.releaseGroup(levelGroup);
+        }
+        levelGroup = group;
+        
+        // La carte est chargée par le GameWorld, hors du cache : l'imputer au budget MAP
+        assetLoader.chargeLevelMap(gameWorld.getCurrentMap());
+        
+        // Préparer le niveau suivant pendant que celui-ci se joue
+        prefetcher.prefetch(current != null ? LevelPrefetcher.nextLevelName(current) : null);
     }
     
     private void update(float delta) {
@@ -94,10 +171,83 @@ public class GameScreen implements Screen {
         gameWorld.update(delta);
     }
     
+    /**
+     * Active ou désactive la simulation sur un thread séparé, à pas fixe.
+     * Le monde suit alors sa propre caméra et le rendu interpole les deux derniers
+     * instantanés publiés, sans jamais attendre la simulation.
+     */
+    public void setThreadedSimulation(boolean enabled) {
+        if (enabled == (simulationThread != null)) return;
+        
+        if (enabled) {
+            simulationCamera = new OrthographicCamera(gameCamera.viewportWidth, gameCamera.viewportHeight);
+            simulationCamera.position.set(gameCamera.position);
+            simulationCamera.update();
+            gameWorld.setGameCamera(simulationCamera);
+            
+            snapshots = new SnapshotTripleBuffer();
+            previousSnapshot.clear();
+            previousSnapshot.setTick(-1, 0);
+            simulationThread = new SimulationThread(gameWorld, snapshots, gameWorld.getPhysicsManager().getTimeStep());
+            simulationThread.start();
+        } else {
+            simulationThread.stop();
+            simulationThread = null;
+            snapshots = null;
+            simulationCamera = null;
+            gameWorld.setGameCamera(gameCamera);
+        }
+    }
+    
+    public boolean isThreadedSimulation() {
+        return simulationThread != null;
+    }
+    
+    /**
+     * Profiler qui reçoit les métriques du {@link com.mariogame.managers.PhysicsManager}.
+     */
+    public PerformanceProfiler getProfiler() {
+        return profiler;
+    }
+    
+    /**
+     * Prend le dernier instantané publié et place la caméra de rendu entre les deux derniers.
+     * @return Facteur d'interpolation entre l'instantané précédent et le courant
+     */
+    private float receiveSnapshot() {
+        if (snapshots.hasFresh()) {
+            // L'instantané courant devient le précédent avant d'être rendu au producteur
+            previousSnapshot.set(snapshots.getReadBuffer());
+            snapshots.acquire();
+        }
+        RenderSnapshot current = snapshots.getReadBuffer();
+        
+        float alpha = MathUtils.clamp(
+            (System.nanoTime() - current.getPublishNanos()) / (float) simulationThread.getTickNanos(), 0f, 1f);
+        
+        float cameraX = current.getCameraX();
+        float cameraY = current.getCameraY();
+        if (previousSnapshot.getTick() >= 0) {
+            cameraX = previousSnapshot.getCameraX() + (cameraX - previousSnapshot.getCameraX()) * alpha;
+            cameraY = previousSnapshot.getCameraY() + (cameraY - previousSnapshot.getCameraY()) * alpha;
+        }
+        gameCamera.position.set(cameraX, cameraY, 0);
+        gameCamera.update();
+        return alpha;
+    }
+    
     @Override
     public void render(float delta) {
-        // Mise à jour
-        update(delta);
+        // Mise à jour (sur ce thread, ou réception de l'état simulé en parallèle)
+        float alpha = 1f;
+        if (simulationThread != null) {
+            alpha = receiveSnapshot();
+        } else {
+            update(delta);
+        }
+        
+        // Chargements en attente et budgets du cache de ressources
+        assetLoader.update();
         
         // Effacer l'écran
         Gdx.gl.glClearColor(0.53f, 0.81f, 0.92f, 1); // Ciel bleu clair
@@ -114,16 +264,30 @@ public class GameScreen implements Screen {
         batch.begin();
         
         // Rendu du monde (inclut le joueur)
-        gameWorld.render(batch);
+        if (simulationThread != null) {
+            gameWorld.renderSnapshot(batch, gameCamera, previousSnapshot, snapshots.getReadBuffer(), alpha);
+        } else {
+            gameWorld.render(batch);
+        }
         
         batch.end();
         
-        // Rendu du debug si activé
-        if (debugMode && gameWorld.getPhysicsWorld() != null) {
+        // Rendu du debug si activé (le monde Box2D n'est lisible que sans simulation parallèle)
+        if (debugMode && simulationThread == null && gameWorld.getPhysicsWorld() != null) {
             debugRenderer.render(gameWorld.getPhysicsWorld(), 
                 gameCamera.combined.scl(Constants.WorldConfig.PPM));
         }
         
+        // Afficher les métriques physiques une fois par seconde en mode debug
+        // (le profiler n'est lu que lorsque la physique tourne sur ce thread)
+        if (debugMode && simulationThread == null) {
+            statsTimer += delta;
+            if (statsTimer >= 1f) {
+                statsTimer = 0f;
+                profiler.printStats();
+            }
+        }
+        
         // Rendu de l'interface utilisateur
         if (stage != null) {
             stage.act(delta);
@@ -134,6 +298,10 @@ public class GameScreen implements Screen {
     @Override
     public void resize(int width, int height) {
         gameViewport.update(width, height, true);
+        if (simulationCamera != null) {
+            simulationCamera.viewportWidth = gameCamera.viewportWidth;
+            simulationCamera.viewportHeight = gameCamera.viewportHeight;
+        }
         if (stage != null) {
             stage.getViewport().update(width, height, true);
         }
@@ -142,6 +310,8 @@ public class GameScreen implements Screen {
     @Override
     public void show() {
         Gdx.app.log("GameScreen", "show() called");
+        // Préconstruire la pause pendant le temps libre des images de jeu
+        game.getScreenManager().warmUp(ScreenType.PAUSE);
     }
     
     @Override
@@ -166,6 +336,16 @@ public class GameScreen implements Screen {
     @Override
     public void dispose() {
         // Libérer les ressources
+        if (simulationThread != null) {
+            simulationThread.stop();
+            simulationThread = null;
+        }
+        prefetcher.dispose();
+        if (levelGroup != null) {
+            assetLoader.releaseGroup(levelGroup);
+            levelGroup = null;
+        }
+        assetLoader.chargeLevelMap(null);
         if (mapRenderer != null) {
             mapRenderer.dispose();
         }
@@ -9,6 +9,7 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.mariogame.MarioGame;
@@ -36,6 +37,7 @@ public class LevelTransitionScreen implements Screen {
     private final float TRANSITION_DURATION = 1.5f;
     private boolean transitionIn = true;
     private boolean transitionComplete = false;
+    private long waitStartNanos = 0;
     
     // Effets visuels
     private Color transitionColor = new Color(0f, 0f, 0f, 0f);
@@ -113,10 +115,22 @@ public class LevelTransitionScreen implements Screen {
             
             // Passer à la phase de sortie si la moitié du temps est écoulée
             if (transitionTimer >= TRANSITION_DURATION / 2 && !transitionComplete) {
+                GameScreen gameScreen = getGameScreen();
+                
+                // Rester au noir tant que le niveau se prépare en arrière-plan :
+                // l'attendre coûte moins cher que le charger de façon synchrone
+                if (gameScreen.isLevelPending(nextLevel)) {
+                    if (waitStartNanos == 0) waitStartNanos = TimeUtils.nanoTime();
+                    return;
+                }
+                if (waitStartNanos != 0) {
+                    Gdx.app.debug("LevelTransitionScreen", "Waited "
+                        + (TimeUtils.timeSinceNanos(waitStartNanos) / 1_000_000f) + " ms for " + nextLevel);
+                }
                 transitionComplete = true;
                 
-                // Charger le prochain niveau
-                gameManager.changeLevel(nextLevel, spawnPosition);
+                // Charger le prochain niveau (déjà préparé si le prefetcher a terminé)
+                gameScreen.changeLevel(nextLevel, spawnPosition);
                 
                 // Réinitialiser pour la sortie
                 transitionTimer = 0f;
@@ -135,11 +149,15 @@ public class LevelTransitionScreen implements Screen {
             // Terminer la transition
             if (transitionTimer >= TRANSITION_DURATION / 2) {
                 // Revenir à l'écran de jeu
-                game.setScreen(game.getGameScreen());
+                game.setScreen(getGameScreen());
             }
         }
     }
     
+    private GameScreen getGameScreen() {
+        return (GameScreen) game.getScreenManager().getScreen(ScreenType.GAME);
+    }
+    
     private void renderTransition() {
         // Définir la matrice de projection
         batch.setProjectionMatrix(camera.combined);
@@ -7,16 +7,22 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.mariogame.MarioGame;
 import com.mariogame.core.AssetLoader;
-import com.mariogame.screens.MenuScreen;
+import com.mariogame.managers.ScreenManager;
 
 /**
  * Écran de chargement qui gère le chargement asynchrone des ressources.
  */
 public class LoadingScreen implements Screen {
+    // Temps accordé par image aux étapes du chargement sur le thread de rendu (envoi au GPU)
+    private static final int UPDATE_SLICE_MS = 8;
+    // Images au-delà desquelles le menu est construit d'un bloc s'il n'a pas pu être préconstruit
+    private static final int MENU_WARM_UP_MAX_FRAMES = 30;
+    
     private final MarioGame game;
     private final SpriteBatch batch;
     private final OrthographicCamera camera;
@@ -25,6 +31,8 @@ public class LoadingScreen implements Screen {
     
     private final AssetLoader assetLoader;
     private boolean assetsLoaded = false;
+    private int warmUpFrames = 0;
+    private final long startNanos;
     
     public LoadingScreen(MarioGame game) {
         this.game = game;
@@ -40,6 +48,7 @@ public class LoadingScreen implements Screen {
         font.getData().setScale(2);
         
         // Démarrer le chargement des ressources
+        startNanos = TimeUtils.nanoTime();
         assetLoader.loadAll();
     }
     
@@ -56,15 +65,21 @@ public class LoadingScreen implements Screen {
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
         
         // Mise à jour du chargement
+        ScreenManager screenManager = game.getScreenManager();
         if (!assetsLoaded) {
-            // Mettre à jour le chargement
-            if (assetLoader.update()) {
+            // Mettre à jour le chargement, par tranches pour garder l'écran fluide
+            if (assetLoader.update(UPDATE_SLICE_MS)) {
                 // Le chargement est terminé
                 assetsLoaded = true;
-                // Passer à l'écran du menu
-                game.setScreen(new MenuScreen(game));
-                return;
+                assetLoader.logLoadTimings("Chargement des ressources du menu", TimeUtils.timeSinceNanos(startNanos));
+                // Préconstruire le menu maintenant que ses ressources sont chargées,
+                // pendant le temps libre des prochaines images
+                screenManager.warmUp(ScreenType.MENU);
             }
+        } else if (!screenManager.isWarmingUp(ScreenType.MENU) || ++warmUpFrames >= MENU_WARM_UP_MAX_FRAMES) {
+            // Passer au menu, préconstruit ou, à défaut, construit maintenant
+            screenManager.setScreen(ScreenType.MENU);
+            return;
         }
         
         // Rendu de l'écran de chargement
@@ -45,7 +45,6 @@ public class MenuScreen implements Screen {
         
         // Initialisation du stage pour l'interface utilisateur
         stage = new Stage(viewport);
-        Gdx.input.setInputProcessor(stage);
         
         // Initialisation du batch pour le rendu
         batch = new SpriteBatch();
@@ -122,6 +121,9 @@ public class MenuScreen implements Screen {
     @Override
     public void show() {
         Gdx.app.log("MenuScreen", "show() called");
+        
+        // L'écran peut avoir été construit à l'avance : il ne capte les entrées qu'une fois affiché
+        Gdx.input.setInputProcessor(stage);
     }
     
     @Override
@@ -43,7 +43,6 @@ public class PauseScreen implements Screen {
         
         // Initialisation du stage pour l'interface utilisateur
         stage = new Stage(viewport);
-        Gdx.input.setInputProcessor(stage);
         
         // Chargement des polices
         titleFont = assetLoader.getFont("large");
@@ -140,6 +139,9 @@ public class PauseScreen implements Screen {
     @Override
     public void show() {
         Gdx.app.log("PauseScreen", "show() called");
+        
+        // L'écran peut avoir été construit à l'avance : il ne capte les entrées qu'une fois affiché
+        Gdx.input.setInputProcessor(stage);
     }
     
     @Override
@@ -0,0 +1,142 @@
+package com.mariogame.simulation;
+
+import com.badlogic.gdx.Gdx;
+import com.mariogame.world.GameWorld;
+import com.mariogame.world.RenderSnapshot;
+import com.mariogame.world.SnapshotTripleBuffer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fait avancer un GameWorld à pas fixe sur son propre thread et publie un
+ * instantané de rendu après chaque pas. Le thread de rendu ne touche plus au
+ * monde : un pic de physique ou d'IA retarde la simulation, pas l'image.
+ * Le niveau doit être chargé avant {@link #start()} et ne plus être modifié
+ * depuis un autre thread tant que la simulation tourne.
+ */
+public class SimulationThread implements Runnable {
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    
+    private final GameWorld world;
+    private final SnapshotTripleBuffer snapshots;
+    private final float tickSeconds;
+    private final long tickNanos;
+    
+    private Thread thread;
+    private volatile boolean running = false;
+    
+    // Statistiques
+    private volatile long tickCount = 0;
+    private volatile long lastTickNanos = 0;
+    private volatile long skippedTicks = 0;
+    
+    /**
+     * @param tickSeconds Durée d'un pas de simulation en secondes
+     */
+    public SimulationThread(GameWorld world, SnapshotTripleBuffer snapshots, float tickSeconds) {
+        if (world == null || snapshots == null) {
+            throw new IllegalArgumentException("World and snapshot buffer cannot be null");
+        }
+        if (tickSeconds <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        this.world = world;
+        this.snapshots = snapshots;
+        this.tickSeconds = tickSeconds;
+        this.tickNanos = (long) (tickSeconds * 1_000_000_000L);
+    }
+    
+    /**
+     * Publie un premier instantané puis démarre le thread de simulation.
+     */
+    public void start() {
+        if (running) return;
+        publishSnapshot();
+        
+        running = true;
+        thread = new Thread(this, "simulation-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Arrête la simulation et attend la fin du pas en cours.
+     */
+    public void stop() {
+        running = false;
+        if (thread == null) return;
+        
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+    
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime();
+        
+        while (running) {
+            long start = System.nanoTime();
+            try {
+                world.update(tickSeconds);
+                publishSnapshot();
+            } catch (RuntimeException e) {
+                Gdx.app.error("SimulationThread", "Simulation stopped after an error", e);
+                running = false;
+                return;
+            }
+            lastTickNanos = System.nanoTime() - start;
+            tickCount++;
+            
+            // Attendre le pas suivant ; après un long retard, abandonner le temps perdu
+            nextTick += tickNanos;
+            long now = System.nanoTime();
+            if (now - nextTick > MAX_CATCH_UP_TICKS * tickNanos) {
+                skippedTicks += (now - nextTick) / tickNanos;
+                nextTick = now;
+            }
+            long wait = nextTick - now;
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+    
+    private void publishSnapshot() {
+        RenderSnapshot snapshot = snapshots.getWriteBuffer();
+        world.writeSnapshot(snapshot);
+        snapshot.setTick(tickCount, System.nanoTime());
+        snapshots.publish();
+    }
+    
+    // Getters
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    public long getTickNanos() {
+        return tickNanos;
+    }
+    
+    public long getTickCount() {
+        return tickCount;
+    }
+    
+    /**
+     * Durée du dernier pas (mise à jour et publication), en nanosecondes.
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+    
+    /**
+     * Nombre de pas abandonnés pour rattraper un retard.
+     */
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+}
@@ -1,20 +1,54 @@
 package com.mariogame.systems;
 
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
-import com.mariogame.utils.Constants;
+import com.mariogame.world.TileOccupancy;
+
+import java.util.Arrays;
 
 /**
  * Système de lighting dynamique 2D avec ombres et éclairage réaliste.
  * Supporte les lumières directionnelles, ponctuelles et spotlights.
+ * Chaque frame, l'éclairage est calculé sur une grille grossière couvrant la vue
+ * (lightmap) ; les lumières et les ombres sont rangées dans des buckets pour que
+ * chaque nœud ne teste que celles qui peuvent l'atteindre. L'éclairage d'un sprite
+ * devient alors une simple interpolation bilinéaire dans la grille.
+ * Les ombres du décor sont obtenues en lançant des rayons depuis chaque lumière
+ * ponctuelle à travers la grille des tuiles solides ; le résultat est mis en cache
+ * par lumière et n'est recalculé que si la lumière bouge ou qu'une tuile change.
  */
-public class LightingSystem {
+public class LightingSystem implements TileOccupancy.ChangeListener {
+    public static final int LIGHTMAP_COLUMNS = 32;
+    public static final int LIGHTMAP_ROWS = 18;
+    private static final int BUCKET_CELLS = 4; // Cellules du lightmap par bucket, sur chaque axe
+    private static final float SHADOW_FACTOR = 0.3f;
+    
     private final Array<Light> lights = new Array<>();
     private final Array<ShadowCaster> shadowCasters = new Array<>();
     private Color ambientLight = new Color(0.3f, 0.3f, 0.3f, 1f);
     private boolean enabled = true;
+    private float time = 0f;
+    
+    // Lightmap : intensité aux nœuds d'une grille de (COLUMNS + 1) x (ROWS + 1)
+    private final float[] lightmap = new float[(LIGHTMAP_COLUMNS + 1) * (LIGHTMAP_ROWS + 1)];
+    private float mapMinX, mapMinY, cellWidth, cellHeight;
+    private boolean lightmapReady = false;
+    
+    // Index spatial des lumières ponctuelles et des ombres sur la vue
+    private final BucketIndex lightIndex = new BucketIndex();
+    private final BucketIndex casterIndex = new BucketIndex();
+    private float directionalIntensity;
+    
+    // Tuiles solides bloquant la lumière (optionnel)
+    private TileOccupancy occupancy;
+    
+    // Statistiques
+    private int lightTestsLastBuild = 0;
+    private int visibilityRebuilds = 0;
+    private long shadowRays = 0;
     
     /**
      * Ajoute une lumière ponctuelle.
@@ -44,7 +78,40 @@ public class LightingSystem {
     }
     
     /**
-     * Calcule l'intensité de la lumière à un point donné.
+     * Définit la grille des tuiles qui bloquent la lumière, ou null pour ne plus en tenir compte.
+     */
+    public void setOccupancy(TileOccupancy occupancy) {
+        if (this.occupancy != null) {
+            this.occupancy.removeListener(this);
+        }
+        this.occupancy = occupancy;
+        if (occupancy != null) {
+            occupancy.addListener(this);
+        }
+        
+        // Les visibilités calculées sur l'ancienne grille ne sont plus valables
+        for (Light light : lights) {
+            light.visible = null;
+        }
+    }
+    
+    /**
+     * Une tuile a changé : seules les lumières dont la zone la contient sont à recalculer.
+     */
+    @Override
+    public void onTileChanged(int tileX, int tileY) {
+        for (Light light : lights) {
+            if (light.visible != null
+                && tileX >= light.visibleMinX && tileX < light.visibleMinX + light.visibleColumns
+                && tileY >= light.visibleMinY && tileY < light.visibleMinY + light.visibleRows) {
+                light.visibilityDirty = true;
+            }
+        }
+    }
+    
+    /**
+     * Calcule l'intensité exacte de la lumière à un point donné, en testant
+     * toutes les lumières et toutes les ombres. Préférer {@link #sampleLightmap}.
      */
     public float getLightIntensity(float x, float y) {
         if (!enabled) return 1f;
@@ -53,11 +120,7 @@ public class LightingSystem {
         
         for (Light light : lights) {
             if (light.type == LightType.POINT) {
-                float distance = Vector2.dst(x, y, light.x, light.y);
-                if (distance < light.radius) {
-                    float attenuation = 1f - (distance / light.radius);
-                    totalIntensity += light.intensity * attenuation * light.color.r;
-                }
+                totalIntensity += pointContribution(light, x, y);
             } else if (light.type == LightType.DIRECTIONAL) {
                 totalIntensity += light.intensity * light.color.r;
             }
@@ -66,7 +129,7 @@ public class LightingSystem {
         // Vérifier les ombres
         for (ShadowCaster caster : shadowCasters) {
             if (isInShadow(x, y, caster)) {
-                totalIntensity *= 0.3f; // Réduire l'intensité dans l'ombre
+                totalIntensity *= SHADOW_FACTOR; // Réduire l'intensité dans l'ombre
             }
         }
         
@@ -82,6 +145,177 @@ public class LightingSystem {
                y >= caster.y && y <= caster.y + caster.height;
     }
     
+    /**
+     * Calcule le lightmap de la frame sur la vue de la caméra.
+     * Doit être appelé après {@link #update(float)} et avant le rendu des sprites.
+     */
+    public void buildLightmap(OrthographicCamera camera) {
+        float halfWidth = camera.viewportWidth * camera.zoom / 2f;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2f;
+        buildLightmap(camera.position.x - halfWidth, camera.position.y - halfHeight,
+                      camera.position.x + halfWidth, camera.position.y + halfHeight);
+    }
+    
+    /**
+     * Calcule le lightmap de la frame sur une zone donnée.
+     */
+    public void buildLightmap(float minX, float minY, float maxX, float maxY) {
+        lightTestsLastBuild = 0;
+        if (!enabled || maxX <= minX || maxY <= minY) {
+            lightmapReady = false;
+            return;
+        }
+        
+        mapMinX = minX;
+        mapMinY = minY;
+        cellWidth = (maxX - minX) / LIGHTMAP_COLUMNS;
+        cellHeight = (maxY - minY) / LIGHTMAP_ROWS;
+        
+        indexLights();
+        
+        // Évaluer chaque nœud avec les seules lumières et ombres de son bucket
+        float base = ambientLight.r + directionalIntensity;
+        for (int row = 0; row <= LIGHTMAP_ROWS; row++) {
+            float y = minY + row * cellHeight;
+            int bucketY = Math.min(row / BUCKET_CELLS, BucketIndex.ROWS - 1);
+            
+            for (int col = 0; col <= LIGHTMAP_COLUMNS; col++) {
+                float x = minX + col * cellWidth;
+                int bucket = bucketY * BucketIndex.COLUMNS + Math.min(col / BUCKET_CELLS, BucketIndex.COLUMNS - 1);
+                
+                float total = base;
+                for (int k = lightIndex.start[bucket], end = lightIndex.start[bucket + 1]; k < end; k++) {
+                    total += pointContribution(lights.get(lightIndex.items[k]), x, y);
+                }
+                for (int k = casterIndex.start[bucket], end = casterIndex.start[bucket + 1]; k < end; k++) {
+                    if (isInShadow(x, y, shadowCasters.get(casterIndex.items[k]))) {
+                        total *= SHADOW_FACTOR;
+                    }
+                }
+                lightTestsLastBuild += lightIndex.start[bucket + 1] - lightIndex.start[bucket]
+                    + casterIndex.start[bucket + 1] - casterIndex.start[bucket];
+                
+                lightmap[row * (LIGHTMAP_COLUMNS + 1) + col] = Math.min(1f, total);
+            }
+        }
+        
+        lightmapReady = true;
+    }
+    
+    /**
+     * Range les lumières ponctuelles et les ombres dans les buckets qu'elles touchent.
+     */
+    private void indexLights() {
+        float bucketWidth = cellWidth * BUCKET_CELLS;
+        float bucketHeight = cellHeight * BUCKET_CELLS;
+        
+        directionalIntensity = 0f;
+        lightIndex.begin(mapMinX, mapMinY, bucketWidth, bucketHeight);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < lights.size; i++) {
+                Light light = lights.get(i);
+                if (light.type == LightType.POINT) {
+                    lightIndex.add(i, light.x - light.radius, light.y - light.radius,
+                                   light.x + light.radius, light.y + light.radius);
+                } else if (light.type == LightType.DIRECTIONAL && pass == 0) {
+                    directionalIntensity += light.intensity * light.color.r;
+                }
+            }
+            if (pass == 0) lightIndex.allocate();
+        }
+        
+        casterIndex.begin(mapMinX, mapMinY, bucketWidth, bucketHeight);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < shadowCasters.size; i++) {
+                ShadowCaster caster = shadowCasters.get(i);
+                casterIndex.add(i, caster.x, caster.y, caster.x + caster.width, caster.y + caster.height);
+            }
+            if (pass == 0) casterIndex.allocate();
+        }
+    }
+    
+    private float pointContribution(Light light, float x, float y) {
+        float dx = x - light.x;
+        float dy = y - light.y;
+        float distanceSq = dx * dx + dy * dy;
+        if (distanceSq >= light.radius * light.radius) return 0f;
+        if (occupancy != null && !isVisibleFrom(light, x, y)) return 0f;
+        
+        float attenuation = 1f - ((float) Math.sqrt(distanceSq) / light.radius);
+        return light.intensity * attenuation * light.color.r;
+    }
+    
+    /**
+     * Vrai si la tuile contenant le point n'est masquée par aucune tuile solide depuis la lumière.
+     */
+    private boolean isVisibleFrom(Light light, float x, float y) {
+        if (light.visible == null || light.visibilityDirty
+            || light.x != light.cachedX || light.y != light.cachedY || light.radius != light.cachedRadius) {
+            computeVisibility(light);
+        }
+        
+        int column = occupancy.toTile(x) - light.visibleMinX;
+        int row = occupancy.toTile(y) - light.visibleMinY;
+        if (column < 0 || row < 0 || column >= light.visibleColumns || row >= light.visibleRows) return true;
+        return light.visible[row * light.visibleColumns + column];
+    }
+    
+    /**
+     * Lance un rayon vers le centre de chaque tuile couverte par la lumière.
+     */
+    private void computeVisibility(Light light) {
+        int minX = occupancy.toTile(light.x - light.radius);
+        int minY = occupancy.toTile(light.y - light.radius);
+        int columns = occupancy.toTile(light.x + light.radius) - minX + 1;
+        int rows = occupancy.toTile(light.y + light.radius) - minY + 1;
+        
+        if (light.visible == null || light.visible.length < columns * rows) {
+            light.visible = new boolean[columns * rows];
+        }
+        
+        float tileSize = occupancy.getTileSize();
+        for (int row = 0; row < rows; row++) {
+            float centerY = (minY + row + 0.5f) * tileSize;
+            for (int column = 0; column < columns; column++) {
+                float centerX = (minX + column + 0.5f) * tileSize;
+                light.visible[row * columns + column] = occupancy.isSegmentClear(light.x, light.y, centerX, centerY);
+            }
+        }
+        
+        light.visibleMinX = minX;
+        light.visibleMinY = minY;
+        light.visibleColumns = columns;
+        light.visibleRows = rows;
+        light.cachedX = light.x;
+        light.cachedY = light.y;
+        light.cachedRadius = light.radius;
+        light.visibilityDirty = false;
+        visibilityRebuilds++;
+        shadowRays += columns * rows;
+    }
+    
+    /**
+     * Intensité interpolée dans le lightmap de la frame. Hors de la vue, la valeur du bord est utilisée ;
+     * sans lightmap, l'intensité exacte est calculée.
+     */
+    public float sampleLightmap(float x, float y) {
+        if (!enabled) return 1f;
+        if (!lightmapReady) return getLightIntensity(x, y);
+        
+        float u = MathUtils.clamp((x - mapMinX) / cellWidth, 0f, LIGHTMAP_COLUMNS);
+        float v = MathUtils.clamp((y - mapMinY) / cellHeight, 0f, LIGHTMAP_ROWS);
+        int col = Math.min((int) u, LIGHTMAP_COLUMNS - 1);
+        int row = Math.min((int) v, LIGHTMAP_ROWS - 1);
+        float fx = u - col;
+        float fy = v - row;
+        
+        int index = row * (LIGHTMAP_COLUMNS + 1) + col;
+        float bottom = lightmap[index] + (lightmap[index + 1] - lightmap[index]) * fx;
+        index += LIGHTMAP_COLUMNS + 1;
+        float top = lightmap[index] + (lightmap[index + 1] - lightmap[index]) * fx;
+        return bottom + (top - bottom) * fy;
+    }
+    
     /**
      * Applique l'éclairage à un sprite lors du rendu.
      */
@@ -91,20 +325,20 @@ public class LightingSystem {
             return;
         }
         
-        float intensity = getLightIntensity(x, y);
-        Color lightingColor = new Color(intensity, intensity, intensity, 1f);
-        batch.setColor(lightingColor);
+        float intensity = sampleLightmap(x, y);
+        batch.setColor(intensity, intensity, intensity, 1f);
     }
     
     /**
      * Met à jour le système d'éclairage.
      */
     public void update(float deltaTime) {
+        time += deltaTime;
+        
         // Mettre à jour les lumières animées
         for (Light light : lights) {
             if (light.flickering) {
-                light.intensity = light.baseIntensity + 
-                    (float)Math.sin(System.currentTimeMillis() * 0.01) * 0.2f;
+                light.intensity = light.baseIntensity + MathUtils.sin(time * 10f) * 0.2f;
             }
         }
     }
@@ -115,6 +349,7 @@ public class LightingSystem {
     public void clear() {
         lights.clear();
         shadowCasters.clear();
+        lightmapReady = false;
     }
     
     public void setEnabled(boolean enabled) {
@@ -125,6 +360,31 @@ public class LightingSystem {
         this.ambientLight.set(color);
     }
     
+    /**
+     * Nombre de tests lumière/ombre effectués par le dernier calcul du lightmap.
+     */
+    public int getLightTestsLastBuild() {
+        return lightTestsLastBuild;
+    }
+    
+    public boolean isLightmapReady() {
+        return lightmapReady;
+    }
+    
+    /**
+     * Nombre de calculs de visibilité effectués depuis la création.
+     */
+    public int getVisibilityRebuilds() {
+        return visibilityRebuilds;
+    }
+    
+    /**
+     * Nombre de rayons lancés à travers la grille des tuiles depuis la création.
+     */
+    public long getShadowRays() {
+        return shadowRays;
+    }
+    
     /**
      * Type de lumière.
      */
@@ -145,6 +405,12 @@ public class LightingSystem {
         public float angle;
         public boolean flickering = false;
         
+        // Cache de visibilité des tuiles couvertes par le rayon de la lumière
+        boolean[] visible;
+        int visibleMinX, visibleMinY, visibleColumns, visibleRows;
+        float cachedX, cachedY, cachedRadius;
+        boolean visibilityDirty = true;
+        
         public Light(LightType type, float x, float y, float radius, Color color, float intensity) {
             this.type = type;
             this.x = x;
@@ -160,6 +426,64 @@ public class LightingSystem {
         }
     }
     
+    /**
+     * Index en buckets sur la zone du lightmap, stocké à plat : les éléments du bucket b
+     * sont items[start[b]] à items[start[b + 1] - 1]. Construit en deux passes
+     * (comptage puis remplissage) sans allocation une fois les tableaux dimensionnés.
+     */
+    private static class BucketIndex {
+        static final int COLUMNS = (LIGHTMAP_COLUMNS + BUCKET_CELLS - 1) / BUCKET_CELLS;
+        static final int ROWS = (LIGHTMAP_ROWS + BUCKET_CELLS - 1) / BUCKET_CELLS;
+        
+        final int[] start = new int[COLUMNS * ROWS + 1];
+        private final int[] cursor = new int[COLUMNS * ROWS];
+        int[] items = new int[64];
+        private float minX, minY, bucketWidth, bucketHeight;
+        private boolean filling;
+        
+        void begin(float minX, float minY, float bucketWidth, float bucketHeight) {
+            this.minX = minX;
+            this.minY = minY;
+            this.bucketWidth = bucketWidth;
+            this.bucketHeight = bucketHeight;
+            Arrays.fill(start, 0);
+            filling = false;
+        }
+        
+        /**
+         * Passe de comptage, puis de remplissage après {@link #allocate()}.
+         */
+        void add(int item, float x1, float y1, float x2, float y2) {
+            int fromX = Math.max(0, MathUtils.floor((x1 - minX) / bucketWidth));
+            int toX = Math.min(COLUMNS - 1, MathUtils.floor((x2 - minX) / bucketWidth));
+            int fromY = Math.max(0, MathUtils.floor((y1 - minY) / bucketHeight));
+            int toY = Math.min(ROWS - 1, MathUtils.floor((y2 - minY) / bucketHeight));
+            
+            for (int by = fromY; by <= toY; by++) {
+                for (int bx = fromX; bx <= toX; bx++) {
+                    int bucket = by * COLUMNS + bx;
+                    if (filling) {
+                        items[cursor[bucket]++] = item;
+                    } else {
+                        start[bucket + 1]++;
+                    }
+                }
+            }
+        }
+        
+        void allocate() {
+            for (int b = 0; b < COLUMNS * ROWS; b++) {
+                start[b + 1] += start[b];
+                cursor[b] = start[b];
+            }
+            int total = start[COLUMNS * ROWS];
+            if (items.length < total) {
+                items = new int[Math.max(total, items.length * 2)];
+            }
+            filling = true;
+        }
+    }
+    
     /**
      * Objet qui projette des ombres.
      */
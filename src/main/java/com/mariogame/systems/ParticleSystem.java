@@ -2,43 +2,116 @@ package com.mariogame.systems;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.NumberUtils;
 import com.mariogame.utils.Constants;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Système de particules ultra-performant avec effets avancés.
- * Supporte des milliers de particules avec interpolation et effets physiques.
+ * Les particules sont stockées en colonnes (un tableau primitif par attribut) :
+ * aucune particule n'est un objet, une particule morte est remplacée par la
+ * dernière, et le rendu remplit un seul tableau de sommets pré-alloué soumis
+ * en un appel par frame. Le chemin séquentiel n'alloue rien après la construction.
+ * Au-delà d'un seuil, l'intégration est répartie par tranches sur un ForkJoinPool ;
+ * les particules mortes sont retirées ensuite en une seule passe, si bien que le
+ * résultat est identique à celui du chemin séquentiel.
  */
 public class ParticleSystem {
-    private static final int MAX_PARTICLES = 10000;
-    private static final int INITIAL_POOL_SIZE = 1000;
+    public static final int MAX_PARTICLES = 100_000;
     
-    private final Array<Particle> activeParticles = new Array<>(MAX_PARTICLES);
-    private final Pool<Particle> particlePool = new Pool<Particle>(INITIAL_POOL_SIZE, MAX_PARTICLES) {
-        @Override
-        protected Particle newObject() {
-            return new Particle();
-        }
-    };
+    private static final int VERTEX_SIZE = 5; // x, y, couleur, u, v
+    private static final int SPRITE_SIZE = 4 * VERTEX_SIZE;
+    private static final float GRAVITY_SCALE = 0.1f;
+    private static final float FRICTION = 0.98f;
+    private static final float KILL_HEIGHT = -10f; // Hors écran
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+    private static final int CHUNK_SIZE = 4096;
+    
+    private final int capacity;
+    private int count = 0;
+    
+    // Attributs des particules, indexés de 0 à count - 1
+    private final float[] x, y;
+    private final float[] vx, vy;
+    private final float[] life, invMaxLife;
+    private final int[] rgb; // Couleur ABGR sans alpha : l'alpha suit la vie restante
+    private final float[] size;
+    private final float[] rotation, rotationSpeed;
+    
+    // Rendu
+    private final float[] vertices;
+    private TextureRegion region;
+    
+    // Intégration parallèle
+    private final ForkJoinPool pool;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private float stepDelta;
+    private float stepGravity;
+    private boolean parallelLastUpdate = false;
     
     private final Array<Emitter> emitters = new Array<>();
     
+    public ParticleSystem() {
+        this(MAX_PARTICLES);
+    }
+    
+    /**
+     * @param capacity Nombre maximal de particules vivantes ; les suivantes sont ignorées
+     */
+    public ParticleSystem(int capacity) {
+        this(capacity, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * @param capacity Nombre maximal de particules vivantes
+     * @param pool Pool partagé utilisé pour les grosses rafales
+     */
+    public ParticleSystem(int capacity, ForkJoinPool pool) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        this.capacity = capacity;
+        this.pool = pool;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        life = new float[capacity];
+        invMaxLife = new float[capacity];
+        rgb = new int[capacity];
+        size = new float[capacity];
+        rotation = new float[capacity];
+        rotationSpeed = new float[capacity];
+        vertices = new float[capacity * SPRITE_SIZE];
+    }
+    
+    /**
+     * Définit l'image dessinée pour chaque particule. Sans image, rien n'est dessiné.
+     */
+    public void setTexture(TextureRegion region) {
+        this.region = region;
+    }
+    
     /**
      * Crée une explosion de particules.
      */
     public void createExplosion(float x, float y, int count, Color color, float speed) {
+        int packed = pack(color);
         for (int i = 0; i < count; i++) {
-            Particle particle = particlePool.obtain();
-            particle.init(x, y, 
-                         MathUtils.random(0, 360), 
-                         MathUtils.random(speed * 0.5f, speed * 1.5f),
-                         color,
-                         MathUtils.random(0.3f, 1.0f),
-                         MathUtils.random(0.5f, 2.0f));
-            activeParticles.add(particle);
+            spawn(x, y,
+                  MathUtils.random(0, 360),
+                  MathUtils.random(speed * 0.5f, speed * 1.5f),
+                  packed,
+                  MathUtils.random(0.3f, 1.0f),
+                  MathUtils.random(0.5f, 2.0f));
         }
     }
     
@@ -46,11 +119,10 @@ public class ParticleSystem {
      * Crée un effet de collecte (pièce, power-up).
      */
     public void createCollectEffect(float x, float y, Color color) {
+        int packed = pack(color);
         for (int i = 0; i < 20; i++) {
-            Particle particle = particlePool.obtain();
             float angle = (360f / 20f) * i;
-            particle.init(x, y, angle, MathUtils.random(2f, 5f), color, 1f, MathUtils.random(0.3f, 0.8f));
-            activeParticles.add(particle);
+            spawn(x, y, angle, MathUtils.random(2f, 5f), packed, 1f, MathUtils.random(0.3f, 0.8f));
         }
     }
     
@@ -58,11 +130,10 @@ public class ParticleSystem {
      * Crée un effet de saut.
      */
     public void createJumpEffect(float x, float y) {
+        int packed = pack(Color.WHITE);
         for (int i = 0; i < 15; i++) {
-            Particle particle = particlePool.obtain();
             float angle = MathUtils.random(180f, 360f); // Vers le bas
-            particle.init(x, y, angle, MathUtils.random(1f, 3f), Color.WHITE, 0.8f, MathUtils.random(0.2f, 0.5f));
-            activeParticles.add(particle);
+            spawn(x, y, angle, MathUtils.random(1f, 3f), packed, 0.8f, MathUtils.random(0.2f, 0.5f));
         }
     }
     
@@ -70,12 +141,10 @@ public class ParticleSystem {
      * Crée un effet de dash.
      */
     public void createDashEffect(float x, float y, boolean facingRight) {
-        Color dashColor = new Color(0.5f, 0.8f, 1f, 0.9f);
+        int dashColor = pack(0.5f, 0.8f, 1f);
         for (int i = 0; i < 30; i++) {
-            Particle particle = particlePool.obtain();
             float angle = facingRight ? MathUtils.random(-30f, 30f) : MathUtils.random(150f, 210f);
-            particle.init(x, y, angle, MathUtils.random(5f, 10f), dashColor, 0.9f, MathUtils.random(0.3f, 0.6f));
-            activeParticles.add(particle);
+            spawn(x, y, angle, MathUtils.random(5f, 10f), dashColor, 0.9f, MathUtils.random(0.3f, 0.6f));
         }
     }
     
@@ -84,20 +153,40 @@ public class ParticleSystem {
      */
     public void createFireEffect(float x, float y, float intensity) {
         for (int i = 0; i < (int)(intensity * 20); i++) {
-            Particle particle = particlePool.obtain();
             float angle = MathUtils.random(80f, 100f); // Vers le haut
-            Color fireColor = new Color(
-                MathUtils.random(0.8f, 1f),
-                MathUtils.random(0.3f, 0.6f),
-                0f,
-                MathUtils.random(0.7f, 1f)
-            );
-            particle.init(x + MathUtils.random(-0.2f, 0.2f), y, angle, 
-                         MathUtils.random(1f, 3f), fireColor, 1f, MathUtils.random(0.2f, 0.5f));
-            activeParticles.add(particle);
+            int fireColor = pack(MathUtils.random(0.8f, 1f), MathUtils.random(0.3f, 0.6f), 0f);
+            spawn(x + MathUtils.random(-0.2f, 0.2f), y, angle,
+                  MathUtils.random(1f, 3f), fireColor, 1f, MathUtils.random(0.2f, 0.5f));
         }
     }
     
+    /**
+     * Ajoute une particule. Ignorée si la capacité est atteinte.
+     */
+    private void spawn(float px, float py, float angle, float speed, int color, float lifetime, float particleSize) {
+        if (count >= capacity) return;
+        
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = MathUtils.cosDeg(angle) * speed;
+        vy[i] = MathUtils.sinDeg(angle) * speed;
+        life[i] = lifetime;
+        invMaxLife[i] = 1f / lifetime;
+        rgb[i] = color;
+        size[i] = particleSize;
+        rotation[i] = MathUtils.random(0, 360);
+        rotationSpeed[i] = MathUtils.random(-180f, 180f);
+    }
+    
+    private static int pack(Color color) {
+        return pack(color.r, color.g, color.b);
+    }
+    
+    private static int pack(float r, float g, float b) {
+        return Color.toIntBits((int) (r * 255), (int) (g * 255), (int) (b * 255), 0);
+    }
+    
     /**
      * Met à jour toutes les particules.
      */
@@ -111,101 +200,139 @@ public class ParticleSystem {
             }
         }
         
-        // Mettre à jour les particules
-        for (int i = activeParticles.size - 1; i >= 0; i--) {
-            Particle particle = activeParticles.get(i);
-            particle.update(deltaTime);
+        stepDelta = deltaTime;
+        stepGravity = Constants.WorldConfig.GRAVITY * deltaTime * GRAVITY_SCALE;
+        
+        // Intégrer toutes les particules, en parallèle pour les grosses rafales
+        parallelLastUpdate = count > parallelThreshold;
+        if (parallelLastUpdate) {
+            pool.invoke(new IntegrateTask(0, count));
+        } else {
+            integrate(0, count);
+        }
+        
+        // Retirer les particules mortes en une passe
+        compact();
+    }
+    
+    /**
+     * Fait avancer les particules [from, to). Chaque particule ne dépend que d'elle-même :
+     * les tranches peuvent être traitées sur des threads différents.
+     */
+    private void integrate(int from, int to) {
+        float deltaTime = stepDelta;
+        float gravity = stepGravity;
+        
+        for (int i = from; i < to; i++) {
+            // Physique, gravité puis friction
+            x[i] += vx[i] * deltaTime;
+            y[i] += vy[i] * deltaTime;
+            vx[i] *= FRICTION;
+            vy[i] = (vy[i] + gravity) * FRICTION;
             
-            if (particle.isDead()) {
-                activeParticles.removeIndex(i);
-                particlePool.free(particle);
+            // Vie et rotation
+            life[i] -= deltaTime;
+            rotation[i] += rotationSpeed[i] * deltaTime;
+        }
+    }
+    
+    private void compact() {
+        int i = 0;
+        while (i < count) {
+            if (life[i] <= 0 || y[i] < KILL_HEIGHT) {
+                // La dernière particule prend la place de la morte ; elle est testée au tour suivant
+                removeAt(i);
+            } else {
+                i++;
             }
         }
     }
     
     /**
-     * Rend toutes les particules.
+     * Découpe récursivement la plage de particules jusqu'à des tranches de CHUNK_SIZE.
      */
-    public void render(SpriteBatch batch) {
-        batch.setColor(Color.WHITE);
+    private final class IntegrateTask extends RecursiveAction {
+        private final int from, to;
         
-        for (Particle particle : activeParticles) {
-            particle.render(batch);
+        IntegrateTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                integrate(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new IntegrateTask(from, middle), new IntegrateTask(middle, to));
         }
     }
     
     /**
-     * Nettoie toutes les particules.
+     * Retire une particule en la remplaçant par la dernière.
      */
-    public void clear() {
-        for (Particle particle : activeParticles) {
-            particlePool.free(particle);
-        }
-        activeParticles.clear();
-        emitters.clear();
+    private void removeAt(int i) {
+        int last = --count;
+        if (i == last) return;
+        
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        life[i] = life[last];
+        invMaxLife[i] = invMaxLife[last];
+        rgb[i] = rgb[last];
+        size[i] = size[last];
+        rotation[i] = rotation[last];
+        rotationSpeed[i] = rotationSpeed[last];
     }
     
     /**
-     * Classe représentant une particule.
+     * Rend toutes les particules en un seul envoi de sommets.
      */
-    private static class Particle {
-        Vector2 position = new Vector2();
-        Vector2 velocity = new Vector2();
-        Color color = new Color();
-        float life;
-        float maxLife;
-        float size;
-        float rotation;
-        float rotationSpeed;
+    public void render(SpriteBatch batch) {
+        if (region == null || count == 0) return;
         
-        void init(float x, float y, float angle, float speed, Color color, float life, float size) {
-            position.set(x, y);
-            float radians = angle * MathUtils.degreesToRadians;
-            velocity.set(MathUtils.cos(radians) * speed, MathUtils.sin(radians) * speed);
-            this.color.set(color);
-            this.life = life;
-            this.maxLife = life;
-            this.size = size;
-            this.rotation = MathUtils.random(0, 360);
-            this.rotationSpeed = MathUtils.random(-180f, 180f);
-        }
+        float ppm = Constants.WorldConfig.PPM;
+        float u = region.getU(), v = region.getV();
+        float u2 = region.getU2(), v2 = region.getV2();
+        float[] verts = vertices;
+        int idx = 0;
         
-        void update(float deltaTime) {
-            // Physique
-            position.add(velocity.x * deltaTime, velocity.y * deltaTime);
-            
-            // Gravité
-            velocity.y += Constants.WorldConfig.GRAVITY * deltaTime * 0.1f;
-            
-            // Friction
-            velocity.scl(0.98f);
-            
-            // Vie
-            life -= deltaTime;
+        for (int i = 0; i < count; i++) {
+            // Fondu selon la vie restante
+            int alpha = (int) (255 * Math.min(1f, life[i] * invMaxLife[i]));
+            float color = NumberUtils.intToFloatColor(rgb[i] | alpha << 24);
             
-            // Rotation
-            rotation += rotationSpeed * deltaTime;
+            float half = size[i] * ppm * 0.5f;
+            float cx = x[i] * ppm;
+            float cy = y[i] * ppm;
+            float a = half * MathUtils.cosDeg(rotation[i]);
+            float b = half * MathUtils.sinDeg(rotation[i]);
             
-            // Fade out
-            float alpha = Math.max(0, life / maxLife);
-            color.a = alpha;
+            // Coins bas-gauche, haut-gauche, haut-droit, bas-droit, tournés autour du centre
+            verts[idx] = cx - a + b; verts[idx + 1] = cy - b - a; verts[idx + 2] = color;
+            verts[idx + 3] = u; verts[idx + 4] = v2;
+            verts[idx + 5] = cx - a - b; verts[idx + 6] = cy - b + a; verts[idx + 7] = color;
+            verts[idx + 8] = u; verts[idx + 9] = v;
+            verts[idx + 10] = cx + a - b; verts[idx + 11] = cy + b + a; verts[idx + 12] = color;
+            verts[idx + 13] = u2; verts[idx + 14] = v;
+            verts[idx + 15] = cx + a + b; verts[idx + 16] = cy + b - a; verts[idx + 17] = color;
+            verts[idx + 18] = u2; verts[idx + 19] = v2;
+            idx += SPRITE_SIZE;
         }
         
-        void render(SpriteBatch batch) {
-            batch.setColor(color);
-            // Rendu simplifié (peut être amélioré avec des textures)
-            // Ici on dessine un carré simple, mais on pourrait utiliser des sprites
-            float halfSize = size * Constants.WorldConfig.PPM * 0.5f;
-            float x = position.x * Constants.WorldConfig.PPM - halfSize;
-            float y = position.y * Constants.WorldConfig.PPM - halfSize;
-            
-            // Utiliser une texture de particule si disponible
-            // batch.draw(particleTexture, x, y, halfSize, halfSize, size * PPM, size * PPM, 1, 1, rotation);
-        }
-        
-        boolean isDead() {
-            return life <= 0 || position.y < -10; // Hors écran
-        }
+        batch.draw(region.getTexture(), verts, 0, idx);
+    }
+    
+    /**
+     * Nettoie toutes les particules.
+     */
+    public void clear() {
+        count = 0;
+        emitters.clear();
     }
     
     /**
@@ -235,7 +362,39 @@ public class ParticleSystem {
     }
     
     public int getActiveParticleCount() {
-        return activeParticles.size;
+        return count;
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Nombre de particules vivantes au-delà duquel l'intégration devient parallèle.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+    
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+    
+    public boolean isParallelLastUpdate() {
+        return parallelLastUpdate;
+    }
+    
+    // Accès en lecture pour le diagnostic et les tests
+    
+    public float getX(int index) {
+        return x[index];
+    }
+    
+    public float getY(int index) {
+        return y[index];
+    }
+    
+    public float getLife(int index) {
+        return life[index];
     }
 }
-
@@ -22,12 +22,7 @@ public class PerformanceProfiler {
     public void start(String name) {
         if (!enabled) return;
         
-        ProfileData data = profiles.get(name);
-        if (data == null) {
-            data = new ProfileData(name);
-            profiles.put(name, data);
-        }
-        
+        ProfileData data = getOrCreate(name, true);
         data.startTime = TimeUtils.nanoTime();
         activeProfiles.add(name);
     }
@@ -48,6 +43,32 @@ public class PerformanceProfiler {
         activeProfiles.removeValue(name, false);
     }
     
+    /**
+     * Enregistre une durée mesurée ailleurs (ex. le temps des pas physiques d'une frame).
+     */
+    public void record(String name, long durationNanos) {
+        if (!enabled) return;
+        getOrCreate(name, true).addSample(durationNanos);
+    }
+    
+    /**
+     * Enregistre une valeur entière sans unité (compteur, niveau).
+     */
+    public void recordCount(String name, long value) {
+        if (!enabled) return;
+        getOrCreate(name, false).addSample(value);
+    }
+    
+    private ProfileData getOrCreate(String name, boolean duration) {
+        ProfileData data = profiles.get(name);
+        if (data == null) {
+            data = new ProfileData(name);
+            data.duration = duration;
+            profiles.put(name, data);
+        }
+        return data;
+    }
+    
     /**
      * Obtient les statistiques d'une section.
      */
@@ -67,6 +88,11 @@ public class PerformanceProfiler {
         Gdx.app.log("Profiler", "=== Performance Stats ===");
         for (ObjectMap.Entry<String, ProfileData> entry : profiles) {
             ProfileStats stats = entry.value.getStats();
+            if (!entry.value.duration) {
+                Gdx.app.log("Profiler", String.format("%s: %d (avg: %d, min: %d, max: %d)",
+                    entry.key, stats.lastTime, stats.avgTime, stats.minTime, stats.maxTime));
+                continue;
+            }
             Gdx.app.log("Profiler", String.format("%s: %.3fms (avg: %.3fms, min: %.3fms, max: %.3fms)", 
                 entry.key, stats.lastTime / 1_000_000f, stats.avgTime / 1_000_000f,
                 stats.minTime / 1_000_000f, stats.maxTime / 1_000_000f));
@@ -94,37 +120,41 @@ public class PerformanceProfiler {
      */
     private static class ProfileData {
         final String name;
-        final Array<Long> samples = new Array<>(MAX_SAMPLES);
+        // Tampon circulaire : pas de boxing ni de décalage à chaque échantillon
+        final long[] samples = new long[MAX_SAMPLES];
+        int count;
+        int next;
         long startTime;
+        boolean duration = true;
         
         ProfileData(String name) {
             this.name = name;
         }
         
-        void addSample(long duration) {
-            samples.add(duration);
-            if (samples.size > MAX_SAMPLES) {
-                samples.removeIndex(0);
-            }
+        void addSample(long value) {
+            samples[next] = value;
+            next = (next + 1) % MAX_SAMPLES;
+            if (count < MAX_SAMPLES) count++;
         }
         
         ProfileStats getStats() {
-            if (samples.size == 0) {
+            if (count == 0) {
                 return new ProfileStats(0, 0, 0, 0);
             }
             
-            long last = samples.peek();
+            long last = samples[(next + MAX_SAMPLES - 1) % MAX_SAMPLES];
             long sum = 0;
             long min = Long.MAX_VALUE;
             long max = Long.MIN_VALUE;
             
-            for (long sample : samples) {
+            for (int i = 0; i < count; i++) {
+                long sample = samples[i];
                 sum += sample;
                 min = Math.min(min, sample);
                 max = Math.max(max, sample);
             }
             
-            long avg = sum / samples.size;
+            long avg = sum / count;
             
             return new ProfileStats(last, avg, min, max);
         }
@@ -1,119 +1,574 @@
 package com.mariogame.systems;
 
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.ChainShape;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.EdgeShape;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.Shape;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
-import com.mariogame.utils.Constants;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
 
 /**
  * Optimiseur de physique avec spatial partitioning pour améliorer les performances.
  * Réduit drastiquement le nombre de calculs de collision.
+ * L'index est persistant : chaque corps est rangé dans toutes les cellules que couvre
+ * la boîte englobante de ses fixtures. Seuls les corps mobiles éveillés sont parcourus
+ * à chaque mise à jour ; les corps statiques sont rangés une fois pour toutes et les
+ * corps endormis quittent la liste des éveillés jusqu'à leur réveil ({@link #wake(Body)}).
+ * Les requêtes écrivent dans un tampon fourni par l'appelant sans allocation.
  */
 public class PhysicsOptimizer {
     private final World world;
     private final SpatialHashGrid spatialGrid;
+    private final Array<Body> bodies = new Array<>();
     private static final float CELL_SIZE = 2f; // 2 mètres par cellule
     
+    // Statistiques
+    private int resyncCount = 0;
+    
     public PhysicsOptimizer(World world, float worldWidth, float worldHeight) {
         this.world = world;
-        int gridWidth = (int) Math.ceil(worldWidth / CELL_SIZE);
-        int gridHeight = (int) Math.ceil(worldHeight / CELL_SIZE);
+        int gridWidth = Math.max(1, (int) Math.ceil(worldWidth / CELL_SIZE));
+        int gridHeight = Math.max(1, (int) Math.ceil(worldHeight / CELL_SIZE));
         this.spatialGrid = new SpatialHashGrid(gridWidth, gridHeight, CELL_SIZE);
     }
     
     /**
-     * Met à jour la grille spatiale avec tous les corps.
+     * Met à jour la grille spatiale de manière incrémentale : seuls les corps mobiles
+     * éveillés sont parcourus, et ceux qui se sont endormis quittent la liste.
+     * Si le monde ne compte pas autant de corps que l'index (corps créé ou détruit sans
+     * passer par {@link #add(Body)} ou {@link #remove(Body)}), l'index est resynchronisé.
      */
     public void update() {
-        spatialGrid.clear();
-        
-        Array<Body> bodies = new Array<>();
+        spatialGrid.beginFrame();
+        if (world.getBodyCount() != spatialGrid.size) {
+            resync();
+        }
+        spatialGrid.updateAwake();
+    }
+    
+    /**
+     * Reconstruit la liste des corps à partir du monde : ajoute les corps inconnus
+     * et retire ceux qui ont disparu.
+     */
+    private void resync() {
         world.getBodies(bodies);
-        
-        for (Body body : bodies) {
-            if (body.isActive()) {
-                Vector2 pos = body.getPosition();
-                spatialGrid.insert(body, pos.x, pos.y);
-            }
+        spatialGrid.beginSync();
+        for (int i = 0; i < bodies.size; i++) {
+            spatialGrid.add(bodies.get(i));
         }
+        spatialGrid.removeUnseen();
+        bodies.clear();
+        resyncCount++;
+    }
+    
+    /**
+     * Indexe un corps qui vient d'être créé. Un corps statique est rangé une fois
+     * pour toutes ; un corps mobile éveillé rejoint la liste des corps parcourus.
+     */
+    public void add(Body body) {
+        spatialGrid.beginSync();
+        spatialGrid.add(body);
+    }
+    
+    /**
+     * Signale qu'un corps mobile a pu se réveiller (contact, force, activation) :
+     * il est de nouveau parcouru jusqu'à ce qu'il se rendorme. Sans effet sur un
+     * corps statique, inconnu ou déjà éveillé.
+     */
+    public void wake(Body body) {
+        spatialGrid.wake(body);
+    }
+    
+    /**
+     * Recalcule aussitôt la place d'un corps, par exemple un corps statique déplacé
+     * avec {@code setTransform}.
+     */
+    public void refresh(Body body) {
+        spatialGrid.refresh(body);
+    }
+    
+    /**
+     * Retire immédiatement un corps de l'index. À appeler juste avant sa destruction :
+     * Box2D réutilise les objets {@link Body} détruits pour les corps suivants.
+     */
+    public void remove(Body body) {
+        spatialGrid.remove(body);
     }
     
     /**
-     * Obtient les corps proches d'une position.
+     * Vide l'index, par exemple après la destruction de tous les corps d'un niveau.
      */
-    public Array<Body> getNearbyBodies(float x, float y, float radius) {
-        return spatialGrid.query(x, y, radius);
+    public void clear() {
+        spatialGrid.clear();
     }
     
     /**
-     * Grille de hachage spatiale pour optimiser les requêtes.
+     * Obtient les corps dont la boîte englobante est à moins de {@code radius} d'une position.
+     * @param out Tampon de sortie, vidé avant d'être rempli
+     * @return Le nombre de corps trouvés
+     */
+    public int getNearbyBodies(float x, float y, float radius, Array<Body> out) {
+        out.clear();
+        return spatialGrid.queryRadius(x, y, radius, out);
+    }
+    
+    /**
+     * Obtient les corps dont la boîte englobante chevauche une zone.
+     * @param out Tampon de sortie, vidé avant d'être rempli
+     * @return Le nombre de corps trouvés
+     */
+    public int getBodiesInArea(float minX, float minY, float maxX, float maxY, Array<Body> out) {
+        out.clear();
+        return spatialGrid.queryAABB(minX, minY, maxX, maxY, out);
+    }
+    
+    /**
+     * Nombre de corps actuellement indexés.
+     */
+    public int getIndexedBodyCount() {
+        return spatialGrid.size;
+    }
+    
+    /**
+     * Nombre de corps changés de cellules lors de la dernière mise à jour.
+     */
+    public int getRebucketedLastUpdate() {
+        return spatialGrid.rebucketed;
+    }
+    
+    /**
+     * Nombre de corps parcourus lors de la dernière mise à jour.
+     */
+    public int getVisitedLastUpdate() {
+        return spatialGrid.visited;
+    }
+    
+    /**
+     * Nombre de corps mobiles éveillés, parcourus à la prochaine mise à jour.
+     */
+    public int getAwakeBodyCount() {
+        return spatialGrid.awake.size;
+    }
+    
+    /**
+     * Nombre de resynchronisations complètes avec le monde depuis la création.
+     */
+    public int getResyncCount() {
+        return resyncCount;
+    }
+    
+    /**
+     * Grille de hachage spatiale persistante.
+     * Chaque corps occupe un emplacement qui mémorise sa boîte englobante, sa plage de
+     * cellules et sa dernière transformation ; chaque cellule liste ses emplacements.
+     * Les emplacements des corps mobiles éveillés sont listés à part.
      */
     private static class SpatialHashGrid {
+        private static final int NONE = -1;
+        
         private final int gridWidth, gridHeight;
         private final float cellSize;
-        private final Array<Body>[][] cells;
+        private final IntArray[] cells;
+        private final Vector2 vertex = new Vector2();
+        
+        // Emplacements
+        private final ObjectIntMap<Body> slotOf = new ObjectIntMap<>();
+        private final IntArray freeSlots = new IntArray();
+        private Body[] slotBody = new Body[64];
+        private boolean[] slotMoving = new boolean[64];
+        private int[] slotAwake = new int[64];             // position dans awake, NONE si absent
+        private int[] slotSeen = new int[64];
+        private int[] slotStamp = new int[64];
+        private float[] slotBounds = new float[64 * 4];    // minX, minY, maxX, maxY
+        private int[] slotCells = new int[64 * 4];         // plage de cellules, NONE si non rangé
+        private float[] slotTransform = new float[64 * 3]; // x, y, angle
+        private int slotCount = 0;
+        
+        // Emplacements des corps mobiles éveillés
+        final IntArray awake = new IntArray();
+        
+        private int sync = 0;
+        private int queryStamp = 0;
+        int size = 0;
+        int rebucketed = 0;
+        int visited = 0;
         
-        @SuppressWarnings("unchecked")
         SpatialHashGrid(int gridWidth, int gridHeight, float cellSize) {
             this.gridWidth = gridWidth;
             this.gridHeight = gridHeight;
             this.cellSize = cellSize;
-            this.cells = new Array[gridWidth][gridHeight];
+            this.cells = new IntArray[gridWidth * gridHeight];
+        }
+        
+        void beginFrame() {
+            rebucketed = 0;
+            visited = 0;
+        }
+        
+        void beginSync() {
+            sync++;
+        }
+        
+        /**
+         * Indexe un corps s'il ne l'est pas encore ; le marque comme vu dans tous les cas.
+         */
+        void add(Body body) {
+            int slot = slotOf.get(body, NONE);
+            if (slot != NONE) {
+                slotSeen[slot] = sync;
+                return;
+            }
+            
+            slot = freeSlots.size > 0 ? freeSlots.pop() : newSlot();
+            slotBody[slot] = body;
+            slotMoving[slot] = body.getType() != BodyDef.BodyType.StaticBody;
+            slotAwake[slot] = NONE;
+            slotSeen[slot] = sync;
+            slotCells[slot * 4] = NONE;
+            slotOf.put(body, slot);
+            size++;
+            
+            if (body.isActive()) {
+                reindex(slot, true);
+                if (slotMoving[slot] && body.isAwake()) {
+                    addAwake(slot);
+                }
+            }
+        }
+        
+        void wake(Body body) {
+            int slot = slotOf.get(body, NONE);
+            if (slot != NONE && slotMoving[slot] && slotAwake[slot] == NONE) {
+                addAwake(slot);
+            }
+        }
+        
+        void refresh(Body body) {
+            int slot = slotOf.get(body, NONE);
+            if (slot == NONE) return;
             
-            for (int x = 0; x < gridWidth; x++) {
-                for (int y = 0; y < gridHeight; y++) {
-                    cells[x][y] = new Array<>();
+            if (body.isActive()) {
+                reindex(slot, true);
+            } else if (slotCells[slot * 4] != NONE) {
+                unlink(slot);
+            }
+        }
+        
+        /**
+         * Parcourt les corps mobiles éveillés. Un corps désactivé quitte les cellules,
+         * un corps endormi reste à sa dernière place ; tous deux quittent la liste.
+         */
+        void updateAwake() {
+            for (int i = awake.size - 1; i >= 0; i--) {
+                int slot = awake.items[i];
+                Body body = slotBody[slot];
+                visited++;
+                
+                if (!body.isActive()) {
+                    if (slotCells[slot * 4] != NONE) {
+                        unlink(slot);
+                    }
+                    removeAwake(slot);
+                    continue;
+                }
+                
+                reindex(slot, false);
+                if (!body.isAwake()) {
+                    removeAwake(slot);
                 }
             }
         }
         
-        void insert(Body body, float x, float y) {
-            int cellX = (int) (x / cellSize);
-            int cellY = (int) (y / cellSize);
+        /**
+         * Recalcule la boîte englobante et les cellules d'un emplacement.
+         * @param force Recalculer même si la transformation n'a pas changé
+         */
+        private void reindex(int slot, boolean force) {
+            Body body = slotBody[slot];
+            Vector2 position = body.getPosition();
+            float x = position.x;
+            float y = position.y;
+            float angle = body.getAngle();
             
-            if (isValid(cellX, cellY)) {
-                cells[cellX][cellY].add(body);
+            int t = slot * 3;
+            int b = slot * 4;
+            if (!force && slotCells[b] != NONE && slotTransform[t] == x
+                && slotTransform[t + 1] == y && slotTransform[t + 2] == angle) {
+                return;
+            }
+            slotTransform[t] = x;
+            slotTransform[t + 1] = y;
+            slotTransform[t + 2] = angle;
+            computeBounds(body, slot, x, y);
+            
+            int minCellX = cellX(slotBounds[b]);
+            int minCellY = cellY(slotBounds[b + 1]);
+            int maxCellX = cellX(slotBounds[b + 2]);
+            int maxCellY = cellY(slotBounds[b + 3]);
+            if (slotCells[b] == minCellX && slotCells[b + 1] == minCellY
+                && slotCells[b + 2] == maxCellX && slotCells[b + 3] == maxCellY) {
+                return;
+            }
+            
+            if (slotCells[b] != NONE) {
+                unlink(slot);
+            }
+            link(slot, minCellX, minCellY, maxCellX, maxCellY);
+            rebucketed++;
+        }
+        
+        private void addAwake(int slot) {
+            slotAwake[slot] = awake.size;
+            awake.add(slot);
+        }
+        
+        /**
+         * Retire un emplacement de la liste des éveillés en le remplaçant par le dernier.
+         */
+        private void removeAwake(int slot) {
+            int index = slotAwake[slot];
+            int last = awake.pop();
+            if (last != slot) {
+                awake.set(index, last);
+                slotAwake[last] = index;
             }
+            slotAwake[slot] = NONE;
         }
         
-        Array<Body> query(float x, float y, float radius) {
-            Array<Body> result = new Array<>();
+        /**
+         * Calcule la boîte englobante de toutes les fixtures du corps, en coordonnées monde.
+         */
+        private void computeBounds(Body body, int slot, float x, float y) {
+            int b = slot * 4;
+            slotBounds[b] = slotBounds[b + 2] = x;
+            slotBounds[b + 1] = slotBounds[b + 3] = y;
             
-            int minX = (int) ((x - radius) / cellSize);
-            int maxX = (int) ((x + radius) / cellSize);
-            int minY = (int) ((y - radius) / cellSize);
-            int maxY = (int) ((y + radius) / cellSize);
+            Array<Fixture> fixtures = body.getFixtureList();
+            boolean first = true;
+            for (int i = 0; i < fixtures.size; i++) {
+                Shape shape = fixtures.get(i).getShape();
+                switch (shape.getType()) {
+                    case Circle: {
+                        CircleShape circle = (CircleShape) shape;
+                        Vector2 center = body.getWorldPoint(circle.getPosition());
+                        first = expand(b, center.x, center.y, circle.getRadius(), first);
+                        break;
+                    }
+                    case Polygon: {
+                        PolygonShape polygon = (PolygonShape) shape;
+                        for (int v = 0; v < polygon.getVertexCount(); v++) {
+                            polygon.getVertex(v, vertex);
+                            Vector2 point = body.getWorldPoint(vertex);
+                            first = expand(b, point.x, point.y, 0f, first);
+                        }
+                        break;
+                    }
+                    case Edge: {
+                        EdgeShape edge = (EdgeShape) shape;
+                        edge.getVertex1(vertex);
+                        Vector2 point = body.getWorldPoint(vertex);
+                        first = expand(b, point.x, point.y, 0f, first);
+                        edge.getVertex2(vertex);
+                        point = body.getWorldPoint(vertex);
+                        first = expand(b, point.x, point.y, 0f, first);
+                        break;
+                    }
+                    case Chain: {
+                        ChainShape chain = (ChainShape) shape;
+                        for (int v = 0; v < chain.getVertexCount(); v++) {
+                            chain.getVertex(v, vertex);
+                            Vector2 point = body.getWorldPoint(vertex);
+                            first = expand(b, point.x, point.y, 0f, first);
+                        }
+                        break;
+                    }
+                    default:
+                        break;
+                }
+            }
+        }
+        
+        private boolean expand(int b, float x, float y, float radius, boolean first) {
+            if (first) {
+                slotBounds[b] = x - radius;
+                slotBounds[b + 1] = y - radius;
+                slotBounds[b + 2] = x + radius;
+                slotBounds[b + 3] = y + radius;
+            } else {
+                slotBounds[b] = Math.min(slotBounds[b], x - radius);
+                slotBounds[b + 1] = Math.min(slotBounds[b + 1], y - radius);
+                slotBounds[b + 2] = Math.max(slotBounds[b + 2], x + radius);
+                slotBounds[b + 3] = Math.max(slotBounds[b + 3], y + radius);
+            }
+            return false;
+        }
+        
+        void remove(Body body) {
+            int slot = slotOf.remove(body, NONE);
+            if (slot != NONE) {
+                release(slot);
+            }
+        }
+        
+        void removeUnseen() {
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (slotBody[slot] != null && slotSeen[slot] != sync) {
+                    slotOf.remove(slotBody[slot], NONE);
+                    release(slot);
+                }
+            }
+        }
+        
+        void clear() {
+            for (IntArray cell : cells) {
+                if (cell != null) cell.clear();
+            }
+            slotOf.clear();
+            freeSlots.clear();
+            awake.clear();
+            Arrays.fill(slotBody, 0, slotCount, null);
+            slotCount = 0;
+            size = 0;
+        }
+        
+        int queryRadius(float x, float y, float radius, Array<Body> result) {
+            int minX = cellX(x - radius);
+            int maxX = cellX(x + radius);
+            int minY = cellY(y - radius);
+            int maxY = cellY(y + radius);
+            float radiusSq = radius * radius;
+            int stamp = ++queryStamp;
+            int found = 0;
             
-            for (int cx = minX; cx <= maxX; cx++) {
-                for (int cy = minY; cy <= maxY; cy++) {
-                    if (isValid(cx, cy)) {
-                        Array<Body> cell = cells[cx][cy];
-                        for (Body body : cell) {
-                            Vector2 pos = body.getPosition();
-                            float distance = Vector2.dst(x, y, pos.x, pos.y);
-                            if (distance <= radius && !result.contains(body, true)) {
-                                result.add(body);
-                            }
+            for (int cy = minY; cy <= maxY; cy++) {
+                for (int cx = minX; cx <= maxX; cx++) {
+                    IntArray cell = cells[cy * gridWidth + cx];
+                    if (cell == null) continue;
+                    
+                    for (int i = 0; i < cell.size; i++) {
+                        int slot = cell.items[i];
+                        // Un grand corps est rangé dans plusieurs cellules : ne le tester qu'une fois
+                        if (slotStamp[slot] == stamp) continue;
+                        slotStamp[slot] = stamp;
+                        
+                        // Distance au point de la boîte le plus proche du centre
+                        int b = slot * 4;
+                        float dx = x - MathUtils.clamp(x, slotBounds[b], slotBounds[b + 2]);
+                        float dy = y - MathUtils.clamp(y, slotBounds[b + 1], slotBounds[b + 3]);
+                        if (dx * dx + dy * dy <= radiusSq) {
+                            result.add(slotBody[slot]);
+                            found++;
                         }
                     }
                 }
             }
             
-            return result;
+            return found;
         }
         
-        boolean isValid(int x, int y) {
-            return x >= 0 && x < gridWidth && y >= 0 && y < gridHeight;
+        int queryAABB(float minX, float minY, float maxX, float maxY, Array<Body> result) {
+            int minCellX = cellX(minX);
+            int maxCellX = cellX(maxX);
+            int minCellY = cellY(minY);
+            int maxCellY = cellY(maxY);
+            int stamp = ++queryStamp;
+            int found = 0;
+            
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                for (int cx = minCellX; cx <= maxCellX; cx++) {
+                    IntArray cell = cells[cy * gridWidth + cx];
+                    if (cell == null) continue;
+                    
+                    for (int i = 0; i < cell.size; i++) {
+                        int slot = cell.items[i];
+                        if (slotStamp[slot] == stamp) continue;
+                        slotStamp[slot] = stamp;
+                        
+                        int b = slot * 4;
+                        if (slotBounds[b] <= maxX && slotBounds[b + 2] >= minX
+                            && slotBounds[b + 1] <= maxY && slotBounds[b + 3] >= minY) {
+                            result.add(slotBody[slot]);
+                            found++;
+                        }
+                    }
+                }
+            }
+            
+            return found;
         }
         
-        void clear() {
-            for (int x = 0; x < gridWidth; x++) {
-                for (int y = 0; y < gridHeight; y++) {
-                    cells[x][y].clear();
+        // Les positions hors de la grille sont rattachées à la cellule du bord
+        private int cellX(float x) {
+            return MathUtils.clamp(MathUtils.floor(x / cellSize), 0, gridWidth - 1);
+        }
+        
+        private int cellY(float y) {
+            return MathUtils.clamp(MathUtils.floor(y / cellSize), 0, gridHeight - 1);
+        }
+        
+        private void link(int slot, int minCellX, int minCellY, int maxCellX, int maxCellY) {
+            int b = slot * 4;
+            slotCells[b] = minCellX;
+            slotCells[b + 1] = minCellY;
+            slotCells[b + 2] = maxCellX;
+            slotCells[b + 3] = maxCellY;
+            
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                for (int cx = minCellX; cx <= maxCellX; cx++) {
+                    int index = cy * gridWidth + cx;
+                    if (cells[index] == null) {
+                        cells[index] = new IntArray(4);
+                    }
+                    cells[index].add(slot);
+                }
+            }
+        }
+        
+        private void unlink(int slot) {
+            int b = slot * 4;
+            for (int cy = slotCells[b + 1]; cy <= slotCells[b + 3]; cy++) {
+                for (int cx = slotCells[b]; cx <= slotCells[b + 2]; cx++) {
+                    cells[cy * gridWidth + cx].removeValue(slot);
                 }
             }
+            slotCells[b] = NONE;
+        }
+        
+        private void release(int slot) {
+            if (slotCells[slot * 4] != NONE) {
+                unlink(slot);
+            }
+            if (slotAwake[slot] != NONE) {
+                removeAwake(slot);
+            }
+            slotBody[slot] = null;
+            freeSlots.add(slot);
+            size--;
+        }
+        
+        private int newSlot() {
+            if (slotCount == slotBody.length) {
+                int capacity = slotCount * 2;
+                slotBody = Arrays.copyOf(slotBody, capacity);
+                slotMoving = Arrays.copyOf(slotMoving, capacity);
+                slotAwake = Arrays.copyOf(slotAwake, capacity);
+                slotSeen = Arrays.copyOf(slotSeen, capacity);
+                slotStamp = Arrays.copyOf(slotStamp, capacity);
+                slotBounds = Arrays.copyOf(slotBounds, capacity * 4);
+                slotCells = Arrays.copyOf(slotCells, capacity * 4);
+                slotTransform = Arrays.copyOf(slotTransform, capacity * 3);
+            }
+            return slotCount++;
         }
     }
 }
-
@@ -1,14 +1,17 @@
 package com.mariogame.systems;
 
 import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.Pool;
-import com.badlogic.gdx.utils.Sort;
 import com.mariogame.utils.Constants;
+import com.mariogame.utils.RadixSort;
 
 /**
  * Système de rendu ultra-optimisé avec culling spatial et batching intelligent.
@@ -16,7 +19,7 @@ import com.mariogame.utils.Constants;
  */
 public class RenderSystem {
     private static final int INITIAL_CAPACITY = 1000;
-    private static final int MAX_BATCH_SIZE = 5000;
+    private static final int MAX_TEXTURE_IDS = 0xFFFF;
     
     // Structures de données optimisées
     private final Array<Renderable> renderQueue = new Array<>(INITIAL_CAPACITY);
@@ -32,15 +35,21 @@ public class RenderSystem {
     private final SpatialGrid spatialGrid;
     private final Frustum frustum = new Frustum();
     
+    // Tri : clé 64 bits = couche (16 bits) | texture (16 bits) | ordre d'ajout (32 bits)
+    private final RadixSort radixSort = new RadixSort();
+    private final ObjectIntMap<Texture> textureIds = new ObjectIntMap<>();
+    private long[] sortKeys = new long[INITIAL_CAPACITY];
+    
     // Batching
     private final SpriteBatch spriteBatch;
-    private int currentBatchSize = 0;
-    private boolean batchStarted = false;
     
     // Statistiques
     private int renderedObjects = 0;
     private int culledObjects = 0;
     private int batches = 0;
+    private int textureSwitches = 0;
+    private int visitedCells = 0;
+    private int testedObjects = 0;
     
     public RenderSystem(SpriteBatch spriteBatch, float worldWidth, float worldHeight, int gridSize) {
         this.spriteBatch = spriteBatch;
@@ -54,6 +63,7 @@ public class RenderSystem {
                              float rotation, int layer, boolean flipX, boolean flipY) {
         Renderable renderable = renderablePool.obtain();
         renderable.set(texture, x, y, width, height, rotation, layer, flipX, flipY);
+        renderable.sortKey = sortKey(layer, textureId(texture), renderQueue.size);
         renderQueue.add(renderable);
         spatialGrid.insert(renderable);
     }
@@ -69,43 +79,88 @@ public class RenderSystem {
         visibleObjects.clear();
         spatialGrid.query(frustum, visibleObjects);
         
-        // Trier par layer pour le rendu correct
-        Sort.instance().sort(visibleObjects, (a, b) -> Integer.compare(a.layer, b.layer));
+        // Trier par couche puis par texture pour regrouper les draw calls
+        sortVisibleObjects();
         
         culledObjects = renderQueue.size - visibleObjects.size;
         renderedObjects = visibleObjects.size;
+        visitedCells = spatialGrid.visitedCells;
+        testedObjects = spatialGrid.testedObjects;
     }
     
     /**
-     * Rend tous les objets visibles avec batching optimisé.
+     * Construit la clé de tri d'un objet. L'ordre d'ajout en poids faible garde
+     * l'ordre de soumission entre objets de même couche et de même texture.
      */
-    public void render() {
-        if (!batchStarted) {
-            spriteBatch.begin();
-            batchStarted = true;
+    private static long sortKey(int layer, int textureId, int sequence) {
+        long layerBits = (layer + 0x8000) & 0xFFFFL; // couche signée décalée pour l'ordre non signé
+        return layerBits << 48 | (textureId & 0xFFFFL) << 32 | (sequence & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Identifiant compact et stable de la texture d'une région (0 sans texture).
+     */
+    private int textureId(TextureRegion region) {
+        Texture texture = region != null ? region.getTexture() : null;
+        if (texture == null) return 0;
+        
+        int id = textureIds.get(texture, 0);
+        if (id == 0) {
+            if (textureIds.size >= MAX_TEXTURE_IDS) {
+                // Numérotation épuisée (textures recréées) : repartir de zéro
+                textureIds.clear();
+            }
+            id = textureIds.size + 1;
+            textureIds.put(texture, id);
         }
+        return id;
+    }
+    
+    /**
+     * Trie les objets visibles par clé avec un tri par base, sans comparateur.
+     */
+    private void sortVisibleObjects() {
+        int count = visibleObjects.size;
+        if (sortKeys.length < count) {
+            sortKeys = new long[Math.max(count, sortKeys.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            sortKeys[i] = visibleObjects.get(i).sortKey;
+        }
+        
+        radixSort.sort(sortKeys, count);
+        
+        // Les 32 bits de poids faible désignent l'objet dans la file de rendu
+        for (int i = 0; i < count; i++) {
+            visibleObjects.set(i, renderQueue.get((int) sortKeys[i]));
+        }
+    }
+    
+    /**
+     * Rend tous les objets visibles. Le batch n'est vidé que lorsque la texture
+     * change ou que son tampon est plein ; le nombre réel de draw calls est relevé.
+     */
+    public void render() {
+        spriteBatch.begin();
         
-        batches = 0;
-        currentBatchSize = 0;
+        textureSwitches = 0;
+        Texture lastTexture = null;
         
-        for (Renderable renderable : visibleObjects) {
-            // Vérifier si on doit commencer un nouveau batch
-            if (currentBatchSize >= MAX_BATCH_SIZE) {
-                spriteBatch.end();
-                spriteBatch.begin();
-                batches++;
-                currentBatchSize = 0;
+        for (int i = 0; i < visibleObjects.size; i++) {
+            Renderable renderable = visibleObjects.get(i);
+            if (renderable.texture == null) continue;
+            
+            Texture texture = renderable.texture.getTexture();
+            if (texture != lastTexture) {
+                if (lastTexture != null) textureSwitches++;
+                lastTexture = texture;
             }
             
-            // Rendre l'objet
             renderObject(renderable);
-            currentBatchSize++;
         }
         
-        if (batchStarted) {
-            spriteBatch.end();
-            batchStarted = false;
-        }
+        spriteBatch.end();
+        batches = spriteBatch.renderCalls;
     }
     
     /**
@@ -150,6 +205,7 @@ public class RenderSystem {
         float rotation;
         int layer;
         boolean flipX, flipY;
+        long sortKey;
         
         void set(TextureRegion texture, float x, float y, float width, float height,
                  float rotation, int layer, boolean flipX, boolean flipY) {
@@ -169,17 +225,29 @@ public class RenderSystem {
             x = y = width = height = rotation = 0;
             layer = 0;
             flipX = flipY = false;
+            sortKey = 0;
         }
     }
     
     /**
      * Grille spatiale pour le culling.
+     * Chaque objet est rangé dans la cellule de son coin inférieur gauche (en mètres) ;
+     * la requête ne visite que les cellules couvertes par la caméra, élargies vers le bas
+     * et la gauche de la taille du plus grand objet pour ne pas perdre ceux qui débordent.
      */
     private static class SpatialGrid {
         private final float cellSize;
         private final int gridWidth, gridHeight;
         private final Array<Renderable>[][] cells;
         
+        // Taille maximale des objets insérés depuis le dernier clear (mètres)
+        private float maxExtentX = 0;
+        private float maxExtentY = 0;
+        
+        // Statistiques de la dernière requête
+        int visitedCells = 0;
+        int testedObjects = 0;
+        
         @SuppressWarnings("unchecked")
         SpatialGrid(float worldWidth, float worldHeight, int gridSize) {
             this.cellSize = gridSize;
@@ -195,21 +263,45 @@ public class RenderSystem {
         }
         
         void insert(Renderable renderable) {
-            int cellX = (int) (renderable.x / cellSize);
-            int cellY = (int) (renderable.y / cellSize);
+            // Les objets hors de la grille sont rangés dans les cellules du bord :
+            // le test AABB décide ensuite de leur visibilité
+            int cellX = MathUtils.clamp(MathUtils.floor(renderable.x / cellSize), 0, gridWidth - 1);
+            int cellY = MathUtils.clamp(MathUtils.floor(renderable.y / cellSize), 0, gridHeight - 1);
+            cells[cellX][cellY].add(renderable);
             
-            if (cellX >= 0 && cellX < gridWidth && cellY >= 0 && cellY < gridHeight) {
-                cells[cellX][cellY].add(renderable);
-            }
+            float extent = renderable.rotation != 0 ? diagonal(renderable) : 0;
+            maxExtentX = Math.max(maxExtentX, Math.max(renderable.width, extent));
+            maxExtentY = Math.max(maxExtentY, Math.max(renderable.height, extent));
         }
         
         void query(Frustum frustum, Array<Renderable> result) {
-            // Parcourir les cellules visibles
-            for (int x = 0; x < gridWidth; x++) {
-                for (int y = 0; y < gridHeight; y++) {
+            visitedCells = 0;
+            testedObjects = 0;
+            
+            // Bornes de la vue à partir des coins du frustum (pixels -> mètres)
+            float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+            float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+            for (Vector3 corner : frustum.planePoints) {
+                minX = Math.min(minX, corner.x);
+                minY = Math.min(minY, corner.y);
+                maxX = Math.max(maxX, corner.x);
+                maxY = Math.max(maxY, corner.y);
+            }
+            float ppm = Constants.WorldConfig.PPM;
+            
+            // Plage de cellules visibles, élargie de la taille du plus grand objet
+            int startX = Math.max(0, MathUtils.floor((minX / ppm - maxExtentX) / cellSize));
+            int startY = Math.max(0, MathUtils.floor((minY / ppm - maxExtentY) / cellSize));
+            int endX = Math.min(gridWidth - 1, MathUtils.floor(maxX / ppm / cellSize));
+            int endY = Math.min(gridHeight - 1, MathUtils.floor(maxY / ppm / cellSize));
+            
+            for (int x = startX; x <= endX; x++) {
+                for (int y = startY; y <= endY; y++) {
                     Array<Renderable> cell = cells[x][y];
-                    for (Renderable renderable : cell) {
-                        // Test de visibilité simplifié
+                    visitedCells++;
+                    testedObjects += cell.size;
+                    for (int i = 0; i < cell.size; i++) {
+                        Renderable renderable = cell.get(i);
                         if (isVisible(renderable, frustum)) {
                             result.add(renderable);
                         }
@@ -218,10 +310,27 @@ public class RenderSystem {
             }
         }
         
+        /**
+         * Teste la boîte englobante complète de l'objet, sans allocation.
+         * Un objet tourné est approché par un carré de la taille de sa diagonale.
+         */
         private boolean isVisible(Renderable renderable, Frustum frustum) {
-            // Test de visibilité basique (peut être amélioré avec AABB)
-            Vector3 point = new Vector3(renderable.x, renderable.y, 0);
-            return frustum.pointInFrustum(point);
+            float ppm = Constants.WorldConfig.PPM;
+            float halfWidth = renderable.width / 2f;
+            float halfHeight = renderable.height / 2f;
+            float centerX = renderable.x + halfWidth;
+            float centerY = renderable.y + halfHeight;
+            
+            if (renderable.rotation != 0) {
+                halfWidth = halfHeight = diagonal(renderable) / 2f;
+            }
+            
+            return frustum.boundsInFrustum(centerX * ppm, centerY * ppm, 0,
+                halfWidth * ppm, halfHeight * ppm, 0);
+        }
+        
+        private static float diagonal(Renderable renderable) {
+            return (float) Math.sqrt(renderable.width * renderable.width + renderable.height * renderable.height);
         }
         
         void clear() {
@@ -230,6 +339,8 @@ public class RenderSystem {
                     cells[x][y].clear();
                 }
             }
+            maxExtentX = 0;
+            maxExtentY = 0;
         }
     }
     
@@ -237,6 +348,9 @@ public class RenderSystem {
     public int getRenderedObjects() { return renderedObjects; }
     public int getCulledObjects() { return culledObjects; }
     public int getBatches() { return batches; }
+    public int getTextureSwitches() { return textureSwitches; }
+    public int getVisitedCells() { return visitedCells; }
+    public int getTestedObjects() { return testedObjects; }
     public float getCullingRatio() { 
         return renderQueue.size > 0 ? (float)culledObjects / renderQueue.size : 0f; 
     }
@@ -0,0 +1,317 @@
+package com.mariogame.systems;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.NumberUtils;
+
+/**
+ * Couche de météo procédurale (pluie, neige, brouillard) sans état par goutte.
+ * Le monde est découpé en cellules fixes ; la position d'une goutte est une
+ * fonction pure de son indice, de sa cellule et du temps, obtenue par hachage.
+ * La mise à jour ne fait qu'avancer le temps et l'intensité : son coût ne dépend
+ * pas du nombre de gouttes. Le rendu remplit un tableau de sommets pré-alloué
+ * soumis en un seul envoi au SpriteBatch (découpé seulement s'il est plein).
+ * Les unités sont celles de la caméra qui dessine la couche.
+ */
+public class WeatherField {
+    private static final int VERTEX_SIZE = 5; // x, y, couleur, u, v
+    private static final int SPRITE_SIZE = 4 * VERTEX_SIZE;
+    private static final int MAX_QUADS_PER_SUBMIT = 2048;
+    
+    // Sels du hachage pour les différents attributs d'une goutte
+    private static final int SALT_X = 0x1f3a5c7e;
+    private static final int SALT_Y = 0x2b4d6f81;
+    private static final int SALT_VARIATION = 0x3c5e7091;
+    
+    private final int seed;
+    private final float cellSize;
+    private final int maxPerCell;
+    
+    // Mouvement : vitesse de base, dispersion de vitesse et balancement horizontal
+    private float velocityX, velocityY;
+    private float speedJitter = 0f;
+    private float swayAmplitude = 0f;
+    private float swayFrequency = 0f;
+    
+    // Apparence : largeur et longueur d'une goutte, taille minimale relative
+    private float width, length;
+    private float minScale = 1f;
+    private final Color color = new Color(1f, 1f, 1f, 1f);
+    
+    // Temps et transition d'intensité
+    private double time = 0;
+    private float intensity = 0f;
+    private float targetIntensity = 0f;
+    private float fadeRate = 0f;
+    
+    // Rendu
+    private final float[] vertices = new float[MAX_QUADS_PER_SUBMIT * SPRITE_SIZE];
+    private final float[] position = new float[2];
+    
+    // Statistiques
+    private int dropsLastRender = 0;
+    private int submitsLastRender = 0;
+    
+    /**
+     * @param seed Graine du hachage, différente pour chaque couche
+     * @param cellSize Côté d'une cellule
+     * @param maxPerCell Nombre de gouttes par cellule à pleine intensité
+     */
+    public WeatherField(int seed, float cellSize, int maxPerCell) {
+        if (cellSize <= 0 || maxPerCell < 0) {
+            throw new IllegalArgumentException("Invalid weather cell configuration");
+        }
+        this.seed = seed;
+        this.cellSize = cellSize;
+        this.maxPerCell = maxPerCell;
+    }
+    
+    /**
+     * Pluie : traits fins et rapides, inclinés par le vent (unités en pixels).
+     */
+    public static WeatherField rain() {
+        WeatherField field = new WeatherField(0x52414e, 128f, 192);
+        field.setMotion(-90f, -900f, 0.4f);
+        field.setShape(2f, 24f, 0.5f);
+        field.setColor(0.6f, 0.7f, 1f, 0.6f);
+        return field;
+    }
+    
+    /**
+     * Neige : flocons lents qui se balancent (unités en pixels).
+     */
+    public static WeatherField snow() {
+        WeatherField field = new WeatherField(0x534e4f, 128f, 96);
+        field.setMotion(0f, -60f, 0.5f);
+        field.setSway(12f, 1.5f);
+        field.setShape(5f, 5f, 0.4f);
+        field.setColor(1f, 1f, 1f, 0.9f);
+        return field;
+    }
+    
+    /**
+     * Brouillard : quelques grands voiles transparents qui dérivent (unités en pixels).
+     */
+    public static WeatherField fog() {
+        WeatherField field = new WeatherField(0x464f47, 512f, 4);
+        field.setMotion(20f, 0f, 0.5f);
+        field.setShape(768f, 256f, 0.6f);
+        field.setColor(0.8f, 0.8f, 0.85f, 0.15f);
+        return field;
+    }
+    
+    /**
+     * Avance le temps et rapproche l'intensité de sa cible. N'alloue rien.
+     */
+    public void update(float deltaTime) {
+        time += deltaTime;
+        
+        if (intensity < targetIntensity) {
+            intensity = Math.min(targetIntensity, intensity + fadeRate * deltaTime);
+        } else if (intensity > targetIntensity) {
+            intensity = Math.max(targetIntensity, intensity - fadeRate * deltaTime);
+        }
+    }
+    
+    /**
+     * Lance une transition linéaire vers une nouvelle intensité.
+     * @param target Intensité visée, entre 0 et 1
+     * @param duration Durée de la transition en secondes (0 pour immédiat)
+     */
+    public void setTargetIntensity(float target, float duration) {
+        targetIntensity = MathUtils.clamp(target, 0f, 1f);
+        if (duration <= 0) {
+            intensity = targetIntensity;
+            fadeRate = 0f;
+        } else {
+            fadeRate = Math.abs(targetIntensity - intensity) / duration;
+        }
+    }
+    
+    /**
+     * Nombre de gouttes tracées par cellule pour l'intensité actuelle.
+     * Les indices sont stables : une hausse d'intensité ajoute des gouttes sans déplacer les autres.
+     */
+    public int getDropsPerCell() {
+        return (int) (maxPerCell * intensity);
+    }
+    
+    /**
+     * Position d'une goutte à un instant donné. Fonction pure de ses arguments.
+     * @param out Reçoit x et y (coin bas-gauche de la goutte avant balancement)
+     */
+    public void getDropPosition(int index, int cellX, int cellY, double time, float[] out) {
+        int hx = hash(index, cellX, cellY, seed ^ SALT_X);
+        int hy = hash(index, cellX, cellY, seed ^ SALT_Y);
+        int hv = hash(index, cellX, cellY, seed ^ SALT_VARIATION);
+        
+        double speed = 1.0 + (unit(hv) * 2f - 1f) * speedJitter;
+        double fx = unit(hx) + time * velocityX * speed / cellSize;
+        double fy = unit(hy) + time * velocityY * speed / cellSize;
+        fx -= Math.floor(fx);
+        fy -= Math.floor(fy);
+        
+        float sway = 0f;
+        if (swayAmplitude != 0f) {
+            sway = swayAmplitude * MathUtils.sin((float) (time * swayFrequency) + unit(hv) * MathUtils.PI2);
+        }
+        
+        out[0] = (cellX + (float) fx) * cellSize + sway;
+        out[1] = (cellY + (float) fy) * cellSize;
+    }
+    
+    /**
+     * Rend les gouttes visibles dans la zone donnée, en un seul envoi de sommets.
+     * Le batch doit être démarré et utiliser la même caméra que la zone.
+     */
+    public void render(SpriteBatch batch, TextureRegion region, float minX, float minY, float maxX, float maxY) {
+        dropsLastRender = 0;
+        submitsLastRender = 0;
+        int perCell = getDropsPerCell();
+        if (perCell == 0 || region == null) return;
+        
+        float alpha = color.a * intensity;
+        float packedColor = NumberUtils.intToFloatColor(Color.toIntBits(
+            (int) (color.r * 255), (int) (color.g * 255), (int) (color.b * 255), (int) (alpha * 255)));
+        float u = region.getU(), v = region.getV();
+        float u2 = region.getU2(), v2 = region.getV2();
+        
+        // Inclinaison des traits selon la direction de chute
+        float slant = velocityY != 0f ? velocityX * length / velocityY : 0f;
+        float reachX = width + Math.abs(slant) + Math.abs(swayAmplitude);
+        
+        int fromX = MathUtils.floor((minX - reachX) / cellSize);
+        int toX = MathUtils.floor(maxX / cellSize);
+        int fromY = MathUtils.floor((minY - length) / cellSize);
+        int toY = MathUtils.floor(maxY / cellSize);
+        
+        float[] verts = vertices;
+        float[] position = this.position;
+        int idx = 0;
+        
+        for (int cellY = fromY; cellY <= toY; cellY++) {
+            for (int cellX = fromX; cellX <= toX; cellX++) {
+                for (int i = 0; i < perCell; i++) {
+                    getDropPosition(i, cellX, cellY, time, position);
+                    
+                    float scale = minScale + (1f - minScale) * unit(hash(i, cellX, cellY, seed));
+                    float halfWidth = width * scale * 0.5f;
+                    float height = length * scale;
+                    float x = position[0];
+                    float y = position[1];
+                    float top = slant * scale;
+                    
+                    if (x + halfWidth + Math.max(0f, top) < minX || x - halfWidth + Math.min(0f, top) > maxX
+                        || y + height < minY || y > maxY) {
+                        continue;
+                    }
+                    
+                    if (idx == verts.length) {
+                        batch.draw(region.getTexture(), verts, 0, idx);
+                        submitsLastRender++;
+                        idx = 0;
+                    }
+                    
+                    // Coins bas-gauche, haut-gauche, haut-droit, bas-droit
+                    verts[idx] = x - halfWidth; verts[idx + 1] = y; verts[idx + 2] = packedColor;
+                    verts[idx + 3] = u; verts[idx + 4] = v2;
+                    verts[idx + 5] = x - halfWidth + top; verts[idx + 6] = y + height; verts[idx + 7] = packedColor;
+                    verts[idx + 8] = u; verts[idx + 9] = v;
+                    verts[idx + 10] = x + halfWidth + top; verts[idx + 11] = y + height; verts[idx + 12] = packedColor;
+                    verts[idx + 13] = u2; verts[idx + 14] = v;
+                    verts[idx + 15] = x + halfWidth; verts[idx + 16] = y; verts[idx + 17] = packedColor;
+                    verts[idx + 18] = u2; verts[idx + 19] = v2;
+                    idx += SPRITE_SIZE;
+                    dropsLastRender++;
+                }
+            }
+        }
+        
+        if (idx > 0) {
+            batch.draw(region.getTexture(), verts, 0, idx);
+            submitsLastRender++;
+        }
+    }
+    
+    /**
+     * Hachage entier (finaliseur de MurmurHash3) d'une goutte et de sa cellule.
+     */
+    static int hash(int index, int cellX, int cellY, int salt) {
+        int h = index * 0x27d4eb2d ^ cellX * 0x165667b1 ^ cellY * 0x1b873593 ^ salt;
+        h ^= h >>> 15;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+    
+    /**
+     * Convertit un hachage en réel dans [0, 1).
+     */
+    static float unit(int hash) {
+        return (hash >>> 8) * (1f / (1 << 24));
+    }
+    
+    // Configuration
+    
+    /**
+     * @param velocityX Vitesse horizontale de base
+     * @param velocityY Vitesse verticale de base (négative pour une chute)
+     * @param speedJitter Variation relative de vitesse entre les gouttes (0 à 1)
+     */
+    public void setMotion(float velocityX, float velocityY, float speedJitter) {
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        this.speedJitter = MathUtils.clamp(speedJitter, 0f, 1f);
+    }
+    
+    public void setSway(float amplitude, float frequency) {
+        this.swayAmplitude = amplitude;
+        this.swayFrequency = frequency;
+    }
+    
+    /**
+     * @param minScale Taille minimale d'une goutte, relative à la taille maximale
+     */
+    public void setShape(float width, float length, float minScale) {
+        this.width = width;
+        this.length = length;
+        this.minScale = MathUtils.clamp(minScale, 0f, 1f);
+    }
+    
+    public void setColor(float r, float g, float b, float a) {
+        color.r = r;
+        color.g = g;
+        color.b = b;
+        color.a = a;
+    }
+    
+    // Getters
+    
+    public float getIntensity() {
+        return intensity;
+    }
+    
+    public float getTargetIntensity() {
+        return targetIntensity;
+    }
+    
+    public double getTime() {
+        return time;
+    }
+    
+    public float getCellSize() {
+        return cellSize;
+    }
+    
+    public int getDropsLastRender() {
+        return dropsLastRender;
+    }
+    
+    public int getSubmitsLastRender() {
+        return submitsLastRender;
+    }
+}
@@ -0,0 +1,82 @@
+package com.mariogame.utils;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Fusionne les tuiles solides d'une grille en rectangles (greedy meshing).
+ * Une longue rangée de sol devient un seul rectangle au lieu d'une fixture par tuile,
+ * ce qui réduit fortement le nombre de proxies dans la broadphase Box2D.
+ */
+public final class CollisionBaker {
+    // Empêche l'instanciation de la classe
+    private CollisionBaker() {}
+    
+    /**
+     * Fusionne les tuiles solides en rectangles.
+     * Les séries horizontales sont étendues en premier, puis chaque série est
+     * étendue verticalement tant que les rangées suivantes sont entièrement solides.
+     *
+     * @param solid Grille de tuiles (index = y * width + x)
+     * @param width Largeur de la grille en tuiles
+     * @param height Hauteur de la grille en tuiles
+     * @param out Reçoit les rectangles sous la forme (x, y, largeur, hauteur) en tuiles
+     * @return Le nombre de rectangles ajoutés
+     */
+    public static int bake(boolean[] solid, int width, int height, IntArray out) {
+        if (solid.length < width * height) {
+            throw new IllegalArgumentException("Grid is smaller than " + width + "x" + height);
+        }
+        
+        boolean[] used = new boolean[width * height];
+        int count = 0;
+        
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+                if (!solid[index] || used[index]) continue;
+                
+                // Étendre horizontalement
+                int runWidth = 1;
+                while (x + runWidth < width && isFree(solid, used, (y * width) + x + runWidth)) {
+                    runWidth++;
+                }
+                
+                // Étendre verticalement tant que la rangée entière est disponible
+                int runHeight = 1;
+                while (y + runHeight < height && isRowFree(solid, used, width, x, y + runHeight, runWidth)) {
+                    runHeight++;
+                }
+                
+                // Marquer les tuiles consommées
+                for (int dy = 0; dy < runHeight; dy++) {
+                    int row = (y + dy) * width;
+                    for (int dx = 0; dx < runWidth; dx++) {
+                        used[row + x + dx] = true;
+                    }
+                }
+                
+                out.add(x);
+                out.add(y);
+                out.add(runWidth);
+                out.add(runHeight);
+                count++;
+            }
+        }
+        
+        return count;
+    }
+    
+    private static boolean isFree(boolean[] solid, boolean[] used, int index) {
+        return solid[index] && !used[index];
+    }
+    
+    private static boolean isRowFree(boolean[] solid, boolean[] used, int width, int x, int y, int runWidth) {
+        int row = y * width;
+        for (int dx = 0; dx < runWidth; dx++) {
+            if (!isFree(solid, used, row + x + dx)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,480 @@
+package com.mariogame.utils;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Niveau compilé par {@link LevelCompiler}, lu directement dans un tampon
+ * (projeté en mémoire quand le fichier est sur disque). Aucun XML n'est analysé :
+ * les tuiles sont lues à la demande dans le tampon, les rectangles de collision
+ * sont déjà fusionnés et les points d'apparition sont rangés par (groupe, type).
+ *
+ * Format (little-endian) : un en-tête de {@link #HEADER_SIZE} octets donnant les
+ * dimensions et les offsets des sections, puis les calques de tuiles (identifiants
+ * globaux Tiled, rangée 0 en haut comme dans le TMX), les rectangles de collision
+ * (x, y, largeur, hauteur en tuiles sur 16 bits, rangée 0 en bas), les tables d'apparition
+ * (positions en pixels, déjà centrées comme le fait {@link MapLoader}), les
+ * tilesets et la table des chaînes.
+ */
+public class CompiledLevel {
+    public static final int MAGIC = 0x4C564C4D; // "MLVL"
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 64;
+    private static final int PAGE_SIZE = 4096;
+    
+    // Calques de tuiles
+    public static final int LAYER_BACKGROUND = 0;
+    public static final int LAYER_GROUND = 1;
+    public static final int LAYER_FOREGROUND = 2;
+    public static final int LAYER_COUNT = 3;
+    static final String[] LAYER_NAMES = {"background", "ground", "foreground"};
+    
+    // Bits de retournement des identifiants globaux Tiled
+    public static final int FLIP_HORIZONTAL = 0x80000000;
+    public static final int FLIP_VERTICAL = 0x40000000;
+    public static final int FLIP_DIAGONAL = 0x20000000;
+    public static final int GID_MASK = 0x1FFFFFFF;
+    
+    // Offsets des champs de l'en-tête
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_BYTES_PER_TILE = 6;
+    static final int H_WIDTH = 8;
+    static final int H_HEIGHT = 12;
+    static final int H_TILE_WIDTH = 16;
+    static final int H_TILE_HEIGHT = 20;
+    static final int H_LAYER_MASK = 24;
+    static final int H_TILES_OFFSET = 28;
+    static final int H_COLLISION_OFFSET = 32;
+    static final int H_SPAWN_OFFSET = 36;
+    static final int H_TILESET_OFFSET = 40;
+    static final int H_STRINGS_OFFSET = 44;
+    static final int H_FILE_SIZE = 48;
+    
+    private final ByteBuffer data;
+    private final int width, height;
+    private final int tileWidth, tileHeight;
+    private final int bytesPerTile;
+    private final int[] layerOffsets = new int[LAYER_COUNT];
+    private final int collisionOffset;
+    private final int tilesetOffset;
+    private final String[] strings;
+    
+    // Index des tables d'apparition : une entrée par couple (groupe, type)
+    private final int[] spawnGroup, spawnType, spawnFirst, spawnCount;
+    private final int spawnRecordsOffset;
+    
+    /**
+     * Ouvre un niveau compilé. Le fichier est projeté en mémoire quand il existe
+     * sur le disque ; sinon (ressources du classpath, assets Android) il est lu en entier.
+     */
+    public static CompiledLevel open(FileHandle file) {
+        if (file.type() != Files.FileType.Classpath && file.file().exists()) {
+            return open(file.file());
+        }
+        return new CompiledLevel(ByteBuffer.wrap(file.readBytes()));
+    }
+    
+    /**
+     * Projette un fichier de niveau compilé en mémoire.
+     */
+    public static CompiledLevel open(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // La projection reste valable après la fermeture du canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CompiledLevel(buffer);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Cannot map compiled level: " + file, e);
+        }
+    }
+    
+    public CompiledLevel(ByteBuffer buffer) {
+        this.data = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        
+        if (data.capacity() < HEADER_SIZE || data.getInt(H_MAGIC) != MAGIC) {
+            throw new GdxRuntimeException("Not a compiled level");
+        }
+        if (data.getShort(H_VERSION) != VERSION) {
+            throw new GdxRuntimeException("Unsupported compiled level version: " + data.getShort(H_VERSION));
+        }
+        if (data.getInt(H_FILE_SIZE) != data.capacity()) {
+            throw new GdxRuntimeException("Truncated compiled level");
+        }
+        
+        bytesPerTile = data.getShort(H_BYTES_PER_TILE);
+        width = data.getInt(H_WIDTH);
+        height = data.getInt(H_HEIGHT);
+        tileWidth = data.getInt(H_TILE_WIDTH);
+        tileHeight = data.getInt(H_TILE_HEIGHT);
+        collisionOffset = data.getInt(H_COLLISION_OFFSET);
+        tilesetOffset = data.getInt(H_TILESET_OFFSET);
+        
+        // Les calques présents sont stockés à la suite, dans l'ordre
+        int layerMask = data.getInt(H_LAYER_MASK);
+        int offset = data.getInt(H_TILES_OFFSET);
+        for (int layer = 0; layer < LAYER_COUNT; layer++) {
+            if ((layerMask & (1 << layer)) != 0) {
+                layerOffsets[layer] = offset;
+                offset += width * height * bytesPerTile;
+            } else {
+                layerOffsets[layer] = -1;
+            }
+        }
+        
+        // Chaînes : quelques noms de groupes, de types et d'images
+        int position = data.getInt(H_STRINGS_OFFSET);
+        strings = new String[data.getInt(position)];
+        position += 4;
+        for (int i = 0; i < strings.length; i++) {
+            int length = data.getShort(position) & 0xFFFF;
+            byte[] bytes = new byte[length];
+            for (int b = 0; b < length; b++) {
+                bytes[b] = data.get(position + 2 + b);
+            }
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            position += 2 + length;
+        }
+        
+        position = data.getInt(H_SPAWN_OFFSET);
+        int groups = data.getInt(position);
+        position += 4;
+        spawnGroup = new int[groups];
+        spawnType = new int[groups];
+        spawnFirst = new int[groups];
+        spawnCount = new int[groups];
+        for (int i = 0; i < groups; i++) {
+            spawnGroup[i] = data.getShort(position) & 0xFFFF;
+            spawnType[i] = data.getShort(position + 2) & 0xFFFF;
+            spawnFirst[i] = data.getInt(position + 4);
+            spawnCount[i] = data.getInt(position + 8);
+            position += 12;
+        }
+        spawnRecordsOffset = position;
+    }
+    
+    // Tuiles
+    
+    public boolean hasLayer(int layer) {
+        return layerOffsets[layer] >= 0;
+    }
+    
+    /**
+     * Identifiant global Tiled d'une tuile, bits de retournement compris (0 = vide).
+     * @param row Rangée, 0 en haut comme dans le TMX
+     */
+    public int getGid(int layer, int x, int row) {
+        int offset = layerOffsets[layer];
+        if (offset < 0) return 0;
+        
+        int index = row * width + x;
+        if (bytesPerTile == 4) {
+            return data.getInt(offset + index * 4);
+        }
+        
+        // Sur 16 bits : 13 bits d'identifiant, les 3 bits de retournement en tête
+        int packed = data.getShort(offset + index * 2) & 0xFFFF;
+        return (packed & 0x1FFF) | ((packed & 0xE000) << 16);
+    }
+    
+    /**
+     * Masque des tuiles solides du calque de sol, dans la convention de
+     * {@code MapLoader.getSolidTiles()} : rangée 0 en bas du niveau.
+     */
+    public boolean[] buildSolidMask() {
+        boolean[] mask = new boolean[width * height];
+        if (!hasLayer(LAYER_GROUND)) return mask;
+        
+        for (int row = 0; row < height; row++) {
+            int y = height - 1 - row;
+            for (int x = 0; x < width; x++) {
+                mask[y * width + x] = getGid(LAYER_GROUND, x, row) != 0;
+            }
+        }
+        return mask;
+    }
+    
+    // Collisions
+    
+    public int getCollisionRectCount() {
+        return data.getInt(collisionOffset);
+    }
+    
+    /**
+     * Ajoute les rectangles de collision fusionnés (x, y, largeur, hauteur en tuiles),
+     * au format de {@link CollisionBaker#bake}.
+     * @return Le nombre de rectangles
+     */
+    public int getCollisionRects(IntArray out) {
+        int count = getCollisionRectCount();
+        out.ensureCapacity(count * 4);
+        int position = collisionOffset + 4;
+        for (int i = 0; i < count * 4; i++) {
+            out.add(data.getShort(position) & 0xFFFF);
+            position += 2;
+        }
+        return count;
+    }
+    
+    // Points d'apparition
+    
+    /**
+     * Ajoute les positions des objets d'un groupe et d'un type, en unités du monde.
+     * @param unitScale Facteur de conversion des pixels de la carte vers le monde
+     * @return Le nombre de positions ajoutées
+     */
+    public int getSpawns(String group, String type, float unitScale, Array<Vector2> out) {
+        for (int i = 0; i < spawnGroup.length; i++) {
+            if (!strings[spawnGroup[i]].equals(group) || !strings[spawnType[i]].equals(type)) continue;
+            
+            int position = spawnRecordsOffset + spawnFirst[i] * 8;
+            for (int k = 0; k < spawnCount[i]; k++) {
+                out.add(new Vector2(data.getFloat(position) * unitScale, data.getFloat(position + 4) * unitScale));
+                position += 8;
+            }
+            return spawnCount[i];
+        }
+        return 0;
+    }
+    
+    /**
+     * Dernière position d'un groupe quel que soit le type (ex. "player_start"), ou null.
+     * Comme {@link MapLoader}, le dernier objet du groupe l'emporte.
+     */
+    public Vector2 getLastSpawn(String group, float unitScale) {
+        int last = -1;
+        for (int i = 0; i < spawnGroup.length; i++) {
+            if (!strings[spawnGroup[i]].equals(group) || spawnCount[i] == 0) continue;
+            int record = spawnFirst[i] + spawnCount[i] - 1;
+            if (record > last) last = record;
+        }
+        if (last < 0) return null;
+        
+        int position = spawnRecordsOffset + last * 8;
+        return new Vector2(data.getFloat(position) * unitScale, data.getFloat(position + 4) * unitScale);
+    }
+    
+    // Tilesets et reconstruction de la carte pour le rendu
+    
+    public int getTilesetCount() {
+        return data.getInt(tilesetOffset);
+    }
+    
+    /**
+     * Reconstruit une TiledMap pour le rendu, sans analyser de XML : seules les
+     * tuiles réellement utilisées sont découpées dans les images des tilesets.
+     * Les textures appartiennent à la carte et sont libérées avec elle.
+     * @param directory Dossier du niveau, base des chemins d'images
+     */
+    public TiledMap toTiledMap(FileHandle directory) {
+        return toTiledMap(decodeTilesetImages(directory));
+    }
+    
+    /**
+     * Décode les images des tilesets, dans l'ordre des tilesets. N'utilise pas
+     * OpenGL : peut être appelé depuis un thread de chargement.
+     */
+    public Pixmap[] decodeTilesetImages(FileHandle directory) {
+        Pixmap[] images = new Pixmap[getTilesetCount()];
+        try {
+            for (int i = 0; i < images.length; i++) {
+                String image = strings[data.getShort(tilesetOffset + 4 + i * 16 + 14) & 0xFFFF];
+                images[i] = new Pixmap(resolve(directory, image));
+            }
+        } catch (RuntimeException e) {
+            for (Pixmap image : images) {
+                if (image != null) image.dispose();
+            }
+            throw e;
+        }
+        return images;
+    }
+    
+    /**
+     * Reconstruit la carte à partir d'images déjà décodées : seul l'envoi des
+     * textures au GPU reste à faire. Doit être appelé sur le thread de rendu ;
+     * les pixmaps sont libérées.
+     */
+    public TiledMap toTiledMap(Pixmap[] images) {
+        TiledMap map = new TiledMap();
+        map.getProperties().put("width", width);
+        map.getProperties().put("height", height);
+        map.getProperties().put("tilewidth", tileWidth);
+        map.getProperties().put("tileheight", tileHeight);
+        
+        // Tilesets : premier identifiant, géométrie et image
+        int count = getTilesetCount();
+        int[] firstGids = new int[count];
+        int[] geometry = new int[count * 5];
+        Texture[] textures = new Texture[count];
+        Array<Texture> owned = new Array<>();
+        int position = tilesetOffset + 4;
+        for (int i = 0; i < count; i++) {
+            firstGids[i] = data.getInt(position);
+            for (int k = 0; k < 5; k++) {
+                geometry[i * 5 + k] = data.getShort(position + 4 + k * 2) & 0xFFFF;
+            }
+            textures[i] = new Texture(images[i]);
+            images[i].dispose();
+            owned.add(textures[i]);
+            position += 16;
+        }
+        map.setOwnedResources(owned);
+        
+        TiledMapTileSet tileSet = new TiledMapTileSet();
+        map.getTileSets().addTileSet(tileSet);
+        IntMap<TiledMapTile> tiles = new IntMap<>();
+        
+        for (int layer = 0; layer < LAYER_COUNT; layer++) {
+            if (!hasLayer(layer)) continue;
+            
+            TiledMapTileLayer tileLayer = new TiledMapTileLayer(width, height, tileWidth, tileHeight);
+            tileLayer.setName(LAYER_NAMES[layer]);
+            
+            for (int row = 0; row < height; row++) {
+                for (int x = 0; x < width; x++) {
+                    int gid = getGid(layer, x, row);
+                    int id = gid & GID_MASK;
+                    if (id == 0) continue;
+                    
+                    TiledMapTile tile = tiles.get(id);
+                    if (tile == null) {
+                        tile = createTile(id, firstGids, geometry, textures);
+                        if (tile == null) continue;
+                        tiles.put(id, tile);
+                        tileSet.putTile(id, tile);
+                    }
+                    
+                    TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+                    cell.setTile(tile);
+                    applyFlags(cell, gid);
+                    // Le TMX range les rangées de haut en bas, libGDX de bas en haut
+                    tileLayer.setCell(x, height - 1 - row, cell);
+                }
+            }
+            map.getLayers().add(tileLayer);
+        }
+        
+        return map;
+    }
+    
+    /**
+     * Applique les bits de retournement comme TmxMapLoader.
+     */
+    private static void applyFlags(TiledMapTileLayer.Cell cell, int gid) {
+        boolean horizontal = (gid & FLIP_HORIZONTAL) != 0;
+        boolean vertical = (gid & FLIP_VERTICAL) != 0;
+        
+        if ((gid & FLIP_DIAGONAL) == 0) {
+            cell.setFlipHorizontally(horizontal);
+            cell.setFlipVertically(vertical);
+        } else if (horizontal && vertical) {
+            cell.setFlipHorizontally(true);
+            cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+        } else if (horizontal) {
+            cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+        } else if (vertical) {
+            cell.setRotation(TiledMapTileLayer.Cell.ROTATE_90);
+        } else {
+            cell.setFlipVertically(true);
+            cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+        }
+    }
+    
+    private static TiledMapTile createTile(int id, int[] firstGids, int[] geometry, Texture[] textures) {
+        // Le tileset d'une tuile est le dernier dont le premier identifiant est inférieur ou égal
+        int set = -1;
+        for (int i = 0; i < firstGids.length; i++) {
+            if (firstGids[i] <= id && (set < 0 || firstGids[i] > firstGids[set])) set = i;
+        }
+        if (set < 0) return null;
+        
+        int local = id - firstGids[set];
+        int tileW = geometry[set * 5];
+        int tileH = geometry[set * 5 + 1];
+        int spacing = geometry[set * 5 + 2];
+        int margin = geometry[set * 5 + 3];
+        int columns = Math.max(1, geometry[set * 5 + 4]);
+        
+        int x = margin + (local % columns) * (tileW + spacing);
+        int y = margin + (local / columns) * (tileH + spacing);
+        StaticTiledMapTile tile = new StaticTiledMapTile(new TextureRegion(textures[set], x, y, tileW, tileH));
+        tile.setId(id);
+        return tile;
+    }
+    
+    /**
+     * Résout un chemin relatif (pouvant contenir "..") depuis un dossier.
+     */
+    public static FileHandle resolve(FileHandle directory, String path) {
+        FileHandle file = directory;
+        for (String part : path.split("[/\\\\]")) {
+            if (part.isEmpty() || part.equals(".")) continue;
+            file = part.equals("..") ? file.parent() : file.child(part);
+        }
+        return file;
+    }
+    
+    /**
+     * Lit une fois chaque page du tampon pour que le système charge le fichier
+     * projeté maintenant (thread de chargement) plutôt qu'au premier accès en jeu.
+     * @return Une somme des octets lus, sans autre intérêt que d'empêcher l'élimination de la boucle
+     */
+    public int preload() {
+        int sum = 0;
+        for (int position = 0; position < data.capacity(); position += PAGE_SIZE) {
+            sum += data.get(position);
+        }
+        return sum;
+    }
+    
+    // Getters
+    
+    public int getWidth() {
+        return width;
+    }
+    
+    public int getHeight() {
+        return height;
+    }
+    
+    public int getTileWidth() {
+        return tileWidth;
+    }
+    
+    public int getTileHeight() {
+        return tileHeight;
+    }
+    
+    public int getBytesPerTile() {
+        return bytesPerTile;
+    }
+    
+    /**
+     * Taille du niveau compilé en octets.
+     */
+    public int getSizeBytes() {
+        return data.capacity();
+    }
+}
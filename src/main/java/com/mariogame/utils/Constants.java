@@ -137,6 +137,7 @@ public final class Constants {
         public static final String SOUND_VOLUME = "sound_volume";
         public static final String DEBUG_MODE = "debug_mode";
         public static final String LANGUAGE = "language";
+        public static final String PHYSICS_RATE = "physics_rate";
         
         // Valeurs par défaut
         public static final class Defaults {
@@ -148,6 +149,7 @@ public final class Constants {
             public static final float SOUND_VOLUME = 0.8f;
             public static final boolean DEBUG_MODE = false;
             public static final String LANGUAGE = "en";
+            public static final int PHYSICS_RATE = 60;
         }
     }
     
@@ -0,0 +1,443 @@
+package com.mariogame.utils;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Base64Coder;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.XmlReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compilateur hors ligne des cartes Tiled (.tmx) vers le format binaire de
+ * {@link CompiledLevel}. Tout le travail coûteux du chargement est fait ici, une
+ * fois pour toutes : analyse XML, décodage des données de tuiles, fusion des
+ * collisions par {@link CollisionBaker} et tri des objets par (groupe, type).
+ * N'utilise aucune ressource graphique : s'exécute sans contexte OpenGL.
+ *
+ * Usage : {@code LevelCompiler fichier.tmx|dossier ...}, chaque carte produit un
+ * fichier .lvl à côté d'elle (voir la tâche Gradle {@code :core:compileLevels}).
+ */
+public class LevelCompiler {
+    public static final String EXTENSION = ".lvl";
+    
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: LevelCompiler map.tmx|directory ...");
+            System.exit(1);
+        }
+        
+        Array<File> maps = new Array<>();
+        for (String arg : args) {
+            collectMaps(new File(arg), maps);
+        }
+        
+        int failures = 0;
+        for (File map : maps) {
+            File output = new File(map.getParentFile(), map.getName().replaceFirst("\\.tmx$", EXTENSION));
+            try {
+                byte[] compiled = compile(map);
+                try (OutputStream out = new FileOutputStream(output)) {
+                    out.write(compiled);
+                }
+                System.out.println(String.format("%s -> %s (%d bytes, %d bytes of XML)",
+                    map.getPath(), output.getName(), compiled.length, map.length()));
+            } catch (IOException | RuntimeException e) {
+                System.err.println(map.getPath() + ": " + e.getMessage());
+                failures++;
+            }
+        }
+        
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+    
+    private static void collectMaps(File file, Array<File> out) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null) return;
+            for (File child : children) {
+                collectMaps(child, out);
+            }
+        } else if (file.getName().endsWith(".tmx")) {
+            out.add(file);
+        }
+    }
+    
+    /**
+     * Compile une carte Tiled depuis un fichier.
+     */
+    public static byte[] compile(File tmx) throws IOException {
+        String xml = new String(Files.readAllBytes(tmx.toPath()), StandardCharsets.UTF_8);
+        return compile(xml, tmx.getParentFile());
+    }
+    
+    /**
+     * Compile une carte Tiled.
+     * @param xml Contenu du fichier .tmx
+     * @param directory Dossier de la carte, base des tilesets externes et des images
+     */
+    public static byte[] compile(String xml, File directory) throws IOException {
+        XmlReader.Element root = new XmlReader().parse(xml);
+        if (!"map".equals(root.getName())) {
+            throw new GdxRuntimeException("Not a Tiled map");
+        }
+        
+        int width = root.getIntAttribute("width");
+        int height = root.getIntAttribute("height");
+        int tileWidth = root.getIntAttribute("tilewidth");
+        int tileHeight = root.getIntAttribute("tileheight");
+        
+        Strings strings = new Strings();
+        
+        // Calques de tuiles : seuls les calques connus du jeu sont conservés
+        int[][] layers = new int[CompiledLevel.LAYER_COUNT][];
+        boolean wide = false;
+        for (XmlReader.Element layer : root.getChildrenByName("layer")) {
+            String name = layer.getAttribute("name", "");
+            for (int i = 0; i < CompiledLevel.LAYER_COUNT; i++) {
+                if (CompiledLevel.LAYER_NAMES[i].equals(name)) {
+                    layers[i] = readTiles(layer, width, height);
+                    wide |= needsWideTiles(layers[i]);
+                }
+            }
+        }
+        int bytesPerTile = wide ? 4 : 2;
+        
+        // Collisions : mêmes rectangles que MapLoader aurait fusionnés au chargement,
+        // rangée 0 en bas alors que le TMX commence par la rangée du haut
+        IntArray rects = new IntArray();
+        int[] ground = layers[CompiledLevel.LAYER_GROUND];
+        if (ground != null) {
+            boolean[] solid = new boolean[width * height];
+            for (int row = 0; row < height; row++) {
+                int y = height - 1 - row;
+                for (int x = 0; x < width; x++) {
+                    solid[y * width + x] = (ground[row * width + x] & CompiledLevel.GID_MASK) != 0;
+                }
+            }
+            CollisionBaker.bake(solid, width, height, rects);
+        }
+        
+        // Objets : une table de positions par couple (groupe, type)
+        ObjectMap<String, FloatArray> spawns = new ObjectMap<>();
+        Array<String> spawnKeys = new Array<>();
+        for (XmlReader.Element group : root.getChildrenByName("objectgroup")) {
+            if (!"objects".equals(group.getAttribute("name", ""))) continue;
+            for (XmlReader.Element object : group.getChildrenByName("object")) {
+                readObject(object, height * tileHeight, spawns, spawnKeys);
+            }
+        }
+        
+        // Tilesets
+        Array<XmlReader.Element> tilesets = new Array<>();
+        IntArray firstGids = new IntArray();
+        Array<String> images = new Array<>();
+        for (XmlReader.Element tileset : root.getChildrenByName("tileset")) {
+            firstGids.add(tileset.getIntAttribute("firstgid", 1));
+            String source = tileset.getAttribute("source", null);
+            if (source != null) {
+                tileset = new XmlReader().parse(read(new File(directory, source)));
+            }
+            tilesets.add(tileset);
+            images.add(imagePath(tileset, source));
+        }
+        
+        // Tailles des sections
+        int tileBytes = 0;
+        int layerMask = 0;
+        for (int i = 0; i < CompiledLevel.LAYER_COUNT; i++) {
+            if (layers[i] == null) continue;
+            layerMask |= 1 << i;
+            tileBytes += width * height * bytesPerTile;
+        }
+        int spawnBytes = 4 + spawnKeys.size * 12;
+        for (String key : spawnKeys) {
+            spawnBytes += spawns.get(key).size * 4;
+            strings.index(key.substring(0, key.indexOf('\n')));
+            strings.index(key.substring(key.indexOf('\n') + 1));
+        }
+        int tilesetBytes = 4 + tilesets.size * 16;
+        for (String image : images) {
+            strings.index(image);
+        }
+        
+        int tilesOffset = CompiledLevel.HEADER_SIZE;
+        int collisionOffset = tilesOffset + tileBytes;
+        int spawnOffset = collisionOffset + 4 + rects.size * 2;
+        int tilesetOffset = spawnOffset + spawnBytes;
+        int stringsOffset = tilesetOffset + tilesetBytes;
+        int fileSize = stringsOffset + strings.byteSize();
+        
+        ByteBuffer out = ByteBuffer.allocate(fileSize).order(ByteOrder.LITTLE_ENDIAN);
+        
+        // En-tête
+        out.putInt(CompiledLevel.H_MAGIC, CompiledLevel.MAGIC);
+        out.putShort(CompiledLevel.H_VERSION, (short) CompiledLevel.VERSION);
+        out.putShort(CompiledLevel.H_BYTES_PER_TILE, (short) bytesPerTile);
+        out.putInt(CompiledLevel.H_WIDTH, width);
+        out.putInt(CompiledLevel.H_HEIGHT, height);
+        out.putInt(CompiledLevel.H_TILE_WIDTH, tileWidth);
+        out.putInt(CompiledLevel.H_TILE_HEIGHT, tileHeight);
+        out.putInt(CompiledLevel.H_LAYER_MASK, layerMask);
+        out.putInt(CompiledLevel.H_TILES_OFFSET, tilesOffset);
+        out.putInt(CompiledLevel.H_COLLISION_OFFSET, collisionOffset);
+        out.putInt(CompiledLevel.H_SPAWN_OFFSET, spawnOffset);
+        out.putInt(CompiledLevel.H_TILESET_OFFSET, tilesetOffset);
+        out.putInt(CompiledLevel.H_STRINGS_OFFSET, stringsOffset);
+        out.putInt(CompiledLevel.H_FILE_SIZE, fileSize);
+        
+        // Tuiles
+        out.position(tilesOffset);
+        for (int[] layer : layers) {
+            if (layer == null) continue;
+            for (int gid : layer) {
+                if (wide) {
+                    out.putInt(gid);
+                } else {
+                    // 13 bits d'identifiant, les 3 bits de retournement en tête
+                    out.putShort((short) ((gid & 0x1FFF) | ((gid >>> 16) & 0xE000)));
+                }
+            }
+        }
+        
+        // Collisions
+        out.putInt(rects.size / 4);
+        for (int i = 0; i < rects.size; i++) {
+            out.putShort((short) rects.get(i));
+        }
+        
+        // Points d'apparition : index puis positions
+        out.putInt(spawnKeys.size);
+        int first = 0;
+        for (String key : spawnKeys) {
+            int count = spawns.get(key).size / 2;
+            out.putShort((short) strings.index(key.substring(0, key.indexOf('\n'))));
+            out.putShort((short) strings.index(key.substring(key.indexOf('\n') + 1)));
+            out.putInt(first);
+            out.putInt(count);
+            first += count;
+        }
+        for (String key : spawnKeys) {
+            FloatArray positions = spawns.get(key);
+            for (int i = 0; i < positions.size; i++) {
+                out.putFloat(positions.get(i));
+            }
+        }
+        
+        // Tilesets
+        out.putInt(tilesets.size);
+        for (int i = 0; i < tilesets.size; i++) {
+            XmlReader.Element tileset = tilesets.get(i);
+            int setTileWidth = tileset.getIntAttribute("tilewidth", tileWidth);
+            int setTileHeight = tileset.getIntAttribute("tileheight", tileHeight);
+            int spacing = tileset.getIntAttribute("spacing", 0);
+            int margin = tileset.getIntAttribute("margin", 0);
+            int columns = tileset.getIntAttribute("columns", 0);
+            if (columns == 0) {
+                // Anciennes versions de Tiled : déduire les colonnes de la largeur de l'image
+                XmlReader.Element image = tileset.getChildByName("image");
+                int imageWidth = image != null ? image.getIntAttribute("width", 0) : 0;
+                columns = Math.max(1, (imageWidth - 2 * margin + spacing) / (setTileWidth + spacing));
+            }
+            
+            out.putInt(firstGids.get(i));
+            out.putShort((short) setTileWidth);
+            out.putShort((short) setTileHeight);
+            out.putShort((short) spacing);
+            out.putShort((short) margin);
+            out.putShort((short) columns);
+            out.putShort((short) strings.index(images.get(i)));
+        }
+        
+        // Chaînes
+        strings.write(out);
+        
+        if (out.position() != fileSize) {
+            throw new GdxRuntimeException("Compiled level size mismatch: " + out.position() + " != " + fileSize);
+        }
+        return out.array();
+    }
+    
+    /**
+     * Chemin de l'image d'un tileset, relatif au dossier de la carte.
+     * Les images d'un tileset externe sont relatives au fichier .tsx.
+     */
+    private static String imagePath(XmlReader.Element tileset, String source) {
+        XmlReader.Element image = tileset.getChildByName("image");
+        if (image == null) {
+            throw new GdxRuntimeException("Tileset without a single image: " + tileset.getAttribute("name", "?"));
+        }
+        String path = image.getAttribute("source");
+        if (source != null) {
+            int slash = Math.max(source.lastIndexOf('/'), source.lastIndexOf('\\'));
+            if (slash >= 0) path = source.substring(0, slash + 1) + path;
+        }
+        return path;
+    }
+    
+    /**
+     * Décode les identifiants globaux d'un calque (rangée 0 en haut).
+     */
+    static int[] readTiles(XmlReader.Element layer, int width, int height) throws IOException {
+        int[] tiles = new int[width * height];
+        XmlReader.Element data = layer.getChildByName("data");
+        if (data == null) return tiles;
+        
+        String encoding = data.getAttribute("encoding", null);
+        if (encoding == null) {
+            // Éléments <tile gid="..."/>
+            Array<XmlReader.Element> elements = data.getChildrenByName("tile");
+            for (int i = 0; i < elements.size && i < tiles.length; i++) {
+                tiles[i] = (int) Long.parseLong(elements.get(i).getAttribute("gid", "0"));
+            }
+        } else if (encoding.equals("csv")) {
+            String[] values = data.getText().split(",");
+            for (int i = 0; i < values.length && i < tiles.length; i++) {
+                tiles[i] = (int) Long.parseLong(values[i].trim());
+            }
+        } else if (encoding.equals("base64")) {
+            byte[] bytes = Base64Coder.decode(data.getText().trim());
+            String compression = data.getAttribute("compression", null);
+            if ("zlib".equals(compression)) {
+                bytes = inflate(new InflaterInputStream(new ByteArrayInputStream(bytes)));
+            } else if ("gzip".equals(compression)) {
+                bytes = inflate(new GZIPInputStream(new ByteArrayInputStream(bytes)));
+            } else if (compression != null) {
+                throw new GdxRuntimeException("Unsupported tile compression: " + compression);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < tiles.length && buffer.remaining() >= 4; i++) {
+                tiles[i] = buffer.getInt();
+            }
+        } else {
+            throw new GdxRuntimeException("Unsupported tile encoding: " + encoding);
+        }
+        return tiles;
+    }
+    
+    /**
+     * Les identifiants tiennent-ils sur 13 bits (format 16 bits) ?
+     */
+    private static boolean needsWideTiles(int[] tiles) {
+        for (int gid : tiles) {
+            if ((gid & CompiledLevel.GID_MASK) >= 0x2000) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Range un objet dans les tables de chacun de ses groupes (propriétés
+     * personnalisées), avec la position que {@link MapLoader} lui donnerait.
+     */
+    private static void readObject(XmlReader.Element object, float mapHeightPixels,
+            ObjectMap<String, FloatArray> spawns, Array<String> keys) {
+        ObjectMap<String, String> properties = new ObjectMap<>();
+        XmlReader.Element list = object.getChildByName("properties");
+        if (list != null) {
+            for (XmlReader.Element property : list.getChildrenByName("property")) {
+                String value = property.getAttribute("value", null);
+                properties.put(property.getAttribute("name"), value != null ? value : property.getText());
+            }
+        }
+        
+        String type = properties.get("type", object.getAttribute("type", object.getAttribute("class", "")));
+        
+        // Même calcul que MapLoader sur les propriétés produites par TmxMapLoader :
+        // la propriété "y" est le bas de l'objet, sauf pour les objets tuiles dont
+        // l'ancre est déjà en bas ; seuls les rectangles et les ellipses sont recentrés
+        float width = object.getFloatAttribute("width", 0);
+        float height = object.getFloatAttribute("height", 0);
+        boolean tile = object.getAttribute("gid", null) != null;
+        boolean shape = object.getChildByName("polygon") != null || object.getChildByName("polyline") != null;
+        float propertyY = mapHeightPixels - object.getFloatAttribute("y", 0) - (tile ? 0 : height);
+        
+        float x = object.getFloatAttribute("x", 0);
+        float y = mapHeightPixels - propertyY;
+        if (!tile && !shape) {
+            x += width / 2;
+            y -= height / 2;
+        }
+        
+        for (ObjectMap.Entry<String, String> property : properties) {
+            if (property.key.equals("type")) continue;
+            
+            String key = property.key + "\n" + type;
+            FloatArray positions = spawns.get(key);
+            if (positions == null) {
+                positions = new FloatArray();
+                spawns.put(key, positions);
+                keys.add(key);
+            }
+            positions.add(x);
+            positions.add(y);
+        }
+    }
+    
+    private static byte[] inflate(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+    
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Table de chaînes dédupliquées (UTF-8, longueur sur 16 bits).
+     */
+    private static class Strings {
+        private final Array<String> values = new Array<>();
+        private final ObjectIntMap<String> indices = new ObjectIntMap<>();
+        
+        int index(String value) {
+            int index = indices.get(value, -1);
+            if (index < 0) {
+                index = values.size;
+                values.add(value);
+                indices.put(value, index);
+            }
+            return index;
+        }
+        
+        int byteSize() {
+            int size = 4;
+            for (String value : values) {
+                size += 2 + value.getBytes(StandardCharsets.UTF_8).length;
+            }
+            return size;
+        }
+        
+        void write(ByteBuffer out) {
+            out.putInt(values.size);
+            for (String value : values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.putShort((short) bytes.length);
+                out.put(bytes);
+            }
+        }
+    }
+}
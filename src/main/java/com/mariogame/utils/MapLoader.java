@@ -13,12 +13,12 @@ import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.Ellipse;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.mariogame.entities.Entity;
 import com.mariogame.entities.Player;
 import com.mariogame.entities.enemies.Goomba;
@@ -32,9 +32,15 @@ import com.mariogame.utils.Constants.CollisionBits;
 public class MapLoader {
     private final World physicsWorld;
     private final TiledMap map;
-    private final OrthogonalTiledMapRenderer renderer;
+    private final CompiledLevel compiled;
     private final float unitScale;
     
+    // Rendu : calques statiques précalculés par blocs
+    private TileChunkCache.ChunkSink chunkSink;
+    private TileChunkCache backgroundCache;
+    private TileChunkCache foregroundCache;
+    private OrthographicCamera view;
+    
     // Calques de la carte
     private TiledMapTileLayer backgroundLayer;
     private TiledMapTileLayer groundLayer;
@@ -50,14 +56,25 @@ public class MapLoader {
     // Position de départ du joueur
     private Vector2 playerStartPosition;
     
+    // Géométrie de collision
+    private boolean[] solidTiles;
+    private Body groundBody;
+    
     public MapLoader(World physicsWorld, TiledMap map) {
+        this(physicsWorld, map, (CompiledLevel) null);
+    }
+    
+    /**
+     * Crée le chargeur d'un niveau compilé par {@link LevelCompiler}.
+     * Les collisions fusionnées et les points d'apparition sont lus dans le niveau
+     * compilé ; la carte, reconstruite par {@link CompiledLevel#toTiledMap}, ne sert qu'au rendu.
+     */
+    public MapLoader(World physicsWorld, TiledMap map, CompiledLevel compiled) {
         this.physicsWorld = physicsWorld;
         this.map = map;
+        this.compiled = compiled;
         this.unitScale = 1 / Constants.WorldConfig.PPM;
         
-        // Initialiser le rendu de la carte
-        this.renderer = new OrthogonalTiledMapRenderer(map, unitScale);
-        
         // Récupérer les propriétés de la carte
         MapProperties properties = map.getProperties();
         this.mapWidth = properties.get("width", Integer.class);
@@ -69,6 +86,14 @@ public class MapLoader {
         loadLayers();
     }
     
+    /**
+     * Crée le chargeur avec un sink de blocs fourni (tests, rendu personnalisé).
+     */
+    public MapLoader(World physicsWorld, TiledMap map, TileChunkCache.ChunkSink chunkSink) {
+        this(physicsWorld, map);
+        this.chunkSink = chunkSink;
+    }
+    
     /**
      * Charge les différents calques de la carte.
      */
@@ -84,7 +109,7 @@ public class MapLoader {
             Gdx.app.error("MapLoader", "Ground layer not found in the map!");
         }
         
-        if (objectLayer == null) {
+        if (objectLayer == null && compiled == null) {
             Gdx.app.log("MapLoader", "No object layer found in the map.");
         }
     }
@@ -93,13 +118,50 @@ public class MapLoader {
      * Charge les calques d'arrière-plan.
      */
     public void loadBackgroundLayers() {
-        // Rien de spécial à faire ici, les calques sont déjà chargés
+        // Les calques décoratifs ne changent jamais : les précalculer par blocs une fois pour toutes
+        int tiles = countTiles(backgroundLayer) + countTiles(foregroundLayer);
+        if (tiles == 0) return;
+        
+        if (chunkSink == null) {
+            chunkSink = new TileChunkCache.SpriteCacheSink(tiles);
+        }
+        backgroundCache = buildCache(backgroundLayer);
+        foregroundCache = buildCache(foregroundLayer);
+        
+        Gdx.app.debug("MapLoader", "Baked " + tiles + " static tiles in "
+            + (getChunkBuildTimeNanos() / 1_000_000f) + " ms");
+    }
+    
+    private TileChunkCache buildCache(TiledMapTileLayer layer) {
+        if (layer == null) return null;
+        
+        TileChunkCache cache = new TileChunkCache(layer, chunkSink, unitScale, TileChunkCache.DEFAULT_CHUNK_SIZE);
+        cache.build();
+        return cache;
+    }
+    
+    private static int countTiles(TiledMapTileLayer layer) {
+        if (layer == null) return 0;
+        
+        int count = 0;
+        for (int x = 0; x < layer.getWidth(); x++) {
+            for (int y = 0; y < layer.getHeight(); y++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                if (cell != null && cell.getTile() != null) count++;
+            }
+        }
+        return count;
     }
     
     /**
      * Charge les calques de collision.
      */
     public void loadCollisionLayers() {
+        if (compiled != null) {
+            loadCompiledCollisions();
+            return;
+        }
+        
         if (groundLayer != null) {
             createCollisionObjects(groundLayer);
         }
@@ -111,46 +173,112 @@ public class MapLoader {
     
     /**
      * Crée les objets de collision à partir d'un calque de tuiles.
+     * Les tuiles solides sont fusionnées en rectangles puis attachées à un seul corps statique.
      */
     private void createCollisionObjects(TiledMapTileLayer layer) {
         float tileWidth = layer.getTileWidth() * unitScale;
         float tileHeight = layer.getTileHeight() * unitScale;
+        int layerWidth = layer.getWidth();
+        int layerHeight = layer.getHeight();
         
-        for (int x = 0; x < layer.getWidth(); x++) {
-            for (int y = 0; y < layer.getHeight(); y++) {
+        // Construire la grille des tuiles solides
+        solidTiles = buildSolidMask(layer);
+        
+        // Fusionner les tuiles en rectangles
+        IntArray rects = new IntArray();
+        CollisionBaker.bake(solidTiles, layerWidth, layerHeight, rects);
+        createGroundBody(rects, tileWidth, tileHeight);
+    }
+    
+    /**
+     * Charge la géométrie et le départ du joueur d'un niveau compilé :
+     * les rectangles ont été fusionnés hors ligne, il ne reste qu'à créer les fixtures.
+     */
+    private void loadCompiledCollisions() {
+        solidTiles = compiled.buildSolidMask();
+        
+        IntArray rects = new IntArray();
+        compiled.getCollisionRects(rects);
+        createGroundBody(rects, compiled.getTileWidth() * unitScale, compiled.getTileHeight() * unitScale);
+        
+        playerStartPosition = compiled.getLastSpawn("player_start", unitScale);
+    }
+    
+    /**
+     * Attache les rectangles fusionnés (x, y, largeur, hauteur en tuiles) à un seul corps statique.
+     */
+    private void createGroundBody(IntArray rects, float tileWidth, float tileHeight) {
+        int rectCount = rects.size / 4;
+        if (rectCount == 0) return;
+        
+        // Un seul corps statique pour toute la géométrie du niveau
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.StaticBody;
+        groundBody = physicsWorld.createBody(bodyDef);
+        
+        PolygonShape shape = new PolygonShape();
+        Vector2 center = new Vector2();
+        
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        fixtureDef.friction = 0.6f;
+        
+        // Définir les filtres de collision
+        fixtureDef.filter.categoryBits = CollisionBits.GROUND;
+        // Le capteur de pieds du joueur a sa propre catégorie : sans elle, il ne voit jamais le sol
+        fixtureDef.filter.maskBits = (short) (CollisionBits.PLAYER | CollisionBits.PLAYER_FOOT
+            | CollisionBits.ENEMY | CollisionBits.ITEM);
+        
+        for (int i = 0; i < rects.size; i += 4) {
+            int x = rects.get(i);
+            int y = rects.get(i + 1);
+            int w = rects.get(i + 2);
+            int h = rects.get(i + 3);
+            
+            float halfWidth = w * tileWidth / 2;
+            float halfHeight = h * tileHeight / 2;
+            center.set(x * tileWidth + halfWidth, y * tileHeight + halfHeight);
+            shape.setAsBox(halfWidth, halfHeight, center, 0);
+            
+            // Créer la fixture
+            Fixture fixture = groundBody.createFixture(fixtureDef);
+            fixture.setUserData("ground");
+        }
+        
+        shape.dispose();
+        
+        Gdx.app.log("MapLoader", "Collision baked: " + rectCount + " fixtures for "
+            + countSolidTiles() + " solid tiles");
+    }
+    
+    /**
+     * Construit la grille des tuiles solides d'un calque.
+     * La rangée 0 correspond au bas du niveau, comme les positions des corps Box2D.
+     */
+    private boolean[] buildSolidMask(TiledMapTileLayer layer) {
+        int layerWidth = layer.getWidth();
+        int layerHeight = layer.getHeight();
+        boolean[] mask = new boolean[layerWidth * layerHeight];
+        
+        for (int x = 0; x < layerWidth; x++) {
+            for (int y = 0; y < layerHeight; y++) {
                 TiledMapTileLayer.Cell cell = layer.getCell(x, y);
-                
                 if (cell != null && cell.getTile() != null) {
-                    // Créer un corps physique pour cette tuile
-                    BodyDef bodyDef = new BodyDef();
-                    bodyDef.type = BodyDef.BodyType.StaticBody;
-                    bodyDef.position.set(
-                        (x + 0.5f) * tileWidth,
-                        (layer.getHeight() - y - 0.5f) * tileHeight
-                    );
-                    
-                    Body body = physicsWorld.createBody(bodyDef);
-                    
-                    // Créer une forme de collision pour la tuile
-                    PolygonShape shape = new PolygonShape();
-                    shape.setAsBox(tileWidth / 2, tileHeight / 2);
-                    
-                    FixtureDef fixtureDef = new FixtureDef();
-                    fixtureDef.shape = shape;
-                    fixtureDef.friction = 0.6f;
-                    
-                    // Définir les filtres de collision
-                    fixtureDef.filter.categoryBits = CollisionBits.GROUND;
-                    fixtureDef.filter.maskBits = (short) (CollisionBits.PLAYER | CollisionBits.ENEMY | CollisionBits.ITEM);
-                    
-                    // Créer la fixture
-                    Fixture fixture = body.createFixture(fixtureDef);
-                    fixture.setUserData("ground");
-                    
-                    shape.dispose();
+                    // TmxMapLoader a déjà retourné les rangées : getCell(x, 0) est en bas
+                    mask[y * layerWidth + x] = true;
                 }
             }
         }
+        
+        return mask;
+    }
+    
+    private int countSolidTiles() {
+        int count = 0;
+        for (boolean solid : solidTiles) {
+            if (solid) count++;
+        }
+        return count;
     }
     
     /**
@@ -197,38 +325,48 @@ public class MapLoader {
      * Rendu des calques d'arrière-plan.
      */
     public void renderBackgroundLayers(SpriteBatch batch) {
-        if (backgroundLayer != null) {
-            renderer.getBatch().begin();
-            renderer.renderTileLayer(backgroundLayer);
-            renderer.getBatch().end();
-        }
+        renderCache(backgroundCache, batch);
     }
     
     /**
      * Rendu des calques de premier plan.
      */
     public void renderForegroundLayers(SpriteBatch batch) {
-        if (foregroundLayer != null) {
-            renderer.getBatch().begin();
-            renderer.renderTileLayer(foregroundLayer);
-            renderer.getBatch().end();
-        }
+        renderCache(foregroundCache, batch);
+    }
+    
+    /**
+     * Dessine les blocs visibles d'un calque. Le batch en cours est vidé avant
+     * pour conserver l'ordre de dessin, puis reprend avec son propre shader.
+     */
+    private void renderCache(TileChunkCache cache, SpriteBatch batch) {
+        if (cache == null || view == null) return;
+        
+        boolean drawing = batch != null && batch.isDrawing();
+        if (drawing) batch.end();
+        // Blocs en mètres, caméra en pixels
+        cache.render(view, 1f / unitScale);
+        if (drawing) batch.begin();
     }
     
     /**
-     * Met à jour la vue de la caméra.
+     * Met à jour la vue de la caméra. À appeler à chaque frame avant le rendu des calques.
+     * @param camera Caméra de jeu, en pixels
      */
     public void setView(OrthographicCamera camera) {
-        renderer.setView(camera);
+        this.view = camera;
     }
     
     /**
      * Nettoie les ressources utilisées par le chargeur de carte.
      */
     public void dispose() {
-        if (renderer != null) {
-            renderer.dispose();
+        if (chunkSink != null) {
+            chunkSink.dispose();
+            chunkSink = null;
         }
+        backgroundCache = null;
+        foregroundCache = null;
     }
     
     // Getters
@@ -240,6 +378,54 @@ public class MapLoader {
         return playerStartPosition != null ? playerStartPosition.cpy() : new Vector2(2, 10);
     }
     
+    /**
+     * Retourne la grille des tuiles solides du calque de sol (rangée 0 en bas), ou null.
+     */
+    public boolean[] getSolidTiles() {
+        return solidTiles;
+    }
+    
+    /**
+     * Retourne le corps statique portant la géométrie de collision fusionnée, ou null.
+     */
+    public Body getGroundBody() {
+        return groundBody;
+    }
+    
+    /**
+     * Temps passé à précalculer les blocs des calques statiques.
+     */
+    public long getChunkBuildTimeNanos() {
+        long time = 0;
+        if (backgroundCache != null) time += backgroundCache.getBuildTimeNanos();
+        if (foregroundCache != null) time += foregroundCache.getBuildTimeNanos();
+        return time;
+    }
+    
+    /**
+     * Mémoire des sommets des calques statiques précalculés, en octets.
+     */
+    public long getChunkVertexBytes() {
+        long bytes = 0;
+        if (backgroundCache != null) bytes += backgroundCache.getVertexBytes();
+        if (foregroundCache != null) bytes += foregroundCache.getVertexBytes();
+        return bytes;
+    }
+    
+    /**
+     * Retourne la largeur de la carte en tuiles.
+     */
+    public int getMapWidth() {
+        return mapWidth;
+    }
+    
+    /**
+     * Retourne la hauteur de la carte en tuiles.
+     */
+    public int getMapHeight() {
+        return mapHeight;
+    }
+    
     /**
      * Retourne la largeur de la carte en pixels.
      */
@@ -260,6 +446,11 @@ public class MapLoader {
     public Array<Vector2> getObjectPositions(String group, String type) {
         Array<Vector2> positions = new Array<>();
         
+        if (compiled != null) {
+            compiled.getSpawns(group, type, unitScale, positions);
+            return positions;
+        }
+        
         if (objectLayer == null) {
             return positions;
         }
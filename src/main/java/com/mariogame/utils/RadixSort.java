@@ -0,0 +1,78 @@
+package com.mariogame.utils;
+
+import java.util.Arrays;
+
+/**
+ * Tri par base (LSD, octet par octet) de clés 64 bits, dans l'ordre non signé.
+ * Stable, sans comparateur ni boxing ; les octets identiques pour toutes les clés
+ * sont sautés, si bien que des clés peu variées ne coûtent que quelques passes.
+ * Le tampon de travail est conservé entre les appels.
+ */
+public class RadixSort {
+    private static final int RADIX = 256;
+    
+    private final int[] counts = new int[RADIX];
+    private long[] scratch = new long[0];
+    private int passesLastSort = 0;
+    
+    /**
+     * Trie les {@code count} premières clés en place.
+     */
+    public void sort(long[] keys, int count) {
+        passesLastSort = 0;
+        if (count < 2) return;
+        
+        if (scratch.length < count) {
+            scratch = new long[Math.max(count, scratch.length * 2)];
+        }
+        
+        // Octets qui varient d'une clé à l'autre
+        long first = keys[0];
+        long varying = 0;
+        for (int i = 1; i < count; i++) {
+            varying |= keys[i] ^ first;
+        }
+        
+        long[] source = keys;
+        long[] target = scratch;
+        
+        for (int shift = 0; shift < 64; shift += 8) {
+            if (((varying >>> shift) & 0xFF) == 0) continue;
+            
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < count; i++) {
+                counts[(int) (source[i] >>> shift) & 0xFF]++;
+            }
+            
+            // Positions de départ de chaque valeur d'octet
+            int offset = 0;
+            for (int b = 0; b < RADIX; b++) {
+                int c = counts[b];
+                counts[b] = offset;
+                offset += c;
+            }
+            
+            for (int i = 0; i < count; i++) {
+                long key = source[i];
+                target[counts[(int) (key >>> shift) & 0xFF]++] = key;
+            }
+            
+            long[] swap = source;
+            source = target;
+            target = swap;
+            passesLastSort++;
+        }
+        
+        // Un nombre impair de passes laisse le résultat dans le tampon
+        if (source != keys) {
+            System.arraycopy(source, 0, keys, 0, count);
+        }
+    }
+    
+    /**
+     * Nombre de passes effectuées par le dernier tri (0 à 8).
+     */
+    public int getPassesLastSort() {
+        return passesLastSort;
+    }
+}
@@ -0,0 +1,88 @@
+package com.mariogame.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Mesure les phases du démarrage, du lancement du jeu jusqu'au menu : chaque
+ * phase se termine à son marquage et dure depuis la précédente. Le rapport est
+ * journalisé une fois, à la fin du démarrage.
+ */
+public class StartupTimer {
+    public static final String FIRST_FRAME = "first frame";
+    
+    private final long startNanos;
+    private final Array<String> phases = new Array<>();
+    private final LongArray ends = new LongArray();
+    private boolean finished = false;
+    
+    public StartupTimer() {
+        this(TimeUtils.nanoTime());
+    }
+    
+    public StartupTimer(long startNanos) {
+        this.startNanos = startNanos;
+    }
+    
+    /**
+     * Termine une phase maintenant. Une phase déjà marquée ne l'est pas à nouveau.
+     */
+    public void mark(String phase) {
+        mark(phase, TimeUtils.nanoTime());
+    }
+    
+    void mark(String phase, long nanos) {
+        if (finished || phases.contains(phase, false)) return;
+        
+        phases.add(phase);
+        ends.add(nanos);
+    }
+    
+    public boolean isMarked(String phase) {
+        return phases.contains(phase, false);
+    }
+    
+    /**
+     * Durée d'une phase (depuis la phase précédente), ou -1 si elle n'est pas marquée.
+     */
+    public long getPhaseNanos(String phase) {
+        int index = phases.indexOf(phase, false);
+        if (index < 0) return -1;
+        return ends.get(index) - (index > 0 ? ends.get(index - 1) : startNanos);
+    }
+    
+    /**
+     * Temps écoulé depuis le lancement à la fin d'une phase, ou -1 si elle n'est pas marquée.
+     */
+    public long getElapsedNanos(String phase) {
+        int index = phases.indexOf(phase, false);
+        return index < 0 ? -1 : ends.get(index) - startNanos;
+    }
+    
+    /**
+     * Temps total jusqu'à la dernière phase marquée.
+     */
+    public long getTotalNanos() {
+        return ends.size > 0 ? ends.peek() - startNanos : 0;
+    }
+    
+    /**
+     * Termine le démarrage : plus aucune phase n'est marquée et le rapport est journalisé.
+     */
+    public void finish() {
+        if (finished) return;
+        finished = true;
+        
+        Gdx.app.log("StartupTimer", String.format("Startup: %.1f ms", getTotalNanos() / 1e6f));
+        for (String phase : phases) {
+            Gdx.app.log("StartupTimer", String.format("  %-24s %8.1f ms (at %.1f ms)",
+                phase, getPhaseNanos(phase) / 1e6f, getElapsedNanos(phase) / 1e6f));
+        }
+    }
+    
+    public boolean isFinished() {
+        return finished;
+    }
+}
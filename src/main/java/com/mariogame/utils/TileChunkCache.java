@@ -0,0 +1,336 @@
+package com.mariogame.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Cache statique d'un calque de tuiles découpé en blocs de taille fixe.
+ * Chaque bloc est converti une seule fois en sommets au chargement du niveau ;
+ * le rendu se limite ensuite à dessiner les blocs qui touchent la caméra,
+ * sans recalcul de sommets par tuile. Les tuiles animées sont figées sur
+ * leur image au moment de la construction.
+ */
+public class TileChunkCache {
+    public static final int DEFAULT_CHUNK_SIZE = 16;
+    
+    private static final int VERTEX_SIZE = 5; // x, y, couleur, u, v
+    private static final int SPRITE_SIZE = 4 * VERTEX_SIZE;
+    private static final int X1 = 0, Y1 = 1, U1 = 3, V1 = 4;
+    private static final int X2 = 5, Y2 = 6, U2 = 8, V2 = 9;
+    private static final int X3 = 10, Y3 = 11, U3 = 13, V3 = 14;
+    private static final int X4 = 15, Y4 = 16, U4 = 18, V4 = 19;
+    
+    /**
+     * Destination des sommets des blocs. {@link SpriteCacheSink} les stocke dans un
+     * SpriteCache sur le GPU ; un test peut se contenter de les enregistrer.
+     */
+    public interface ChunkSink extends Disposable {
+        void beginChunk();
+        void add(Texture texture, float[] vertices, int offset, int length);
+        /** @return L'identifiant du bloc construit */
+        int endChunk();
+        void begin(Matrix4 projection);
+        void draw(int chunk);
+        void end();
+    }
+    
+    private final TiledMapTileLayer layer;
+    private final ChunkSink sink;
+    private final float unitScale;
+    private final int chunkSize;
+    private final int chunksX, chunksY;
+    private final int[] chunkIds;
+    private final float[] vertices = new float[SPRITE_SIZE];
+    private final Matrix4 projection = new Matrix4();
+    
+    // Débordement maximal d'une tuile au-delà de sa case (unités du monde)
+    private float maxOverflowX = 0;
+    private float maxOverflowY = 0;
+    
+    // Statistiques
+    private int builtChunks = 0;
+    private int tileCount = 0;
+    private long buildTimeNanos = 0;
+    private int drawnChunksLastFrame = 0;
+    
+    /**
+     * @param layer Calque statique à mettre en cache
+     * @param unitScale Échelle des pixels de la carte vers les unités du monde
+     * @param chunkSize Côté d'un bloc, en tuiles
+     */
+    public TileChunkCache(TiledMapTileLayer layer, ChunkSink sink, float unitScale, int chunkSize) {
+        if (layer == null || sink == null) {
+            throw new IllegalArgumentException("Layer and sink cannot be null");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.layer = layer;
+        this.sink = sink;
+        this.unitScale = unitScale;
+        this.chunkSize = chunkSize;
+        this.chunksX = (layer.getWidth() + chunkSize - 1) / chunkSize;
+        this.chunksY = (layer.getHeight() + chunkSize - 1) / chunkSize;
+        this.chunkIds = new int[chunksX * chunksY];
+    }
+    
+    /**
+     * Construit tous les blocs. Les blocs vides ne sont pas envoyés au sink.
+     */
+    public void build() {
+        long start = TimeUtils.nanoTime();
+        builtChunks = 0;
+        tileCount = 0;
+        
+        for (int cy = 0; cy < chunksY; cy++) {
+            for (int cx = 0; cx < chunksX; cx++) {
+                chunkIds[cy * chunksX + cx] = buildChunk(cx, cy);
+            }
+        }
+        
+        buildTimeNanos = TimeUtils.nanoTime() - start;
+    }
+    
+    private int buildChunk(int chunkX, int chunkY) {
+        int startCol = chunkX * chunkSize;
+        int startRow = chunkY * chunkSize;
+        int endCol = Math.min(startCol + chunkSize, layer.getWidth());
+        int endRow = Math.min(startRow + chunkSize, layer.getHeight());
+        
+        boolean started = false;
+        for (int row = startRow; row < endRow; row++) {
+            for (int col = startCol; col < endCol; col++) {
+                Cell cell = layer.getCell(col, row);
+                if (cell == null || cell.getTile() == null) continue;
+                
+                if (!started) {
+                    sink.beginChunk();
+                    started = true;
+                }
+                addTile(cell, col, row);
+            }
+        }
+        
+        if (!started) return -1;
+        builtChunks++;
+        return sink.endChunk();
+    }
+    
+    /**
+     * Génère les quatre sommets d'une tuile, avec retournements et rotations,
+     * comme le fait OrthogonalTiledMapRenderer.
+     */
+    private void addTile(Cell cell, int col, int row) {
+        TiledMapTile tile = cell.getTile();
+        TextureRegion region = tile.getTextureRegion();
+        
+        float tileWidth = layer.getTileWidth() * unitScale;
+        float tileHeight = layer.getTileHeight() * unitScale;
+        float x1 = col * tileWidth + tile.getOffsetX() * unitScale;
+        float y1 = row * tileHeight + tile.getOffsetY() * unitScale;
+        float x2 = x1 + region.getRegionWidth() * unitScale;
+        float y2 = y1 + region.getRegionHeight() * unitScale;
+        float color = Color.toFloatBits(1f, 1f, 1f, layer.getOpacity());
+        
+        maxOverflowX = Math.max(maxOverflowX, x2 - (col + 1) * tileWidth);
+        maxOverflowY = Math.max(maxOverflowY, y2 - (row + 1) * tileHeight);
+        
+        float u1 = region.getU();
+        float v1 = region.getV2();
+        float u2 = region.getU2();
+        float v2 = region.getV();
+        
+        float[] v = vertices;
+        v[X1] = x1; v[Y1] = y1; v[2] = color; v[U1] = u1; v[V1] = v1;
+        v[X2] = x1; v[Y2] = y2; v[7] = color; v[U2] = u1; v[V2] = v2;
+        v[X3] = x2; v[Y3] = y2; v[12] = color; v[U3] = u2; v[V3] = v2;
+        v[X4] = x2; v[Y4] = y1; v[17] = color; v[U4] = u2; v[V4] = v1;
+        
+        if (cell.getFlipHorizontally()) {
+            swap(v, U1, U3);
+            swap(v, U2, U4);
+        }
+        if (cell.getFlipVertically()) {
+            swap(v, V1, V3);
+            swap(v, V2, V4);
+        }
+        
+        switch (cell.getRotation()) {
+            case Cell.ROTATE_90:
+                rotate(v, V1, V2, V3, V4);
+                rotate(v, U1, U2, U3, U4);
+                break;
+            case Cell.ROTATE_180:
+                swap(v, U1, U3);
+                swap(v, U2, U4);
+                swap(v, V1, V3);
+                swap(v, V2, V4);
+                break;
+            case Cell.ROTATE_270:
+                rotate(v, V1, V4, V3, V2);
+                rotate(v, U1, U4, U3, U2);
+                break;
+        }
+        
+        sink.add(region.getTexture(), v, 0, SPRITE_SIZE);
+        tileCount++;
+    }
+    
+    private static void swap(float[] v, int a, int b) {
+        float temp = v[a];
+        v[a] = v[b];
+        v[b] = temp;
+    }
+    
+    /** Décale circulairement v[a] <- v[b] <- v[c] <- v[d] <- v[a]. */
+    private static void rotate(float[] v, int a, int b, int c, int d) {
+        float temp = v[a];
+        v[a] = v[b];
+        v[b] = v[c];
+        v[c] = v[d];
+        v[d] = temp;
+    }
+    
+    /**
+     * Dessine les blocs qui touchent la vue d'une caméra qui travaille dans les
+     * mêmes unités que les blocs.
+     */
+    public void render(OrthographicCamera camera) {
+        render(camera, 1f);
+    }
+    
+    /**
+     * Dessine les blocs qui touchent la vue de la caméra.
+     * @param cameraScale Nombre d'unités de la caméra par unité des blocs
+     *                    (par exemple PPM pour la caméra de jeu en pixels et des blocs en mètres)
+     */
+    public void render(OrthographicCamera camera, float cameraScale) {
+        // Vue de la caméra ramenée dans l'espace des blocs
+        float halfWidth = camera.viewportWidth * camera.zoom / 2f / cameraScale;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2f / cameraScale;
+        float centerX = camera.position.x / cameraScale;
+        float centerY = camera.position.y / cameraScale;
+        float chunkWidth = chunkSize * layer.getTileWidth() * unitScale;
+        float chunkHeight = chunkSize * layer.getTileHeight() * unitScale;
+        
+        // Élargir vers le bas et la gauche pour les tuiles qui débordent de leur case
+        int startX = Math.max(0, MathUtils.floor((centerX - halfWidth - maxOverflowX) / chunkWidth));
+        int startY = Math.max(0, MathUtils.floor((centerY - halfHeight - maxOverflowY) / chunkHeight));
+        int endX = Math.min(chunksX - 1, MathUtils.floor((centerX + halfWidth) / chunkWidth));
+        int endY = Math.min(chunksY - 1, MathUtils.floor((centerY + halfHeight) / chunkHeight));
+        
+        drawnChunksLastFrame = 0;
+        if (startX > endX || startY > endY) return;
+        
+        // Les sommets sont dans l'espace des blocs : les projeter à l'échelle de la caméra
+        projection.set(camera.combined).scale(cameraScale, cameraScale, 1f);
+        
+        sink.begin(projection);
+        for (int cy = startY; cy <= endY; cy++) {
+            for (int cx = startX; cx <= endX; cx++) {
+                int chunk = chunkIds[cy * chunksX + cx];
+                if (chunk < 0) continue;
+                sink.draw(chunk);
+                drawnChunksLastFrame++;
+            }
+        }
+        sink.end();
+    }
+    
+    // Getters
+    
+    public int getChunkCountX() {
+        return chunksX;
+    }
+    
+    public int getChunkCountY() {
+        return chunksY;
+    }
+    
+    /**
+     * Nombre de blocs non vides construits.
+     */
+    public int getBuiltChunks() {
+        return builtChunks;
+    }
+    
+    public int getTileCount() {
+        return tileCount;
+    }
+    
+    /**
+     * Taille des sommets mis en cache, en octets.
+     */
+    public long getVertexBytes() {
+        return (long) tileCount * SPRITE_SIZE * Float.BYTES;
+    }
+    
+    public long getBuildTimeNanos() {
+        return buildTimeNanos;
+    }
+    
+    public int getDrawnChunksLastFrame() {
+        return drawnChunksLastFrame;
+    }
+    
+    /**
+     * Sink qui stocke chaque bloc dans un SpriteCache. Sans indices, la taille du
+     * cache n'est pas limitée à 8191 tuiles.
+     */
+    public static class SpriteCacheSink implements ChunkSink {
+        private final SpriteCache cache;
+        
+        /**
+         * @param tileCapacity Nombre total de tuiles de tous les blocs
+         */
+        public SpriteCacheSink(int tileCapacity) {
+            this.cache = new SpriteCache(Math.max(1, tileCapacity), false);
+        }
+        
+        @Override
+        public void beginChunk() {
+            cache.beginCache();
+        }
+        
+        @Override
+        public void add(Texture texture, float[] vertices, int offset, int length) {
+            cache.add(texture, vertices, offset, length);
+        }
+        
+        @Override
+        public int endChunk() {
+            return cache.endCache();
+        }
+        
+        @Override
+        public void begin(Matrix4 projection) {
+            cache.setProjectionMatrix(projection);
+            cache.begin();
+        }
+        
+        @Override
+        public void draw(int chunk) {
+            cache.draw(chunk);
+        }
+        
+        @Override
+        public void end() {
+            cache.end();
+        }
+        
+        @Override
+        public void dispose() {
+            cache.dispose();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.mariogame.world;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.mariogame.entities.Entity;
+import com.mariogame.utils.Constants;
+
+/**
+ * Zone d'activation pilotée par la caméra.
+ * Les entités hors de la vue (plus une marge) sont mises en sommeil : leur corps Box2D
+ * est désactivé et elles ne sont plus mises à jour ni dessinées. Elles se réveillent
+ * dès qu'elles rentrent dans la zone, colonne par colonne, puis dans leur ordre de mise en sommeil.
+ * 
+ * Les entités en sommeil ne bougent pas : elles sont rangées par colonne de tuiles.
+ * Chaque mise à jour ne parcourt que les entités éveillées et les colonnes qui entrent
+ * dans la zone ou en forment le bord, pas tout le niveau.
+ */
+public class ActivationZone {
+    public static final float DEFAULT_MARGIN = 4f; // mètres autour de la vue
+    private static final float HYSTERESIS = 1f;    // évite les réveils/sommeils en boucle au bord
+    public static final float DEFAULT_COLUMN_WIDTH = 16f / Constants.WorldConfig.PPM; // une tuile
+    
+    private final float unitsPerMeter;
+    private final float columnWidth;
+    private float margin;
+    private boolean enabled = true;
+    
+    // Entités éveillées, et entités en sommeil rangées par colonne
+    private final Array<Entity> active = new Array<>();
+    private final IntMap<Array<Entity>> columns = new IntMap<>();
+    private final ObjectIntMap<Entity> columnOf = new ObjectIntMap<>();
+    private float maxHalfWidth = 0f;
+    
+    // Colonnes parcourues à la dernière mise à jour, et vue qui les a déterminées
+    private boolean scanned = false;
+    private int scannedFrom, scannedTo;
+    private float scannedMinY, scannedMaxY, scannedMargin, scannedHalfWidth;
+    
+    // Vue de la caméra en mètres
+    private float viewMinX, viewMinY, viewMaxX, viewMaxY;
+    private boolean hasView = false;
+    
+    // Statistiques
+    private int activeCount = 0;
+    private int dormantCount = 0;
+    private int wokenLastUpdate = 0;
+    private int sleptLastUpdate = 0;
+    private int visitedLastUpdate = 0;
+    
+    public ActivationZone() {
+        this(DEFAULT_MARGIN, Constants.WorldConfig.PPM, DEFAULT_COLUMN_WIDTH);
+    }
+    
+    /**
+     * @param margin Marge autour de la vue, en mètres
+     * @param unitsPerMeter Nombre d'unités caméra par mètre (la caméra de jeu est en pixels)
+     * @param columnWidth Largeur d'une colonne de rangement, en mètres
+     */
+    public ActivationZone(float margin, float unitsPerMeter, float columnWidth) {
+        this.margin = margin;
+        this.unitsPerMeter = unitsPerMeter;
+        this.columnWidth = columnWidth;
+    }
+    
+    /**
+     * Suit une nouvelle entité. Elle est examinée à la prochaine mise à jour.
+     */
+    public void add(Entity entity) {
+        maxHalfWidth = Math.max(maxHalfWidth, entity.getWidth() / 2f);
+        if (entity.isDormant()) {
+            store(entity);
+        } else {
+            active.add(entity);
+        }
+    }
+    
+    /**
+     * Cesse de suivre une entité retirée du monde.
+     */
+    public void remove(Entity entity) {
+        if (columnOf.containsKey(entity)) {
+            int column = columnOf.remove(entity, 0);
+            columns.get(column).removeValue(entity, true);
+        } else {
+            active.removeValue(entity, true);
+        }
+    }
+    
+    /**
+     * Oublie toutes les entités (changement de niveau).
+     */
+    public void clear() {
+        active.clear();
+        columns.clear();
+        columnOf.clear();
+        maxHalfWidth = 0f;
+        scanned = false;
+    }
+    
+    /**
+     * Recalcule la vue à partir du rectangle de la caméra.
+     */
+    public void setView(OrthographicCamera camera) {
+        if (camera == null) {
+            hasView = false;
+            return;
+        }
+        
+        float halfWidth = camera.viewportWidth * camera.zoom / 2f / unitsPerMeter;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2f / unitsPerMeter;
+        float centerX = camera.position.x / unitsPerMeter;
+        float centerY = camera.position.y / unitsPerMeter;
+        
+        setView(centerX - halfWidth, centerY - halfHeight, centerX + halfWidth, centerY + halfHeight);
+    }
+    
+    /**
+     * Définit directement la vue, en mètres.
+     */
+    public void setView(float minX, float minY, float maxX, float maxY) {
+        viewMinX = minX;
+        viewMinY = minY;
+        viewMaxX = maxX;
+        viewMaxY = maxY;
+        hasView = true;
+    }
+    
+    /**
+     * Met en sommeil ou réveille les entités selon leur position par rapport à la zone.
+     * Doit être appelé hors de {@code World.step}, avant la simulation de la frame.
+     */
+    public void update() {
+        wokenLastUpdate = 0;
+        sleptLastUpdate = 0;
+        visitedLastUpdate = 0;
+        
+        if (!enabled || !hasView) {
+            wakeAll();
+        } else {
+            sleepLeavingEntities();
+            wakeEnteringEntities();
+        }
+        
+        activeCount = active.size;
+        dormantCount = columnOf.size;
+    }
+    
+    /**
+     * Mise en sommeil seulement une fois sortie de la zone élargie.
+     */
+    private void sleepLeavingEntities() {
+        for (int i = 0; i < active.size; i++) {
+            Entity entity = active.get(i);
+            if (entity.isRemoved() || !entity.canBeDormant()) continue;
+            
+            if (!overlaps(entity, margin + HYSTERESIS)) {
+                active.removeIndex(i--);
+                entity.setDormant(true);
+                store(entity);
+                sleptLastUpdate++;
+            }
+        }
+    }
+    
+    /**
+     * Réveil dès l'entrée dans la zone. Une entité en sommeil a déjà été comparée à la vue :
+     * seules les colonnes qui viennent d'entrer et celles du bord, où la largeur des entités
+     * compte, peuvent en contenir une à réveiller. Un changement de hauteur ou de marge
+     * oblige à reprendre toute la zone.
+     */
+    private void wakeEnteringEntities() {
+        float minX = viewMinX - margin;
+        float maxX = viewMaxX + margin;
+        int from = columnAt(minX - maxHalfWidth);
+        int to = columnAt(maxX + maxHalfWidth);
+        
+        boolean full = !scanned
+            || viewMinY != scannedMinY || viewMaxY != scannedMaxY
+            || margin != scannedMargin || maxHalfWidth != scannedHalfWidth;
+        
+        if (full) {
+            wakeColumns(from, to);
+        } else {
+            int leftEnd = Math.min(Math.max(columnAt(minX), scannedFrom - 1), to);
+            int rightStart = Math.max(Math.min(columnAt(maxX), scannedTo + 1), leftEnd + 1);
+            wakeColumns(from, leftEnd);
+            wakeColumns(rightStart, to);
+        }
+        
+        scanned = true;
+        scannedFrom = from;
+        scannedTo = to;
+        scannedMinY = viewMinY;
+        scannedMaxY = viewMaxY;
+        scannedMargin = margin;
+        scannedHalfWidth = maxHalfWidth;
+    }
+    
+    private void wakeColumns(int from, int to) {
+        for (int column = from; column <= to; column++) {
+            Array<Entity> bucket = columns.get(column);
+            if (bucket == null) continue;
+            
+            for (int i = 0; i < bucket.size; i++) {
+                Entity entity = bucket.get(i);
+                visitedLastUpdate++;
+                if (entity.isRemoved() || !overlaps(entity, margin)) continue;
+                
+                bucket.removeIndex(i--);
+                columnOf.remove(entity, 0);
+                wake(entity);
+            }
+        }
+    }
+    
+    /**
+     * Sans vue ou zone désactivée, tout le monde est réveillé.
+     */
+    private void wakeAll() {
+        if (columnOf.size > 0) {
+            for (Array<Entity> bucket : columns.values()) {
+                for (int i = 0; i < bucket.size; i++) {
+                    Entity entity = bucket.get(i);
+                    if (!entity.isRemoved()) wake(entity);
+                }
+                bucket.clear();
+            }
+            columnOf.clear();
+        }
+        scanned = false;
+    }
+    
+    private void wake(Entity entity) {
+        entity.setDormant(false);
+        active.add(entity);
+        wokenLastUpdate++;
+    }
+    
+    private void store(Entity entity) {
+        int column = columnAt(entity.getX());
+        Array<Entity> bucket = columns.get(column);
+        if (bucket == null) {
+            bucket = new Array<>();
+            columns.put(column, bucket);
+        }
+        bucket.add(entity);
+        columnOf.put(entity, column);
+    }
+    
+    private int columnAt(float x) {
+        return MathUtils.floor(x / columnWidth);
+    }
+    
+    private boolean overlaps(Entity entity, float extent) {
+        float halfWidth = entity.getWidth() / 2f;
+        float halfHeight = entity.getHeight() / 2f;
+        float x = entity.getX();
+        float y = entity.getY();
+        
+        return x + halfWidth >= viewMinX - extent && x - halfWidth <= viewMaxX + extent
+            && y + halfHeight >= viewMinY - extent && y - halfHeight <= viewMaxY + extent;
+    }
+    
+    // Getters et setters
+    
+    public float getMargin() {
+        return margin;
+    }
+    
+    public void setMargin(float margin) {
+        this.margin = margin;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Active ou désactive la mise en sommeil. Désactivée, toutes les entités sont réveillées
+     * à la prochaine mise à jour.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getActiveCount() {
+        return activeCount;
+    }
+    
+    public int getDormantCount() {
+        return dormantCount;
+    }
+    
+    public int getWokenLastUpdate() {
+        return wokenLastUpdate;
+    }
+    
+    public int getSleptLastUpdate() {
+        return sleptLastUpdate;
+    }
+    
+    /**
+     * Nombre d'entités en sommeil examinées à la dernière mise à jour.
+     */
+    public int getVisitedLastUpdate() {
+        return visitedLastUpdate;
+    }
+}
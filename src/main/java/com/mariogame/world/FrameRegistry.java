@@ -0,0 +1,50 @@
+package com.mariogame.world;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Attribue un identifiant entier à chaque image d'animation rencontrée,
+ * pour que les instantanés de rendu ne transportent que des entiers.
+ * L'enregistrement n'a lieu que sur le thread de simulation ; le rendu résout
+ * les identifiants reçus dans un instantané, publié après l'enregistrement,
+ * ce qui garantit qu'il voit l'image correspondante.
+ */
+public class FrameRegistry {
+    private final ObjectIntMap<TextureRegion> ids = new ObjectIntMap<>();
+    private volatile TextureRegion[] frames = new TextureRegion[64];
+    private int count = 0;
+    
+    /**
+     * Identifiant d'une image, attribué à la première rencontre.
+     * Ne doit être appelé que par le thread de simulation.
+     */
+    public int idOf(TextureRegion frame) {
+        int id = ids.get(frame, -1);
+        if (id >= 0) return id;
+        
+        id = count++;
+        TextureRegion[] current = frames;
+        if (id == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[id] = frame;
+        frames = current;
+        ids.put(frame, id);
+        return id;
+    }
+    
+    /**
+     * Image correspondant à un identifiant, ou null s'il est inconnu.
+     */
+    public TextureRegion get(int id) {
+        TextureRegion[] current = frames;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+    
+    public int size() {
+        return count;
+    }
+}
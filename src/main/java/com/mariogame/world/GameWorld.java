@@ -1,93 +1,220 @@
 package com.mariogame.world;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.mariogame.entities.Entity;
 import com.mariogame.entities.Player;
 import com.mariogame.entities.enemies.Goomba;
 import com.mariogame.entities.items.Coin;
 import com.mariogame.entities.items.Mushroom;
 import com.mariogame.managers.PhysicsManager;
+import com.mariogame.systems.LightingSystem;
+import com.mariogame.systems.PhysicsOptimizer;
+import com.mariogame.utils.CompiledLevel;
 import com.mariogame.utils.Constants;
+import com.mariogame.utils.LevelCompiler;
 import com.mariogame.utils.MapLoader;
 
 /**
  * Représente le monde de jeu, gérant les entités, la physique et les interactions.
  */
 public class GameWorld implements Disposable {
+    // Lumières ponctuelles placées par la carte (groupe "lights", type "point")
+    private static final float LIGHT_RADIUS = 4f; // mètres
+    private static final float LIGHT_INTENSITY = 1f;
+    private static final Color LIGHT_COLOR = new Color(1f, 0.85f, 0.6f, 1f);
+    
     private final World physicsWorld;
     private final PhysicsManager physicsManager;
     private final Array<Entity> entities = new Array<>();
     private final Array<Entity> entitiesToAdd = new Array<>();
     private final Array<Entity> entitiesToRemove = new Array<>();
+    private final Array<Body> bodyBuffer = new Array<>();
+    private final ActivationZone activationZone = new ActivationZone();
+    private final LightingSystem lighting = new LightingSystem();
     private Player player;
     private TiledMap currentMap;
     private MapLoader mapLoader;
+    private TileOccupancy tileOccupancy;
     private String currentLevel;
     private OrthographicCamera gameCamera;
-    private boolean isPaused = false;
+    private final FrameRegistry frameRegistry = new FrameRegistry();
+    private volatile boolean isPaused = false; // Lu par le thread de simulation
+    
+    // Temps jusqu'à la première image d'un niveau
+    private long levelStartNanos = 0;
+    private boolean levelPrefetched = false;
+    private long lastTimeToFirstFrameNanos = 0;
     
     public GameWorld() {
-        // Créer le monde physique avec la gravité par défaut
+        this(Constants.WorldConfig.TIME_STEP);
+    }
+    
+    /**
+     * @param physicsTimeStep Durée d'un pas physique fixe ; par exemple 1/30 s sur les
+     *                        machines modestes, le rendu restant fluide grâce à l'interpolation
+     */
+    public GameWorld(float physicsTimeStep) {
+        // Créer l'unique monde physique avec la gravité par défaut.
+        // Il est partagé par le PhysicsManager, le MapLoader et toutes les entités.
         physicsWorld = new World(new Vector2(0, Constants.WorldConfig.GRAVITY), true);
-        physicsManager = new PhysicsManager();
+        physicsManager = new PhysicsManager(physicsWorld, physicsTimeStep,
+            Constants.WorldConfig.VELOCITY_ITERATIONS, Constants.WorldConfig.POSITION_ITERATIONS);
         
         // Configurer le gestionnaire de collisions
         setupCollisionHandling();
     }
     
     /**
-     * Charge un niveau à partir d'un fichier TMX.
+     * Charge un niveau, depuis sa version compilée (.lvl) si elle existe,
+     * sinon depuis le fichier TMX.
      */
     public void loadLevel(String levelName) {
+        beginLevel(false);
+        
+        try {
+            // Charger la carte : le niveau compilé évite l'analyse du XML et la fusion des collisions
+            FileHandle compiledFile = Gdx.files.internal("maps/" + levelName + LevelCompiler.EXTENSION);
+            if (compiledFile.exists()) {
+                CompiledLevel compiled = CompiledLevel.open(compiledFile);
+                currentMap = compiled.toTiledMap(compiledFile.parent());
+                mapLoader = new MapLoader(physicsWorld, currentMap, compiled);
+            } else {
+                currentMap = new TmxMapLoader().load("maps/" + levelName + ".tmx");
+                mapLoader = new MapLoader(physicsWorld, currentMap);
+            }
+            setupLevel(levelName);
+        } catch (Exception e) {
+            loadFailed(levelName, e);
+        }
+    }
+    
+    /**
+     * Active un niveau préparé par le {@link LevelPrefetcher} : seuls l'envoi des
+     * textures au GPU et la création des corps restent à faire sur ce thread.
+     */
+    public void activateLevel(LevelPrefetcher.PreparedLevel level) {
+        beginLevel(true);
+        
+        try {
+            currentMap = level.createMap();
+            mapLoader = new MapLoader(physicsWorld, currentMap, level.getCompiledLevel());
+            setupLevel(level.getLevelName());
+        } catch (Exception e) {
+            level.dispose();
+            loadFailed(level.getLevelName(), e);
+        }
+    }
+    
+    private void beginLevel(boolean prefetched) {
         // Désactiver les mises à jour pendant le chargement
         isPaused = true;
+        levelStartNanos = TimeUtils.nanoTime();
+        levelPrefetched = prefetched;
+        lastTimeToFirstFrameNanos = 0;
         
         // Nettoyer le niveau actuel
         clearLevel();
+    }
+    
+    /**
+     * Construit le niveau à partir de la carte et du chargeur déjà créés.
+     */
+    private void setupLevel(String levelName) {
+        currentLevel = levelName;
         
-        try {
-            // Charger la carte Tiled
-            currentMap = new TmxMapLoader().load("maps/" + levelName + ".tmx");
-            currentLevel = levelName;
-            
-            // Initialiser le chargeur de carte
-            mapLoader = new MapLoader(physicsWorld, currentMap);
-            
-            // Charger les calques de la carte
-            mapLoader.loadBackgroundLayers();
-            mapLoader.loadCollisionLayers();
-            
-            // Créer le joueur à la position de départ
-            Vector2 startPosition = mapLoader != null ? mapLoader.getPlayerStartPosition() : null;
-            if (startPosition != null) {
-                player = new Player(physicsWorld, startPosition.x, startPosition.y);
-            } else {
-                Gdx.app.warn("GameWorld", "No player start position found in the map, using default!");
-                player = new Player(physicsWorld, 2, 10); // Position par défaut
-            }
-            addEntity(player);
-            
-            // Charger les entités du niveau
-            loadEntities();
-            
-            isPaused = false;
-            Gdx.app.log("GameWorld", "Level loaded: " + levelName);
-            
-        } catch (Exception e) {
-            Gdx.app.error("GameWorld", "Error loading level: " + levelName, e);
-            // En cas d'erreur, créer un niveau vide avec juste le joueur
-            player = new Player(physicsWorld, 2, 10);
-            addEntity(player);
-            isPaused = false;
+        // Charger les calques de la carte
+        mapLoader.loadBackgroundLayers();
+        mapLoader.loadCollisionLayers();
+        
+        // Index spatial des corps, tenu à jour après chaque frame physique ;
+        // le sol statique y est rangé une fois pour toutes
+        physicsManager.setOptimizer(new PhysicsOptimizer(physicsWorld,
+            mapLoader.getMapWidthPixels(), mapLoader.getMapHeightPixels()));
+        physicsManager.trackBody(mapLoader.getGroundBody());
+        
+        // Grille des tuiles solides pour les rayons d'éclairage
+        if (mapLoader.getSolidTiles() != null) {
+            tileOccupancy = TileOccupancy.fromSolidTiles(mapLoader.getSolidTiles(),
+                mapLoader.getMapWidth(), mapLoader.getMapHeight(),
+                mapLoader.getMapWidthPixels() / mapLoader.getMapWidth());
+            lighting.setOccupancy(tileOccupancy);
         }
+        
+        // Lumières de la carte, échantillonnées par le rendu des entités
+        loadLights();
+        
+        // Créer le joueur à la position de départ
+        Vector2 startPosition = mapLoader != null ? mapLoader.getPlayerStartPosition() : null;
+        if (startPosition != null) {
+            player = new Player(physicsWorld, startPosition.x, startPosition.y);
+        } else {
+            Gdx.app.warn("GameWorld", "No player start position found in the map, using default!");
+            player = new Player(physicsWorld, 2, 10); // Position par défaut
+        }
+        addEntity(player);
+        
+        // Charger les entités du niveau
+        loadEntities();
+        
+        isPaused = false;
+        Gdx.app.log("GameWorld", "Level loaded: " + levelName);
+    }
+    
+    private void loadFailed(String levelName, Exception e) {
+        Gdx.app.error("GameWorld", "Error loading level: " + levelName, e);
+        // En cas d'erreur, créer un niveau vide avec juste le joueur
+        player = new Player(physicsWorld, 2, 10);
+        addEntity(player);
+        isPaused = false;
+    }
+    
+    /**
+     * Mesure le temps entre le début du chargement et la première image du niveau.
+     */
+    private void reportFirstFrame() {
+        if (levelStartNanos == 0) return;
+        
+        lastTimeToFirstFrameNanos = TimeUtils.nanoTime() - levelStartNanos;
+        levelStartNanos = 0;
+        Gdx.app.log("GameWorld", "First frame of " + currentLevel + " after "
+            + (lastTimeToFirstFrameNanos / 1_000_000f) + " ms" + (levelPrefetched ? " (prefetched)" : ""));
+    }
+    
+    /**
+     * Place les lumières de la carte. Un niveau sans lumière n'est pas assombri :
+     * l'éclairage reste alors désactivé.
+     */
+    private void loadLights() {
+        Array<Vector2> lightPositions = mapLoader.getObjectPositions("lights", "point");
+        for (Vector2 pos : lightPositions) {
+            lighting.addPointLight(pos.x, pos.y, LIGHT_RADIUS, LIGHT_COLOR, LIGHT_INTENSITY);
+        }
+        lighting.setEnabled(lightPositions.size > 0);
+    }
+    
+    /**
+     * Calcule le lightmap sur la vue de la caméra (en pixels), dans les unités des lumières (mètres).
+     */
+    private void buildLightmap(OrthographicCamera camera) {
+        if (camera == null) return;
+        
+        float ppm = Constants.WorldConfig.PPM;
+        float halfWidth = camera.viewportWidth * camera.zoom / 2f;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2f;
+        lighting.buildLightmap((camera.position.x - halfWidth) / ppm, (camera.position.y - halfHeight) / ppm,
+                               (camera.position.x + halfWidth) / ppm, (camera.position.y + halfHeight) / ppm);
     }
     
     /**
@@ -119,24 +246,48 @@ public class GameWorld implements Disposable {
      * Nettoie le niveau actuel.
      */
     private void clearLevel() {
-        // Marquer toutes les entités pour suppression
+        // Libérer toutes les entités (et leurs corps)
         for (Entity entity : entities) {
             entity.remove();
+            entity.dispose();
+        }
+        for (Entity entity : entitiesToAdd) {
+            entity.dispose();
         }
         
         // Nettoyer les tableaux
         entities.clear();
         entitiesToAdd.clear();
         entitiesToRemove.clear();
+        activationZone.clear();
+        
+        // Détruire les corps restants (tuiles de collision) du monde partagé
+        physicsWorld.getBodies(bodyBuffer);
+        for (Body body : bodyBuffer) {
+            physicsWorld.destroyBody(body);
+        }
+        bodyBuffer.clear();
+        
+        // Abandonner les commandes et contacts qui visent les corps détruits
+        physicsManager.clearPending();
+        physicsManager.setOptimizer(null);
         
         // Libérer la carte actuelle
+        if (mapLoader != null) {
+            mapLoader.dispose();
+            mapLoader = null;
+        }
         if (currentMap != null) {
             currentMap.dispose();
             currentMap = null;
         }
+        lighting.setOccupancy(null);
+        lighting.clear();
+        tileOccupancy = null;
         
         // Réinitialiser le joueur
         player = null;
+        currentLevel = null;
     }
     
     /**
@@ -145,15 +296,20 @@ public class GameWorld implements Disposable {
     public void update(float deltaTime) {
         if (isPaused) return;
         
+        // Mettre en sommeil ou réveiller les entités selon la vue de la caméra
+        activationZone.setView(gameCamera);
+        activationZone.update();
+        
         // Mettre à jour la physique
         physicsManager.update(deltaTime);
+        lighting.update(deltaTime);
         
-        // Mettre à jour les entités
+        // Mettre à jour les entités (les entités en sommeil sont ignorées)
         for (Entity entity : entities) {
-            if (!entity.isRemoved()) {
-                entity.update(deltaTime);
-            } else {
+            if (entity.isRemoved()) {
                 entitiesToRemove.add(entity);
+            } else if (!entity.isDormant()) {
+                entity.update(deltaTime);
             }
         }
         
@@ -170,6 +326,10 @@ public class GameWorld implements Disposable {
     private void processEntityChanges() {
         // Ajouter les nouvelles entités
         if (entitiesToAdd.size > 0) {
+            for (Entity entity : entitiesToAdd) {
+                physicsManager.trackBody(entity.getBody());
+                activationZone.add(entity);
+            }
             entities.addAll(entitiesToAdd);
             entitiesToAdd.clear();
         }
@@ -178,6 +338,8 @@ public class GameWorld implements Disposable {
         if (entitiesToRemove.size > 0) {
             for (Entity entity : entitiesToRemove) {
                 entities.removeValue(entity, true);
+                activationZone.remove(entity);
+                physicsManager.forgetBody(entity.getBody());
                 entity.dispose();
             }
             entitiesToRemove.clear();
@@ -190,9 +352,13 @@ public class GameWorld implements Disposable {
     private void updateCamera(float deltaTime) {
         if (player == null || gameCamera == null) return;
         
-        // Position cible de la caméra (avec décalage vers l'avant)
-        float targetX = player.getPosition().x + (player.isFacingRight() ? 2f : -2f);
-        float targetY = player.getPosition().y + 1f;
+        // Position cible de la caméra (avec décalage vers l'avant).
+        // La caméra de jeu travaille en pixels, les positions physiques en mètres.
+        // Suivre la position interpolée, comme les sprites, pour éviter les saccades.
+        float ppm = Constants.WorldConfig.PPM;
+        Vector2 position = player.getRenderPosition();
+        float targetX = (position.x + (player.isFacingRight() ? 2f : -2f)) * ppm;
+        float targetY = (position.y + 1f) * ppm;
         
         // Lisser le mouvement de la caméra
         float lerp = 0.1f;
@@ -205,12 +371,12 @@ public class GameWorld implements Disposable {
             float viewportHeight = gameCamera.viewportHeight / 2f;
             
             cameraX = Math.max(viewportWidth, Math.min(
-                mapLoader.getMapWidthPixels() - viewportWidth, 
+                mapLoader.getMapWidthPixels() * ppm - viewportWidth, 
                 cameraX
             ));
             
             cameraY = Math.max(viewportHeight, Math.min(
-                mapLoader.getMapHeightPixels() - viewportHeight, 
+                mapLoader.getMapHeightPixels() * ppm - viewportHeight, 
                 cameraY
             ));
         }
@@ -225,16 +391,23 @@ public class GameWorld implements Disposable {
      */
     public void render(SpriteBatch batch) {
         if (isPaused) return;
+        reportFirstFrame();
         
         // Rendu de la carte
         if (mapLoader != null) {
+            mapLoader.setView(gameCamera);
             mapLoader.renderBackgroundLayers(batch);
         }
         
-        // Rendu des entités
+        // Rendu des entités (hors entités en sommeil), teintées par le lightmap de la vue
+        buildLightmap(gameCamera);
         for (Entity entity : entities) {
-            entity.render(batch);
+            if (!entity.isDormant()) {
+                lighting.applyLighting(batch, entity.getX(), entity.getY());
+                entity.render(batch);
+            }
         }
+        batch.setColor(Color.WHITE);
         
         // Rendu des calques avant-plan de la carte
         if (mapLoader != null) {
@@ -242,6 +415,85 @@ public class GameWorld implements Disposable {
         }
     }
     
+    /**
+     * Remplit un instantané de rendu avec l'état actuel des entités et de la caméra.
+     * Appelé par le thread de simulation après chaque pas.
+     */
+    public void writeSnapshot(RenderSnapshot snapshot) {
+        snapshot.clear();
+        if (gameCamera != null) {
+            snapshot.setCamera(gameCamera.position.x, gameCamera.position.y);
+        }
+        
+        // L'éclairage appartient à la simulation : il est échantillonné ici, pas au rendu
+        buildLightmap(gameCamera);
+        
+        for (int i = 0; i < entities.size; i++) {
+            Entity entity = entities.get(i);
+            if (entity.isRemoved() || entity.isDormant()) continue;
+            
+            TextureRegion frame = entity.getRenderFrame();
+            if (frame == null) continue;
+            
+            float width = entity.getWidth();
+            float height = entity.getHeight();
+            snapshot.add(entity.getId(),
+                entity.getX() - width / 2, entity.getY() - height / 2, width, height,
+                frameRegistry.idOf(frame), entity.isRenderFlipX(),
+                lighting.sampleLightmap(entity.getX(), entity.getY()));
+        }
+    }
+    
+    /**
+     * Dessine le monde à partir des deux derniers instantanés, interpolés.
+     * N'accède à aucune entité : peut être appelé pendant que la simulation tourne.
+     * @param camera Caméra de rendu, déjà placée (en pixels)
+     * @param alpha Position entre l'instantané précédent (0) et le courant (1)
+     */
+    public void renderSnapshot(SpriteBatch batch, OrthographicCamera camera,
+                               RenderSnapshot previous, RenderSnapshot current, float alpha) {
+        reportFirstFrame();
+        
+        if (mapLoader != null) {
+            mapLoader.setView(camera);
+            mapLoader.renderBackgroundLayers(batch);
+        }
+        
+        float ppm = Constants.WorldConfig.PPM;
+        int cursor = 0;
+        for (int i = 0; i < current.getCount(); i++) {
+            TextureRegion frame = frameRegistry.get(current.getFrame(i));
+            if (frame == null) continue;
+            
+            float x = current.getX(i);
+            float y = current.getY(i);
+            
+            // Retrouver l'entité dans l'instantané précédent ; une nouvelle entité n'est pas interpolée
+            int previousIndex = previous.indexOf(current.getId(i), cursor);
+            if (previousIndex >= 0) {
+                x = previous.getX(previousIndex) + (x - previous.getX(previousIndex)) * alpha;
+                y = previous.getY(previousIndex) + (y - previous.getY(previousIndex)) * alpha;
+                cursor = previousIndex + 1;
+            }
+            
+            float width = current.getWidth(i) * ppm;
+            float height = current.getHeight(i) * ppm;
+            float light = current.getLight(i);
+            batch.setColor(light, light, light, 1f);
+            if (current.isFlipX(i)) {
+                // Largeur négative : l'image est retournée sans modifier la région partagée
+                batch.draw(frame, x * ppm + width, y * ppm, -width, height);
+            } else {
+                batch.draw(frame, x * ppm, y * ppm, width, height);
+            }
+        }
+        batch.setColor(Color.WHITE);
+        
+        if (mapLoader != null) {
+            mapLoader.renderForegroundLayers(batch);
+        }
+    }
+    
     /**
      * Configure la gestion des collisions.
      */
@@ -313,6 +565,84 @@ public class GameWorld implements Disposable {
         return player;
     }
     
+    /**
+     * Nom du niveau chargé, ou null si aucun niveau n'a pu être chargé.
+     */
+    public String getCurrentLevel() {
+        return currentLevel;
+    }
+    
+    /**
+     * Carte du niveau chargé, ou null si aucun niveau n'a pu être chargé.
+     */
+    public TiledMap getCurrentMap() {
+        return currentMap;
+    }
+    
+    /**
+     * Temps entre le début du chargement du dernier niveau et sa première image
+     * (0 tant qu'elle n'a pas été dessinée).
+     */
+    public long getLastTimeToFirstFrameNanos() {
+        return lastTimeToFirstFrameNanos;
+    }
+    
+    /**
+     * Le dernier niveau chargé avait-il été préparé à l'avance ?
+     */
+    public boolean isLevelPrefetched() {
+        return levelPrefetched;
+    }
+    
+    /**
+     * Largeur du niveau chargé en mètres (0 sans carte).
+     */
+    public float getLevelWidth() {
+        return mapLoader != null ? mapLoader.getMapWidthPixels() : 0f;
+    }
+    
+    /**
+     * Obtient la grille des tuiles solides du niveau, ou null si le niveau n'en a pas.
+     */
+    public TileOccupancy getTileOccupancy() {
+        return tileOccupancy;
+    }
+    
+    /**
+     * Obtient l'éclairage du niveau ; ses ombres suivent la grille des tuiles solides.
+     */
+    public LightingSystem getLighting() {
+        return lighting;
+    }
+    
+    /**
+     * Obtient la zone d'activation qui met en sommeil les entités hors de l'écran.
+     */
+    public ActivationZone getActivationZone() {
+        return activationZone;
+    }
+    
+    /**
+     * Nombre d'entités simulées lors de la dernière mise à jour.
+     */
+    public int getActiveEntityCount() {
+        return activationZone.getActiveCount();
+    }
+    
+    /**
+     * Nombre d'entités en sommeil lors de la dernière mise à jour.
+     */
+    public int getDormantEntityCount() {
+        return activationZone.getDormantCount();
+    }
+    
+    /**
+     * Obtient le gestionnaire de physique qui fait avancer le monde.
+     */
+    public PhysicsManager getPhysicsManager() {
+        return physicsManager;
+    }
+    
     /**
      * Obtient le monde physique Box2D.
      */
@@ -332,11 +662,15 @@ public class GameWorld implements Disposable {
         entities.clear();
         
         // Libérer la carte
+        if (mapLoader != null) {
+            mapLoader.dispose();
+        }
         if (currentMap != null) {
             currentMap.dispose();
         }
         
-        // Libérer le monde physique
+        // Libérer le gestionnaire puis le monde physique qu'il partage
+        physicsManager.dispose();
         if (physicsWorld != null) {
             physicsWorld.dispose();
         }
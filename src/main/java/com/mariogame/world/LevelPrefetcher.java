@@ -0,0 +1,246 @@
+package com.mariogame.world;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.mariogame.utils.CompiledLevel;
+import com.mariogame.utils.Constants;
+import com.mariogame.utils.LevelCompiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prépare le niveau suivant sur un thread de chargement pendant que le niveau
+ * courant se joue. Tout ce qui n'a pas besoin d'OpenGL est fait à l'avance :
+ * lecture (ou compilation en mémoire du TMX), préchargement des pages du niveau
+ * compilé (collisions fusionnées et tables d'apparition) et décodage des images
+ * des tilesets. Seul l'envoi des textures au GPU reste pour le thread de rendu,
+ * au moment où {@link GameWorld#activateLevel} reçoit le niveau préparé.
+ */
+public class LevelPrefetcher implements Disposable {
+    private final ExecutorService executor;
+    
+    // Niveau en cours de préparation ou prêt ; uniquement manipulé par le thread de rendu
+    private String pendingLevel;
+    private Future<PreparedLevel> pending;
+    
+    public LevelPrefetcher() {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "level-prefetch");
+            thread.setDaemon(true);
+            // Ne pas voler de temps au rendu ni à la simulation
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+    
+    /**
+     * Lance la préparation d'un niveau. Sans effet si ce niveau est déjà demandé ;
+     * un autre niveau en attente est abandonné.
+     */
+    public void prefetch(String levelName) {
+        if (levelName == null || levelName.equals(pendingLevel)) return;
+        
+        discard();
+        pendingLevel = levelName;
+        pending = executor.submit(() -> prepare(levelName));
+    }
+    
+    /**
+     * Le niveau est-il encore en préparation ?
+     */
+    public boolean isPending(String levelName) {
+        return levelName.equals(pendingLevel) && !pending.isDone();
+    }
+    
+    /**
+     * Le niveau a-t-il été demandé, qu'il soit prêt ou non ?
+     */
+    public boolean isRequested(String levelName) {
+        return levelName.equals(pendingLevel);
+    }
+    
+    /**
+     * Remet le niveau préparé s'il est prêt, sans jamais attendre. Le niveau n'est
+     * remis qu'une fois ; l'appelant doit l'activer ou le libérer.
+     * @return Le niveau préparé, ou null s'il n'est pas prêt, pas demandé ou en échec
+     */
+    public PreparedLevel poll(String levelName) {
+        if (!levelName.equals(pendingLevel) || !pending.isDone()) return null;
+        return take(levelName);
+    }
+    
+    /**
+     * Remet le niveau préparé, en attendant la fin de sa préparation si nécessaire.
+     * @return Le niveau préparé, ou null s'il n'a pas été demandé ou en échec
+     */
+    public PreparedLevel take(String levelName) {
+        if (!levelName.equals(pendingLevel)) return null;
+        
+        Future<PreparedLevel> future = pending;
+        pendingLevel = null;
+        pending = null;
+        
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // La préparation continue : libérer son résultat une fois terminée
+            disposeLater(future);
+            return null;
+        } catch (ExecutionException e) {
+            Gdx.app.error("LevelPrefetcher", "Could not prepare level: " + levelName, e.getCause());
+            return null;
+        }
+    }
+    
+    /**
+     * Abandonne le niveau en attente et libère ses images décodées.
+     */
+    private void discard() {
+        if (pending == null) return;
+        
+        // Annulé s'il n'a pas commencé ; sinon libéré à la fin de sa préparation
+        pending.cancel(false);
+        disposeLater(pending);
+        pendingLevel = null;
+        pending = null;
+    }
+    
+    private void disposeLater(Future<PreparedLevel> future) {
+        // Le thread de chargement est unique : cette tâche passe après la préparation
+        executor.execute(() -> {
+            try {
+                future.get().dispose();
+            } catch (CancellationException | ExecutionException e) {
+                // Rien n'a été préparé
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+    
+    /**
+     * Prépare un niveau sur le thread appelant (sans OpenGL).
+     */
+    static PreparedLevel prepare(String levelName) throws IOException {
+        long start = TimeUtils.nanoTime();
+        
+        FileHandle compiledFile = Gdx.files.internal("maps/" + levelName + LevelCompiler.EXTENSION);
+        CompiledLevel level;
+        FileHandle directory;
+        if (compiledFile.exists()) {
+            level = CompiledLevel.open(compiledFile);
+            directory = compiledFile.parent();
+        } else {
+            // Pas de version compilée : compiler le TMX en mémoire
+            FileHandle tmx = Gdx.files.internal("maps/" + levelName + ".tmx");
+            if (!tmx.exists()) {
+                throw new GdxRuntimeException("Level not found: " + levelName);
+            }
+            File tmxDirectory = tmx.file().getParentFile();
+            byte[] bytes = LevelCompiler.compile(tmx.readString("UTF-8"), tmxDirectory);
+            level = new CompiledLevel(ByteBuffer.wrap(bytes));
+            directory = tmx.parent();
+        }
+        
+        level.preload();
+        Pixmap[] images = level.decodeTilesetImages(directory);
+        
+        return new PreparedLevel(levelName, level, images, TimeUtils.nanoTime() - start);
+    }
+    
+    /**
+     * Nom du niveau qui suit un niveau "monde-niveau" (ex. "1-4" -> "2-1"),
+     * ou null après le dernier niveau ou pour un nom d'un autre format.
+     */
+    public static String nextLevelName(String levelName) {
+        int separator = levelName != null ? levelName.indexOf('-') : -1;
+        if (separator < 0) return null;
+        
+        int world, level;
+        try {
+            world = Integer.parseInt(levelName.substring(0, separator));
+            level = Integer.parseInt(levelName.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        
+        if (++level > Constants.LevelConfig.LEVELS_PER_WORLD) {
+            level = 1;
+            if (++world > Constants.LevelConfig.TOTAL_WORLDS) return null;
+        }
+        return world + "-" + level;
+    }
+    
+    @Override
+    public void dispose() {
+        discard();
+        executor.shutdown();
+    }
+    
+    /**
+     * Niveau prêt à être activé : il ne reste qu'à envoyer les textures au GPU
+     * et à créer les corps Box2D.
+     */
+    public static class PreparedLevel implements Disposable {
+        private final String levelName;
+        private final CompiledLevel level;
+        private Pixmap[] images;
+        private final long prepareNanos;
+        
+        PreparedLevel(String levelName, CompiledLevel level, Pixmap[] images, long prepareNanos) {
+            this.levelName = levelName;
+            this.level = level;
+            this.images = images;
+            this.prepareNanos = prepareNanos;
+        }
+        
+        /**
+         * Crée la carte de rendu. Doit être appelé une seule fois, sur le thread de rendu.
+         */
+        public TiledMap createMap() {
+            if (images == null) {
+                throw new IllegalStateException("Level map already created: " + levelName);
+            }
+            TiledMap map = level.toTiledMap(images);
+            images = null;
+            return map;
+        }
+        
+        public String getLevelName() {
+            return levelName;
+        }
+        
+        public CompiledLevel getCompiledLevel() {
+            return level;
+        }
+        
+        /**
+         * Temps passé à préparer le niveau sur le thread de chargement.
+         */
+        public long getPrepareNanos() {
+            return prepareNanos;
+        }
+        
+        @Override
+        public void dispose() {
+            if (images == null) return;
+            for (Pixmap image : images) {
+                image.dispose();
+            }
+            images = null;
+        }
+    }
+}
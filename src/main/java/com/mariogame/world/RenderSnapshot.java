@@ -0,0 +1,178 @@
+package com.mariogame.world;
+
+import java.util.Arrays;
+
+/**
+ * Instantané de rendu publié par la simulation à chaque pas : pour chaque sprite,
+ * l'identifiant de l'entité, son rectangle (en mètres), l'identifiant de son image,
+ * son retournement et son éclairage, ainsi que la position de la caméra.
+ * Les données sont stockées en tableaux primitifs réutilisés : une fois les tableaux
+ * dimensionnés par les premiers pas, remplir ou copier un instantané n'alloue rien.
+ * Un instantané publié n'est plus modifié par la simulation tant que le rendu le lit.
+ */
+public class RenderSnapshot {
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private int count = 0;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private float[] x = new float[INITIAL_CAPACITY];
+    private float[] y = new float[INITIAL_CAPACITY];
+    private float[] width = new float[INITIAL_CAPACITY];
+    private float[] height = new float[INITIAL_CAPACITY];
+    private int[] frames = new int[INITIAL_CAPACITY];
+    private boolean[] flipX = new boolean[INITIAL_CAPACITY];
+    private float[] light = new float[INITIAL_CAPACITY];
+    
+    private long tick = -1;
+    private long publishNanos = 0;
+    private float cameraX, cameraY;
+    
+    /**
+     * Vide l'instantané avant de le remplir pour un nouveau pas.
+     */
+    public void clear() {
+        count = 0;
+    }
+    
+    /**
+     * Ajoute un sprite.
+     * @param x Coin bas-gauche en mètres
+     * @param y Coin bas-gauche en mètres
+     * @param frame Identifiant de l'image (voir {@link FrameRegistry})
+     */
+    public void add(int id, float x, float y, float width, float height, int frame, boolean flipX) {
+        add(id, x, y, width, height, frame, flipX, 1f);
+    }
+    
+    /**
+     * Ajoute un sprite éclairé.
+     * @param light Intensité lue dans le lightmap de la simulation (1 = pleine lumière)
+     */
+    public void add(int id, float x, float y, float width, float height, int frame, boolean flipX, float light) {
+        if (count == ids.length) {
+            grow(count * 2);
+        }
+        ids[count] = id;
+        this.x[count] = x;
+        this.y[count] = y;
+        this.width[count] = width;
+        this.height[count] = height;
+        frames[count] = frame;
+        this.flipX[count] = flipX;
+        this.light[count] = light;
+        count++;
+    }
+    
+    /**
+     * Copie un autre instantané dans celui-ci.
+     */
+    public void set(RenderSnapshot other) {
+        if (ids.length < other.count) {
+            grow(other.ids.length);
+        }
+        count = other.count;
+        System.arraycopy(other.ids, 0, ids, 0, count);
+        System.arraycopy(other.x, 0, x, 0, count);
+        System.arraycopy(other.y, 0, y, 0, count);
+        System.arraycopy(other.width, 0, width, 0, count);
+        System.arraycopy(other.height, 0, height, 0, count);
+        System.arraycopy(other.frames, 0, frames, 0, count);
+        System.arraycopy(other.flipX, 0, flipX, 0, count);
+        System.arraycopy(other.light, 0, light, 0, count);
+        tick = other.tick;
+        publishNanos = other.publishNanos;
+        cameraX = other.cameraX;
+        cameraY = other.cameraY;
+    }
+    
+    /**
+     * Cherche le sprite d'une entité, en partant d'un indice probable.
+     * L'ordre des entités change rarement d'un pas à l'autre : en avançant un curseur
+     * avec les indices trouvés, une recherche complète ne coûte qu'un parcours.
+     * @return L'indice du sprite, ou -1 si l'entité est absente
+     */
+    public int indexOf(int id, int hint) {
+        for (int i = Math.max(0, hint); i < count; i++) {
+            if (ids[i] == id) return i;
+        }
+        for (int i = 0; i < Math.min(hint, count); i++) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+    
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        frames = Arrays.copyOf(frames, capacity);
+        flipX = Arrays.copyOf(flipX, capacity);
+        light = Arrays.copyOf(light, capacity);
+    }
+    
+    // Getters et setters
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public int getId(int index) {
+        return ids[index];
+    }
+    
+    public float getX(int index) {
+        return x[index];
+    }
+    
+    public float getY(int index) {
+        return y[index];
+    }
+    
+    public float getWidth(int index) {
+        return width[index];
+    }
+    
+    public float getHeight(int index) {
+        return height[index];
+    }
+    
+    public int getFrame(int index) {
+        return frames[index];
+    }
+    
+    public boolean isFlipX(int index) {
+        return flipX[index];
+    }
+    
+    public float getLight(int index) {
+        return light[index];
+    }
+    
+    public long getTick() {
+        return tick;
+    }
+    
+    public long getPublishNanos() {
+        return publishNanos;
+    }
+    
+    public void setTick(long tick, long publishNanos) {
+        this.tick = tick;
+        this.publishNanos = publishNanos;
+    }
+    
+    public float getCameraX() {
+        return cameraX;
+    }
+    
+    public float getCameraY() {
+        return cameraY;
+    }
+    
+    public void setCamera(float cameraX, float cameraY) {
+        this.cameraX = cameraX;
+        this.cameraY = cameraY;
+    }
+}
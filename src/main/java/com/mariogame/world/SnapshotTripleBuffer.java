@@ -0,0 +1,81 @@
+package com.mariogame.world;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Échange sans verrou d'instantanés de rendu entre un producteur (la simulation)
+ * et un consommateur (le rendu), par triple tampon.
+ * Le producteur écrit toujours dans son propre tampon, le consommateur lit le sien,
+ * et le troisième est échangé atomiquement : aucun des deux threads n'attend l'autre.
+ * Si le rendu est plus lent que la simulation, les instantanés intermédiaires sont
+ * simplement remplacés par les plus récents.
+ */
+public class SnapshotTripleBuffer {
+    private static final int INDEX_MASK = 0x3;
+    private static final int FRESH = 0x4; // Le tampon du milieu contient un instantané non lu
+    
+    private final RenderSnapshot[] buffers = {
+        new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()
+    };
+    
+    // Indice du tampon du milieu et indicateur FRESH, échangés atomiquement
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int writeIndex = 0; // uniquement lu et écrit par le producteur
+    private int readIndex = 2; // uniquement lu et écrit par le consommateur
+    
+    // Statistiques
+    private final AtomicInteger overwritten = new AtomicInteger();
+    
+    /**
+     * Tampon à remplir par le producteur avant {@link #publish()}.
+     */
+    public RenderSnapshot getWriteBuffer() {
+        return buffers[writeIndex];
+    }
+    
+    /**
+     * Publie le tampon écrit et en récupère un libre pour le pas suivant.
+     * Ne doit être appelé que par le producteur.
+     */
+    public void publish() {
+        int previous = middle.getAndSet(writeIndex | FRESH);
+        if ((previous & FRESH) != 0) {
+            overwritten.incrementAndGet();
+        }
+        writeIndex = previous & INDEX_MASK;
+    }
+    
+    /**
+     * Vrai si un instantané plus récent que celui du consommateur est disponible.
+     */
+    public boolean hasFresh() {
+        return (middle.get() & FRESH) != 0;
+    }
+    
+    /**
+     * Prend l'instantané le plus récent s'il y en a un nouveau.
+     * Ne doit être appelé que par le consommateur.
+     * @return true si le tampon de lecture a changé
+     */
+    public boolean acquire() {
+        if ((middle.get() & FRESH) == 0) return false;
+        
+        int previous = middle.getAndSet(readIndex);
+        readIndex = previous & INDEX_MASK;
+        return true;
+    }
+    
+    /**
+     * Instantané détenu par le consommateur, valable jusqu'au prochain {@link #acquire()}.
+     */
+    public RenderSnapshot getReadBuffer() {
+        return buffers[readIndex];
+    }
+    
+    /**
+     * Nombre d'instantanés remplacés avant d'avoir été lus.
+     */
+    public int getOverwrittenCount() {
+        return overwritten.get();
+    }
+}
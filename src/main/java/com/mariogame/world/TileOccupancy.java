@@ -0,0 +1,178 @@
+package com.mariogame.world;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Grille des tuiles solides du niveau, stockée en bitset (un bit par tuile, rangée 0 en bas).
+ * Sert aux tests de ligne de vue : un segment est parcouru tuile par tuile (DDA)
+ * jusqu'à la première tuile solide. Les changements (brique cassée) sont signalés
+ * aux écouteurs pour qu'ils invalident leurs caches.
+ */
+public class TileOccupancy {
+    
+    /**
+     * Prévenu lorsqu'une tuile devient solide ou libre.
+     */
+    public interface ChangeListener {
+        void onTileChanged(int tileX, int tileY);
+    }
+    
+    private final int width;
+    private final int height;
+    private final float tileSize;
+    private final long[] bits;
+    private final Array<ChangeListener> listeners = new Array<>();
+    
+    // Statistiques
+    private long tilesVisited = 0;
+    
+    /**
+     * @param width Largeur en tuiles
+     * @param height Hauteur en tuiles
+     * @param tileSize Côté d'une tuile en mètres
+     */
+    public TileOccupancy(int width, int height, float tileSize) {
+        if (width < 1 || height < 1 || tileSize <= 0) {
+            throw new IllegalArgumentException("Invalid occupancy grid size");
+        }
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.bits = new long[(width * height + 63) >>> 6];
+    }
+    
+    /**
+     * Construit la grille à partir du masque du calque de sol (voir MapLoader.getSolidTiles).
+     */
+    public static TileOccupancy fromSolidTiles(boolean[] solid, int width, int height, float tileSize) {
+        TileOccupancy occupancy = new TileOccupancy(width, height, tileSize);
+        for (int i = 0; i < width * height; i++) {
+            if (solid[i]) {
+                occupancy.bits[i >>> 6] |= 1L << i;
+            }
+        }
+        return occupancy;
+    }
+    
+    /**
+     * Vrai si la tuile est solide. Les tuiles hors de la grille sont libres.
+     */
+    public boolean isSolid(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) return false;
+        int index = tileY * width + tileX;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+    
+    public boolean isSolidAt(float x, float y) {
+        return isSolid(toTile(x), toTile(y));
+    }
+    
+    /**
+     * Modifie une tuile et prévient les écouteurs si son état change.
+     * @return true si la tuile a changé
+     */
+    public boolean setSolid(int tileX, int tileY, boolean solid) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) return false;
+        if (isSolid(tileX, tileY) == solid) return false;
+        
+        int index = tileY * width + tileX;
+        if (solid) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+        
+        for (int i = 0; i < listeners.size; i++) {
+            listeners.get(i).onTileChanged(tileX, tileY);
+        }
+        return true;
+    }
+    
+    public boolean setSolidAt(float x, float y, boolean solid) {
+        return setSolid(toTile(x), toTile(y), solid);
+    }
+    
+    /**
+     * Indice de la tuile contenant une coordonnée en mètres.
+     */
+    public int toTile(float coordinate) {
+        return MathUtils.floor(coordinate / tileSize);
+    }
+    
+    /**
+     * Vrai si aucune tuile solide ne se trouve entre deux points (en mètres).
+     * La tuile de départ et la tuile d'arrivée ne bloquent pas : une tuile solide
+     * éclairée reste visible depuis la lumière.
+     * Parcours DDA d'Amanatides et Woo : une seule tuile testée par frontière franchie.
+     */
+    public boolean isSegmentClear(float x0, float y0, float x1, float y1) {
+        float startX = x0 / tileSize;
+        float startY = y0 / tileSize;
+        float dx = x1 / tileSize - startX;
+        float dy = y1 / tileSize - startY;
+        
+        int tileX = MathUtils.floor(startX);
+        int tileY = MathUtils.floor(startY);
+        int endX = MathUtils.floor(x1 / tileSize);
+        int endY = MathUtils.floor(y1 / tileSize);
+        
+        int stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+        int stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+        
+        // Distance paramétrique (0 à 1) jusqu'à la prochaine frontière, et entre deux frontières
+        float tDeltaX = stepX != 0 ? Math.abs(1f / dx) : Float.MAX_VALUE;
+        float tDeltaY = stepY != 0 ? Math.abs(1f / dy) : Float.MAX_VALUE;
+        float tMaxX = stepX > 0 ? (tileX + 1 - startX) * tDeltaX
+                    : stepX < 0 ? (startX - tileX) * tDeltaX : Float.MAX_VALUE;
+        float tMaxY = stepY > 0 ? (tileY + 1 - startY) * tDeltaY
+                    : stepY < 0 ? (startY - tileY) * tDeltaY : Float.MAX_VALUE;
+        
+        int steps = Math.abs(endX - tileX) + Math.abs(endY - tileY);
+        for (int i = 0; i < steps; i++) {
+            if (tMaxX < tMaxY) {
+                tileX += stepX;
+                tMaxX += tDeltaX;
+            } else {
+                tileY += stepY;
+                tMaxY += tDeltaY;
+            }
+            
+            if (tileX == endX && tileY == endY) return true;
+            tilesVisited++;
+            if (isSolid(tileX, tileY)) return false;
+        }
+        return true;
+    }
+    
+    public void addListener(ChangeListener listener) {
+        if (!listeners.contains(listener, true)) {
+            listeners.add(listener);
+        }
+    }
+    
+    public void removeListener(ChangeListener listener) {
+        listeners.removeValue(listener, true);
+    }
+    
+    // Getters
+    
+    public int getWidth() {
+        return width;
+    }
+    
+    public int getHeight() {
+        return height;
+    }
+    
+    public float getTileSize() {
+        return tileSize;
+    }
+    
+    /**
+     * Nombre total de tuiles testées par les parcours de segments.
+     */
+    public long getTilesVisited() {
+        return tilesVisited;
+    }
+}
@@ -0,0 +1,226 @@
+package com.mariogame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.utils.ObjectIntMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AssetCacheTest {
+    
+    private static final long MB = 1024 * 1024;
+    
+    /**
+     * Chargeur en mémoire : les ressources sont chargées dès la demande,
+     * leur taille est fixée par le test.
+     */
+    private static class FakeBackend implements AssetCache.Backend {
+        final ObjectIntMap<String> loads = new ObjectIntMap<>();
+        final ObjectIntMap<String> loaded = new ObjectIntMap<>();
+        final ObjectIntMap<String> sizes = new ObjectIntMap<>();
+        
+        @Override
+        public void load(String path, Class<?> type) {
+            loads.getAndIncrement(path, 0, 1);
+            loaded.put(path, 1);
+        }
+        
+        @Override
+        public void unload(String path) {
+            loaded.remove(path, 0);
+        }
+        
+        @Override
+        public boolean isLoaded(String path) {
+            return loaded.containsKey(path);
+        }
+        
+        @Override
+        public long sizeOf(String path, Class<?> type) {
+            return sizes.get(path, 0) * MB;
+        }
+        
+        @Override
+        public AssetCache.Category categoryOf(Class<?> type) {
+            return type == String.class ? AssetCache.Category.AUDIO : AssetCache.Category.TEXTURE;
+        }
+    }
+    
+    private FakeBackend backend;
+    private AssetCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        backend = new FakeBackend();
+        cache = new AssetCache(backend);
+        
+        // Deux niveaux qui partagent l'atlas du décor
+        declare("level:1-1", "tiles.atlas", 10);
+        declare("level:1-1", "overworld.atlas", 20);
+        declare("level:1-2", "tiles.atlas", 10);
+        declare("level:1-2", "underground.atlas", 30);
+        declare("level:1-3", "tiles.atlas", 10);
+        declare("level:1-3", "castle.atlas", 40);
+        declare("essentials", "player.atlas", 5);
+        cache.declare("essentials", "jump.wav", String.class);
+        backend.sizes.put("jump.wav", 1);
+    }
+    
+    private void declare(String group, String path, int megabytes) {
+        cache.declare(group, path, Object.class);
+        backend.sizes.put(path, megabytes);
+    }
+    
+    private void acquire(String group) {
+        cache.acquire(group);
+        cache.update();
+    }
+    
+    @Test
+    void testSharedAssetsAreLoadedOnce() {
+        acquire("level:1-1");
+        acquire("level:1-2");
+        
+        assertEquals(1, backend.loads.get("tiles.atlas", 0));
+        assertEquals(60 * MB, cache.getResidentBytes(AssetCache.Category.TEXTURE));
+        assertEquals(30 * MB, cache.getResidentBytes("level:1-1"));
+        assertEquals(40 * MB, cache.getResidentBytes("level:1-2"));
+        
+        // L'atlas partagé n'est déchargé qu'avec le dernier groupe qui le contient
+        cache.setBudget(AssetCache.Category.TEXTURE, 0);
+        cache.release("level:1-1");
+        assertFalse(cache.isResident("level:1-1"));
+        assertFalse(backend.isLoaded("overworld.atlas"));
+        assertTrue(backend.isLoaded("tiles.atlas"));
+        
+        cache.release("level:1-2");
+        assertFalse(backend.isLoaded("tiles.atlas"));
+        assertEquals(0, cache.getResidentBytes(AssetCache.Category.TEXTURE));
+    }
+    
+    @Test
+    void testReleasedGroupStaysResidentUnderBudget() {
+        acquire("level:1-1");
+        cache.release("level:1-1");
+        
+        assertTrue(cache.isResident("level:1-1"));
+        assertTrue(backend.isLoaded("overworld.atlas"));
+        
+        // Revenir au niveau ne recharge rien
+        acquire("level:1-1");
+        assertEquals(1, backend.loads.get("overworld.atlas", 0));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+    
+    @Test
+    void testLeastRecentlyReleasedGroupIsEvictedFirst() {
+        cache.setBudget(AssetCache.Category.TEXTURE, 80 * MB);
+        
+        acquire("level:1-1");
+        cache.release("level:1-1");
+        acquire("level:1-2");
+        cache.release("level:1-2");
+        
+        // 1-3 dépasse le budget : 1-1, relâché en premier, est évincé
+        acquire("level:1-3");
+        assertFalse(cache.isResident("level:1-1"));
+        assertTrue(cache.isResident("level:1-2"));
+        assertTrue(backend.isLoaded("tiles.atlas"));
+        assertEquals(80 * MB, cache.getResidentBytes(AssetCache.Category.TEXTURE));
+        assertEquals(1, cache.getEvictionCount());
+        assertFalse(cache.isOverBudget(AssetCache.Category.TEXTURE));
+    }
+    
+    @Test
+    void testAcquiredGroupsAreNeverEvicted() {
+        cache.setBudget(AssetCache.Category.TEXTURE, 50 * MB);
+        
+        acquire("level:1-1");
+        acquire("level:1-2");
+        
+        assertTrue(cache.isResident("level:1-1"));
+        assertTrue(cache.isResident("level:1-2"));
+        assertTrue(cache.isOverBudget(AssetCache.Category.TEXTURE));
+        assertEquals(0, cache.getEvictionCount());
+        
+        cache.release("level:1-1");
+        assertFalse(cache.isResident("level:1-1"));
+        assertFalse(cache.isOverBudget(AssetCache.Category.TEXTURE));
+    }
+    
+    @Test
+    void testPinnedGroupIsNeverEvicted() {
+        acquire("essentials");
+        cache.pin("essentials", true);
+        cache.release("essentials");
+        
+        cache.setBudget(AssetCache.Category.TEXTURE, 0);
+        cache.setBudget(AssetCache.Category.AUDIO, 0);
+        assertTrue(cache.isResident("essentials"));
+        assertTrue(backend.isLoaded("jump.wav"));
+        
+        cache.pin("essentials", false);
+        assertFalse(cache.isResident("essentials"));
+        assertFalse(backend.isLoaded("jump.wav"));
+    }
+    
+    @Test
+    void testBudgetsArePerCategory() {
+        acquire("essentials");
+        
+        assertEquals(5 * MB, cache.getResidentBytes(AssetCache.Category.TEXTURE));
+        assertEquals(MB, cache.getResidentBytes(AssetCache.Category.AUDIO));
+        assertEquals(0, cache.getResidentBytes(AssetCache.Category.MAP));
+        
+        // Le budget audio suffit à évincer le groupe, même sous le budget des textures
+        cache.release("essentials");
+        cache.setBudget(AssetCache.Category.AUDIO, 0);
+        assertFalse(cache.isResident("essentials"));
+    }
+    
+    @Test
+    void testExternalChargesCountAgainstTheBudget() {
+        cache.setBudget(AssetCache.Category.MAP, 8 * MB);
+        cache.charge("level:map", AssetCache.Category.MAP, 6 * MB);
+        assertEquals(6 * MB, cache.getResidentBytes(AssetCache.Category.MAP));
+        assertFalse(cache.isOverBudget(AssetCache.Category.MAP));
+        
+        // Une nouvelle carte remplace l'imputation de la précédente
+        cache.charge("level:map", AssetCache.Category.MAP, 10 * MB);
+        assertEquals(10 * MB, cache.getResidentBytes(AssetCache.Category.MAP));
+        assertTrue(cache.isOverBudget(AssetCache.Category.MAP));
+        
+        // L'imputation survit à la remise à zéro du chargeur
+        cache.reset();
+        assertEquals(10 * MB, cache.getResidentBytes(AssetCache.Category.MAP));
+        
+        cache.discharge("level:map");
+        assertEquals(0, cache.getResidentBytes(AssetCache.Category.MAP));
+        assertFalse(cache.isOverBudget(AssetCache.Category.MAP));
+    }
+    
+    @Test
+    void testExternalChargeEvictsIdleGroups() {
+        cache.setBudget(AssetCache.Category.TEXTURE, 40 * MB);
+        acquire("level:1-1");
+        cache.release("level:1-1");
+        assertTrue(cache.isResident("level:1-1"));
+        
+        cache.charge("streamed.png", AssetCache.Category.TEXTURE, 20 * MB);
+        assertFalse(cache.isResident("level:1-1"));
+        assertEquals(20 * MB, cache.getResidentBytes(AssetCache.Category.TEXTURE));
+    }
+    
+    @Test
+    void testUnknownGroupOrUnbalancedReleaseIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> cache.acquire("level:9-9"));
+        assertThrows(IllegalStateException.class, () -> cache.release("level:1-1"));
+        assertThrows(IllegalArgumentException.class,
+            () -> cache.setBudget(AssetCache.Category.TEXTURE, -1));
+        
+        acquire("level:1-1");
+        assertThrows(IllegalStateException.class,
+            () -> cache.declare("level:1-1", "extra.atlas", Object.class));
+    }
+}
@@ -0,0 +1,116 @@
+package com.mariogame.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class DecodePipelineTest {
+    
+    private DecodePipeline pipeline;
+    
+    @BeforeEach
+    void setUp() {
+        // Les décodages soumis directement n'ont pas besoin du gestionnaire
+        pipeline = new DecodePipeline(null, 2);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        pipeline.dispose();
+    }
+    
+    @Test
+    void testDecodedResultIsClaimedOnce() {
+        pipeline.submit("tiles.png", "pixmap", () -> {
+            Thread.sleep(5);
+            return "decoded";
+        });
+        assertEquals(1, pipeline.getPendingCount());
+        
+        DecodePipeline.Job job = pipeline.claim("tiles.png");
+        assertEquals("decoded", job.get());
+        assertNull(pipeline.claim("tiles.png"));
+        assertEquals(0, pipeline.getPendingCount());
+        
+        assertTrue(job.getDecodeNanos() >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(1, pipeline.getTimings().size);
+        pipeline.clearTimings();
+        assertEquals(0, pipeline.getTimings().size);
+    }
+    
+    @Test
+    void testSamePathIsDecodedOnce() {
+        AtomicInteger decodes = new AtomicInteger();
+        pipeline.submit("tiles.png", "pixmap", decodes::incrementAndGet);
+        pipeline.submit("tiles.png", "pixmap", decodes::incrementAndGet);
+        
+        pipeline.claim("tiles.png").get();
+        assertEquals(1, decodes.get());
+    }
+    
+    @Test
+    void testIndependentAssetsDecodeConcurrently() {
+        // Chaque décodage attend l'autre : ils ne peuvent finir qu'en parallèle
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        for (String path : new String[]{"player.png", "enemies.png"}) {
+            pipeline.submit(path, "pixmap", () -> {
+                bothStarted.countDown();
+                return bothStarted.await(5, TimeUnit.SECONDS);
+            });
+        }
+        
+        assertEquals(Boolean.TRUE, pipeline.claim("player.png").get());
+        assertEquals(Boolean.TRUE, pipeline.claim("enemies.png").get());
+    }
+    
+    @Test
+    void testDecodeErrorIsReportedToTheLoader() {
+        pipeline.submit("broken.png", "pixmap", () -> {
+            throw new IllegalStateException("bad header");
+        });
+        
+        DecodePipeline.Job job = pipeline.claim("broken.png");
+        GdxRuntimeException e = assertThrows(GdxRuntimeException.class, job::get);
+        assertTrue(e.getMessage().contains("broken.png"));
+    }
+    
+    @Test
+    void testUnclaimedResultsAreDisposed() throws InterruptedException {
+        AtomicBoolean disposed = new AtomicBoolean();
+        CountDownLatch decoded = new CountDownLatch(1);
+        pipeline.submit("unused.png", "pixmap", () -> {
+            decoded.countDown();
+            return (Disposable) () -> disposed.set(true);
+        });
+        assertTrue(decoded.await(5, TimeUnit.SECONDS));
+        
+        pipeline.discardUnclaimed();
+        assertEquals(0, pipeline.getPendingCount());
+        assertNull(pipeline.claim("unused.png"));
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!disposed.get() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(disposed.get());
+    }
+    
+    @Test
+    void testWorkerCountIsBounded() {
+        assertThrows(IllegalArgumentException.class, () -> new DecodePipeline(null, 0));
+        
+        DecodePipeline defaults = new DecodePipeline(null);
+        assertTrue(defaults.getWorkerCount() >= 1);
+        assertTrue(defaults.getWorkerCount() <= DecodePipeline.MAX_WORKERS);
+        defaults.dispose();
+    }
+}
@@ -0,0 +1,82 @@
+package com.mariogame.entities;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EntityInterpolationTest {
+    
+    private final Vector2 bodyPosition = new Vector2(2f, 1f);
+    private Body body;
+    private Entity entity;
+    
+    @BeforeEach
+    void setUp() {
+        body = mock(Body.class);
+        when(body.getPosition()).thenReturn(bodyPosition);
+        
+        entity = new Entity(mock(World.class), 2f, 1f, 1f, 1f) {
+            @Override
+            protected void createBody() {
+                this.body = EntityInterpolationTest.this.body;
+            }
+            
+            @Override
+            public void render(SpriteBatch batch) {
+            }
+        };
+    }
+    
+    @Test
+    void testRenderPositionStartsAtSpawn() {
+        assertEquals(2f, entity.getRenderPosition().x, 1e-6f);
+        assertEquals(1f, entity.getRenderPosition().y, 1e-6f);
+    }
+    
+    @Test
+    void testRenderPositionBlendsPreviousAndCurrentStep() {
+        entity.captureTransform();
+        bodyPosition.set(4f, 3f);
+        when(body.getAngle()).thenReturn(1f);
+        
+        entity.setInterpolationAlpha(0.25f);
+        
+        assertEquals(2.5f, entity.getRenderPosition().x, 1e-6f);
+        assertEquals(1.5f, entity.getRenderPosition().y, 1e-6f);
+        assertEquals(0.25f, entity.getRenderAngle(), 1e-6f);
+    }
+    
+    @Test
+    void testPreviousStateOnlyMovesOnCapture() {
+        entity.captureTransform();
+        bodyPosition.set(4f, 1f);
+        
+        // Plusieurs frames sans pas physique : seul alpha avance
+        entity.setInterpolationAlpha(0.5f);
+        assertEquals(3f, entity.getRenderPosition().x, 1e-6f);
+        entity.setInterpolationAlpha(1f);
+        assertEquals(4f, entity.getRenderPosition().x, 1e-6f);
+        
+        entity.captureTransform();
+        bodyPosition.set(6f, 1f);
+        entity.setInterpolationAlpha(0f);
+        assertEquals(4f, entity.getRenderPosition().x, 1e-6f);
+    }
+    
+    @Test
+    void testSnapSkipsInterpolationAfterTeleport() {
+        entity.captureTransform();
+        bodyPosition.set(40f, 1f);
+        
+        entity.snapInterpolation();
+        entity.setInterpolationAlpha(0.1f);
+        
+        assertEquals(40f, entity.getRenderPosition().x, 1e-6f);
+    }
+}
@@ -0,0 +1,172 @@
+package com.mariogame.entities;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+import com.mariogame.managers.InputManager;
+import com.mariogame.managers.PhysicsManager;
+import com.mariogame.utils.Constants;
+import com.mariogame.utils.Constants.PlayerState;
+import com.mariogame.utils.MapLoader;
+import com.mariogame.utils.MapLoaderTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Capteurs du joueur dans un vrai monde Box2D, sur un sol construit par MapLoader.
+ */
+class PlayerSensorTest {
+
+    private static final float FRAME = Constants.WorldConfig.TIME_STEP;
+    private static final float TILE_METERS = 16 / Constants.WorldConfig.PPM;
+    private static final int MAP_WIDTH = 40;
+    private static final int MAP_HEIGHT = 30;
+
+    private Application previousApp;
+    private World world;
+    private PhysicsManager physics;
+    private Player player;
+
+    @BeforeAll
+    static void loadNatives() {
+        Box2D.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Les animations de remplacement journalisent via Gdx.app
+        previousApp = Gdx.app;
+        Gdx.app = mock(Application.class);
+        world = new World(new Vector2(0, Constants.WorldConfig.GRAVITY), true);
+        physics = new PhysicsManager(world);
+    }
+
+    @AfterEach
+    void tearDown() {
+        physics.dispose();
+        world.dispose();
+        Gdx.app = previousApp;
+    }
+
+    private void load(int[][] solidCells) {
+        new MapLoader(world, MapLoaderTest.map(MAP_WIDTH, MAP_HEIGHT, solidCells)).loadCollisionLayers();
+    }
+
+    private void spawn(float x, float y) {
+        player = new Player(world, x, y);
+        player.initialize(mock(InputManager.class), null, null);
+    }
+
+    private void run(int frames) {
+        for (int i = 0; i < frames; i++) {
+            physics.update(FRAME);
+            player.update(FRAME);
+        }
+    }
+
+    private static int[][] row(int fromX, int toX, int y) {
+        int[][] cells = new int[toX - fromX + 1][];
+        for (int x = fromX; x <= toX; x++) {
+            cells[x - fromX] = new int[]{x, y};
+        }
+        return cells;
+    }
+
+    private static int[][] column(int x, int fromY, int toY) {
+        int[][] cells = new int[toY - fromY + 1][];
+        for (int y = fromY; y <= toY; y++) {
+            cells[y - fromY] = new int[]{x, y};
+        }
+        return cells;
+    }
+
+    @Test
+    void testPlayerLandsOnMapGround() {
+        load(row(0, MAP_WIDTH - 1, 0));
+        spawn(3f, 2f);
+
+        run(1);
+        assertFalse(player.isOnGround());
+
+        run(60);
+        assertTrue(player.isOnGround());
+        assertEquals(PlayerState.IDLE, player.getState());
+    }
+
+    @Test
+    void testCoyoteTimeAfterLeavingLedge() {
+        // Sol jusqu'à x = 2.4 m, vide au-delà
+        load(row(0, 14, 0));
+        spawn(1.5f, 1.2f);
+        run(60);
+        assertTrue(player.isOnGround());
+
+        Body body = player.getBody();
+        body.setTransform(15 * TILE_METERS + 2f, body.getPosition().y, 0);
+        for (int i = 0; i < 5 && player.isOnGround(); i++) {
+            run(1);
+        }
+        assertFalse(player.isOnGround());
+
+        // Le temps de coyote le garde dans un état au sol
+        run(1);
+        assertFalse(player.isOnGround());
+        assertEquals(PlayerState.IDLE, player.getState());
+
+        run(12);
+        assertEquals(PlayerState.FALLING, player.getState());
+    }
+
+    @Test
+    void testWallSlideAgainstMapWall() {
+        // Mur de la hauteur de la carte en x = 3.2 m, sans sol
+        load(column(20, 0, MAP_HEIGHT - 1));
+        float wallLeft = 20 * TILE_METERS;
+        spawn(wallLeft - Constants.PlayerConfig.WIDTH / 2 - 0.05f, 3f);
+
+        run(10);
+        assertTrue(player.isTouchingRightWall());
+        assertFalse(player.isTouchingLeftWall());
+        assertFalse(player.isOnGround());
+        assertEquals(PlayerState.WALL_SLIDING, player.getState());
+        assertFalse(player.isFacingRight());
+        // Chute ralentie : sans glissade, la vitesse serait de -5 m/s
+        assertTrue(player.getBody().getLinearVelocity().y > -1.6f);
+
+        // Loin du mur, le joueur tombe normalement
+        Body body = player.getBody();
+        body.setTransform(1f, body.getPosition().y, 0);
+        run(2);
+        assertFalse(player.isTouchingRightWall());
+        assertEquals(PlayerState.FALLING, player.getState());
+    }
+
+    @Test
+    void testUnbalancedEndContactDoesNotGoNegative() {
+        spawn(3f, 2f);
+        player.onSensorContact(Player.GROUND_SENSOR, false);
+        player.onSensorContact(Player.GROUND_SENSOR, true);
+        player.update(FRAME);
+
+        assertTrue(player.isOnGround());
+    }
+
+    @Test
+    void testNonSensorFixturesAreIgnored() {
+        spawn(3f, 2f);
+        player.onSensorContact("player_main", true);
+        player.update(FRAME);
+
+        assertFalse(player.isOnGround());
+        assertFalse(player.isTouchingLeftWall());
+        assertFalse(player.isTouchingRightWall());
+    }
+}
@@ -0,0 +1,184 @@
+package com.mariogame.managers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.Filter;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.utils.Array;
+import com.mariogame.managers.ContactDispatcher.ContactEvent;
+import com.mariogame.utils.Constants.CollisionBits;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ContactDispatcherTest {
+    
+    private ContactDispatcher dispatcher;
+    private final Array<String> received = new Array<>();
+    
+    @BeforeEach
+    void setUp() {
+        dispatcher = new ContactDispatcher();
+        received.clear();
+    }
+    
+    private static Fixture fixture(short category, Object bodyData, Object fixtureData) {
+        Filter filter = new Filter();
+        filter.categoryBits = category;
+        
+        Body body = mock(Body.class);
+        when(body.getUserData()).thenReturn(bodyData);
+        
+        Fixture fixture = mock(Fixture.class);
+        when(fixture.getFilterData()).thenReturn(filter);
+        when(fixture.getBody()).thenReturn(body);
+        when(fixture.getUserData()).thenReturn(fixtureData);
+        return fixture;
+    }
+    
+    private static Contact contact(Fixture a, Fixture b) {
+        Contact contact = mock(Contact.class);
+        when(contact.getFixtureA()).thenReturn(a);
+        when(contact.getFixtureB()).thenReturn(b);
+        return contact;
+    }
+    
+    @Test
+    void testEventsAreDeferredUntilDispatch() {
+        dispatcher.register(CollisionBits.PLAYER, CollisionBits.ENEMY,
+            event -> received.add((String) event.getFixtureDataB()));
+        
+        dispatcher.record(contact(
+            fixture(CollisionBits.PLAYER, "player", "player_main"),
+            fixture(CollisionBits.ENEMY, "goomba", "enemy_body")), true);
+        
+        assertEquals(0, received.size);
+        assertEquals(1, dispatcher.getPendingCount());
+        
+        dispatcher.dispatch();
+        
+        assertEquals(1, received.size);
+        assertEquals("enemy_body", received.first());
+        assertEquals(0, dispatcher.getPendingCount());
+    }
+    
+    @Test
+    void testEventIsOrderedLikeRegistration() {
+        dispatcher.register(CollisionBits.PLAYER, CollisionBits.ENEMY, event -> {
+            assertEquals(CollisionBits.PLAYER, event.getCategoryA());
+            assertEquals(CollisionBits.ENEMY, event.getCategoryB());
+            received.add((String) event.getBodyDataA());
+        });
+        
+        // Box2D peut donner les fixtures dans n'importe quel ordre
+        dispatcher.record(contact(
+            fixture(CollisionBits.ENEMY, "goomba", null),
+            fixture(CollisionBits.PLAYER, "player", null)), true);
+        dispatcher.dispatch();
+        
+        assertEquals("player", received.first());
+    }
+    
+    @Test
+    void testMultiBitRegistrationCoversEveryPair() {
+        dispatcher.register((short) (CollisionBits.PLAYER | CollisionBits.PLAYER_HEAD),
+            (short) (CollisionBits.GROUND | CollisionBits.PLATFORM), event -> {});
+        
+        assertTrue(dispatcher.hasHandler(CollisionBits.PLAYER, CollisionBits.GROUND));
+        assertTrue(dispatcher.hasHandler(CollisionBits.PLATFORM, CollisionBits.PLAYER_HEAD));
+        assertFalse(dispatcher.hasHandler(CollisionBits.PLAYER, CollisionBits.ENEMY));
+    }
+    
+    @Test
+    void testUnhandledContactsAreIgnored() {
+        dispatcher.register(CollisionBits.PLAYER, CollisionBits.ENEMY, event -> received.add("hit"));
+        
+        dispatcher.record(contact(
+            fixture(CollisionBits.ENEMY, null, null),
+            fixture(CollisionBits.GROUND, null, null)), true);
+        dispatcher.dispatch();
+        
+        assertEquals(0, received.size);
+        assertEquals(0, dispatcher.getRecordedLastDispatch());
+        assertEquals(1, dispatcher.getIgnoredLastDispatch());
+    }
+    
+    @Test
+    void testBeginAndEndKeepArrivalOrder() {
+        dispatcher.register(CollisionBits.PLAYER_FOOT, CollisionBits.GROUND,
+            event -> received.add(event.isBegin() ? "begin" : "end"));
+        
+        Contact contact = contact(
+            fixture(CollisionBits.PLAYER_FOOT, null, null),
+            fixture(CollisionBits.GROUND, null, null));
+        dispatcher.record(contact, true);
+        dispatcher.record(contact, false);
+        dispatcher.record(contact, true);
+        dispatcher.dispatch();
+        
+        assertEquals("begin", received.get(0));
+        assertEquals("end", received.get(1));
+        assertEquals("begin", received.get(2));
+    }
+    
+    @Test
+    void testEventsAreRecycled() {
+        Array<ContactEvent> seen = new Array<>();
+        dispatcher.register(CollisionBits.PLAYER, CollisionBits.ITEM, seen::add);
+        
+        Contact contact = contact(
+            fixture(CollisionBits.PLAYER, null, null),
+            fixture(CollisionBits.ITEM, "coin", null));
+        dispatcher.record(contact, true);
+        dispatcher.dispatch();
+        dispatcher.record(contact, true);
+        dispatcher.dispatch();
+        
+        assertSame(seen.get(0), seen.get(1));
+    }
+    
+    @Test
+    void testEventKeepsDataReadAtRecordTime() {
+        dispatcher.register(CollisionBits.PLAYER, CollisionBits.ENEMY,
+            event -> received.add(event.getBodyDataB() + "/" + event.getFixtureDataB()));
+        
+        // Corps détruit hors du pas : sa fixture est recyclée avant la distribution
+        Fixture enemy = fixture(CollisionBits.ENEMY, "goomba", "enemy_body");
+        dispatcher.record(contact(fixture(CollisionBits.PLAYER, "player", null), enemy), false);
+        when(enemy.getUserData()).thenReturn("coin_body");
+        when(enemy.getBody().getUserData()).thenReturn("coin");
+        dispatcher.dispatch();
+        
+        assertEquals("goomba/enemy_body", received.first());
+    }
+    
+    @Test
+    void testMultiBitFixtureIsRoutedOnEachBit() {
+        dispatcher.register(CollisionBits.PLAYER_HEAD, CollisionBits.ITEM, event -> received.add("head"));
+        dispatcher.register(CollisionBits.PLAYER, CollisionBits.ITEM, event -> received.add("body"));
+        
+        // Le bit le plus faible (PLAYER) n'est pas le seul à compter
+        short both = (short) (CollisionBits.PLAYER | CollisionBits.PLAYER_HEAD);
+        dispatcher.record(contact(fixture(both, null, null), fixture(CollisionBits.ITEM, null, null)), true);
+        dispatcher.dispatch();
+        
+        assertEquals(2, received.size);
+        assertTrue(received.contains("head", false));
+        assertTrue(received.contains("body", false));
+    }
+    
+    @Test
+    void testHandlerReachedByTwoBitsRunsOnce() {
+        dispatcher.register((short) (CollisionBits.PLAYER | CollisionBits.PLAYER_HEAD), CollisionBits.ENEMY,
+            event -> received.add("hit"));
+        
+        short both = (short) (CollisionBits.PLAYER | CollisionBits.PLAYER_HEAD);
+        dispatcher.record(contact(fixture(CollisionBits.ENEMY, null, null), fixture(both, null, null)), true);
+        dispatcher.dispatch();
+        
+        assertEquals(1, received.size);
+        assertEquals(1, dispatcher.getRecordedLastDispatch());
+    }
+}
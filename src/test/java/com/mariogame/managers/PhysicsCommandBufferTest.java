@@ -0,0 +1,144 @@
+package com.mariogame.managers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class PhysicsCommandBufferTest {
+    
+    private final Body body = mock(Body.class);
+    
+    @Test
+    void testCommandsAreDrainedInOrder() {
+        PhysicsCommandBuffer buffer = new PhysicsCommandBuffer(8);
+        IntArray commands = new IntArray();
+        FloatArray values = new FloatArray();
+        
+        assertTrue(buffer.offer(PhysicsCommandBuffer.FORCE, body, 1f, 2f));
+        assertTrue(buffer.offer(PhysicsCommandBuffer.IMPULSE, body, 3f, 4f));
+        assertTrue(buffer.offer(PhysicsCommandBuffer.DESTROY, body, 0f, 0f));
+        assertEquals(3, buffer.getDepth());
+        
+        int drained = buffer.drain((command, b, x, y) -> {
+            assertSame(body, b);
+            commands.add(command);
+            values.add(x);
+            values.add(y);
+        });
+        
+        assertEquals(3, drained);
+        assertArrayEquals(new int[]{
+            PhysicsCommandBuffer.FORCE, PhysicsCommandBuffer.IMPULSE, PhysicsCommandBuffer.DESTROY
+        }, commands.toArray());
+        assertArrayEquals(new float[]{1f, 2f, 3f, 4f, 0f, 0f}, values.toArray());
+        assertEquals(0, buffer.getDepth());
+        assertEquals(3, buffer.getMaxDepth());
+    }
+    
+    @Test
+    void testCapacityIsRoundedToPowerOfTwo() {
+        assertEquals(8, new PhysicsCommandBuffer(5).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new PhysicsCommandBuffer(1));
+    }
+    
+    @Test
+    void testOverflowIsCountedAndRejected() {
+        PhysicsCommandBuffer buffer = new PhysicsCommandBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(PhysicsCommandBuffer.ACTIVATE, body, 0, 0));
+        }
+        
+        assertFalse(buffer.offer(PhysicsCommandBuffer.ACTIVATE, body, 0, 0));
+        assertFalse(buffer.offer(PhysicsCommandBuffer.ACTIVATE, body, 0, 0));
+        assertEquals(2, buffer.getOverflowCount());
+        
+        // Une fois vidé, le tampon accepte de nouveau des commandes
+        assertEquals(4, buffer.drain((command, b, x, y) -> {}));
+        assertTrue(buffer.offer(PhysicsCommandBuffer.ACTIVATE, body, 0, 0));
+    }
+    
+    @Test
+    void testSlotsAreReusedAcrossManyRounds() {
+        PhysicsCommandBuffer buffer = new PhysicsCommandBuffer(4);
+        AtomicInteger sum = new AtomicInteger();
+        
+        for (int round = 0; round < 1000; round++) {
+            buffer.offer(PhysicsCommandBuffer.SET_VELOCITY, body, round, 0);
+            buffer.offer(PhysicsCommandBuffer.SET_VELOCITY, body, 1, 0);
+            buffer.drain((command, b, x, y) -> sum.addAndGet((int) x));
+        }
+        
+        assertEquals(999 * 1000 / 2 + 1000, sum.get());
+        assertEquals(0, buffer.getOverflowCount());
+    }
+    
+    @Test
+    void testClearDropsPendingCommands() {
+        PhysicsCommandBuffer buffer = new PhysicsCommandBuffer(4);
+        buffer.offer(PhysicsCommandBuffer.DESTROY, body, 0, 0);
+        buffer.clear();
+        
+        assertEquals(0, buffer.drain((command, b, x, y) -> fail("command should have been dropped")));
+        assertEquals(0, buffer.getDepth());
+    }
+    
+    @Test
+    void testConcurrentProducersLoseNothing() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 20000;
+        PhysicsCommandBuffer buffer = new PhysicsCommandBuffer(256);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(producers);
+        AtomicInteger deepest = new AtomicInteger();
+        
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        // Réessayer tant que le consommateur n'a pas libéré de place
+                        while (!buffer.offer(PhysicsCommandBuffer.FORCE, body, producer, i)) {
+                            Thread.yield();
+                        }
+                        // Profondeur lue hors du thread consommateur
+                        deepest.accumulateAndGet(buffer.getDepth(), Math::max);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        
+        int[] lastSeen = {-1, -1, -1, -1};
+        int[] received = new int[1];
+        PhysicsCommandBuffer.CommandHandler handler = (command, b, x, y) -> {
+            int producer = (int) x;
+            // L'ordre de chaque producteur est conservé
+            assertEquals(lastSeen[producer] + 1, (int) y);
+            lastSeen[producer] = (int) y;
+            received[0]++;
+        };
+        
+        start.countDown();
+        while (done.getCount() > 0) {
+            buffer.drain(handler);
+        }
+        buffer.drain(handler);
+        
+        assertEquals(producers * perProducer, received[0]);
+        assertEquals(0, buffer.getDepth());
+        assertTrue(deepest.get() > 0);
+        assertTrue(deepest.get() <= buffer.getCapacity());
+    }
+}
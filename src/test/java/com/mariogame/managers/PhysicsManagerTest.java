@@ -0,0 +1,65 @@
+package com.mariogame.managers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+import com.mariogame.physics.StepScheduler;
+import com.mariogame.systems.PerformanceProfiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PhysicsManagerTest {
+
+    private World world;
+    private PhysicsManager physics;
+    private PerformanceProfiler profiler;
+
+    @BeforeAll
+    static void loadNatives() {
+        Box2D.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        world = new World(new Vector2(0, -10), true);
+        physics = new PhysicsManager(world);
+        profiler = new PerformanceProfiler();
+        physics.setProfiler(profiler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        physics.dispose();
+        world.dispose();
+    }
+
+    @Test
+    void testStepRecordsIntoProfiler() {
+        physics.update(physics.getTimeStep() * 1.5f);
+
+        assertEquals(1, profiler.getStats("physics.substeps").lastTime);
+        assertEquals(physics.getStepTimeLastFrame(), profiler.getStats("physics.step").lastTime);
+        assertEquals(0, profiler.getStats("physics.dropped").lastTime);
+        assertNotNull(profiler.getStats("physics.qualityLevel"));
+    }
+
+    @Test
+    void testSlowFrameRecordsDroppedTime() {
+        physics.update(0.25f);
+
+        assertEquals(StepScheduler.DEFAULT_MAX_SUB_STEPS, profiler.getStats("physics.substeps").lastTime);
+        assertTrue(profiler.getStats("physics.dropped").lastTime > 0);
+    }
+
+    @Test
+    void testNothingIsRecordedWithoutProfiler() {
+        physics.setProfiler(null);
+        physics.update(physics.getTimeStep());
+
+        assertNull(profiler.getStats("physics.step"));
+    }
+}
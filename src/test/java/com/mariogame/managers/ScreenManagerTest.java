@@ -0,0 +1,157 @@
+package com.mariogame.managers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.Screen;
+import com.mariogame.MarioGame;
+import com.mariogame.screens.ScreenType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ScreenManagerTest {
+    
+    private Screen menu, game, pause;
+    private AtomicInteger gameBuilds;
+    private boolean memoryLow;
+    private ScreenManager screenManager;
+    
+    @BeforeEach
+    void setUp() {
+        Gdx.app = mock(Application.class);
+        Gdx.graphics = mock(Graphics.class);
+        Gdx.input = mock(Input.class);
+        
+        menu = mock(Screen.class);
+        game = mock(Screen.class);
+        pause = mock(Screen.class);
+        gameBuilds = new AtomicInteger();
+        memoryLow = false;
+        
+        screenManager = new ScreenManager(mock(MarioGame.class)) {
+            @Override
+            boolean isMemoryLow() {
+                return memoryLow;
+            }
+        };
+        // Écrans factices à la place des vrais, qui ont besoin d'OpenGL
+        screenManager.register(ScreenType.MENU, () -> menu);
+        screenManager.register(ScreenType.GAME, () -> {
+            gameBuilds.incrementAndGet();
+            return game;
+        });
+        screenManager.register(ScreenType.PAUSE, () -> {
+            // Comme la vraie pause, construite sur l'écran de jeu
+            screenManager.getScreen(ScreenType.GAME);
+            return pause;
+        }, ScreenType.GAME);
+    }
+    
+    @Test
+    void testScreensAreBuiltOnFirstUse() {
+        for (ScreenType type : ScreenType.values()) {
+            assertFalse(screenManager.isBuilt(type));
+        }
+        
+        screenManager.setScreen(ScreenType.GAME);
+        
+        assertSame(game, screenManager.getCurrentScreen());
+        assertEquals(1, gameBuilds.get());
+        verify(game).show();
+        assertNull(screenManager.getScreen(ScreenType.LEVEL_TRANSITION));
+    }
+    
+    @Test
+    void testWarmedUpScreenIsBuiltInIdleFrame() {
+        InputProcessor gameInput = mock(InputProcessor.class);
+        when(Gdx.input.getInputProcessor()).thenReturn(gameInput);
+        
+        screenManager.setScreen(ScreenType.GAME);
+        screenManager.warmUp(ScreenType.PAUSE);
+        assertFalse(screenManager.isBuilt(ScreenType.PAUSE));
+        assertTrue(screenManager.isWarmingUp(ScreenType.PAUSE));
+        
+        screenManager.render(0.016f);
+        assertTrue(screenManager.isBuilt(ScreenType.PAUSE));
+        assertFalse(screenManager.isWarmingUp(ScreenType.PAUSE));
+        verify(pause, never()).show();
+        // L'écran préconstruit ne garde pas les entrées du jeu
+        verify(Gdx.input).setInputProcessor(gameInput);
+        
+        // Afficher la pause l'affiche sans reconstruire le jeu
+        screenManager.setScreen(ScreenType.PAUSE);
+        verify(pause).show();
+        assertEquals(1, gameBuilds.get());
+    }
+    
+    @Test
+    void testNothingIsWarmedUpAfterTransition() {
+        // Le jeu charge un niveau à sa construction : il n'est jamais préconstruit depuis le menu
+        screenManager.setScreen(ScreenType.MENU);
+        screenManager.render(0.016f);
+        assertFalse(screenManager.isBuilt(ScreenType.GAME));
+        
+        screenManager.setScreen(ScreenType.GAME);
+        screenManager.render(0.016f);
+        assertFalse(screenManager.isBuilt(ScreenType.PAUSE));
+    }
+    
+    @Test
+    void testNoWarmUpInBusyFrame() {
+        doAnswer(invocation -> {
+            Thread.sleep(ScreenManager.WARM_UP_FRAME_BUDGET_NANOS / 1_000_000 + 2);
+            return null;
+        }).when(game).render(anyFloat());
+        
+        screenManager.setScreen(ScreenType.GAME);
+        screenManager.warmUp(ScreenType.PAUSE);
+        screenManager.render(0.016f);
+        
+        assertFalse(screenManager.isBuilt(ScreenType.PAUSE));
+        assertTrue(screenManager.isWarmingUp(ScreenType.PAUSE));
+    }
+    
+    @Test
+    void testUnusedScreensAreReleasedUnderMemoryPressure() {
+        screenManager.setScreen(ScreenType.GAME);
+        screenManager.warmUp(ScreenType.PAUSE);
+        screenManager.render(0.016f);
+        assertTrue(screenManager.isBuilt(ScreenType.PAUSE));
+        
+        screenManager.setScreen(ScreenType.MENU);
+        memoryLow = true;
+        screenManager.render(0.016f);
+        
+        // La pause utilise le jeu : libérer le jeu libère aussi la pause
+        assertFalse(screenManager.isBuilt(ScreenType.GAME));
+        assertFalse(screenManager.isBuilt(ScreenType.PAUSE));
+        assertTrue(screenManager.isBuilt(ScreenType.MENU));
+        verify(game).dispose();
+        verify(pause).dispose();
+        verify(menu, never()).dispose();
+        
+        // Et rien n'est préconstruit tant que la mémoire manque
+        screenManager.warmUp(ScreenType.PAUSE);
+        screenManager.render(0.016f);
+        assertFalse(screenManager.isBuilt(ScreenType.GAME));
+        assertFalse(screenManager.isBuilt(ScreenType.PAUSE));
+    }
+    
+    @Test
+    void testScreenUsedByCurrentScreenIsKept() {
+        screenManager.setScreen(ScreenType.MENU);
+        screenManager.setScreen(ScreenType.PAUSE);
+        
+        assertEquals(1, screenManager.releaseUnusedScreens());
+        verify(menu).dispose();
+        assertTrue(screenManager.isBuilt(ScreenType.GAME));
+        assertTrue(screenManager.isBuilt(ScreenType.PAUSE));
+    }
+}
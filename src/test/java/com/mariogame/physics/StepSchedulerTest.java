@@ -0,0 +1,102 @@
+package com.mariogame.physics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StepSchedulerTest {
+    
+    private static final float STEP = 1f / 60f;
+    private static final long BUDGET = 1_000_000L;
+    
+    private StepScheduler scheduler;
+    
+    @BeforeEach
+    void setUp() {
+        scheduler = new StepScheduler(STEP, 4, BUDGET);
+    }
+    
+    @Test
+    void testOneStepPerFrameAtTargetRate() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, scheduler.beginFrame(STEP));
+            scheduler.endFrame(BUDGET / 4);
+        }
+        assertEquals(0f, scheduler.getTotalDroppedTime(), 1e-6);
+    }
+    
+    @Test
+    void testPartialStepIsKeptForInterpolation() {
+        assertEquals(0, scheduler.beginFrame(STEP / 2));
+        assertEquals(0.5f, scheduler.getAlpha(), 1e-3f);
+        
+        assertEquals(1, scheduler.beginFrame(STEP / 2));
+        assertEquals(0f, scheduler.getAlpha(), 1e-3f);
+    }
+    
+    @Test
+    void testSubStepsAreCappedAndExcessDropped() {
+        // Un accroc de 10 pas ne doit en exécuter que 4
+        int steps = scheduler.beginFrame(STEP * 10);
+        
+        assertEquals(4, steps);
+        assertEquals(STEP * 6, scheduler.getDroppedTimeLastFrame(), 1e-4f);
+        
+        // La frame suivante ne rattrape pas le retard
+        assertEquals(1, scheduler.beginFrame(STEP));
+    }
+    
+    @Test
+    void testHugeFrameIsClamped() {
+        scheduler.beginFrame(2f);
+        
+        assertEquals(4, scheduler.getStepsLastFrame());
+        // Tout le temps est soit simulé, soit abandonné, soit gardé en fraction de pas
+        float kept = scheduler.getAlpha() * STEP;
+        assertEquals(2f - 4 * STEP, scheduler.getDroppedTimeLastFrame() + kept, 1e-4f);
+        assertTrue(scheduler.getAlpha() < 1f);
+    }
+    
+    @Test
+    void testQualityDegradesWhenOverBudget() {
+        assertEquals(1f, scheduler.getQuality());
+        
+        scheduler.beginFrame(STEP);
+        scheduler.endFrame(BUDGET * 2);
+        assertEquals(1, scheduler.getQualityLevel());
+        
+        scheduler.beginFrame(STEP);
+        scheduler.endFrame(BUDGET * 2);
+        scheduler.beginFrame(STEP);
+        scheduler.endFrame(BUDGET * 2);
+        // Niveau minimal atteint
+        assertEquals(2, scheduler.getQualityLevel());
+        assertEquals(0.5f, scheduler.getQuality());
+    }
+    
+    @Test
+    void testQualityRecoversAfterCalmPeriod() {
+        scheduler.beginFrame(STEP);
+        scheduler.endFrame(BUDGET * 2);
+        assertEquals(1, scheduler.getQualityLevel());
+        
+        for (int i = 0; i < 59; i++) {
+            scheduler.beginFrame(STEP);
+            scheduler.endFrame(BUDGET / 4);
+        }
+        assertEquals(1, scheduler.getQualityLevel());
+        
+        scheduler.beginFrame(STEP);
+        scheduler.endFrame(BUDGET / 4);
+        assertEquals(0, scheduler.getQualityLevel());
+    }
+    
+    @Test
+    void testFramesWithoutStepsDoNotAffectQuality() {
+        scheduler.beginFrame(0f);
+        scheduler.endFrame(BUDGET * 10);
+        
+        assertEquals(0, scheduler.getQualityLevel());
+    }
+}
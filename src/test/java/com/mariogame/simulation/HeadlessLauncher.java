@@ -0,0 +1,79 @@
+package com.mariogame.simulation;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Point d'entrée en ligne de commande de la ferme de simulation.
+ * Usage : {@code [-workers N] [-runs N] [-ticks N] niveau[:script] ...}
+ * où le script suit le format de {@link InputScript#parse(String)}, par exemple
+ * {@code 1-1:B*30,RB*600,RBJ*12,RB*600}.
+ */
+public class HeadlessLauncher {
+    private static final int DEFAULT_MAX_TICKS = 60 * 300; // 5 minutes de jeu
+    
+    public static void main(String[] args) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        int runs = 1;
+        int maxTicks = DEFAULT_MAX_TICKS;
+        Array<String> specs = new Array<>();
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-workers") && i + 1 < args.length) {
+                workers = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-runs") && i + 1 < args.length) {
+                runs = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-ticks") && i + 1 < args.length) {
+                maxTicks = Integer.parseInt(args[++i]);
+            } else {
+                specs.add(args[i]);
+            }
+        }
+        
+        if (specs.size == 0) {
+            System.err.println("Usage: HeadlessLauncher [-workers N] [-runs N] [-ticks N] level[:script] ...");
+            System.exit(1);
+        }
+        
+        Array<SimulationJob> jobs = new Array<>();
+        for (String spec : specs) {
+            int separator = spec.indexOf(':');
+            String level = separator >= 0 ? spec.substring(0, separator) : spec;
+            InputScript script = InputScript.parse(separator >= 0 ? spec.substring(separator + 1) : null);
+            for (int run = 0; run < runs; run++) {
+                jobs.add(new SimulationJob(level + "#" + run, level, script, maxTicks));
+            }
+        }
+        
+        SimulationFarm farm = new SimulationFarm(workers);
+        // Les journaux des niveaux noieraient le rapport
+        Gdx.app.setLogLevel(Application.LOG_ERROR);
+        
+        long start = TimeUtils.nanoTime();
+        Array<SimulationResult> results = farm.runAll(jobs);
+        long elapsed = TimeUtils.nanoTime() - start;
+        farm.dispose();
+        
+        report(results, elapsed, workers);
+    }
+    
+    private static void report(Array<SimulationResult> results, long elapsedNanos, int workers) {
+        int[] outcomes = new int[SimulationResult.Outcome.values().length];
+        long totalTicks = 0;
+        
+        for (SimulationResult result : results) {
+            System.out.println(result);
+            outcomes[result.getOutcome().ordinal()]++;
+            totalTicks += result.getTicks();
+        }
+        
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.println(String.format("%d runs on %d workers in %.2fs, %.0f ticks/s overall",
+            results.size, workers, seconds, seconds > 0 ? totalTicks / seconds : 0));
+        for (SimulationResult.Outcome outcome : SimulationResult.Outcome.values()) {
+            System.out.println(String.format("  %s: %d", outcome, outcomes[outcome.ordinal()]));
+        }
+    }
+}
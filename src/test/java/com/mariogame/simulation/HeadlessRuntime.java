@@ -0,0 +1,70 @@
+package com.mariogame.simulation;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.physics.box2d.Box2D;
+
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * Initialise libGDX sans fenêtre ni GPU pour les simulations.
+ * Le backend headless fournit Gdx.app et Gdx.files ; un GL factice permet aux cartes
+ * de créer leurs textures et leur batch sans contexte OpenGL (rien n'est dessiné).
+ */
+final class HeadlessRuntime {
+    private static boolean initialized = false;
+    
+    private HeadlessRuntime() {
+    }
+    
+    static synchronized void ensureInitialized() {
+        if (initialized) return;
+        
+        if (Gdx.app == null) {
+            HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+            config.updatesPerSecond = -1; // Pas de boucle de rendu : les workers pilotent la simulation
+            new HeadlessApplication(new ApplicationAdapter() {}, config);
+        }
+        
+        if (Gdx.gl == null) {
+            GL20 gl = createNullGL();
+            Gdx.gl = gl;
+            Gdx.gl20 = gl;
+        }
+        
+        Box2D.init();
+        initialized = true;
+    }
+    
+    /**
+     * GL20 dont tous les appels sont sans effet. Les requêtes d'état des shaders
+     * répondent « compilé et lié, sans attribut ni uniforme » pour que les
+     * ShaderProgram se construisent.
+     */
+    private static GL20 createNullGL() {
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] {GL20.class},
+            (proxy, method, args) -> {
+                String name = method.getName();
+                if ((name.equals("glGetShaderiv") || name.equals("glGetProgramiv"))
+                        && args[2] instanceof IntBuffer) {
+                    int pname = (Integer) args[1];
+                    IntBuffer params = (IntBuffer) args[2];
+                    boolean listQuery = pname == GL20.GL_ACTIVE_ATTRIBUTES || pname == GL20.GL_ACTIVE_UNIFORMS;
+                    params.put(params.position(), listQuery ? 0 : GL20.GL_TRUE);
+                    return null;
+                }
+                
+                Class<?> type = method.getReturnType();
+                if (type == boolean.class) return false;
+                if (type == int.class) return 0;
+                if (type == float.class) return 0f;
+                if (type == long.class) return 0L;
+                if (type == String.class) return "";
+                return null;
+            });
+    }
+}
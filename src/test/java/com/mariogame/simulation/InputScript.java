@@ -0,0 +1,95 @@
+package com.mariogame.simulation;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Suite d'entrées jouées tick par tick lors d'une simulation.
+ * Chaque tick est un masque de boutons ; au-delà de la fin du script, aucun bouton n'est pressé.
+ */
+public class InputScript {
+    // Boutons
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int JUMP = 1 << 2;
+    public static final int RUN = 1 << 3;
+    public static final int CROUCH = 1 << 4;
+    
+    private final IntArray ticks = new IntArray();
+    
+    /**
+     * Maintient une combinaison de boutons pendant un nombre de ticks.
+     */
+    public InputScript hold(int buttons, int tickCount) {
+        if (tickCount < 0) {
+            throw new IllegalArgumentException("Tick count cannot be negative");
+        }
+        for (int i = 0; i < tickCount; i++) {
+            ticks.add(buttons);
+        }
+        return this;
+    }
+    
+    /**
+     * Aucun bouton pendant un nombre de ticks.
+     */
+    public InputScript idle(int tickCount) {
+        return hold(0, tickCount);
+    }
+    
+    /**
+     * Boutons pressés au tick donné.
+     */
+    public int getButtons(int tick) {
+        return tick >= 0 && tick < ticks.size ? ticks.get(tick) : 0;
+    }
+    
+    /**
+     * Nombre de ticks scriptés.
+     */
+    public int getLength() {
+        return ticks.size;
+    }
+    
+    /**
+     * Lit un script texte de la forme {@code "R*60 RJ*10 -*30"} : chaque élément liste
+     * des boutons (L, R, J, B pour courir, D pour s'accroupir, - pour aucun),
+     * suivis éventuellement de {@code *} et d'un nombre de ticks (1 par défaut).
+     */
+    public static InputScript parse(String text) {
+        InputScript script = new InputScript();
+        if (text == null) return script;
+        
+        for (String token : text.trim().split("[\\s,]+")) {
+            if (token.isEmpty()) continue;
+            
+            int star = token.indexOf('*');
+            String keys = star >= 0 ? token.substring(0, star) : token;
+            int count;
+            try {
+                count = star >= 0 ? Integer.parseInt(token.substring(star + 1)) : 1;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid tick count in: " + token);
+            }
+            
+            int buttons = 0;
+            for (int i = 0; i < keys.length(); i++) {
+                buttons |= buttonFor(keys.charAt(i), token);
+            }
+            script.hold(buttons, count);
+        }
+        return script;
+    }
+    
+    private static int buttonFor(char key, String token) {
+        switch (Character.toUpperCase(key)) {
+            case 'L': return LEFT;
+            case 'R': return RIGHT;
+            case 'J': return JUMP;
+            case 'B': return RUN;
+            case 'D': return CROUCH;
+            case '-': return 0;
+            default:
+                throw new IllegalArgumentException("Unknown button '" + key + "' in: " + token);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.mariogame.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class InputScriptTest {
+    
+    @Test
+    void testHoldAppendsTicks() {
+        InputScript script = new InputScript()
+            .hold(InputScript.RIGHT, 3)
+            .idle(2)
+            .hold(InputScript.RIGHT | InputScript.JUMP, 1);
+        
+        assertEquals(6, script.getLength());
+        assertEquals(InputScript.RIGHT, script.getButtons(0));
+        assertEquals(0, script.getButtons(3));
+        assertEquals(InputScript.RIGHT | InputScript.JUMP, script.getButtons(5));
+    }
+    
+    @Test
+    void testNoButtonsOutsideScript() {
+        InputScript script = new InputScript().hold(InputScript.LEFT, 2);
+        
+        assertEquals(0, script.getButtons(-1));
+        assertEquals(0, script.getButtons(2));
+        assertEquals(0, script.getButtons(1000));
+    }
+    
+    @Test
+    void testParse() {
+        InputScript script = InputScript.parse("B*2, rbj -*3 L");
+        
+        assertEquals(7, script.getLength());
+        assertEquals(InputScript.RUN, script.getButtons(1));
+        assertEquals(InputScript.RIGHT | InputScript.RUN | InputScript.JUMP, script.getButtons(2));
+        assertEquals(0, script.getButtons(5));
+        assertEquals(InputScript.LEFT, script.getButtons(6));
+    }
+    
+    @Test
+    void testParseEmptyScript() {
+        assertEquals(0, InputScript.parse(null).getLength());
+        assertEquals(0, InputScript.parse("  ").getLength());
+    }
+    
+    @Test
+    void testParseRejectsUnknownButtons() {
+        assertThrows(IllegalArgumentException.class, () -> InputScript.parse("RX*10"));
+        assertThrows(IllegalArgumentException.class, () -> InputScript.parse("R*abc"));
+    }
+}
@@ -0,0 +1,182 @@
+package com.mariogame.simulation;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.mariogame.entities.Player;
+import com.mariogame.managers.InputManager;
+import com.mariogame.utils.Constants;
+import com.mariogame.world.GameWorld;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ferme de simulation sans rendu : exécute des parties indépendantes en parallèle
+ * sur un nombre fixe de workers, pour valider des niveaux ou rejouer des runs.
+ * Chaque partie possède son propre GameWorld (et donc son propre monde Box2D) et
+ * avance à pas fixe, aussi vite que le processeur le permet.
+ */
+public class SimulationFarm implements Disposable {
+    private static final float TIME_STEP = Constants.WorldConfig.TIME_STEP;
+    private static final float DEATH_HEIGHT = -2f; // Sous le bas du niveau, en mètres
+    private static final float GOAL_MARGIN = 1f;   // Distance au bord droit qui termine le niveau
+    
+    // Le chargement des cartes passe par des registres statiques de libGDX
+    // (textures et meshes gérés) qui ne sont pas thread-safe
+    private static final Object RESOURCE_LOCK = new Object();
+    
+    private final ExecutorService executor;
+    private final int workerCount;
+    
+    /**
+     * @param workerCount Nombre de parties simulées simultanément
+     */
+    public SimulationFarm(int workerCount) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        HeadlessRuntime.ensureInitialized();
+        
+        this.workerCount = workerCount;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "simulation-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Soumet une partie ; le résultat est disponible à la fin de la simulation.
+     */
+    public Future<SimulationResult> submit(SimulationJob job) {
+        return executor.submit(() -> run(job));
+    }
+    
+    /**
+     * Simule toutes les parties et attend la fin du lot.
+     * @return Les résultats, dans l'ordre des parties
+     */
+    public Array<SimulationResult> runAll(Array<SimulationJob> jobs) {
+        Array<Future<SimulationResult>> futures = new Array<>(jobs.size);
+        for (SimulationJob job : jobs) {
+            futures.add(submit(job));
+        }
+        
+        Array<SimulationResult> results = new Array<>(jobs.size);
+        for (int i = 0; i < futures.size; i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GdxRuntimeException("Simulation batch interrupted", e);
+            } catch (ExecutionException e) {
+                results.add(SimulationResult.failed(jobs.get(i), String.valueOf(e.getCause())));
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Simule une partie sur le thread appelant.
+     */
+    static SimulationResult run(SimulationJob job) {
+        GameWorld world = null;
+        try {
+            synchronized (RESOURCE_LOCK) {
+                world = new GameWorld();
+                world.loadLevel(job.getLevelName());
+            }
+            if (world.getCurrentLevel() == null) {
+                return SimulationResult.failed(job, "Level could not be loaded: " + job.getLevelName());
+            }
+            
+            InputManager input = new InputManager(null);
+            world.initializePlayer(input, null, null);
+            float levelWidth = world.getLevelWidth();
+            InputScript script = job.getScript();
+            
+            SimulationResult.Outcome outcome = SimulationResult.Outcome.TIMED_OUT;
+            int previousButtons = 0;
+            int ticks = 0;
+            long start = TimeUtils.nanoTime();
+            
+            while (ticks < job.getMaxTicks()) {
+                int buttons = script.getButtons(ticks);
+                applyButtons(input, previousButtons, buttons);
+                previousButtons = buttons;
+                
+                world.update(TIME_STEP);
+                input.update();
+                ticks++;
+                
+                Player player = world.getPlayer();
+                if (player == null || player.isDead() || player.getPosition().y < DEATH_HEIGHT) {
+                    outcome = SimulationResult.Outcome.DIED;
+                    break;
+                }
+                if (levelWidth > 0 && player.getPosition().x >= levelWidth - GOAL_MARGIN) {
+                    outcome = SimulationResult.Outcome.COMPLETED;
+                    break;
+                }
+            }
+            
+            long elapsed = TimeUtils.nanoTime() - start;
+            Player player = world.getPlayer();
+            float x = player != null ? player.getPosition().x : 0;
+            float y = player != null ? player.getPosition().y : 0;
+            int score = player != null ? player.getScore() : 0;
+            int coins = player != null ? player.getCoins() : 0;
+            return new SimulationResult(job, outcome, ticks, elapsed, x, y, score, coins, null);
+        
+        } catch (Exception e) {
+            Gdx.app.error("SimulationFarm", "Simulation failed: " + job.getId(), e);
+            return SimulationResult.failed(job, e.toString());
+        } finally {
+            if (world != null) {
+                synchronized (RESOURCE_LOCK) {
+                    world.dispose();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Traduit les changements de boutons en événements clavier, comme le ferait Gdx.input.
+     */
+    private static void applyButtons(InputManager input, int previous, int current) {
+        applyButton(input, previous, current, InputScript.LEFT, Constants.Keys.MOVE_LEFT);
+        applyButton(input, previous, current, InputScript.RIGHT, Constants.Keys.MOVE_RIGHT);
+        applyButton(input, previous, current, InputScript.JUMP, Constants.Keys.JUMP);
+        applyButton(input, previous, current, InputScript.RUN, Constants.Keys.RUN);
+        applyButton(input, previous, current, InputScript.CROUCH, Constants.Keys.CROUCH);
+    }
+    
+    private static void applyButton(InputManager input, int previous, int current, int button, int keycode) {
+        boolean wasDown = (previous & button) != 0;
+        boolean isDown = (current & button) != 0;
+        if (isDown && !wasDown) {
+            input.keyDown(keycode);
+        } else if (!isDown && wasDown) {
+            input.keyUp(keycode);
+        }
+    }
+    
+    public int getWorkerCount() {
+        return workerCount;
+    }
+    
+    /**
+     * Arrête les workers ; les parties en cours sont interrompues.
+     */
+    @Override
+    public void dispose() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,46 @@
+package com.mariogame.simulation;
+
+/**
+ * Une partie à simuler : un niveau, un script d'entrées et une durée maximale.
+ */
+public class SimulationJob {
+    private final String id;
+    private final String levelName;
+    private final InputScript script;
+    private final int maxTicks;
+    
+    /**
+     * @param id Identifiant libre repris dans le résultat
+     * @param levelName Nom du niveau (fichier maps/&lt;nom&gt;.tmx)
+     * @param script Entrées à rejouer
+     * @param maxTicks Nombre maximal de pas avant d'abandonner la partie
+     */
+    public SimulationJob(String id, String levelName, InputScript script, int maxTicks) {
+        if (levelName == null) {
+            throw new IllegalArgumentException("Level name cannot be null");
+        }
+        if (maxTicks < 1) {
+            throw new IllegalArgumentException("At least one tick is required");
+        }
+        this.id = id;
+        this.levelName = levelName;
+        this.script = script != null ? script : new InputScript();
+        this.maxTicks = maxTicks;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getLevelName() {
+        return levelName;
+    }
+    
+    public InputScript getScript() {
+        return script;
+    }
+    
+    public int getMaxTicks() {
+        return maxTicks;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mariogame.simulation;
+
+/**
+ * Résultat d'une partie simulée.
+ */
+public class SimulationResult {
+    /**
+     * Issue d'une partie.
+     */
+    public enum Outcome {
+        COMPLETED,  // Le joueur a atteint le bord droit du niveau
+        DIED,       // Le joueur est mort ou tombé hors du niveau
+        TIMED_OUT,  // Nombre maximal de ticks atteint
+        FAILED      // Le niveau n'a pas pu être chargé ou la simulation a échoué
+    }
+    
+    private final SimulationJob job;
+    private final Outcome outcome;
+    private final int ticks;
+    private final long elapsedNanos;
+    private final float finalX;
+    private final float finalY;
+    private final int score;
+    private final int coins;
+    private final String error;
+    
+    SimulationResult(SimulationJob job, Outcome outcome, int ticks, long elapsedNanos,
+                     float finalX, float finalY, int score, int coins, String error) {
+        this.job = job;
+        this.outcome = outcome;
+        this.ticks = ticks;
+        this.elapsedNanos = elapsedNanos;
+        this.finalX = finalX;
+        this.finalY = finalY;
+        this.score = score;
+        this.coins = coins;
+        this.error = error;
+    }
+    
+    static SimulationResult failed(SimulationJob job, String error) {
+        return new SimulationResult(job, Outcome.FAILED, 0, 0, 0, 0, 0, 0, error);
+    }
+    
+    /**
+     * Ticks simulés par seconde de temps réel (0 si la partie n'a pas tourné).
+     */
+    public double getTicksPerSecond() {
+        return elapsedNanos > 0 ? ticks * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+    
+    public SimulationJob getJob() {
+        return job;
+    }
+    
+    public Outcome getOutcome() {
+        return outcome;
+    }
+    
+    public int getTicks() {
+        return ticks;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    public float getFinalX() {
+        return finalX;
+    }
+    
+    public float getFinalY() {
+        return finalY;
+    }
+    
+    public int getScore() {
+        return score;
+    }
+    
+    public int getCoins() {
+        return coins;
+    }
+    
+    /**
+     * Message d'erreur si la partie a échoué, sinon null.
+     */
+    public String getError() {
+        return error;
+    }
+    
+    @Override
+    public String toString() {
+        if (outcome == Outcome.FAILED) {
+            return String.format("%s [%s] FAILED: %s", job.getId(), job.getLevelName(), error);
+        }
+        return String.format("%s [%s] %s after %d ticks (%.0f ticks/s), x=%.2f, score=%d, coins=%d",
+            job.getId(), job.getLevelName(), outcome, ticks, getTicksPerSecond(), finalX, score, coins);
+    }
+}
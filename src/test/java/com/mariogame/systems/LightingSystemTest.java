@@ -0,0 +1,151 @@
+package com.mariogame.systems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.graphics.Color;
+import com.mariogame.world.TileOccupancy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LightingSystemTest {
+    
+    private LightingSystem lighting;
+    
+    @BeforeEach
+    void setUp() {
+        lighting = new LightingSystem();
+    }
+    
+    @Test
+    void testAmbientOnly() {
+        lighting.buildLightmap(0, 0, 32, 18);
+        
+        assertEquals(0.3f, lighting.sampleLightmap(5, 5), 1e-5f);
+        assertEquals(0.3f, lighting.sampleLightmap(-100, 100), 1e-5f);
+    }
+    
+    @Test
+    void testSampleMatchesExactValueAtGridNodes() {
+        lighting.addPointLight(10, 9, 6, Color.WHITE, 0.6f);
+        lighting.addShadowCaster(20, 0, 4, 18);
+        lighting.buildLightmap(0, 0, 32, 18);
+        
+        // Cellules de 1x1 : les nœuds sont aux coordonnées entières
+        for (int x = 0; x <= 32; x += 3) {
+            for (int y = 0; y <= 18; y += 3) {
+                assertEquals(lighting.getLightIntensity(x, y), lighting.sampleLightmap(x, y), 1e-5f);
+            }
+        }
+    }
+    
+    @Test
+    void testSampleInterpolatesBetweenNodes() {
+        lighting.addPointLight(10, 9, 6, Color.WHITE, 0.6f);
+        lighting.buildLightmap(0, 0, 32, 18);
+        
+        float left = lighting.sampleLightmap(12, 9);
+        float right = lighting.sampleLightmap(13, 9);
+        float middle = lighting.sampleLightmap(12.5f, 9);
+        
+        assertEquals((left + right) / 2f, middle, 1e-5f);
+    }
+    
+    @Test
+    void testFarLightsAreNotTested() {
+        // Une lumière proche et beaucoup de lumières hors de la vue
+        lighting.addPointLight(2, 2, 2, Color.WHITE, 1f);
+        for (int i = 0; i < 100; i++) {
+            lighting.addPointLight(1000 + i * 10, 1000, 3, Color.WHITE, 1f);
+        }
+        
+        lighting.buildLightmap(0, 0, 32, 18);
+        
+        // Seuls les nœuds du premier bucket testent la lumière proche
+        int nodes = (LightingSystem.LIGHTMAP_COLUMNS + 1) * (LightingSystem.LIGHTMAP_ROWS + 1);
+        assertTrue(lighting.getLightTestsLastBuild() < nodes);
+        assertTrue(lighting.sampleLightmap(2, 2) > 0.3f);
+    }
+    
+    @Test
+    void testDirectionalLightAppliesEverywhere() {
+        lighting.addDirectionalLight(45, Color.WHITE, 0.5f);
+        lighting.buildLightmap(0, 0, 32, 18);
+        
+        assertEquals(0.8f, lighting.sampleLightmap(1, 1), 1e-5f);
+        assertEquals(0.8f, lighting.sampleLightmap(31, 17), 1e-5f);
+    }
+    
+    @Test
+    void testFlickeringLightChangesOverTime() {
+        LightingSystem.Light light = lighting.addPointLight(5, 5, 4, Color.WHITE, 0.5f);
+        light.setFlickering(true);
+        
+        lighting.update(0.1f);
+        lighting.buildLightmap(0, 0, 32, 18);
+        float first = lighting.sampleLightmap(5, 5);
+        
+        lighting.update(0.1f);
+        lighting.buildLightmap(0, 0, 32, 18);
+        float second = lighting.sampleLightmap(5, 5);
+        
+        assertNotEquals(first, second);
+    }
+    
+    @Test
+    void testWithoutLightmapFallsBackToExactValue() {
+        lighting.addPointLight(10, 9, 6, Color.WHITE, 0.6f);
+        
+        assertFalse(lighting.isLightmapReady());
+        assertEquals(lighting.getLightIntensity(11.3f, 8.2f), lighting.sampleLightmap(11.3f, 8.2f));
+    }
+    
+    private static TileOccupancy wallAt(int column) {
+        boolean[] solid = new boolean[32 * 18];
+        for (int y = 0; y < 18; y++) {
+            solid[y * 32 + column] = true;
+        }
+        return TileOccupancy.fromSolidTiles(solid, 32, 18, 1f);
+    }
+    
+    @Test
+    void testSolidTilesBlockLight() {
+        lighting.setOccupancy(wallAt(12));
+        lighting.addPointLight(10.5f, 9.5f, 6, Color.WHITE, 0.6f);
+        
+        assertTrue(lighting.getLightIntensity(9.5f, 9.5f) > 0.3f);
+        // La face du mur tournée vers la lumière est éclairée, l'arrière est dans l'ombre
+        assertTrue(lighting.getLightIntensity(12.5f, 9.5f) > 0.3f);
+        assertEquals(0.3f, lighting.getLightIntensity(13.5f, 9.5f), 1e-5f);
+    }
+    
+    @Test
+    void testVisibilityIsCachedUntilLightMoves() {
+        lighting.setOccupancy(wallAt(12));
+        LightingSystem.Light light = lighting.addPointLight(10.5f, 9.5f, 6, Color.WHITE, 0.6f);
+        
+        lighting.buildLightmap(0, 0, 32, 18);
+        lighting.buildLightmap(0, 0, 32, 18);
+        assertEquals(1, lighting.getVisibilityRebuilds());
+        
+        light.x = 8.5f;
+        lighting.buildLightmap(0, 0, 32, 18);
+        assertEquals(2, lighting.getVisibilityRebuilds());
+    }
+    
+    @Test
+    void testTileChangeInvalidatesOnlyNearbyLights() {
+        TileOccupancy occupancy = wallAt(12);
+        lighting.setOccupancy(occupancy);
+        lighting.addPointLight(10.5f, 9.5f, 6, Color.WHITE, 0.6f);
+        lighting.addPointLight(28.5f, 9.5f, 2, Color.WHITE, 0.6f);
+        lighting.buildLightmap(0, 0, 32, 18);
+        assertEquals(2, lighting.getVisibilityRebuilds());
+        
+        // Brique cassée dans le mur : seule la première lumière est recalculée
+        occupancy.setSolid(12, 9, false);
+        lighting.buildLightmap(0, 0, 32, 18);
+        
+        assertEquals(3, lighting.getVisibilityRebuilds());
+        assertTrue(lighting.getLightIntensity(13.5f, 9.5f) > 0.3f);
+    }
+}
@@ -0,0 +1,61 @@
+package com.mariogame.systems;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Mesure le temps de mise à jour d'une rafale de particules selon le nombre de threads.
+ * À lancer à la main (ce n'est pas un test) : le chemin séquentiel sert de référence.
+ */
+public class ParticleSystemBenchmark {
+    private static final int PARTICLES = 100_000;
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURED_FRAMES = 500;
+    private static final float FRAME = 1f / 60f;
+    
+    public static void main(String[] args) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        double sequential = measure(new ForkJoinPool(1), Integer.MAX_VALUE);
+        System.out.println(String.format("sequential: %.3f ms/update", sequential));
+        
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            double parallel = measure(pool, 0);
+            pool.shutdown();
+            System.out.println(String.format("%2d threads: %.3f ms/update (x%.2f)",
+                threads, parallel, sequential / parallel));
+        }
+    }
+    
+    private static double measure(ForkJoinPool pool, int threshold) {
+        ParticleSystem particles = new ParticleSystem(PARTICLES, pool);
+        particles.setParallelThreshold(threshold);
+        
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            refill(particles);
+            particles.update(FRAME);
+        }
+        
+        long total = 0;
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            refill(particles);
+            long start = System.nanoTime();
+            particles.update(FRAME);
+            total += System.nanoTime() - start;
+        }
+        return total / 1_000_000.0 / MEASURED_FRAMES;
+    }
+    
+    /**
+     * Garde la population constante pour que chaque frame mesure la même charge.
+     */
+    private static void refill(ParticleSystem particles) {
+        MathUtils.random.setSeed(42);
+        int missing = particles.getCapacity() - particles.getActiveParticleCount();
+        if (missing > 0) {
+            particles.createExplosion(0, 5, missing, Color.ORANGE, 8f);
+        }
+    }
+}
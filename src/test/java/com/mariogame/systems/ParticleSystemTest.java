@@ -0,0 +1,110 @@
+package com.mariogame.systems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+class ParticleSystemTest {
+    
+    @Test
+    void testParticlesDieAfterTheirLifetime() {
+        ParticleSystem particles = new ParticleSystem(1000);
+        particles.createExplosion(0, 50, 100, Color.RED, 5f);
+        assertEquals(100, particles.getActiveParticleCount());
+        
+        // Durée de vie maximale d'une explosion : 1 s
+        for (int i = 0; i < 70; i++) {
+            particles.update(1f / 60f);
+        }
+        
+        assertEquals(0, particles.getActiveParticleCount());
+    }
+    
+    @Test
+    void testCapacityIsNeverExceeded() {
+        ParticleSystem particles = new ParticleSystem(50);
+        particles.createExplosion(0, 0, 80, Color.WHITE, 1f);
+        
+        assertEquals(50, particles.getActiveParticleCount());
+    }
+    
+    @Test
+    void testRemovalKeepsSurvivorsPacked() {
+        ParticleSystem particles = new ParticleSystem(100);
+        // Effet de collecte : durée de vie de 1 s, puis saut : 0,8 s
+        particles.createJumpEffect(0, 50);
+        particles.createCollectEffect(0, 50, Color.YELLOW);
+        assertEquals(35, particles.getActiveParticleCount());
+        
+        for (int i = 0; i < 54; i++) {
+            particles.update(1f / 60f);
+        }
+        
+        // Seules les particules de collecte survivent, regroupées en tête des tableaux
+        assertEquals(20, particles.getActiveParticleCount());
+        for (int i = 0; i < particles.getActiveParticleCount(); i++) {
+            assertTrue(particles.getLife(i) > 0);
+        }
+    }
+    
+    @Test
+    void testParticlesBelowTheWorldAreRemoved() {
+        ParticleSystem particles = new ParticleSystem(100);
+        particles.createCollectEffect(0, -9.99f, Color.WHITE);
+        
+        particles.update(0.1f);
+        
+        assertTrue(particles.getActiveParticleCount() < 20);
+        for (int i = 0; i < particles.getActiveParticleCount(); i++) {
+            assertTrue(particles.getY(i) >= -10f);
+        }
+    }
+    
+    @Test
+    void testClearRemovesEverything() {
+        ParticleSystem particles = new ParticleSystem(100);
+        particles.createFireEffect(0, 0, 2f);
+        
+        particles.clear();
+        
+        assertEquals(0, particles.getActiveParticleCount());
+    }
+    
+    private static ParticleSystem burst(ForkJoinPool pool, int threshold) {
+        ParticleSystem particles = new ParticleSystem(60_000, pool);
+        particles.setParallelThreshold(threshold);
+        MathUtils.random.setSeed(1234);
+        particles.createExplosion(0, 5, 50_000, Color.ORANGE, 8f);
+        return particles;
+    }
+    
+    @Test
+    void testParallelUpdateMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParticleSystem sequential = burst(pool, Integer.MAX_VALUE);
+            ParticleSystem parallel = burst(pool, 0);
+            
+            for (int frame = 0; frame < 45; frame++) {
+                sequential.update(1f / 60f);
+                parallel.update(1f / 60f);
+                assertTrue(parallel.isParallelLastUpdate() || parallel.getActiveParticleCount() == 0);
+                assertFalse(sequential.isParallelLastUpdate());
+            }
+            
+            assertTrue(sequential.getActiveParticleCount() > 0);
+            assertEquals(sequential.getActiveParticleCount(), parallel.getActiveParticleCount());
+            for (int i = 0; i < sequential.getActiveParticleCount(); i++) {
+                assertEquals(sequential.getX(i), parallel.getX(i));
+                assertEquals(sequential.getY(i), parallel.getY(i));
+                assertEquals(sequential.getLife(i), parallel.getLife(i));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.mariogame.systems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.mariogame.managers.PhysicsManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PhysicsOptimizerTest {
+
+    private World world;
+    private PhysicsOptimizer optimizer;
+    private final Array<Body> found = new Array<>();
+
+    @BeforeAll
+    static void loadNatives() {
+        Box2D.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        world = new World(new Vector2(0, 0), true);
+        optimizer = new PhysicsOptimizer(world, 100, 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        world.dispose();
+    }
+
+    private Body box(BodyDef.BodyType type, float x, float y, float halfWidth, float halfHeight) {
+        BodyDef def = new BodyDef();
+        def.type = type;
+        def.position.set(x, y);
+        Body body = world.createBody(def);
+
+        PolygonShape shape = new PolygonShape();
+        shape.setAsBox(halfWidth, halfHeight);
+        body.createFixture(shape, 1f);
+        shape.dispose();
+        return body;
+    }
+
+    @Test
+    void testRadiusQueryFindsNearbyBodiesOnly() {
+        Body near = box(BodyDef.BodyType.DynamicBody, 10, 5, 0.5f, 0.5f);
+        box(BodyDef.BodyType.DynamicBody, 40, 5, 0.5f, 0.5f);
+        optimizer.update();
+
+        assertEquals(2, optimizer.getIndexedBodyCount());
+        assertEquals(1, optimizer.getNearbyBodies(11, 5, 1f, found));
+        assertSame(near, found.first());
+    }
+
+    @Test
+    void testLargeBodyIsFoundFarFromItsCenter() {
+        // Sol fusionné : 100 m de large, centre à x = 50
+        Body ground = box(BodyDef.BodyType.StaticBody, 50, 1, 50, 1);
+        optimizer.update();
+
+        assertEquals(1, optimizer.getBodiesInArea(2, 0, 4, 3, found));
+        assertSame(ground, found.first());
+        assertEquals(1, optimizer.getNearbyBodies(95, 2.5f, 1f, found));
+
+        // Rangé dans plusieurs cellules, mais rapporté une seule fois
+        assertEquals(1, optimizer.getBodiesInArea(0, 0, 100, 20, found));
+    }
+
+    @Test
+    void testAreaQueryUsesFixtureBounds() {
+        box(BodyDef.BodyType.DynamicBody, 10, 10, 3, 0.5f);
+        optimizer.update();
+
+        // Le centre est hors de la zone, mais la fixture la chevauche
+        assertEquals(1, optimizer.getBodiesInArea(12, 9, 14, 11, found));
+        assertEquals(0, optimizer.getBodiesInArea(14, 9, 16, 11, found));
+    }
+
+    @Test
+    void testBodiesOutsideTheGridAreClampedToBorderCells() {
+        box(BodyDef.BodyType.DynamicBody, -5, 5, 0.5f, 0.5f);
+        box(BodyDef.BodyType.DynamicBody, 150, 5, 0.5f, 0.5f);
+        optimizer.update();
+
+        assertEquals(2, optimizer.getIndexedBodyCount());
+        assertEquals(1, optimizer.getBodiesInArea(-10, 0, 0, 10, found));
+        assertEquals(1, optimizer.getNearbyBodies(150, 5, 1f, found));
+    }
+
+    @Test
+    void testMovedBodyIsRebucketed() {
+        Body body = box(BodyDef.BodyType.DynamicBody, 5, 5, 0.5f, 0.5f);
+        optimizer.update();
+
+        body.setTransform(30, 5, 0);
+        optimizer.update();
+
+        assertEquals(1, optimizer.getRebucketedLastUpdate());
+        assertEquals(0, optimizer.getNearbyBodies(5, 5, 1f, found));
+        assertEquals(1, optimizer.getNearbyBodies(30, 5, 1f, found));
+    }
+
+    @Test
+    void testMovedStaticBodyIsRebucketed() {
+        Body platform = box(BodyDef.BodyType.StaticBody, 5, 5, 1, 0.25f);
+        optimizer.update();
+
+        // Un corps statique n'est plus parcouru : son déplacement est signalé
+        platform.setTransform(60, 12, 0);
+        optimizer.refresh(platform);
+
+        assertEquals(0, optimizer.getBodiesInArea(3, 4, 7, 6, found));
+        assertEquals(1, optimizer.getBodiesInArea(58, 11, 62, 13, found));
+    }
+
+    @Test
+    void testUnchangedBodiesAreNotRebucketed() {
+        box(BodyDef.BodyType.StaticBody, 50, 1, 50, 1);
+        box(BodyDef.BodyType.DynamicBody, 10, 5, 0.5f, 0.5f);
+        optimizer.update();
+        assertEquals(2, optimizer.getRebucketedLastUpdate());
+
+        optimizer.update();
+        assertEquals(0, optimizer.getRebucketedLastUpdate());
+    }
+
+    @Test
+    void testStaticAndSleepingBodiesAreNotVisited() {
+        Body ground = box(BodyDef.BodyType.StaticBody, 50, 1, 50, 1);
+        Body moving = box(BodyDef.BodyType.DynamicBody, 10, 5, 0.5f, 0.5f);
+        Body sleeping = box(BodyDef.BodyType.DynamicBody, 20, 5, 0.5f, 0.5f);
+        optimizer.add(ground);
+        optimizer.add(moving);
+        optimizer.add(sleeping);
+
+        optimizer.update();
+        assertEquals(0, optimizer.getResyncCount());
+        assertEquals(2, optimizer.getVisitedLastUpdate());
+
+        // Le corps endormi est vu une dernière fois, puis quitte la liste
+        sleeping.setAwake(false);
+        optimizer.update();
+        optimizer.update();
+        assertEquals(1, optimizer.getVisitedLastUpdate());
+        assertEquals(1, optimizer.getAwakeBodyCount());
+
+        // Il reste indexé à sa dernière place
+        assertEquals(3, optimizer.getIndexedBodyCount());
+        assertEquals(1, optimizer.getNearbyBodies(20, 5, 0.1f, found));
+
+        // Réveillé, il est de nouveau suivi
+        sleeping.setAwake(true);
+        sleeping.setTransform(30, 5, 0);
+        optimizer.wake(sleeping);
+        optimizer.wake(ground);
+        optimizer.update();
+        assertEquals(2, optimizer.getVisitedLastUpdate());
+        assertEquals(1, optimizer.getNearbyBodies(30, 5, 0.1f, found));
+    }
+
+    @Test
+    void testBodiesCreatedOutsideTheOptimizerAreFound() {
+        box(BodyDef.BodyType.DynamicBody, 10, 5, 0.5f, 0.5f);
+        optimizer.update();
+
+        assertEquals(1, optimizer.getResyncCount());
+        assertEquals(1, optimizer.getIndexedBodyCount());
+
+        // Tant que le monde et l'index concordent, pas de nouvelle resynchronisation
+        optimizer.update();
+        assertEquals(1, optimizer.getResyncCount());
+    }
+
+    @Test
+    void testContactWakesSleepingBody() {
+        PhysicsManager physics = new PhysicsManager(world);
+        physics.setOptimizer(optimizer);
+        Body target = box(BodyDef.BodyType.DynamicBody, 10, 5, 0.5f, 0.5f);
+        Body bullet = box(BodyDef.BodyType.DynamicBody, 7, 5, 0.5f, 0.5f);
+        optimizer.add(target);
+        optimizer.add(bullet);
+        target.setAwake(false);
+        bullet.setLinearVelocity(20, 0);
+
+        physics.update(physics.getTimeStep() * 1.5f);
+        assertEquals(1, optimizer.getAwakeBodyCount());
+
+        // Le choc réveille la cible dans Box2D, et l'index la suit de nouveau
+        for (int i = 0; i < 30; i++) {
+            physics.update(physics.getTimeStep() * 1.5f);
+        }
+        Vector2 position = target.getPosition();
+        assertTrue(position.x > 11);
+        assertEquals(1, optimizer.getBodiesInArea(position.x + 0.3f, 4.9f, position.x + 0.4f, 5.1f, found));
+        assertSame(target, found.first());
+        physics.dispose();
+    }
+
+    @Test
+    void testRemovedBodyLeavesNoStaleCells() {
+        Body body = box(BodyDef.BodyType.DynamicBody, 10, 5, 0.5f, 0.5f);
+        optimizer.update();
+
+        optimizer.remove(body);
+        world.destroyBody(body);
+
+        // Box2D réutilise l'objet Body détruit pour le corps suivant
+        Body reused = box(BodyDef.BodyType.DynamicBody, 70, 15, 0.5f, 0.5f);
+        optimizer.update();
+
+        assertEquals(1, optimizer.getIndexedBodyCount());
+        assertEquals(0, optimizer.getNearbyBodies(10, 5, 1f, found));
+        assertEquals(1, optimizer.getNearbyBodies(70, 15, 1f, found));
+        assertSame(reused, found.first());
+    }
+
+    @Test
+    void testDestroyedBodiesAreEvicted() {
+        Body body = box(BodyDef.BodyType.DynamicBody, 10, 5, 0.5f, 0.5f);
+        optimizer.update();
+
+        world.destroyBody(body);
+        optimizer.update();
+
+        assertEquals(0, optimizer.getIndexedBodyCount());
+        assertEquals(0, optimizer.getNearbyBodies(10, 5, 1f, found));
+    }
+
+    @Test
+    void testPhysicsStepUpdatesIndex() {
+        PhysicsManager physics = new PhysicsManager(world);
+        physics.setOptimizer(optimizer);
+        Body body = box(BodyDef.BodyType.DynamicBody, 10, 5, 0.5f, 0.5f);
+        body.setLinearVelocity(60, 0);
+
+        physics.update(physics.getTimeStep() * 1.5f);
+
+        assertEquals(1, physics.getStepsLastFrame());
+        assertEquals(1, optimizer.getIndexedBodyCount());
+        assertEquals(1, optimizer.getNearbyBodies(body.getPosition().x, 5, 0.1f, found));
+        assertEquals(0, optimizer.getNearbyBodies(10, 5, 0.1f, found));
+
+        // Un corps détruit par commande quitte l'index avec lui
+        physics.removeBody(body);
+        physics.update(physics.getTimeStep() * 1.5f);
+        assertEquals(0, optimizer.getIndexedBodyCount());
+        physics.dispose();
+    }
+}
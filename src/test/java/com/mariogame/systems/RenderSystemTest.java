@@ -0,0 +1,103 @@
+package com.mariogame.systems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.mariogame.utils.Constants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RenderSystemTest {
+
+    private static final float PPM = Constants.WorldConfig.PPM;
+
+    private RenderSystem renderSystem;
+    private OrthographicCamera camera;
+    private final TextureRegion region = new TextureRegion();
+
+    @BeforeEach
+    void setUp() {
+        // Niveau de 64 x 16 m, cellules de 2 m ; le batch n'est pas utilisé par le culling
+        renderSystem = new RenderSystem(null, 64, 16, 2);
+
+        // Vue de 16 x 9 m, en pixels comme la caméra de jeu
+        camera = new OrthographicCamera(16 * PPM, 9 * PPM);
+        lookAt(8, 4.5f);
+    }
+
+    private void lookAt(float x, float y) {
+        camera.position.set(x * PPM, y * PPM, 0);
+        camera.update();
+    }
+
+    private void add(float x, float y, float width, float height) {
+        add(x, y, width, height, 0);
+    }
+
+    private void add(float x, float y, float width, float height, float rotation) {
+        renderSystem.addRenderable(region, x, y, width, height, rotation, 0, false, false);
+    }
+
+    @Test
+    void testEntitiesOutsideTheCameraAreCulled() {
+        add(4, 2, 1, 1);     // visible
+        add(30, 2, 1, 1);    // à droite
+        add(4, 12, 1, 1);    // au-dessus
+        add(-6, 2, 1, 1);    // hors du niveau, à gauche
+
+        renderSystem.prepareRender(camera);
+
+        assertEquals(1, renderSystem.getRenderedObjects());
+        assertEquals(3, renderSystem.getCulledObjects());
+    }
+
+    @Test
+    void testEntitiesStraddlingTheEdgeAreKept() {
+        add(15.5f, 2, 1, 1);   // bord droit
+        add(-0.5f, 2, 1, 1);   // bord gauche, coin hors du niveau
+        add(4, 8.5f, 1, 1);    // bord haut
+        add(17.1f, 2, 1, 1);   // juste à droite : culled
+
+        renderSystem.prepareRender(camera);
+
+        assertEquals(3, renderSystem.getRenderedObjects());
+        assertEquals(1, renderSystem.getCulledObjects());
+    }
+
+    @Test
+    void testLargeEntityAnchoredInAnInvisibleCellIsKept() {
+        lookAt(24, 4.5f); // vue de 16 à 32 m
+
+        // Coin inférieur gauche à 10 m, deux cellules avant la vue, mais 8 m de large
+        add(10, 2, 8, 1);
+        add(10, 2, 1, 1);
+
+        renderSystem.prepareRender(camera);
+
+        assertEquals(1, renderSystem.getRenderedObjects());
+    }
+
+    @Test
+    void testRotatedEntityUsesItsDiagonal() {
+        // 0.2 x 4 m à 0.3 m à droite de la vue : seule sa rotation la fait entrer
+        add(16.3f, 4, 0.2f, 4, 45);
+        add(16.3f, 4, 0.2f, 4);
+
+        renderSystem.prepareRender(camera);
+
+        assertEquals(1, renderSystem.getRenderedObjects());
+    }
+
+    @Test
+    void testOnlyCellsUnderTheCameraAreVisited() {
+        for (int x = 0; x < 64; x += 2) {
+            add(x + 0.5f, 2, 1, 1);
+        }
+
+        renderSystem.prepareRender(camera);
+
+        assertEquals(8, renderSystem.getRenderedObjects());
+        assertTrue(renderSystem.getTestedObjects() < 32);
+    }
+}
@@ -0,0 +1,93 @@
+package com.mariogame.systems;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WeatherFieldTest {
+    
+    private WeatherField rain;
+    
+    @BeforeEach
+    void setUp() {
+        rain = WeatherField.rain();
+    }
+    
+    @Test
+    void testPositionIsPureFunctionOfTime() {
+        float[] first = new float[2];
+        float[] second = new float[2];
+        
+        // Aucun état par goutte : avancer par petits pas ou d'un coup donne la même position
+        for (int i = 0; i < 120; i++) {
+            rain.update(1f / 60f);
+        }
+        rain.getDropPosition(7, 3, -2, rain.getTime(), first);
+        rain.getDropPosition(7, 3, -2, 120 * (1.0 / 60.0), second);
+        
+        assertEquals(second[0], first[0], 1e-3f);
+        assertEquals(second[1], first[1], 1e-3f);
+    }
+    
+    @Test
+    void testDropsStayInTheirCellVertically() {
+        float[] position = new float[2];
+        float cell = rain.getCellSize();
+        
+        for (int i = 0; i < 200; i++) {
+            rain.getDropPosition(i, 5, 4, i * 0.37, position);
+            assertTrue(position[1] >= 4 * cell && position[1] < 5 * cell);
+        }
+    }
+    
+    @Test
+    void testNeighbouringDropsDiffer() {
+        float[] a = new float[2];
+        float[] b = new float[2];
+        rain.getDropPosition(0, 0, 0, 0, a);
+        rain.getDropPosition(1, 0, 0, 0, b);
+        
+        assertNotEquals(a[0], b[0]);
+    }
+    
+    @Test
+    void testIntensityTweensTowardsTarget() {
+        rain.setTargetIntensity(1f, 2f);
+        rain.update(1f);
+        assertEquals(0.5f, rain.getIntensity(), 1e-5f);
+        
+        rain.update(5f);
+        assertEquals(1f, rain.getIntensity(), 1e-5f);
+        
+        rain.setTargetIntensity(0f, 0f);
+        assertEquals(0f, rain.getIntensity(), 1e-5f);
+    }
+    
+    @Test
+    void testRenderSubmitsDenseRainInFewCalls() {
+        SpriteBatch batch = mock(SpriteBatch.class);
+        TextureRegion region = mock(TextureRegion.class);
+        when(region.getTexture()).thenReturn(mock(Texture.class));
+        
+        rain.setTargetIntensity(1f, 0f);
+        rain.render(batch, region, 0, 0, 1280, 720);
+        
+        assertTrue(rain.getDropsLastRender() >= 10_000);
+        assertEquals(rain.getSubmitsLastRender(), (rain.getDropsLastRender() + 2047) / 2048);
+        verify(batch, times(rain.getSubmitsLastRender())).draw(any(Texture.class), any(float[].class), eq(0), anyInt());
+    }
+    
+    @Test
+    void testNothingIsDrawnWithoutIntensity() {
+        SpriteBatch batch = mock(SpriteBatch.class);
+        rain.render(batch, mock(TextureRegion.class), 0, 0, 1280, 720);
+        
+        assertEquals(0, rain.getDropsLastRender());
+        verifyNoInteractions(batch);
+    }
+}
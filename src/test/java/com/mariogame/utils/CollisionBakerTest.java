@@ -0,0 +1,89 @@
+package com.mariogame.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.jupiter.api.Test;
+
+class CollisionBakerTest {
+    
+    private static boolean[] grid(String... rows) {
+        // La première chaîne est la rangée du haut, comme dans un éditeur de niveau
+        int width = rows[0].length();
+        int height = rows.length;
+        boolean[] solid = new boolean[width * height];
+        for (int r = 0; r < height; r++) {
+            int y = height - r - 1;
+            for (int x = 0; x < width; x++) {
+                solid[y * width + x] = rows[r].charAt(x) == '#';
+            }
+        }
+        return solid;
+    }
+    
+    @Test
+    void testEmptyGrid() {
+        IntArray rects = new IntArray();
+        assertEquals(0, CollisionBaker.bake(grid("....", "...."), 4, 2, rects));
+        assertEquals(0, rects.size);
+    }
+    
+    @Test
+    void testFloorBecomesSingleRectangle() {
+        IntArray rects = new IntArray();
+        boolean[] solid = grid(
+            "..........",
+            "##########",
+            "##########");
+        
+        assertEquals(1, CollisionBaker.bake(solid, 10, 3, rects));
+        assertArrayEquals(new int[]{0, 0, 10, 2}, rects.toArray());
+    }
+    
+    @Test
+    void testGapsSplitRuns() {
+        IntArray rects = new IntArray();
+        boolean[] solid = grid(
+            "...##.....",
+            "####..####");
+        
+        assertEquals(3, CollisionBaker.bake(solid, 10, 2, rects));
+        assertArrayEquals(new int[]{
+            0, 0, 4, 1,
+            6, 0, 4, 1,
+            3, 1, 2, 1
+        }, rects.toArray());
+    }
+    
+    @Test
+    void testRectanglesCoverEveryTileExactlyOnce() {
+        int width = 200;
+        int height = 15;
+        boolean[] solid = new boolean[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                // Sol continu, plateformes et quelques trous
+                solid[y * width + x] = y < 2 && x % 37 != 0 || (y == 6 && x % 20 < 5) || (x % 50 == 10 && y < 5);
+            }
+        }
+        
+        IntArray rects = new IntArray();
+        int count = CollisionBaker.bake(solid, width, height, rects);
+        
+        int[] coverage = new int[width * height];
+        for (int i = 0; i < rects.size; i += 4) {
+            for (int y = rects.get(i + 1); y < rects.get(i + 1) + rects.get(i + 3); y++) {
+                for (int x = rects.get(i); x < rects.get(i) + rects.get(i + 2); x++) {
+                    coverage[y * width + x]++;
+                }
+            }
+        }
+        
+        int solidCount = 0;
+        for (int i = 0; i < solid.length; i++) {
+            assertEquals(solid[i] ? 1 : 0, coverage[i], "tile " + i);
+            if (solid[i]) solidCount++;
+        }
+        assertTrue(count * 10 < solidCount, "expected an order of magnitude fewer fixtures than tiles");
+    }
+}
@@ -0,0 +1,270 @@
+package com.mariogame.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.Deflater;
+
+class LevelCompilerTest {
+    
+    private static final int FLIPPED = 0x80000000 | 3;
+    
+    // Rangée du haut en premier, comme dans le TMX
+    private static final int[] GROUND = {
+        0, 0, 0, 0,
+        0, 0, 2, FLIPPED,
+        1, 1, 1, 1
+    };
+    
+    private static String map(String groundData) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<map version=\"1.9\" orientation=\"orthogonal\" width=\"4\" height=\"3\" tilewidth=\"16\" tileheight=\"16\">\n"
+            + " <tileset firstgid=\"1\" name=\"tiles\" tilewidth=\"16\" tileheight=\"16\" columns=\"8\">\n"
+            + "  <image source=\"../textures/tiles.png\" width=\"128\" height=\"64\"/>\n"
+            + " </tileset>\n"
+            + " <layer name=\"background\" width=\"4\" height=\"3\">\n"
+            + "  <data encoding=\"csv\">5,5,5,5,\n0,0,0,0,\n0,0,0,0</data>\n"
+            + " </layer>\n"
+            + " <layer name=\"ground\" width=\"4\" height=\"3\">\n"
+            + groundData
+            + " </layer>\n"
+            + " <objectgroup name=\"objects\">\n"
+            + "  <object id=\"1\" x=\"16\" y=\"8\" width=\"16\" height=\"16\">\n"
+            + "   <properties><property name=\"player_start\" value=\"true\"/></properties>\n"
+            + "  </object>\n"
+            + "  <object id=\"2\" x=\"32\" y=\"16\" width=\"16\" height=\"16\">\n"
+            + "   <properties><property name=\"enemies\" value=\"true\"/><property name=\"type\" value=\"goomba\"/></properties>\n"
+            + "  </object>\n"
+            + "  <object id=\"3\" x=\"48\" y=\"16\" width=\"16\" height=\"16\">\n"
+            + "   <properties><property name=\"enemies\" value=\"true\"/><property name=\"type\" value=\"goomba\"/></properties>\n"
+            + "  </object>\n"
+            + "  <object id=\"4\" type=\"coin\" x=\"8\" y=\"4\">\n"
+            + "   <properties><property name=\"items\" value=\"true\"/></properties>\n"
+            + "   <point/>\n"
+            + "  </object>\n"
+            + " </objectgroup>\n"
+            + "</map>\n";
+    }
+    
+    private static String csv(int[] tiles) {
+        StringBuilder data = new StringBuilder("  <data encoding=\"csv\">");
+        for (int i = 0; i < tiles.length; i++) {
+            if (i > 0) data.append(',');
+            data.append(tiles[i] & 0xFFFFFFFFL);
+        }
+        return data.append("</data>\n").toString();
+    }
+    
+    private static String base64Zlib(int[] tiles) {
+        ByteBuffer raw = ByteBuffer.allocate(tiles.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int gid : tiles) raw.putInt(gid);
+        
+        Deflater deflater = new Deflater();
+        deflater.setInput(raw.array());
+        deflater.finish();
+        byte[] buffer = new byte[1024];
+        int length = deflater.deflate(buffer);
+        deflater.end();
+        
+        byte[] compressed = new byte[length];
+        System.arraycopy(buffer, 0, compressed, 0, length);
+        return "  <data encoding=\"base64\" compression=\"zlib\">\n   "
+            + Base64.getEncoder().encodeToString(compressed) + "\n  </data>\n";
+    }
+    
+    private static CompiledLevel compile(String xml) throws IOException {
+        return new CompiledLevel(ByteBuffer.wrap(LevelCompiler.compile(xml, new File("."))));
+    }
+    
+    @Test
+    void testTilesKeepTmxRowsAndFlipBits() throws IOException {
+        CompiledLevel level = compile(map(csv(GROUND)));
+        
+        assertEquals(4, level.getWidth());
+        assertEquals(3, level.getHeight());
+        assertEquals(16, level.getTileWidth());
+        assertEquals(2, level.getBytesPerTile());
+        assertTrue(level.hasLayer(CompiledLevel.LAYER_BACKGROUND));
+        assertTrue(level.hasLayer(CompiledLevel.LAYER_GROUND));
+        assertFalse(level.hasLayer(CompiledLevel.LAYER_FOREGROUND));
+        
+        for (int row = 0; row < 3; row++) {
+            for (int x = 0; x < 4; x++) {
+                assertEquals(GROUND[row * 4 + x], level.getGid(CompiledLevel.LAYER_GROUND, x, row));
+            }
+        }
+        assertEquals(5, level.getGid(CompiledLevel.LAYER_BACKGROUND, 2, 0));
+        assertEquals(0, level.getGid(CompiledLevel.LAYER_FOREGROUND, 0, 0));
+        assertEquals(1, level.getTilesetCount());
+    }
+    
+    @Test
+    void testCollisionRectsArePreMerged() throws IOException {
+        CompiledLevel level = compile(map(csv(GROUND)));
+        
+        // Même grille et mêmes rectangles que MapLoader au chargement d'un TMX :
+        // rangée 0 en bas, alors que GROUND commence par la rangée du haut
+        boolean[] expected = new boolean[GROUND.length];
+        for (int row = 0; row < 3; row++) {
+            for (int x = 0; x < 4; x++) {
+                expected[(2 - row) * 4 + x] = GROUND[row * 4 + x] != 0;
+            }
+        }
+        assertArrayEquals(expected, level.buildSolidMask());
+        
+        IntArray baked = new IntArray();
+        CollisionBaker.bake(expected, 4, 3, baked);
+        IntArray rects = new IntArray();
+        assertEquals(baked.size / 4, level.getCollisionRects(rects));
+        assertArrayEquals(baked.toArray(), rects.toArray());
+        
+        // Le sol plein, dernière rangée du TMX, est en bas du niveau
+        assertEquals(0, rects.get(0));
+        assertEquals(0, rects.get(1));
+        assertEquals(4, rects.get(2));
+        assertEquals(1, rects.get(3));
+    }
+    
+    @Test
+    void testSpawnTablesByGroupAndType() throws IOException {
+        CompiledLevel level = compile(map(csv(GROUND)));
+        
+        Array<Vector2> goombas = new Array<>();
+        assertEquals(2, level.getSpawns("enemies", "goomba", 0.5f, goombas));
+        assertEquals(20f, goombas.get(0).x, 1e-4f);
+        assertEquals(12f, goombas.get(0).y, 1e-4f);
+        assertEquals(28f, goombas.get(1).x, 1e-4f);
+        
+        // Le type peut venir de l'attribut de l'objet ; les points ne sont pas recentrés
+        Array<Vector2> coins = new Array<>();
+        assertEquals(1, level.getSpawns("items", "coin", 1f, coins));
+        assertEquals(8f, coins.get(0).x, 1e-4f);
+        assertEquals(4f, coins.get(0).y, 1e-4f);
+        
+        assertEquals(0, level.getSpawns("items", "mushroom", 1f, new Array<>()));
+        
+        Vector2 start = level.getLastSpawn("player_start", 1f);
+        assertNotNull(start);
+        assertEquals(24f, start.x, 1e-4f);
+        assertEquals(16f, start.y, 1e-4f);
+        assertNull(level.getLastSpawn("boss", 1f));
+    }
+    
+    @Test
+    void testSpawnsMatchMapLoaderOnTmx() throws IOException {
+        // Sans tileset : TmxMapLoader n'a aucune texture à charger
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<map version=\"1.9\" orientation=\"orthogonal\" width=\"4\" height=\"3\" tilewidth=\"16\" tileheight=\"16\">\n"
+            + " <layer name=\"ground\" width=\"4\" height=\"3\">\n"
+            + "  <data encoding=\"csv\">0,0,0,0,\n0,0,0,0,\n1,1,1,1</data>\n"
+            + " </layer>\n"
+            + " <objectgroup name=\"objects\">\n"
+            + "  <object id=\"1\" x=\"16\" y=\"8\" width=\"16\" height=\"16\">\n"
+            + "   <properties><property name=\"player_start\" value=\"true\"/></properties>\n"
+            + "  </object>\n"
+            + "  <object id=\"2\" x=\"32\" y=\"16\" width=\"16\" height=\"12\">\n"
+            + "   <properties><property name=\"enemies\" value=\"true\"/><property name=\"type\" value=\"goomba\"/></properties>\n"
+            + "  </object>\n"
+            + "  <object id=\"3\" type=\"goomba\" x=\"40\" y=\"4\" width=\"8\" height=\"8\">\n"
+            + "   <properties><property name=\"enemies\" value=\"true\"/></properties>\n"
+            + "   <ellipse/>\n"
+            + "  </object>\n"
+            + "  <object id=\"4\" type=\"coin\" x=\"8\" y=\"4\">\n"
+            + "   <properties><property name=\"items\" value=\"true\"/></properties>\n"
+            + "   <point/>\n"
+            + "  </object>\n"
+            + "  <object id=\"5\" type=\"coin\" x=\"20\" y=\"30\">\n"
+            + "   <properties><property name=\"items\" value=\"true\"/></properties>\n"
+            + "   <polygon points=\"0,0 16,0 16,-16\"/>\n"
+            + "  </object>\n"
+            + " </objectgroup>\n"
+            + "</map>\n";
+        File file = File.createTempFile("level", ".tmx");
+        file.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(xml.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        TiledMap map = new TmxMapLoader(fileName -> new FileHandle(file)).load(file.getName());
+        MapLoader fromTmx = new MapLoader(null, map);
+        MapLoader fromCompiled = new MapLoader(null, map, compile(xml));
+        
+        String[][] spawns = {{"player_start", ""}, {"enemies", "goomba"}, {"items", "coin"}};
+        for (String[] spawn : spawns) {
+            Array<Vector2> expected = fromTmx.getObjectPositions(spawn[0], spawn[1]);
+            Array<Vector2> actual = fromCompiled.getObjectPositions(spawn[0], spawn[1]);
+            
+            assertTrue(expected.size > 0);
+            assertEquals(expected.size, actual.size);
+            for (int i = 0; i < expected.size; i++) {
+                assertEquals(expected.get(i).x, actual.get(i).x, 1e-5f, spawn[0]);
+                assertEquals(expected.get(i).y, actual.get(i).y, 1e-5f, spawn[0]);
+            }
+        }
+        map.dispose();
+    }
+    
+    @Test
+    void testEncodingsProduceIdenticalLevels() throws IOException {
+        byte[] fromCsv = LevelCompiler.compile(map(csv(GROUND)), new File("."));
+        byte[] fromBase64 = LevelCompiler.compile(map(base64Zlib(GROUND)), new File("."));
+        
+        assertArrayEquals(fromCsv, fromBase64);
+    }
+    
+    @Test
+    void testLargeTileIdsUseWideTiles() throws IOException {
+        int[] tiles = GROUND.clone();
+        tiles[0] = 9000 | CompiledLevel.FLIP_VERTICAL;
+        CompiledLevel level = compile(map(csv(tiles)));
+        
+        assertEquals(4, level.getBytesPerTile());
+        assertEquals(tiles[0], level.getGid(CompiledLevel.LAYER_GROUND, 0, 0));
+        assertEquals(FLIPPED, level.getGid(CompiledLevel.LAYER_GROUND, 3, 1));
+    }
+    
+    @Test
+    void testMappedFileMatchesCompiledBytes() throws IOException {
+        byte[] bytes = LevelCompiler.compile(map(csv(GROUND)), new File("."));
+        File file = File.createTempFile("level", LevelCompiler.EXTENSION);
+        file.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(bytes);
+        }
+        
+        CompiledLevel level = CompiledLevel.open(file);
+        
+        assertEquals(bytes.length, level.getSizeBytes());
+        assertEquals(FLIPPED, level.getGid(CompiledLevel.LAYER_GROUND, 3, 1));
+        assertEquals(2, level.getSpawns("enemies", "goomba", 1f, new Array<>()));
+    }
+    
+    @Test
+    void testCorruptDataIsRejected() throws IOException {
+        byte[] bytes = LevelCompiler.compile(map(csv(GROUND)), new File("."));
+        
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        assertThrows(GdxRuntimeException.class, () -> new CompiledLevel(ByteBuffer.wrap(truncated)));
+        
+        byte[] wrongMagic = bytes.clone();
+        wrongMagic[0] = 0;
+        assertThrows(GdxRuntimeException.class, () -> new CompiledLevel(ByteBuffer.wrap(wrongMagic)));
+    }
+}
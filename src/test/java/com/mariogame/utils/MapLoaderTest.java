@@ -0,0 +1,96 @@
+package com.mariogame.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.World;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MapLoaderTest {
+
+    private static final int TILE = 16;
+    private static final float TILE_METERS = TILE / Constants.WorldConfig.PPM;
+
+    private Application previousApp;
+    private World world;
+
+    @BeforeAll
+    static void loadNatives() {
+        Box2D.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        previousApp = Gdx.app;
+        Gdx.app = mock(Application.class);
+        world = new World(new Vector2(0, Constants.WorldConfig.GRAVITY), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        world.dispose();
+        Gdx.app = previousApp;
+    }
+
+    /**
+     * Carte construite comme par TmxMapLoader : getCell(x, 0) est la rangée du bas.
+     */
+    public static TiledMap map(int width, int height, int[][] solidCells) {
+        TiledMap map = new TiledMap();
+        MapProperties properties = map.getProperties();
+        properties.put("width", width);
+        properties.put("height", height);
+        properties.put("tilewidth", TILE);
+        properties.put("tileheight", TILE);
+
+        TiledMapTileLayer ground = new TiledMapTileLayer(width, height, TILE, TILE);
+        ground.setName("ground");
+        Cell cell = new Cell();
+        cell.setTile(new StaticTiledMapTile(new TextureRegion()));
+        for (int[] solid : solidCells) {
+            ground.setCell(solid[0], solid[1], cell);
+        }
+        map.getLayers().add(ground);
+        return map;
+    }
+
+    private static boolean isGroundAt(MapLoader loader, float tileX, float tileY) {
+        for (Fixture fixture : loader.getGroundBody().getFixtureList()) {
+            if (fixture.testPoint(tileX * TILE_METERS, tileY * TILE_METERS)) return true;
+        }
+        return false;
+    }
+
+    @Test
+    void testCollisionRowsAreNotMirrored() {
+        // Sol sur trois tuiles en bas à gauche, une tuile seule en haut à droite
+        MapLoader loader = new MapLoader(world, map(4, 3, new int[][]{{0, 0}, {1, 0}, {2, 0}, {3, 2}}));
+        loader.loadCollisionLayers();
+
+        assertEquals(2, loader.getGroundBody().getFixtureList().size);
+        assertTrue(isGroundAt(loader, 3.5f, 2.5f));
+        assertFalse(isGroundAt(loader, 3.5f, 0.5f));
+        assertTrue(isGroundAt(loader, 1.5f, 0.5f));
+        assertFalse(isGroundAt(loader, 1.5f, 2.5f));
+
+        // Le masque suit la même convention, rangée 0 en bas
+        boolean[] solid = loader.getSolidTiles();
+        assertTrue(solid[2 * 4 + 3]);
+        assertFalse(solid[3]);
+        assertTrue(solid[0]);
+    }
+}
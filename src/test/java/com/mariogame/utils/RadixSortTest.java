@@ -0,0 +1,87 @@
+package com.mariogame.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RadixSortTest {
+    
+    private RadixSort radixSort;
+    
+    @BeforeEach
+    void setUp() {
+        radixSort = new RadixSort();
+    }
+    
+    @Test
+    void testMatchesUnsignedOrder() {
+        Random random = new Random(42);
+        long[] keys = new long[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        
+        Long[] expected = new Long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            expected[i] = keys[i];
+        }
+        Arrays.sort(expected, Long::compareUnsigned);
+        
+        radixSort.sort(keys, keys.length);
+        
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals((long) expected[i], keys[i]);
+        }
+    }
+    
+    @Test
+    void testSortsOnlyTheGivenPrefix() {
+        long[] keys = {3, 1, 2, 0, -1};
+        
+        radixSort.sort(keys, 3);
+        
+        assertEquals(1, keys[0]);
+        assertEquals(2, keys[1]);
+        assertEquals(3, keys[2]);
+        assertEquals(0, keys[3]);
+        assertEquals(-1, keys[4]);
+    }
+    
+    @Test
+    void testSkipsConstantBytes() {
+        // Seul l'octet de poids fort varie
+        long[] keys = {3L << 56, 1L << 56, 2L << 56};
+        
+        radixSort.sort(keys, keys.length);
+        
+        assertEquals(1, radixSort.getPassesLastSort());
+        assertEquals(1L << 56, keys[0]);
+        assertEquals(3L << 56, keys[2]);
+    }
+    
+    @Test
+    void testEqualKeysNeedNoPass() {
+        long[] keys = {7, 7, 7};
+        
+        radixSort.sort(keys, keys.length);
+        
+        assertEquals(0, radixSort.getPassesLastSort());
+        assertEquals(7, keys[1]);
+    }
+    
+    @Test
+    void testSortsAcrossSeveralBytes() {
+        long[] keys = {0x0201, 0x0102, 0x0103};
+        
+        radixSort.sort(keys, keys.length);
+        
+        assertEquals(2, radixSort.getPassesLastSort());
+        assertEquals(0x0102, keys[0]);
+        assertEquals(0x0103, keys[1]);
+        assertEquals(0x0201, keys[2]);
+    }
+}
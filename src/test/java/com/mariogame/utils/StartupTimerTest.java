@@ -0,0 +1,55 @@
+package com.mariogame.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StartupTimerTest {
+    
+    private StartupTimer timer;
+    
+    @BeforeEach
+    void setUp() {
+        Gdx.app = mock(Application.class);
+        timer = new StartupTimer(1_000);
+    }
+    
+    @Test
+    void testPhasesLastSinceThePreviousMark() {
+        timer.mark("managers", 3_000);
+        timer.mark("screen LOADING", 4_000);
+        timer.mark(StartupTimer.FIRST_FRAME, 9_000);
+        
+        assertEquals(2_000, timer.getPhaseNanos("managers"));
+        assertEquals(5_000, timer.getPhaseNanos(StartupTimer.FIRST_FRAME));
+        assertEquals(8_000, timer.getElapsedNanos(StartupTimer.FIRST_FRAME));
+        assertEquals(8_000, timer.getTotalNanos());
+        assertEquals(-1, timer.getPhaseNanos("menu"));
+    }
+    
+    @Test
+    void testPhaseIsMarkedOnce() {
+        timer.mark(StartupTimer.FIRST_FRAME, 2_000);
+        timer.mark(StartupTimer.FIRST_FRAME, 5_000);
+        
+        assertTrue(timer.isMarked(StartupTimer.FIRST_FRAME));
+        assertEquals(1_000, timer.getElapsedNanos(StartupTimer.FIRST_FRAME));
+    }
+    
+    @Test
+    void testFinishLogsOnceAndStopsMarking() {
+        timer.mark("managers", 2_000);
+        timer.finish();
+        timer.finish();
+        timer.mark("late", 3_000);
+        
+        assertTrue(timer.isFinished());
+        assertFalse(timer.isMarked("late"));
+        verify(Gdx.app, times(2)).log(eq("StartupTimer"), anyString());
+    }
+}
@@ -0,0 +1,233 @@
+package com.mariogame.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TileChunkCacheTest {
+    
+    private static final int TILE = 16;
+    
+    /**
+     * Sink qui enregistre les blocs au lieu de les envoyer au GPU.
+     */
+    private static class RecordingSink implements TileChunkCache.ChunkSink {
+        final IntArray tilesPerChunk = new IntArray();
+        final IntArray drawn = new IntArray();
+        final Matrix4 projection = new Matrix4();
+        float[] lastVertices;
+        int current;
+        int beginCalls;
+        
+        @Override
+        public void beginChunk() {
+            current = 0;
+        }
+        
+        @Override
+        public void add(Texture texture, float[] vertices, int offset, int length) {
+            assertEquals(20, length);
+            lastVertices = vertices.clone();
+            current++;
+        }
+        
+        @Override
+        public int endChunk() {
+            tilesPerChunk.add(current);
+            return tilesPerChunk.size - 1;
+        }
+        
+        @Override
+        public void begin(Matrix4 projection) {
+            this.projection.set(projection);
+            beginCalls++;
+        }
+        
+        @Override
+        public void draw(int chunk) {
+            drawn.add(chunk);
+        }
+        
+        @Override
+        public void end() {
+        }
+        
+        @Override
+        public void dispose() {
+        }
+    }
+    
+    private RecordingSink sink;
+    private Cell cell;
+    
+    @BeforeEach
+    void setUp() {
+        sink = new RecordingSink();
+        
+        Texture texture = mock(Texture.class);
+        when(texture.getWidth()).thenReturn(64);
+        when(texture.getHeight()).thenReturn(64);
+        cell = new Cell();
+        cell.setTile(new StaticTiledMapTile(new TextureRegion(texture, 0, 0, TILE, TILE)));
+    }
+    
+    private TiledMapTileLayer layer(int width, int height) {
+        return new TiledMapTileLayer(width, height, TILE, TILE);
+    }
+    
+    private static OrthographicCamera camera(float x, float y, float width, float height) {
+        OrthographicCamera camera = new OrthographicCamera(width, height);
+        camera.position.set(x, y, 0);
+        camera.update();
+        return camera;
+    }
+    
+    @Test
+    void testOnlyNonEmptyChunksAreBuilt() {
+        // 40x20 tuiles en blocs de 16 : 3x2 blocs, dont deux occupés
+        TiledMapTileLayer layer = layer(40, 20);
+        for (int x = 0; x < 40; x++) {
+            layer.setCell(x, 0, cell);
+        }
+        
+        TileChunkCache cache = new TileChunkCache(layer, sink, 1f, 16);
+        cache.build();
+        
+        assertEquals(3, cache.getChunkCountX());
+        assertEquals(2, cache.getChunkCountY());
+        assertEquals(3, cache.getBuiltChunks());
+        assertEquals(40, cache.getTileCount());
+        assertEquals(16, sink.tilesPerChunk.get(0));
+        assertEquals(8, sink.tilesPerChunk.get(2));
+        assertEquals(40L * 20 * Float.BYTES, cache.getVertexBytes());
+        assertTrue(cache.getBuildTimeNanos() >= 0);
+    }
+    
+    @Test
+    void testOnlyVisibleChunksAreDrawn() {
+        TiledMapTileLayer layer = layer(64, 16);
+        for (int x = 0; x < 64; x++) {
+            layer.setCell(x, 0, cell);
+        }
+        TileChunkCache cache = new TileChunkCache(layer, sink, 1f, 16);
+        cache.build();
+        
+        // Vue de 200x100 pixels centrée dans le deuxième bloc (256 à 512)
+        cache.render(camera(384, 50, 200, 100));
+        
+        assertEquals(1, cache.getDrawnChunksLastFrame());
+        assertEquals(1, sink.drawn.get(0));
+    }
+    
+    @Test
+    void testViewAcrossChunkBoundaryDrawsBoth() {
+        TiledMapTileLayer layer = layer(64, 16);
+        for (int x = 0; x < 64; x++) {
+            layer.setCell(x, 0, cell);
+        }
+        TileChunkCache cache = new TileChunkCache(layer, sink, 1f, 16);
+        cache.build();
+        
+        cache.render(camera(256, 50, 100, 100));
+        
+        assertEquals(2, cache.getDrawnChunksLastFrame());
+    }
+    
+    @Test
+    void testViewOutsideMapDrawsNothing() {
+        TiledMapTileLayer layer = layer(16, 16);
+        layer.setCell(0, 0, cell);
+        TileChunkCache cache = new TileChunkCache(layer, sink, 1f, 16);
+        cache.build();
+        
+        cache.render(camera(-1000, -1000, 100, 100));
+        
+        assertEquals(0, cache.getDrawnChunksLastFrame());
+        assertEquals(0, sink.beginCalls);
+    }
+    
+    @Test
+    void testMeterChunksAreCulledAgainstPixelCamera() {
+        // Échelle réelle du jeu : blocs en mètres, caméra de jeu en pixels
+        float ppm = Constants.WorldConfig.PPM;
+        TiledMapTileLayer layer = layer(64, 16);
+        for (int x = 0; x < 64; x++) {
+            layer.setCell(x, 0, cell);
+        }
+        TileChunkCache cache = new TileChunkCache(layer, sink, 1f / ppm, 16);
+        cache.build();
+        
+        // Blocs de 256 pixels : la vue est dans le deuxième
+        OrthographicCamera camera = camera(384, 50, 200, 100);
+        cache.render(camera, ppm);
+        
+        assertEquals(1, cache.getDrawnChunksLastFrame());
+        assertEquals(1, sink.drawn.get(0));
+        
+        cache.render(camera(1000, 50, 200, 100), ppm);
+        assertEquals(3, sink.drawn.get(1));
+    }
+    
+    @Test
+    void testMeterChunksAreProjectedAtCameraScale() {
+        float ppm = Constants.WorldConfig.PPM;
+        TiledMapTileLayer layer = layer(64, 16);
+        layer.setCell(24, 3, cell);
+        TileChunkCache cache = new TileChunkCache(layer, sink, 1f / ppm, 16);
+        cache.build();
+        
+        cache.render(camera(384, 50, 200, 100), ppm);
+        
+        // Le centre et le coin de la vue, donnés en mètres, tombent au centre et au coin de l'écran
+        Vector3 center = new Vector3(3.84f, 0.5f, 0).prj(sink.projection);
+        assertEquals(0f, center.x, 1e-4f);
+        assertEquals(0f, center.y, 1e-4f);
+        Vector3 corner = new Vector3(4.84f, 1f, 0).prj(sink.projection);
+        assertEquals(1f, corner.x, 1e-4f);
+        assertEquals(1f, corner.y, 1e-4f);
+        
+        // Sommets de la tuile en mètres
+        assertEquals(24 * TILE / ppm, sink.lastVertices[0], 1e-5f);
+        assertEquals(3 * TILE / ppm, sink.lastVertices[1], 1e-5f);
+    }
+    
+    @Test
+    void testTileVerticesUseUnitScale() {
+        TiledMapTileLayer layer = layer(4, 4);
+        layer.setCell(2, 1, cell);
+        TileChunkCache cache = new TileChunkCache(layer, sink, 1f / 16f, 16);
+        cache.build();
+        
+        // Coin inférieur gauche puis coin supérieur droit, en unités du monde
+        assertEquals(2f, sink.lastVertices[0], 1e-5f);
+        assertEquals(1f, sink.lastVertices[1], 1e-5f);
+        assertEquals(3f, sink.lastVertices[10], 1e-5f);
+        assertEquals(2f, sink.lastVertices[11], 1e-5f);
+    }
+    
+    @Test
+    void testHorizontalFlipSwapsU() {
+        TiledMapTileLayer layer = layer(1, 1);
+        Cell flipped = new Cell();
+        flipped.setTile(cell.getTile());
+        flipped.setFlipHorizontally(true);
+        layer.setCell(0, 0, flipped);
+        
+        new TileChunkCache(layer, sink, 1f, 16).build();
+        
+        // Texture 64 px, région de 16 px : u va de 0 à 0.25, inversé
+        assertEquals(0.25f, sink.lastVertices[3], 1e-5f);
+        assertEquals(0f, sink.lastVertices[13], 1e-5f);
+    }
+}
@@ -0,0 +1,243 @@
+package com.mariogame.world;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.mariogame.entities.Entity;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class ActivationZoneTest {
+
+    private static final float STEP = 1f / 60f;
+
+    @BeforeAll
+    static void loadNatives() {
+        Box2D.init();
+    }
+
+    /**
+     * Caisse qui journalise ses réveils.
+     */
+    private static class Crate extends Entity {
+        private final int tag;
+        private final List<Integer> wakeLog;
+
+        Crate(World world, float x, float y, int tag, List<Integer> wakeLog) {
+            super(world, x, y, 1f, 1f);
+            this.tag = tag;
+            this.wakeLog = wakeLog;
+        }
+
+        @Override
+        protected void createBody() {
+            BodyDef def = new BodyDef();
+            def.type = BodyDef.BodyType.DynamicBody;
+            def.position.set(position);
+            body = world.createBody(def);
+
+            PolygonShape shape = new PolygonShape();
+            shape.setAsBox(width / 2, height / 2);
+            body.createFixture(shape, 1f);
+            shape.dispose();
+        }
+
+        @Override
+        public void setDormant(boolean dormant) {
+            if (!dormant && isDormant()) {
+                wakeLog.add(tag);
+            }
+            super.setDormant(dormant);
+        }
+
+        @Override
+        public void render(SpriteBatch batch) {
+        }
+    }
+
+    /**
+     * Fait défiler la vue sur un niveau et renvoie l'ordre des réveils suivi des positions finales.
+     */
+    private static float[] simulate(List<Integer> wakeLog) {
+        World world = new World(new Vector2(0, -10), true);
+        try {
+            BodyDef groundDef = new BodyDef();
+            groundDef.position.set(50, -0.5f);
+            PolygonShape groundShape = new PolygonShape();
+            groundShape.setAsBox(60, 0.5f);
+            world.createBody(groundDef).createFixture(groundShape, 0f);
+            groundShape.dispose();
+
+            // L'ordre du tableau n'est pas celui des positions ; 1 et 3 entrent dans la même frame
+            float[][] spawns = {{30, 2}, {18, 2.5f}, {24, 2}, {18, 3.5f}, {40, 2}};
+            Array<Entity> entities = new Array<>();
+            for (int i = 0; i < spawns.length; i++) {
+                entities.add(new Crate(world, spawns[i][0], spawns[i][1], i, wakeLog));
+            }
+
+            ActivationZone zone = new ActivationZone(1f, 1f, 1f);
+            for (Entity entity : entities) {
+                zone.add(entity);
+            }
+            float viewX = 0f;
+            for (int frame = 0; frame < 120; frame++) {
+                zone.setView(viewX, 0, viewX + 10, 10);
+                zone.update();
+                world.step(STEP, 8, 3);
+                for (Entity entity : entities) {
+                    if (!entity.isDormant()) entity.update(STEP);
+                }
+                viewX += 0.3f;
+            }
+
+            float[] positions = new float[entities.size * 2];
+            for (int i = 0; i < entities.size; i++) {
+                positions[i * 2] = entities.get(i).getBody().getPosition().x;
+                positions[i * 2 + 1] = entities.get(i).getBody().getPosition().y;
+            }
+            return positions;
+        } finally {
+            world.dispose();
+        }
+    }
+
+    @Test
+    void testEntitiesWakeColumnByColumnAsTheViewReachesThem() {
+        List<Integer> wakes = new ArrayList<>();
+        simulate(wakes);
+
+        assertEquals(Arrays.asList(1, 3, 2, 0, 4), wakes);
+    }
+
+    @Test
+    void testWakeOrderAndPositionsAreDeterministic() {
+        List<Integer> firstWakes = new ArrayList<>();
+        List<Integer> secondWakes = new ArrayList<>();
+
+        float[] first = simulate(firstWakes);
+        float[] second = simulate(secondWakes);
+
+        assertEquals(firstWakes, secondWakes);
+        assertArrayEquals(first, second, 0f);
+    }
+
+    @Test
+    void testHysteresisKeepsEdgeEntitiesAwake() {
+        List<Integer> wakes = new ArrayList<>();
+        World world = new World(new Vector2(0, 0), true);
+        try {
+            Array<Entity> entities = new Array<>();
+            entities.add(new Crate(world, 11.2f, 5, 0, wakes));
+
+            ActivationZone zone = new ActivationZone(1f, 1f, 1f);
+            zone.add(entities.first());
+            zone.setView(0, 0, 10, 10);
+            zone.update();
+            assertFalse(entities.first().isDormant());
+
+            // Sortie de la marge, mais pas de la marge élargie
+            zone.setView(-1, 0, 9, 10);
+            zone.update();
+            assertFalse(entities.first().isDormant());
+
+            zone.setView(-5, 0, 5, 10);
+            zone.update();
+            assertTrue(entities.first().isDormant());
+            assertEquals(1, zone.getDormantCount());
+        } finally {
+            world.dispose();
+        }
+    }
+
+    @Test
+    void testOnlyColumnsAtTheEdgeOfTheZoneAreVisited() {
+        List<Integer> wakes = new ArrayList<>();
+        World world = new World(new Vector2(0, 0), true);
+        try {
+            ActivationZone zone = new ActivationZone(1f, 1f, 1f);
+            Array<Entity> entities = new Array<>();
+            for (int i = 0; i < 200; i++) {
+                Crate crate = new Crate(world, i + 0.5f, 5, i, wakes);
+                entities.add(crate);
+                zone.add(crate);
+            }
+
+            float viewX = 0f;
+            zone.setView(viewX, 0, viewX + 10, 10);
+            zone.update();
+            assertEquals(13, zone.getActiveCount());
+
+            for (int frame = 0; frame < 40; frame++) {
+                viewX += 0.25f;
+                zone.setView(viewX, 0, viewX + 10, 10);
+                zone.update();
+
+                // Quelques colonnes au bord, jamais les ~190 entités en sommeil
+                assertTrue(zone.getVisitedLastUpdate() <= 5);
+                assertEquals(200, zone.getActiveCount() + zone.getDormantCount());
+                for (Entity entity : entities) {
+                    float x = entity.getX();
+                    if (x + 0.5f >= viewX - 1 && x - 0.5f <= viewX + 11) {
+                        assertFalse(entity.isDormant());
+                    } else if (x + 0.5f < viewX - 2 || x - 0.5f > viewX + 12) {
+                        assertTrue(entity.isDormant());
+                    }
+                }
+            }
+        } finally {
+            world.dispose();
+        }
+    }
+
+    @Test
+    void testVerticalViewChangeWakesEntitiesAbove() {
+        List<Integer> wakes = new ArrayList<>();
+        World world = new World(new Vector2(0, 0), true);
+        try {
+            ActivationZone zone = new ActivationZone(1f, 1f, 1f);
+            Entity crate = new Crate(world, 5, 30, 0, wakes);
+            zone.add(crate);
+
+            zone.setView(0, 0, 10, 10);
+            zone.update();
+            assertTrue(crate.isDormant());
+
+            // Même colonnes, autre hauteur : la zone entière est reprise
+            zone.setView(0, 25, 10, 35);
+            zone.update();
+            assertFalse(crate.isDormant());
+            assertEquals(Arrays.asList(0), wakes);
+        } finally {
+            world.dispose();
+        }
+    }
+
+    @Test
+    void testDisabledZoneWakesEverything() {
+        List<Integer> wakes = new ArrayList<>();
+        World world = new World(new Vector2(0, 0), true);
+        try {
+            ActivationZone zone = new ActivationZone(1f, 1f, 1f);
+            zone.add(new Crate(world, 50, 5, 0, wakes));
+            zone.add(new Crate(world, 80, 5, 1, wakes));
+            zone.setView(0, 0, 10, 10);
+            zone.update();
+            assertEquals(2, zone.getDormantCount());
+
+            zone.setEnabled(false);
+            zone.update();
+            assertEquals(0, zone.getDormantCount());
+            assertEquals(2, zone.getActiveCount());
+            assertEquals(2, zone.getWokenLastUpdate());
+        } finally {
+            world.dispose();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.mariogame.world;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.mariogame.utils.Constants;
+import com.mariogame.utils.MapLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+class LevelPrefetcherTest {
+    
+    // Carte sans tileset : aucune image à décoder, donc aucune dépendance native
+    private static final String MAP = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<map version=\"1.9\" orientation=\"orthogonal\" width=\"3\" height=\"2\" tilewidth=\"16\" tileheight=\"16\">\n"
+        + " <layer name=\"ground\" width=\"3\" height=\"2\">\n"
+        + "  <data encoding=\"csv\">0,0,0,\n1,1,1</data>\n"
+        + " </layer>\n"
+        + " <objectgroup name=\"objects\">\n"
+        + "  <object id=\"1\" x=\"4\" y=\"2\" width=\"8\" height=\"12\">\n"
+        + "   <properties><property name=\"player_start\" value=\"true\"/></properties>\n"
+        + "  </object>\n"
+        + "  <object id=\"2\" x=\"24\" y=\"0\" width=\"16\" height=\"16\">\n"
+        + "   <properties><property name=\"enemies\" value=\"true\"/><property name=\"type\" value=\"goomba\"/></properties>\n"
+        + "  </object>\n"
+        + " </objectgroup>\n"
+        + "</map>\n";
+    
+    private Path root;
+    private Files files;
+    private LevelPrefetcher prefetcher;
+    private Application previousApp;
+    private Files previousFiles;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        previousApp = Gdx.app;
+        previousFiles = Gdx.files;
+        
+        root = java.nio.file.Files.createTempDirectory("levels");
+        File maps = new File(root.toFile(), "maps");
+        assertTrue(maps.mkdirs());
+        for (String level : new String[]{"1-2", "1-3"}) {
+            java.nio.file.Files.write(new File(maps, level + ".tmx").toPath(), MAP.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        Gdx.app = mock(Application.class);
+        files = mock(Files.class);
+        when(files.internal(anyString()))
+            .thenAnswer(invocation -> new FileHandle(new File(root.toFile(), invocation.getArgument(0))));
+        Gdx.files = files;
+        
+        prefetcher = new LevelPrefetcher();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        prefetcher.dispose();
+        Gdx.app = previousApp;
+        Gdx.files = previousFiles;
+    }
+    
+    @Test
+    void testNextLevelName() {
+        assertEquals("1-2", LevelPrefetcher.nextLevelName("1-1"));
+        assertEquals("2-1", LevelPrefetcher.nextLevelName("1-4"));
+        assertNull(LevelPrefetcher.nextLevelName("8-4"));
+        assertNull(LevelPrefetcher.nextLevelName("bonus"));
+        assertNull(LevelPrefetcher.nextLevelName(null));
+    }
+    
+    @Test
+    void testTmxIsCompiledInBackground() {
+        prefetcher.prefetch("1-2");
+        LevelPrefetcher.PreparedLevel level = prefetcher.take("1-2");
+        
+        assertNotNull(level);
+        assertEquals("1-2", level.getLevelName());
+        assertEquals(3, level.getCompiledLevel().getWidth());
+        assertEquals(1, level.getCompiledLevel().getCollisionRectCount());
+        assertTrue(level.getPrepareNanos() > 0);
+        
+        // Un niveau préparé n'est remis qu'une fois
+        assertNull(prefetcher.take("1-2"));
+        level.dispose();
+    }
+    
+    @Test
+    void testPrefetchedSpawnsMatchTmxLoad() {
+        prefetcher.prefetch("1-2");
+        LevelPrefetcher.PreparedLevel level = prefetcher.take("1-2");
+        assertNotNull(level);
+        
+        TiledMap map = new TmxMapLoader().load("maps/1-2.tmx");
+        MapLoader fromTmx = new MapLoader(null, map);
+        float unitScale = 1 / Constants.WorldConfig.PPM;
+        
+        Array<Vector2> expected = fromTmx.getObjectPositions("enemies", "goomba");
+        Array<Vector2> actual = new Array<>();
+        assertEquals(1, level.getCompiledLevel().getSpawns("enemies", "goomba", unitScale, actual));
+        assertEquals(expected.get(0).x, actual.get(0).x, 1e-5f);
+        assertEquals(expected.get(0).y, actual.get(0).y, 1e-5f);
+        
+        Vector2 start = fromTmx.getObjectPositions("player_start", "").first();
+        Vector2 prefetchedStart = level.getCompiledLevel().getLastSpawn("player_start", unitScale);
+        assertEquals(start.x, prefetchedStart.x, 1e-5f);
+        assertEquals(start.y, prefetchedStart.y, 1e-5f);
+        
+        map.dispose();
+        level.dispose();
+    }
+    
+    @Test
+    void testPollNeverBlocks() throws InterruptedException {
+        assertNull(prefetcher.poll("1-2"));
+        
+        prefetcher.prefetch("1-2");
+        assertTrue(prefetcher.isRequested("1-2"));
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (prefetcher.isPending("1-2") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        
+        LevelPrefetcher.PreparedLevel level = prefetcher.poll("1-2");
+        assertNotNull(level);
+        assertFalse(prefetcher.isRequested("1-2"));
+        assertNull(prefetcher.poll("1-2"));
+        level.dispose();
+    }
+    
+    @Test
+    void testSameLevelIsPreparedOnce() {
+        prefetcher.prefetch("1-2");
+        prefetcher.prefetch("1-2");
+        assertNotNull(prefetcher.take("1-2"));
+        
+        verify(files, times(1)).internal("maps/1-2.tmx");
+    }
+    
+    @Test
+    void testAnotherLevelReplacesThePendingOne() {
+        prefetcher.prefetch("1-2");
+        prefetcher.prefetch("1-3");
+        
+        assertFalse(prefetcher.isRequested("1-2"));
+        assertNull(prefetcher.take("1-2"));
+        assertNotNull(prefetcher.take("1-3"));
+    }
+    
+    @Test
+    void testMissingLevelIsReportedNotThrown() {
+        prefetcher.prefetch("9-9");
+        
+        assertNull(prefetcher.take("9-9"));
+        verify(Gdx.app).error(eq("LevelPrefetcher"), contains("9-9"), any(Throwable.class));
+    }
+}
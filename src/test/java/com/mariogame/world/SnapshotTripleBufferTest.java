@@ -0,0 +1,160 @@
+package com.mariogame.world;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SnapshotTripleBufferTest {
+    
+    private SnapshotTripleBuffer buffer;
+    private final RenderSnapshot previous = new RenderSnapshot();
+    
+    @BeforeEach
+    void setUp() {
+        buffer = new SnapshotTripleBuffer();
+    }
+    
+    private void publish(long tick, int sprites) {
+        RenderSnapshot snapshot = buffer.getWriteBuffer();
+        snapshot.clear();
+        for (int i = 0; i < sprites; i++) {
+            snapshot.add(i, tick, tick, 1f, 1f, i, (i & 1) == 0);
+        }
+        snapshot.setTick(tick, tick);
+        buffer.publish();
+    }
+    
+    private void receive() {
+        if (buffer.hasFresh()) {
+            previous.set(buffer.getReadBuffer());
+            buffer.acquire();
+        }
+    }
+    
+    @Test
+    void testConsumerSeesLatestSnapshot() {
+        publish(1, 3);
+        publish(2, 3);
+        
+        assertTrue(buffer.acquire());
+        assertEquals(2, buffer.getReadBuffer().getTick());
+        assertEquals(1, buffer.getOverwrittenCount());
+        
+        // Rien de nouveau : le tampon de lecture ne change pas
+        assertFalse(buffer.acquire());
+        assertEquals(2, buffer.getReadBuffer().getTick());
+    }
+    
+    @Test
+    void testProducerNeverWritesIntoReadBuffer() {
+        for (int tick = 0; tick < 20; tick++) {
+            publish(tick, 1);
+            if (tick % 3 == 0) {
+                buffer.acquire();
+            }
+            assertNotSame(buffer.getWriteBuffer(), buffer.getReadBuffer());
+        }
+    }
+    
+    @Test
+    void testPreviousSnapshotIsKeptForInterpolation() {
+        publish(1, 2);
+        receive();
+        publish(2, 2);
+        receive();
+        
+        assertEquals(1, previous.getTick());
+        assertEquals(2, buffer.getReadBuffer().getTick());
+        assertEquals(1f, previous.getX(1), 0f);
+        assertEquals(2f, buffer.getReadBuffer().getX(1), 0f);
+    }
+    
+    @Test
+    void testIndexOfStartsFromHint() {
+        RenderSnapshot snapshot = new RenderSnapshot();
+        snapshot.add(10, 0, 0, 1, 1, 0, false);
+        snapshot.add(11, 0, 0, 1, 1, 0, false);
+        snapshot.add(12, 0, 0, 1, 1, 0, false);
+        
+        assertEquals(2, snapshot.indexOf(12, 1));
+        assertEquals(0, snapshot.indexOf(10, 2));
+        assertEquals(-1, snapshot.indexOf(13, 0));
+    }
+    
+    @Test
+    void testLightIsCopiedWithTheSprite() {
+        RenderSnapshot snapshot = new RenderSnapshot();
+        snapshot.add(10, 0, 0, 1, 1, 0, false);
+        snapshot.add(11, 0, 0, 1, 1, 0, false, 0.4f);
+        
+        RenderSnapshot copy = new RenderSnapshot();
+        copy.set(snapshot);
+        
+        // Sans éclairage, le sprite est en pleine lumière
+        assertEquals(1f, copy.getLight(0), 0f);
+        assertEquals(0.4f, copy.getLight(1), 0f);
+    }
+    
+    @Test
+    void testConcurrentSnapshotsAreNeverTorn() throws InterruptedException {
+        final int ticks = 20_000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        
+        Thread producer = new Thread(() -> {
+            for (int tick = 0; tick < ticks; tick++) {
+                publish(tick, 32);
+            }
+        });
+        producer.start();
+        
+        long lastTick = -1;
+        while (lastTick < ticks - 1 && failure.get() == null) {
+            if (!buffer.acquire()) continue;
+            
+            RenderSnapshot snapshot = buffer.getReadBuffer();
+            long tick = snapshot.getTick();
+            assertTrue(tick >= lastTick);
+            assertEquals(32, snapshot.getCount());
+            for (int i = 0; i < snapshot.getCount(); i++) {
+                assertEquals((float) tick, snapshot.getX(i), 0f);
+            }
+            lastTick = tick;
+        }
+        producer.join();
+        
+        assertEquals(ticks - 1, lastTick);
+    }
+    
+    @Test
+    void testPublicationDoesNotAllocateAfterWarmUp() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+        
+        // Préchauffage : les tableaux des trois tampons et de la copie atteignent leur taille
+        for (int tick = 0; tick < 2_000; tick++) {
+            publish(tick, 200);
+            receive();
+        }
+        
+        // Coût de la mesure elle-même
+        long before = threads.getThreadAllocatedBytes(threadId);
+        long overhead = threads.getThreadAllocatedBytes(threadId) - before;
+        
+        before = threads.getThreadAllocatedBytes(threadId);
+        for (int tick = 0; tick < 2_000; tick++) {
+            publish(tick, 200);
+            receive();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        
+        assertTrue(allocated <= overhead, "Allocated " + allocated + " bytes after warm-up");
+    }
+}
@@ -0,0 +1,72 @@
+package com.mariogame.world;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TileOccupancyTest {
+    
+    private TileOccupancy occupancy;
+    
+    @BeforeEach
+    void setUp() {
+        // Grille de 10x6 tuiles de 0,5 m avec un mur vertical en x = 5
+        boolean[] solid = new boolean[10 * 6];
+        for (int y = 0; y < 6; y++) {
+            solid[y * 10 + 5] = true;
+        }
+        occupancy = TileOccupancy.fromSolidTiles(solid, 10, 6, 0.5f);
+    }
+    
+    @Test
+    void testSolidLookup() {
+        assertTrue(occupancy.isSolid(5, 3));
+        assertFalse(occupancy.isSolid(4, 3));
+        assertTrue(occupancy.isSolidAt(2.7f, 1.2f));
+        
+        // Hors de la grille : libre
+        assertFalse(occupancy.isSolid(-1, 0));
+        assertFalse(occupancy.isSolid(5, 6));
+    }
+    
+    @Test
+    void testWallBlocksSegment() {
+        assertFalse(occupancy.isSegmentClear(0.5f, 1.5f, 4.5f, 1.5f));
+        assertFalse(occupancy.isSegmentClear(4.5f, 0.2f, 0.5f, 2.8f));
+        assertTrue(occupancy.isSegmentClear(0.5f, 0.5f, 2.2f, 2.8f));
+    }
+    
+    @Test
+    void testEndpointTilesDoNotBlock() {
+        // La face éclairée du mur reste visible
+        assertTrue(occupancy.isSegmentClear(1f, 1.5f, 2.75f, 1.5f));
+        assertTrue(occupancy.isSegmentClear(2.75f, 1.5f, 1f, 1.5f));
+    }
+    
+    @Test
+    void testChangesNotifyListeners() {
+        int[] notified = new int[3];
+        occupancy.addListener((tileX, tileY) -> {
+            notified[0]++;
+            notified[1] = tileX;
+            notified[2] = tileY;
+        });
+        
+        assertTrue(occupancy.setSolid(5, 2, false));
+        assertFalse(occupancy.setSolid(5, 2, false));
+        
+        assertEquals(1, notified[0]);
+        assertEquals(5, notified[1]);
+        assertEquals(2, notified[2]);
+        assertTrue(occupancy.isSegmentClear(0.5f, 1.25f, 4.5f, 1.25f));
+    }
+    
+    @Test
+    void testSegmentVisitsOnlyCrossedTiles() {
+        occupancy.isSegmentClear(0.25f, 0.25f, 2.25f, 0.25f);
+        
+        // Tuiles 1 à 3 : la tuile de départ et celle d'arrivée ne sont pas testées
+        assertEquals(3, occupancy.getTilesVisited());
+    }
+}